@@ -0,0 +1,112 @@
+package com.oceanbutterflyshop.backend.aspects;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.oceanbutterflyshop.backend.dtos.response.OptimisticLockStatsResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Thử lại các thao tác ghi có @RetryOnOptimisticLock khi version của entity đã bị thay đổi.
+ *
+ * - Chạy ngoài interceptor transaction (độ ưu tiên cao nhất) nên mỗi lần thử là một transaction mới,
+ *   đọc lại dữ liệu và xác thực lại từ đầu
+ * - Chờ theo hàm mũ có giới hạn, kèm nhiễu ngẫu nhiên để các yêu cầu xung đột không thử lại cùng lúc
+ * - Hết số lần thử thì ném lại lỗi (HTTP 409 qua GlobalExceptionHandler)
+ * - Đếm số lần gọi/xung đột/thử lại theo từng thao tác (GET /api/v1/metrics/optimistic-locks)
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class OptimisticLockRetryAspect {
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+
+    private final Map<String, Counters> countersByOperation = new ConcurrentHashMap<>();
+
+    // Không bind annotation vào tham số: advice gọi proceed() nhiều lần trên cùng một join point
+    @Around("@annotation(com.oceanbutterflyshop.backend.aspects.RetryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        // Đã ở trong transaction của người gọi: persistence context không dùng lại được sau xung đột,
+        // chỉ lời gọi ngoài cùng mới thử lại
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        RetryOnOptimisticLock retry = AnnotationUtils.findAnnotation(signature.getMethod(), RetryOnOptimisticLock.class);
+        String operation = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        Counters counters = countersByOperation.computeIfAbsent(operation, key -> new Counters());
+        counters.calls.increment();
+
+        long backoffMillis = retry.initialBackoffMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                counters.conflicts.increment();
+                if (attempt >= retry.maxAttempts()) {
+                    counters.exhausted.increment();
+                    log.warn("{} still conflicting after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw e;
+                }
+                counters.retries.increment();
+                log.debug("{} hit an optimistic lock conflict, retrying (attempt {})", operation, attempt + 1);
+                sleep(ThreadLocalRandom.current().nextLong(backoffMillis / 2, backoffMillis + 1), e);
+                backoffMillis = Math.min(backoffMillis * 2, retry.maxBackoffMillis());
+            }
+        }
+    }
+
+    public List<OptimisticLockStatsResponse> getStats() {
+        return countersByOperation.entrySet().stream()
+                .map(entry -> {
+                    Counters counters = entry.getValue();
+                    long calls = counters.calls.sum();
+                    long conflicts = counters.conflicts.sum();
+                    long attempts = calls + counters.retries.sum();
+                    return OptimisticLockStatsResponse.builder()
+                            .operation(entry.getKey())
+                            .calls(calls)
+                            .attempts(attempts)
+                            .conflicts(conflicts)
+                            .retries(counters.retries.sum())
+                            .exhausted(counters.exhausted.sum())
+                            .conflictRate(attempts > 0 ? (double) conflicts / attempts : 0.0)
+                            .build();
+                })
+                .sorted(Comparator.comparing(OptimisticLockStatsResponse::getOperation))
+                .toList();
+    }
+
+    private static void sleep(long millis, OptimisticLockingFailureException cause) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
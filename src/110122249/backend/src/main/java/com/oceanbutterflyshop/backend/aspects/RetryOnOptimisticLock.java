@@ -0,0 +1,30 @@
+package com.oceanbutterflyshop.backend.aspects;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Chạy lại phương thức (kèm transaction của nó) khi gặp xung đột khóa lạc quan.
+ * Chỉ có tác dụng ở lời gọi ngoài cùng: nếu đã có transaction của người gọi thì lỗi được ném tiếp
+ * để lớp ngoài xử lý.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnOptimisticLock {
+
+    /**
+     * Tổng số lần chạy (gồm lần đầu)
+     */
+    int maxAttempts() default 4;
+
+    /**
+     * Thời gian chờ trước lần thử lại đầu tiên; nhân đôi sau mỗi lần
+     */
+    long initialBackoffMillis() default 20;
+
+    long maxBackoffMillis() default 500;
+}
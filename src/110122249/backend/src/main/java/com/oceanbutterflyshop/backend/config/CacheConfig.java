@@ -0,0 +1,128 @@
+package com.oceanbutterflyshop.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.oceanbutterflyshop.backend.dtos.response.ImageResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderItemResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
+import com.oceanbutterflyshop.backend.dtos.response.SalesSeriesResponse;
+import com.oceanbutterflyshop.backend.dtos.response.SalesTimeSeriesResponse;
+import com.oceanbutterflyshop.backend.services.IdempotencyService;
+import com.oceanbutterflyshop.backend.services.SalesTimeSeriesService;
+import com.oceanbutterflyshop.backend.utils.BoundedTtlCache;
+
+/**
+ * Cấu hình các cache trong bộ nhớ
+ *
+ * Có thể được ghi đè trong application.properties hoặc application-dev.properties:
+ * - cache.product-detail.max-size-mb: dung lượng tối đa (ước lượng) của cache chi tiết sản phẩm
+ * - cache.product-detail.ttl-minutes: thời gian sống của mỗi phần tử
+ * - idempotency.cache.max-size-mb, idempotency.ttl-hours: cache kết quả theo Idempotency-Key
+ * - dashboard.timeseries.cache.max-size-mb, dashboard.timeseries.ttl-seconds: cache biểu đồ doanh số theo thời gian
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Cache ProductResponse đã ánh xạ đầy đủ cho GET /api/v1/products/{id}.
+     * Được vô hiệu hóa chính xác theo sản phẩm qua ProductChangedEvent/BrandChangedEvent.
+     */
+    @Bean
+    public BoundedTtlCache<Integer, ProductResponse> productDetailCache(
+            @Value("${cache.product-detail.max-size-mb:16}") long maxSizeMb,
+            @Value("${cache.product-detail.ttl-minutes:10}") long ttlMinutes) {
+        return new BoundedTtlCache<>(
+            "productDetail",
+            maxSizeMb * 1024 * 1024,
+            Duration.ofMinutes(ttlMinutes),
+            CacheConfig::estimateSize
+        );
+    }
+
+    /**
+     * Cache kết quả tạo đơn hàng theo Idempotency-Key (POST /api/v1/orders).
+     * Ở chế độ database, đây là lớp cache cục bộ phía trước bảng idempotency_records.
+     */
+    @Bean
+    public BoundedTtlCache<String, IdempotencyService.CompletedRequest> idempotencyCache(
+            @Value("${idempotency.cache.max-size-mb:8}") long maxSizeMb,
+            @Value("${idempotency.ttl-hours:24}") long ttlHours) {
+        return new BoundedTtlCache<>(
+            "idempotency",
+            maxSizeMb * 1024 * 1024,
+            Duration.ofHours(ttlHours),
+            completed -> 64 + 40 + 2L * completed.requestHash().length() + estimateSize(completed.response())
+        );
+    }
+
+    /**
+     * Cache biểu đồ doanh số theo (from, to, bucket, groupBy) cho GET /api/v1/dashboard/timeseries.
+     * Không vô hiệu hóa theo đơn hàng: số liệu của hôm nay trễ tối đa một TTL.
+     */
+    @Bean
+    public BoundedTtlCache<SalesTimeSeriesService.SeriesKey, SalesTimeSeriesResponse> salesTimeSeriesCache(
+            @Value("${dashboard.timeseries.cache.max-size-mb:8}") long maxSizeMb,
+            @Value("${dashboard.timeseries.ttl-seconds:60}") long ttlSeconds) {
+        return new BoundedTtlCache<>(
+            "salesTimeSeries",
+            maxSizeMb * 1024 * 1024,
+            Duration.ofSeconds(ttlSeconds),
+            CacheConfig::estimateSize
+        );
+    }
+
+    /**
+     * Ước lượng số byte mà một ProductResponse chiếm trong heap (chuỗi UTF-16 + chi phí đối tượng)
+     */
+    static long estimateSize(ProductResponse product) {
+        long size = 256;
+        size += sizeOf(product.getProductCode()) + sizeOf(product.getProductName())
+                + sizeOf(product.getProductDescription()) + sizeOf(product.getProductStatus())
+                + sizeOf(product.getProductCategory()) + sizeOf(product.getBrandCode())
+                + sizeOf(product.getBrandName()) + sizeOf(product.getBrandDescription());
+        if (product.getImages() != null) {
+            for (ImageResponse image : product.getImages()) {
+                size += 96 + sizeOf(image.getImageName()) + sizeOf(image.getImageURL())
+                        + sizeOf(image.getProductName());
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Ước lượng số byte mà một OrderResponse chiếm trong heap
+     */
+    static long estimateSize(OrderResponse order) {
+        long size = 256;
+        size += sizeOf(order.getOrderCode()) + sizeOf(order.getOrderStatus())
+                + sizeOf(order.getShippingAddress()) + sizeOf(order.getShippingPhone())
+                + sizeOf(order.getPaymentMethod()) + sizeOf(order.getUserName()) + sizeOf(order.getUserPhone());
+        if (order.getOrderItems() != null) {
+            for (OrderItemResponse item : order.getOrderItems()) {
+                size += 128 + sizeOf(item.getProductName()) + sizeOf(item.getProductCode())
+                        + sizeOf(item.getBrandName()) + sizeOf(item.getProductImage());
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Ước lượng số byte mà một SalesTimeSeriesResponse chiếm trong heap (mỗi điểm: LocalDate/Long/BigDecimal)
+     */
+    static long estimateSize(SalesTimeSeriesResponse timeSeries) {
+        long size = 256 + 48L * timeSeries.getBucketStarts().size();
+        for (SalesSeriesResponse series : timeSeries.getSeries()) {
+            size += 128 + sizeOf(series.getKey()) + sizeOf(series.getLabel()) + 112L * series.getOrders().size();
+        }
+        return size;
+    }
+
+    private static long sizeOf(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
@@ -1,6 +1,7 @@
 package com.oceanbutterflyshop.backend.config;
 
 import lombok.RequiredArgsConstructor;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -78,6 +79,9 @@ public class SecurityConfig {
                 // Cho phép tất cả OPTIONS requests (CORS preflight)
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 
+                // Lượt dispatch ASYNC chỉ ghi kết quả (DeferredResult, StreamingResponseBody) của request đã được phân quyền
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                
                 // Các endpoint công khai - không yêu cầu xác thực
                 .requestMatchers("/api/v1/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/v1/products/**").permitAll()  // Chỉ GET được phép cho khách
@@ -5,7 +5,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.oceanbutterflyshop.backend.dtos.ApiResponse;
 import com.oceanbutterflyshop.backend.dtos.request.BrandRequest;
 import com.oceanbutterflyshop.backend.dtos.response.BrandResponse;
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
 import com.oceanbutterflyshop.backend.services.BrandService;
+import com.oceanbutterflyshop.backend.services.CatalogVersionService;
+import com.oceanbutterflyshop.backend.utils.ConditionalRequestUtils;
 
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,6 +27,7 @@ import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.context.request.WebRequest;
 
 
 @RestController
@@ -32,17 +36,26 @@ import org.springframework.web.bind.annotation.PutMapping;
 @Tag(name = "Brand Management", description = "APIs for managing brands")
 public class BrandController {
     private final BrandService brandService;
+    private final CatalogVersionService catalogVersionService;
 
     @Operation(summary = "Get all brands")
     @GetMapping
-    public ResponseEntity<ApiResponse<List<BrandResponse>>> getAllBrands() {
+    public ResponseEntity<ApiResponse<List<BrandResponse>>> getAllBrands(WebRequest webRequest) {
+        CatalogVersionService.Version version = catalogVersionService.collectionVersion(CatalogScope.BRAND);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         List<BrandResponse> brands = brandService.getAllBrands();
         return ResponseEntity.ok(ApiResponse.success("Brands retrieved successfully", brands));
     }
     
     @Operation(summary = "Get brand by ID")
     @GetMapping("/{brandId}")
-    public ResponseEntity<ApiResponse<BrandResponse>> getBrandById(@PathVariable Integer brandId) {
+    public ResponseEntity<ApiResponse<BrandResponse>> getBrandById(@PathVariable Integer brandId, WebRequest webRequest) {
+        CatalogVersionService.Version version = catalogVersionService.entryVersion(CatalogScope.BRAND, brandId);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         BrandResponse brand = brandService.getBrandById(brandId);
         return ResponseEntity.ok(ApiResponse.success("Brand retrieved successfully", brand));
     }
@@ -0,0 +1,31 @@
+package com.oceanbutterflyshop.backend.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.oceanbutterflyshop.backend.dtos.ApiResponse;
+import com.oceanbutterflyshop.backend.dtos.request.CartPriceRequest;
+import com.oceanbutterflyshop.backend.dtos.response.CartPriceResponse;
+import com.oceanbutterflyshop.backend.services.CartPricingService;
+
+@RestController
+@RequestMapping("/api/v1/cart")
+@RequiredArgsConstructor
+@Tag(name = "Cart", description = "APIs for pricing shopping carts")
+public class CartController {
+
+    private final CartPricingService cartPricingService;
+
+    @PostMapping("/price")
+    @Operation(summary = "Price a shopping cart", description = "Current unit price, line total and stock availability of every cart line, plus the cart total. Uses the same pricing as order creation.")
+    public ResponseEntity<ApiResponse<CartPriceResponse>> priceCart(@Valid @RequestBody CartPriceRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Cart priced successfully", cartPricingService.priceCart(request)));
+    }
+}
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,9 +15,16 @@ import org.springframework.web.bind.annotation.RestController;
 import com.oceanbutterflyshop.backend.dtos.ApiResponse;
 import com.oceanbutterflyshop.backend.dtos.response.DashboardStatsResponse;
 import com.oceanbutterflyshop.backend.dtos.response.RecentOrderResponse;
+import com.oceanbutterflyshop.backend.dtos.response.SalesTimeSeriesResponse;
 import com.oceanbutterflyshop.backend.dtos.response.TopProductResponse;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.SalesGroupBy;
+import com.oceanbutterflyshop.backend.enums.TimeBucket;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
 import com.oceanbutterflyshop.backend.services.DashboardService;
+import com.oceanbutterflyshop.backend.services.SalesTimeSeriesService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -26,6 +34,7 @@ import java.util.List;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final SalesTimeSeriesService salesTimeSeriesService;
 
     @Operation(
         summary = "Get dashboard statistics",
@@ -54,15 +63,58 @@ public class DashboardController {
     
     @Operation(
         summary = "Get top selling products",
-        description = "Retrieve best-selling products for dashboard. Requires ADMIN or STAFF role."
+        description = "Retrieve best-selling products for dashboard, optionally within an order date range and category. Requires ADMIN or STAFF role."
     )
     @GetMapping("/top-products")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<List<TopProductResponse>>> getTopProducts(
             @Parameter(description = "Number of products to return", example = "5")
-            @RequestParam(required = false, defaultValue = "5") Integer limit
+            @RequestParam(required = false, defaultValue = "5") Integer limit,
+            @Parameter(description = "First order day (inclusive, ISO date); requires 'to'", example = "2026-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last order day (inclusive, ISO date); requires 'from'", example = "2026-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "MAKEUP, SKINCARE or HAIRCARE", example = "SKINCARE")
+            @RequestParam(required = false) String category
     ) {
-        List<TopProductResponse> products = dashboardService.getTopSellingProducts(limit);
+        List<TopProductResponse> products = dashboardService.getTopSellingProducts(limit, from, to,
+                category != null ? parseEnum(ProductCategory.class, category, "category") : null);
         return ResponseEntity.ok(ApiResponse.success("Top selling products retrieved successfully", products));
     }
+    
+    @Operation(
+        summary = "Get sales time series",
+        description = """
+            Revenue and order counts per day, week (starting Monday) or month over [from, to], for charts.
+            Buckets without orders are returned as zero. Requires ADMIN or STAFF role.
+            
+            - groupBy: NONE (default), STATUS, PAYMENT_METHOD, CATEGORY or BRAND; cancelled orders are excluded unless grouped by STATUS
+            - CATEGORY/BRAND: revenue is the items' amount; an order with two products of the same group counts twice
+            - Results are cached briefly per (from, to, bucket, groupBy)
+            """
+    )
+    @GetMapping("/timeseries")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<SalesTimeSeriesResponse>> getTimeSeries(
+            @Parameter(description = "First day (inclusive, ISO date)", example = "2026-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive, ISO date)", example = "2026-03-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "DAY, WEEK or MONTH", example = "DAY")
+            @RequestParam(defaultValue = "DAY") String bucket,
+            @Parameter(description = "NONE, STATUS, PAYMENT_METHOD, CATEGORY or BRAND", example = "STATUS")
+            @RequestParam(defaultValue = "NONE") String groupBy
+    ) {
+        SalesTimeSeriesResponse timeSeries = salesTimeSeriesService.getTimeSeries(from, to,
+                parseEnum(TimeBucket.class, bucket, "bucket"), parseEnum(SalesGroupBy.class, groupBy, "groupBy"));
+        return ResponseEntity.ok(ApiResponse.success("Sales time series retrieved successfully", timeSeries));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + name + ": " + value);
+        }
+    }
 }
\ No newline at end of file
@@ -19,14 +19,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.oceanbutterflyshop.backend.dtos.ApiResponse;
 import com.oceanbutterflyshop.backend.dtos.ImageDTO;
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
 import com.oceanbutterflyshop.backend.exceptions.ResourceNotFoundException;
 import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.services.CatalogVersionService;
 import com.oceanbutterflyshop.backend.services.FileStorageService;
 import com.oceanbutterflyshop.backend.services.ImageService;
+import com.oceanbutterflyshop.backend.utils.ConditionalRequestUtils;
 
 import java.util.List;
 
@@ -37,26 +41,40 @@ import java.util.List;
 public class ImageController {
 
     private final ImageService imageService;
+    private final CatalogVersionService catalogVersionService;
     private final FileStorageService fileStorageService;
     private final ProductRepository productRepository;
 
     @GetMapping
     @Operation(summary = "Get all images")
-    public ResponseEntity<ApiResponse<List<ImageDTO>>> getAllImages() {
+    public ResponseEntity<ApiResponse<List<ImageDTO>>> getAllImages(WebRequest webRequest) {
+        CatalogVersionService.Version version = catalogVersionService.collectionVersion(CatalogScope.IMAGE);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         List<ImageDTO> images = imageService.getAllImages();
         return ResponseEntity.ok(ApiResponse.success("Images retrieved successfully", images));
     }
 
     @GetMapping("/{imageId}")
     @Operation(summary = "Get image by ID")
-    public ResponseEntity<ApiResponse<ImageDTO>> getImageById(@PathVariable Integer imageId) {
+    public ResponseEntity<ApiResponse<ImageDTO>> getImageById(@PathVariable Integer imageId, WebRequest webRequest) {
+        // Phiên bản hình ảnh được theo dõi theo sản phẩm nên dùng phiên bản của cả tập
+        CatalogVersionService.Version version = catalogVersionService.collectionVersion(CatalogScope.IMAGE);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         ImageDTO image = imageService.getImageById(imageId);
         return ResponseEntity.ok(ApiResponse.success("Image retrieved successfully", image));
     }
 
     @GetMapping("/product/{productId}")
     @Operation(summary = "Get images by product ID")
-    public ResponseEntity<ApiResponse<List<ImageDTO>>> getImagesByProductId(@PathVariable Integer productId) {
+    public ResponseEntity<ApiResponse<List<ImageDTO>>> getImagesByProductId(@PathVariable Integer productId, WebRequest webRequest) {
+        CatalogVersionService.Version version = catalogVersionService.entryVersion(CatalogScope.IMAGE, productId);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         List<ImageDTO> images = imageService.getImagesByProductId(productId);
         return ResponseEntity.ok(ApiResponse.success("Product images retrieved successfully", images));
     }
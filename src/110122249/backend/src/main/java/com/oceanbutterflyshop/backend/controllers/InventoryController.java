@@ -0,0 +1,45 @@
+package com.oceanbutterflyshop.backend.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.oceanbutterflyshop.backend.dtos.ApiResponse;
+import com.oceanbutterflyshop.backend.dtos.request.StockAdjustmentRequest;
+import com.oceanbutterflyshop.backend.dtos.response.InventoryResponse;
+import com.oceanbutterflyshop.backend.services.InventoryService;
+
+@RestController
+@RequestMapping("/api/v1/inventory")
+@RequiredArgsConstructor
+@Tag(name = "Inventory", description = "APIs for inspecting and adjusting product stock")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @GetMapping("/{productId}")
+    @PreAuthorize("hasAnyRole('ADMIN','STAFF')")
+    @Operation(summary = "Get product stock", description = "Available stock, stock persisted in the products table and journal entries not yet flushed. Requires ADMIN or STAFF role.")
+    public ResponseEntity<ApiResponse<InventoryResponse>> getInventory(@PathVariable Integer productId) {
+        return ResponseEntity.ok(ApiResponse.success("Inventory retrieved successfully", inventoryService.getInventory(productId)));
+    }
+
+    @PostMapping("/{productId}/adjustments")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Adjust product stock", description = "Add (positive delta) or remove (negative delta) stock. Stock can never become negative. Requires ADMIN role.")
+    public ResponseEntity<ApiResponse<InventoryResponse>> adjustStock(
+            @PathVariable Integer productId,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        inventoryService.adjustStock(productId, request.getDelta());
+        return ResponseEntity.ok(ApiResponse.success("Stock adjusted successfully", inventoryService.getInventory(productId)));
+    }
+}
@@ -0,0 +1,54 @@
+package com.oceanbutterflyshop.backend.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.oceanbutterflyshop.backend.aspects.OptimisticLockRetryAspect;
+import com.oceanbutterflyshop.backend.dtos.ApiResponse;
+import com.oceanbutterflyshop.backend.dtos.response.CacheStatsResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OptimisticLockStatsResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderIntakeStatsResponse;
+import com.oceanbutterflyshop.backend.services.OrderIntakeService;
+import com.oceanbutterflyshop.backend.utils.BoundedTtlCache;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/v1/metrics")
+@RequiredArgsConstructor
+@Tag(name = "Metrics", description = "APIs for runtime metrics (Admin only)")
+@PreAuthorize("hasRole('ADMIN')")
+public class MetricsController {
+
+    private final List<BoundedTtlCache<?, ?>> caches;
+    private final OrderIntakeService orderIntakeService;
+    private final OptimisticLockRetryAspect optimisticLockRetryAspect;
+
+    @GetMapping("/caches")
+    @Operation(summary = "Get in-memory cache statistics", description = "Hit/miss/eviction counters of all in-process caches. Requires ADMIN role.")
+    public ResponseEntity<ApiResponse<List<CacheStatsResponse>>> getCacheStats() {
+        List<CacheStatsResponse> stats = caches.stream()
+                .map(cache -> CacheStatsResponse.from(cache.stats()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponse.success("Cache statistics retrieved successfully", stats));
+    }
+
+    @GetMapping("/order-intake")
+    @Operation(summary = "Get asynchronous order queue statistics", description = "Queue depth, processed/rejected counts and processing latency of the async checkout pipeline. Requires ADMIN role.")
+    public ResponseEntity<ApiResponse<OrderIntakeStatsResponse>> getOrderIntakeStats() {
+        return ResponseEntity.ok(ApiResponse.success("Order intake statistics retrieved successfully", orderIntakeService.getStats()));
+    }
+
+    @GetMapping("/optimistic-locks")
+    @Operation(summary = "Get optimistic locking conflict statistics", description = "Calls, conflicts, retries and exhausted retries of every write operation guarded by entity versioning. Requires ADMIN role.")
+    public ResponseEntity<ApiResponse<List<OptimisticLockStatsResponse>>> getOptimisticLockStats() {
+        return ResponseEntity.ok(ApiResponse.success("Optimistic locking statistics retrieved successfully", optimisticLockRetryAspect.getStats()));
+    }
+}
@@ -9,8 +9,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,18 +25,36 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.oceanbutterflyshop.backend.dtos.ApiResponse;
 import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderStatusBatchRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderIntakeResponse;
 import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderStatusBatchResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderSummaryResponse;
 import com.oceanbutterflyshop.backend.dtos.response.PageResponseWrapper;
+import com.oceanbutterflyshop.backend.enums.ExportFormat;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.services.IdempotencyService;
+import com.oceanbutterflyshop.backend.services.OrderExportService;
+import com.oceanbutterflyshop.backend.services.OrderIntakeService;
 import com.oceanbutterflyshop.backend.services.OrderService;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -41,6 +63,9 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderExportService orderExportService;
 
     @GetMapping
     @Operation(
@@ -61,13 +86,21 @@ public class OrderController {
             - GET /api/v1/orders → Returns page 0, size 10 (default)
             - GET /api/v1/orders?page=1&size=5 → Returns page 1, size 5
             - GET /api/v1/orders?sort=orderDate,desc → Sorted by date descending
+            - GET /api/v1/orders?sort=orderDate,desc&cursor= → First page in cursor mode
+            
+            **Cursor Mode (opt-in):** pass cursor= (empty) for the first page, then the returned nextCursor.
+            Pages are fetched with WHERE (sort, id) > (...) instead of OFFSET and no COUNT(*) is run,
+            so totalElements/totalPages are -1 and the page parameter is ignored.
+            Supported sort fields: orderId, orderDate, orderAmount, orderStatus.
+            Max size in cursor mode: 100.
             """)
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<PageResponseWrapper<OrderResponse>>> getAllOrders(
             @Parameter(hidden = true) @PageableDefault(size = 10, sort = "orderId", direction = Sort.Direction.DESC) Pageable pageable,
             @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(required = false, defaultValue = "0") Integer page,
             @Parameter(description = "Number of items per page", example = "10") @RequestParam(required = false, defaultValue = "10") Integer size,
-            @Parameter(description = "Sort field and direction (format: field,direction)", example = "orderId,desc") @RequestParam(required = false, defaultValue = "orderId,desc") String sort
+            @Parameter(description = "Sort field and direction (format: field,direction)", example = "orderId,desc") @RequestParam(required = false, defaultValue = "orderId,desc") String sort,
+            @Parameter(description = "Opaque cursor from a previous response; empty value starts cursor mode") @RequestParam(required = false) String cursor
     ) {
         // Phân tích tham số sắp xếp thủ công
         String[] sortParams = sort.split(",");
@@ -75,13 +108,77 @@ public class OrderController {
         Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc") 
             ? Sort.Direction.DESC : Sort.Direction.ASC;
         
-        Pageable pageableRequest = PageRequest.of(page, size, Sort.by(direction, sortField));
-        Page<OrderResponse> orderPage = orderService.getAllOrdersPaginated(pageableRequest);
-        PageResponseWrapper<OrderResponse> response = PageResponseWrapper.of(orderPage);
+        PageResponseWrapper<OrderResponse> response;
+        if (cursor != null) {
+            // Chế độ con trỏ (keyset): bỏ qua page, không chạy truy vấn đếm
+            Window<OrderResponse> window = orderService.getAllOrdersByCursor(cursor, size, Sort.by(direction, sortField));
+            response = PageResponseWrapper.of(window, size, cursor, CursorUtils.encode(window));
+        } else {
+            Pageable pageableRequest = PageRequest.of(page, size, Sort.by(direction, sortField));
+            Page<OrderResponse> orderPage = orderService.getAllOrdersPaginated(pageableRequest);
+            response = PageResponseWrapper.of(orderPage);
+        }
         
         return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", response));
     }
 
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export orders (streaming)",
+        description = """
+            Streams one row per order item (orders without items produce one row) straight from a database cursor,
+            so memory usage does not depend on the number of rows. Requires ADMIN role.
+            
+            - format: csv (default) or ndjson
+            - from/to: order date range (inclusive, ISO date), status: order status; all optional
+            - Sent gzip-compressed when the request has Accept-Encoding: gzip
+            """
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Xác thực tham số trước khi bắt đầu ghi để lỗi trả về 400 bình thường
+        ExportFormat exportFormat = parseEnum(ExportFormat.class, format, "export format");
+        OrderStatus orderStatus = status != null ? parseEnum(OrderStatus.class, status, "order status") : null;
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192);
+                orderExportService.exportOrders(from, to, orderStatus, exportFormat, gzipStream);
+                gzipStream.finish();
+            } else {
+                orderExportService.exportOrders(from, to, orderStatus, exportFormat, outputStream);
+            }
+        };
+        
+        String fileName = "orders" + (from != null ? "-" + from : "") + (to != null ? "-" + to : "")
+                + "." + exportFormat.getFileExtension();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + name + ": " + value);
+        }
+    }
+
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order by ID", description = "Customers can only view their own orders. Admin/Staff can view all orders.")
     public ResponseEntity<ApiResponse<OrderResponse>> getOrderById(
@@ -116,18 +213,134 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Orders by status retrieved successfully", orders));
     }
 
+    @GetMapping("/user/{userId}/summary")
+    @Operation(
+        summary = "Get order history of a user (paginated summaries)",
+        description = """
+            Order summaries (no items) of a user, newest first. Customers can only view their own history;
+            Admin/Staff can view any user's history.
+            
+            Offset mode: page/size (includes totalElements). Cursor mode: pass cursor= (empty) for the first page,
+            then the returned nextCursor; no COUNT(*) is run and totalElements/totalPages are -1. Max size: 100.
+            """)
+    public ResponseEntity<ApiResponse<PageResponseWrapper<OrderSummaryResponse>>> getOrderHistory(
+            @PathVariable Integer userId,
+            @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Number of items per page", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Opaque cursor from a previous response; empty value starts cursor mode") @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        String username = userDetails.getUsername();
+        PageResponseWrapper<OrderSummaryResponse> response;
+        if (cursor != null) {
+            Window<OrderSummaryResponse> window = orderService.getOrderHistoryByCursor(userId, cursor, size, username);
+            response = PageResponseWrapper.of(window, size, cursor, CursorUtils.encode(window));
+        } else {
+            response = PageResponseWrapper.of(orderService.getOrderHistory(userId, page, size, username));
+        }
+        return ResponseEntity.ok(ApiResponse.success("User order history retrieved successfully", response));
+    }
+
+    @GetMapping("/status/{status}/summary")
+    @Operation(
+        summary = "Get orders by status (paginated summaries)",
+        description = """
+            Order summaries (no items) in a status, newest first. Requires ADMIN or STAFF role.
+            Same offset/cursor modes as /user/{userId}/summary. Max size: 100.
+            """)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<PageResponseWrapper<OrderSummaryResponse>>> getOrderSummariesByStatus(
+            @PathVariable String status,
+            @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Number of items per page", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Opaque cursor from a previous response; empty value starts cursor mode") @RequestParam(required = false) String cursor) {
+        PageResponseWrapper<OrderSummaryResponse> response;
+        if (cursor != null) {
+            Window<OrderSummaryResponse> window = orderService.getOrderSummariesByStatusByCursor(status, cursor, size);
+            response = PageResponseWrapper.of(window, size, cursor, CursorUtils.encode(window));
+        } else {
+            response = PageResponseWrapper.of(orderService.getOrderSummariesByStatus(status, page, size));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Orders by status retrieved successfully", response));
+    }
+
     @PostMapping
-    @Operation(summary = "Create a new order")
+    @Operation(
+        summary = "Create a new order",
+        description = """
+            **Idempotency-Key (optional):** a client-generated unique value (e.g. UUID) per checkout.
+            Retries with the same key return the first response (header Idempotent-Replayed: true)
+            without creating another order. Concurrent duplicates wait for the in-flight request.
+            Reusing a key with a different request body returns 400; a duplicate still being processed
+            after the wait timeout returns 409.
+            """)
     public ResponseEntity<ApiResponse<OrderResponse>> createOrder(
             @Valid @RequestBody OrderRequest orderRequest,
+            @Parameter(description = "Unique key to make retries safe") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserDetails userDetails) {
         // Get the logged-in user's username from SecurityContext
         String username = userDetails.getUsername();
-        OrderResponse createdOrder = orderService.createOrder(orderRequest, username);
-        return new ResponseEntity<>(
-            ApiResponse.success("Order created successfully", createdOrder),
-            HttpStatus.CREATED
-        );
+        if (idempotencyKey == null) {
+            OrderResponse createdOrder = orderService.createOrder(orderRequest, username);
+            return new ResponseEntity<>(
+                ApiResponse.success("Order created successfully", createdOrder),
+                HttpStatus.CREATED
+            );
+        }
+
+        IdempotencyService.Result result = idempotencyService.execute(
+            idempotencyKey, username, orderRequest, () -> orderService.createOrder(orderRequest, username));
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+            .body(ApiResponse.success("Order created successfully", result.response()));
+    }
+
+    @PostMapping("/async")
+    @Operation(
+        summary = "Submit an order for asynchronous processing",
+        description = """
+            Available when order-intake.enabled=true. The order is validated and queued, and the response
+            (202 Accepted) carries a trackingId; poll GET /api/v1/orders/async/{trackingId} for the result.
+            Returns 503 with Retry-After when the queue is full.
+            """)
+    public ResponseEntity<ApiResponse<OrderIntakeResponse>> submitOrderAsync(
+            @Valid @RequestBody OrderRequest orderRequest,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        OrderIntakeResponse intake = orderIntakeService.submit(orderRequest, userDetails.getUsername());
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/orders/async/" + intake.getTrackingId()))
+            .body(ApiResponse.success("Order accepted for processing", intake));
+    }
+
+    @GetMapping("/async/{trackingId}")
+    @Operation(
+        summary = "Get the result of an asynchronously submitted order",
+        description = """
+            Returns the current status (QUEUED, PROCESSING, COMPLETED, FAILED) and the created order once COMPLETED.
+            With waitSeconds > 0 the request is held (without blocking a server thread) until the order is
+            processed or the wait elapses (long polling, max 30 seconds).
+            """)
+    public DeferredResult<ResponseEntity<ApiResponse<OrderIntakeResponse>>> getAsyncOrderStatus(
+            @PathVariable String trackingId,
+            @Parameter(description = "Seconds to wait for the result (0-30)", example = "10") @RequestParam(defaultValue = "0") int waitSeconds,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        String username = userDetails.getUsername();
+        OrderIntakeResponse current = orderIntakeService.getStatus(trackingId, username);
+        int wait = Math.max(0, Math.min(waitSeconds, 30));
+
+        DeferredResult<ResponseEntity<ApiResponse<OrderIntakeResponse>>> deferred =
+            new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait));
+        deferred.onTimeout(() -> deferred.setResult(intakeStatus(orderIntakeService.getStatus(trackingId, username))));
+        if (wait == 0 || current.getCompletedAt() != null) {
+            deferred.setResult(intakeStatus(current));
+        } else {
+            orderIntakeService.awaitResult(trackingId, username)
+                .thenAccept(result -> deferred.setResult(intakeStatus(result)));
+        }
+        return deferred;
+    }
+
+    private ResponseEntity<ApiResponse<OrderIntakeResponse>> intakeStatus(OrderIntakeResponse intake) {
+        return ResponseEntity.ok(ApiResponse.success("Order request status retrieved successfully", intake));
     }
 
     @PutMapping("/{orderId}/status")
@@ -140,6 +353,17 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Order status updated successfully", updatedOrder));
     }
 
+    @PutMapping("/status:batch")
+    @Operation(summary = "Update the status of many orders",
+               description = "Moves the given orders (by id and/or code) to the same status with set-based updates. " +
+                             "Returns one compact result per order; invalid orders are reported, not fatal. Requires ADMIN or STAFF role.")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<OrderStatusBatchResponse>> updateOrderStatuses(
+            @Valid @RequestBody OrderStatusBatchRequest request) {
+        OrderStatusBatchResponse result = orderService.updateOrderStatuses(request);
+        return ResponseEntity.ok(ApiResponse.success("Order statuses updated successfully", result));
+    }
+
     @PutMapping("/{orderId}/payment")
     @Operation(summary = "Update order payment")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
@@ -1,12 +1,15 @@
 package com.oceanbutterflyshop.backend.controllers;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,14 +21,25 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.oceanbutterflyshop.backend.dtos.ApiResponse;
 import com.oceanbutterflyshop.backend.dtos.request.ProductRequestDTO;
 import com.oceanbutterflyshop.backend.dtos.response.PageResponseWrapper;
+import com.oceanbutterflyshop.backend.dtos.response.ProductListingResponse;
 import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
+import com.oceanbutterflyshop.backend.dtos.response.ProductSuggestionResponse;
 import com.oceanbutterflyshop.backend.enums.ProductStatus;
 import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.services.CatalogVersionService;
 import com.oceanbutterflyshop.backend.services.ProductService;
+import com.oceanbutterflyshop.backend.services.ProductSuggestService;
+import com.oceanbutterflyshop.backend.services.ProductSyncService;
+import com.oceanbutterflyshop.backend.utils.ConditionalRequestUtils;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -41,6 +55,9 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "2. Product Management", description = "CRUD operations for watch products. GET endpoints are public, Create/Update/Delete require ADMIN or STAFF role.")
 public class ProductController {
     private final ProductService productService;
+    private final ProductSuggestService productSuggestService;
+    private final CatalogVersionService catalogVersionService;
+    private final ProductSyncService productSyncService;
 
     @Operation(
         summary = "Get products with pagination and filtering", 
@@ -54,10 +71,10 @@ public class ProductController {
             - size: Number of items per page (default: 10)
             - sort: Sort field and direction (format: field,direction e.g., productPrice,desc)
             
-            **Sortable Fields:** productId, productName, productPrice, productStatus
+            **Sortable Fields:** productId, productName, productPrice, productStatus, relevance (only with keyword)
             
             **Filter Parameters (Optional):**
-            - keyword: Search in product name and description (case-insensitive)
+            - keyword: Full-text search in product name, description and brand name (case- and accent-insensitive, e.g. "son moi" matches "son môi")
             - minPrice: Minimum product price
             - maxPrice: Maximum product price
             - brandId: Filter by brand ID
@@ -67,48 +84,150 @@ public class ProductController {
             - GET /api/v1/products → Returns page 0, size 10 (default)
             - GET /api/v1/products?page=1&size=5 → Returns page 1, size 5
             - GET /api/v1/products?sort=productPrice,desc&keyword=rolex&minPrice=1000&maxPrice=5000
+            - GET /api/v1/products?sort=relevance&keyword=son moi → Ranked by search relevance
+            - GET /api/v1/products?category=SKINCARE&facets=true → Page + facet counts in one response
+            - GET /api/v1/products?sort=productPrice,asc&cursor= → First page in cursor mode
+            
+            **Facets:** with facets=true the response also contains a "facets" object with product counts
+            per brand, category, status and price range for the same filters, computed in one GROUP BY query.
+            
+            **Cursor Mode (opt-in):** pass cursor= (empty) for the first page, then the returned nextCursor.
+            Pages are fetched with WHERE (sort, id) > (...) instead of OFFSET and no COUNT(*) is run,
+            so totalElements/totalPages are -1 and the page parameter is ignored.
+            Supported sort fields: productId, productName, productPrice, productStatus. Not combinable with keyword.
+            Max size in cursor mode: 100.
+            
+            **Conditional GET:** responses carry ETag/Last-Modified for the product catalog version;
+            send If-None-Match (or If-Modified-Since) to get 304 Not Modified when nothing changed.
             """
     )
     @ApiResponses(value = {
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products retrieved successfully with pagination")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products retrieved successfully with pagination"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match / If-Modified-Since")
     })
     @SecurityRequirement(name = "")  // Endpoint công khai
     @GetMapping
-    public ResponseEntity<ApiResponse<PageResponseWrapper<ProductResponse>>> getAllProducts(
+    public ResponseEntity<ApiResponse<ProductListingResponse>> getAllProducts(
             @Parameter(hidden = true) @PageableDefault(size = 10, sort = "productId", direction = Sort.Direction.DESC) Pageable pageable,
             @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(required = false, defaultValue = "0") Integer page,
             @Parameter(description = "Number of items per page", example = "10") @RequestParam(required = false, defaultValue = "10") Integer size,
             @Parameter(description = "Sort field and direction (format: field,direction)", example = "productId,desc") @RequestParam(required = false, defaultValue = "productId,desc") String sort,
-            @Parameter(description = "Search keyword in product name and description") @RequestParam(required = false) String keyword,
+            @Parameter(description = "Search keyword in product name, description and brand name") @RequestParam(required = false) String keyword,
             @Parameter(description = "Minimum product price") @RequestParam(required = false) BigDecimal minPrice,
             @Parameter(description = "Maximum product price") @RequestParam(required = false) BigDecimal maxPrice,
             @Parameter(description = "Filter by brand ID") @RequestParam(required = false) Integer brandId,
             @Parameter(description = "Filter by product status") @RequestParam(required = false) ProductStatus status,
-            @Parameter(description = "Filter by product category (MAKEUP, SKINCARE, HAIRCARE)") @RequestParam(required = false) ProductCategory category
+            @Parameter(description = "Filter by product category (MAKEUP, SKINCARE, HAIRCARE)") @RequestParam(required = false) ProductCategory category,
+            @Parameter(description = "Also return facet counts (brand, category, status, price range) for the current filters") @RequestParam(required = false, defaultValue = "false") boolean facets,
+            @Parameter(description = "Opaque cursor from a previous response; empty value starts cursor mode") @RequestParam(required = false) String cursor,
+            WebRequest webRequest
     ) {
+        CatalogVersionService.Version version = catalogVersionService.collectionVersion(CatalogScope.PRODUCT);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         // Phân tích tham số sắp xếp thủ công
         String[] sortParams = sort.split(",");
         String sortField = sortParams[0];
         Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc") 
             ? Sort.Direction.DESC : Sort.Direction.ASC;
         
-        Pageable pageableRequest = org.springframework.data.domain.PageRequest.of(page, size, Sort.by(direction, sortField));
-        Page<ProductResponse> productPage = productService.getAllProductsPaginated(
-            pageableRequest, keyword, minPrice, maxPrice, brandId, status, category
-        );
+        PageResponseWrapper<ProductResponse> pageResponse;
+        if (cursor != null) {
+            // Chế độ con trỏ (keyset): bỏ qua page, không chạy truy vấn đếm
+            if (keyword != null && !keyword.trim().isEmpty()) {
+                throw new BadRequestException("Cursor mode cannot be combined with keyword search");
+            }
+            Window<ProductResponse> window = productService.getAllProductsByCursor(
+                cursor, size, Sort.by(direction, sortField), minPrice, maxPrice, brandId, status, category
+            );
+            pageResponse = PageResponseWrapper.of(window, size, cursor, CursorUtils.encode(window));
+        } else {
+            Pageable pageableRequest = org.springframework.data.domain.PageRequest.of(page, size, Sort.by(direction, sortField));
+            Page<ProductResponse> productPage = productService.getAllProductsPaginated(
+                pageableRequest, keyword, minPrice, maxPrice, brandId, status, category
+            );
+            pageResponse = PageResponseWrapper.of(productPage);
+        }
         
-        PageResponseWrapper<ProductResponse> response = PageResponseWrapper.of(productPage);
+        ProductListingResponse response = ProductListingResponse.builder()
+                .page(pageResponse)
+                .facets(facets
+                    ? productService.getProductFacets(keyword, minPrice, maxPrice, brandId, status, category)
+                    : null)
+                .build();
         return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", response));
     }
 
+    @Operation(
+        summary = "Autocomplete suggestions",
+        description = """
+            Typeahead suggestions for the search box from product names, product codes and brand names.
+            Matching is prefix-based on any word, case- and accent-insensitive ("sua rua" matches "Sữa rửa mặt").
+            Results are ordered by popularity (units sold; brands use the total of their products). Public endpoint.
+            """
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    })
+    @SecurityRequirement(name = "")  // Endpoint công khai
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<ProductSuggestionResponse>>> suggest(
+            @Parameter(description = "Text typed so far", example = "sua rua") @RequestParam(required = false, defaultValue = "") String q,
+            @Parameter(description = "Maximum number of suggestions (1-20)", example = "10") @RequestParam(required = false, defaultValue = "10") Integer limit,
+            WebRequest webRequest
+    ) {
+        CatalogVersionService.Version version = catalogVersionService.collectionVersion(CatalogScope.PRODUCT);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
+        List<ProductSuggestionResponse> suggestions = productSuggestService.suggest(q, limit);
+        return ResponseEntity.ok(ApiResponse.success("Suggestions retrieved successfully", suggestions));
+    }
+
+    @Operation(
+        summary = "Delta sync of catalog changes",
+        description = """
+            Return only the products created, updated or deleted since a sync token, plus the token for the next call.
+            Public endpoint intended for clients that keep a local copy of the catalog.
+            
+            - First call: omit since → full catalog with fullResync=true
+            - Next calls: since=<nextToken from the previous response>
+            - upserted: full product objects to insert/replace by productId (a product may be repeated across syncs)
+            - deleted: products to remove from the local copy
+            - fullResync=true also when the token is older than the tombstone retention; replace the local copy
+            
+            The body is streamed in batches, so large catalogs are not held in memory.
+            """
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Changes streamed successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid sync token")
+    })
+    @SecurityRequirement(name = "")  // Endpoint công khai
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getProductChanges(
+            @Parameter(description = "Sync token from the previous response (nextToken)") @RequestParam(required = false) String since
+    ) {
+        // Xác định tập thay đổi trước khi bắt đầu ghi để lỗi token trả về 400 bình thường
+        ProductSyncService.ChangeSet changes = productSyncService.getChanges(since);
+        StreamingResponseBody body = outputStream -> productSyncService.writeChanges(changes, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @Operation(summary = "Get product by ID", description = "Retrieve a single product by its ID. Public endpoint.")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match / If-Modified-Since"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found")
     })
     @SecurityRequirement(name = "")  // Endpoint công khai
     @GetMapping("/{productId}")
-    public ResponseEntity<ApiResponse<ProductResponse>> getProductById(@PathVariable Integer productId){
+    public ResponseEntity<ApiResponse<ProductResponse>> getProductById(@PathVariable Integer productId, WebRequest webRequest){
+        CatalogVersionService.Version version = catalogVersionService.entryVersion(CatalogScope.PRODUCT, productId);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         ProductResponse product = productService.getProductById(productId);
         return ResponseEntity.ok(ApiResponse.success("Product retrieved successfully", product));
     }
@@ -172,8 +291,13 @@ public class ProductController {
     @GetMapping("/best-sellers")
     public ResponseEntity<ApiResponse<java.util.List<ProductResponse>>> getBestSellers(
             @Parameter(description = "Number of products to return", example = "10")
-            @RequestParam(required = false, defaultValue = "10") Integer limit
+            @RequestParam(required = false, defaultValue = "10") Integer limit,
+            WebRequest webRequest
     ) {
+        CatalogVersionService.Version version = catalogVersionService.collectionVersion(CatalogScope.PRODUCT);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         java.util.List<ProductResponse> bestSellers = productService.getBestSellingProducts(limit);
         return ResponseEntity.ok(ApiResponse.success("Best selling products retrieved successfully", bestSellers));
     }
@@ -3,7 +3,10 @@ package com.oceanbutterflyshop.backend.controllers;
 import com.oceanbutterflyshop.backend.dtos.ApiResponse;
 import com.oceanbutterflyshop.backend.dtos.request.ReviewRequestDTO;
 import com.oceanbutterflyshop.backend.dtos.response.ReviewResponse;
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+import com.oceanbutterflyshop.backend.services.CatalogVersionService;
 import com.oceanbutterflyshop.backend.services.ReviewService;
+import com.oceanbutterflyshop.backend.utils.ConditionalRequestUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -16,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,6 +30,7 @@ import java.util.List;
 public class ReviewController {
     
     private final ReviewService reviewService;
+    private final CatalogVersionService catalogVersionService;
     
     @Operation(
         summary = "Get all reviews",
@@ -39,7 +44,12 @@ public class ReviewController {
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<ReviewResponse>>> getAllReviews(
-            @RequestParam(required = false) String keyword) {
+            @RequestParam(required = false) String keyword,
+            WebRequest webRequest) {
+        CatalogVersionService.Version version = catalogVersionService.collectionVersion(CatalogScope.REVIEW);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         List<ReviewResponse> reviews = reviewService.getAllReviews(keyword);
         return ResponseEntity.ok(ApiResponse.success("All reviews retrieved successfully", reviews));
     }
@@ -54,7 +64,12 @@ public class ReviewController {
     @SecurityRequirement(name = "")
     @GetMapping("/product/{productId}")
     public ResponseEntity<ApiResponse<List<ReviewResponse>>> getReviewsByProduct(
-            @Parameter(description = "Product ID") @PathVariable Integer productId) {
+            @Parameter(description = "Product ID") @PathVariable Integer productId,
+            WebRequest webRequest) {
+        CatalogVersionService.Version version = catalogVersionService.entryVersion(CatalogScope.REVIEW, productId);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         List<ReviewResponse> reviews = reviewService.getReviewsByProductId(productId);
         return ResponseEntity.ok(ApiResponse.success("Reviews retrieved successfully", reviews));
     }
@@ -69,7 +84,12 @@ public class ReviewController {
     @SecurityRequirement(name = "")
     @GetMapping("/product/{productId}/rating")
     public ResponseEntity<ApiResponse<Object>> getProductRating(
-            @Parameter(description = "Product ID") @PathVariable Integer productId) {
+            @Parameter(description = "Product ID") @PathVariable Integer productId,
+            WebRequest webRequest) {
+        CatalogVersionService.Version version = catalogVersionService.entryVersion(CatalogScope.REVIEW, productId);
+        if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+            return null;
+        }
         Double avgRating = reviewService.getAverageRating(productId);
         Long reviewCount = reviewService.getReviewCount(productId);
         
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +29,7 @@ import com.oceanbutterflyshop.backend.dtos.request.UserRequest;
 import com.oceanbutterflyshop.backend.dtos.response.PageResponseWrapper;
 import com.oceanbutterflyshop.backend.dtos.response.UserResponse;
 import com.oceanbutterflyshop.backend.services.UserService;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -56,6 +58,13 @@ public class UserController {
             - GET /api/v1/users → Returns page 0, size 10 (default)
             - GET /api/v1/users?page=1&size=5 → Returns page 1, size 5
             - GET /api/v1/users?sort=userFullName,asc → Sorted by name ascending
+            - GET /api/v1/users?sort=userName,asc&cursor= → First page in cursor mode
+            
+            **Cursor Mode (opt-in):** pass cursor= (empty) for the first page, then the returned nextCursor.
+            Pages are fetched with WHERE (sort, id) > (...) instead of OFFSET and no COUNT(*) is run,
+            so totalElements/totalPages are -1 and the page parameter is ignored.
+            Supported sort fields: userId, userCode, userName, userAccount.
+            Max size in cursor mode: 100.
             """)
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<PageResponseWrapper<UserResponse>>> getAllUsers(
@@ -64,7 +73,8 @@ public class UserController {
             @Parameter(description = "Number of items per page", example = "10") @RequestParam(required = false, defaultValue = "10") Integer size,
             @Parameter(description = "Sort field and direction (format: field,direction)", example = "userId,desc") @RequestParam(required = false, defaultValue = "userId,desc") String sort,
             @Parameter(description = "Search keyword", example = "Nguyen") @RequestParam(required = false) String keyword,
-            @Parameter(description = "Filter by role name", example = "Customer") @RequestParam(required = false) String roleName
+            @Parameter(description = "Filter by role name", example = "Customer") @RequestParam(required = false) String roleName,
+            @Parameter(description = "Opaque cursor from a previous response; empty value starts cursor mode") @RequestParam(required = false) String cursor
     ) {
         // Phân tích tham số sắp xếp thủ công
         String[] sortParams = sort.split(",");
@@ -72,9 +82,18 @@ public class UserController {
         Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc") 
             ? Sort.Direction.DESC : Sort.Direction.ASC;
         
-        Pageable pageableRequest = PageRequest.of(page, size, Sort.by(direction, sortField));
-        Page<UserResponse> userPage = userService.getAllUsersPaginated(keyword, roleName, pageableRequest);
-        PageResponseWrapper<UserResponse> response = PageResponseWrapper.of(userPage);
+        PageResponseWrapper<UserResponse> response;
+        if (cursor != null) {
+            // Chế độ con trỏ (keyset): bỏ qua page, không chạy truy vấn đếm
+            Window<UserResponse> window = userService.getAllUsersByCursor(
+                keyword, roleName, cursor, size, Sort.by(direction, sortField)
+            );
+            response = PageResponseWrapper.of(window, size, cursor, CursorUtils.encode(window));
+        } else {
+            Pageable pageableRequest = PageRequest.of(page, size, Sort.by(direction, sortField));
+            Page<UserResponse> userPage = userService.getAllUsersPaginated(keyword, roleName, pageableRequest);
+            response = PageResponseWrapper.of(userPage);
+        }
         
         return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", response));
     }
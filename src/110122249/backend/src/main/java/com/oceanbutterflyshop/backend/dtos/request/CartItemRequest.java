@@ -0,0 +1,22 @@
+package com.oceanbutterflyshop.backend.dtos.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "One line of a shopping cart")
+public class CartItemRequest {
+
+    @NotNull(message = "Product ID is required")
+    @Schema(description = "Product ID", example = "1")
+    private Integer productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 10000, message = "Quantity must be at most 10000")
+    @Schema(description = "Quantity", example = "2")
+    private Integer quantity;
+}
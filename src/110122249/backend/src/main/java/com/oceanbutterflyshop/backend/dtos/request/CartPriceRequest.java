@@ -0,0 +1,19 @@
+package com.oceanbutterflyshop.backend.dtos.request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+@Schema(description = "Request DTO for pricing a whole shopping cart")
+public class CartPriceRequest {
+
+    @NotEmpty(message = "Cart items are required")
+    @Size(max = 200, message = "At most 200 cart lines per request")
+    @Schema(description = "Cart lines; lines of the same product are merged")
+    private List<@Valid CartItemRequest> items;
+}
@@ -0,0 +1,29 @@
+package com.oceanbutterflyshop.backend.dtos.request;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+@Schema(description = "Request DTO for moving many orders to the same status")
+public class OrderStatusBatchRequest {
+
+    @Size(max = 1000, message = "At most 1000 order ids per request")
+    @Schema(description = "Order identifiers", example = "[101, 102, 103]")
+    private List<@NotNull Integer> orderIds;
+
+    @Size(max = 1000, message = "At most 1000 order codes per request")
+    @Schema(description = "Order codes", example = "[\"DH12345678\"]")
+    private List<@NotBlank String> orderCodes;
+
+    @NotBlank(message = "Order status is required")
+    @Pattern(regexp = "^(NEW|PROCESSING|SHIPPING|DELIVERED)$",
+             message = "Order status must be: NEW, PROCESSING, SHIPPING or DELIVERED (use the cancel endpoint to cancel)")
+    @Schema(description = "Target status", example = "SHIPPING", allowableValues = {"NEW", "PROCESSING", "SHIPPING", "DELIVERED"})
+    private String status;
+}
@@ -0,0 +1,14 @@
+package com.oceanbutterflyshop.backend.dtos.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "Request DTO for adjusting product stock")
+public class StockAdjustmentRequest {
+
+    @NotNull(message = "Delta is required")
+    @Schema(description = "Quantity to add (positive) or remove (negative)", example = "50")
+    private Integer delta;
+}
@@ -0,0 +1,43 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import com.oceanbutterflyshop.backend.utils.BoundedTtlCache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thống kê của một cache trong bộ nhớ
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private String name;
+    private Integer size;
+    private Long weightBytes;
+    private Long maxWeightBytes;
+    private Long hits;
+    private Long misses;
+    private Double hitRatio;
+    private Long evictions;
+    private Long expirations;
+    private Long invalidations;
+
+    public static CacheStatsResponse from(BoundedTtlCache.Stats stats) {
+        return CacheStatsResponse.builder()
+                .name(stats.name())
+                .size(stats.size())
+                .weightBytes(stats.weight())
+                .maxWeightBytes(stats.maxWeight())
+                .hits(stats.hits())
+                .misses(stats.misses())
+                .hitRatio(stats.hitRatio())
+                .evictions(stats.evictions())
+                .expirations(stats.expirations())
+                .invalidations(stats.invalidations())
+                .build();
+    }
+}
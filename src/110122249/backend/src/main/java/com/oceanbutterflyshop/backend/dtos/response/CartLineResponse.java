@@ -0,0 +1,41 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Price and availability of one cart line")
+public class CartLineResponse {
+
+    @Schema(description = "Product ID", example = "1")
+    private Integer productId;
+
+    @Schema(description = "Product code", example = "SP001")
+    private String productCode;
+
+    @Schema(description = "Product name", example = "Sữa rửa mặt")
+    private String productName;
+
+    @Schema(description = "Requested quantity", example = "2")
+    private Integer quantity;
+
+    @Schema(description = "Current unit price", example = "150000.00")
+    private BigDecimal unitPrice;
+
+    @Schema(description = "Unit price x quantity", example = "300000.00")
+    private BigDecimal lineTotal;
+
+    @Schema(description = "Stock currently available", example = "12")
+    private Integer availableStock;
+
+    @Schema(description = "Availability", example = "AVAILABLE", allowableValues = {"AVAILABLE", "INSUFFICIENT_STOCK", "UNAVAILABLE", "NOT_FOUND"})
+    private String availability;
+}
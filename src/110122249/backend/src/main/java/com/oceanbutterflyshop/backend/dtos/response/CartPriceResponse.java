@@ -0,0 +1,30 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Priced shopping cart")
+public class CartPriceResponse {
+
+    @Schema(description = "Cart lines ordered by product ID")
+    private List<CartLineResponse> lines;
+
+    @Schema(description = "Total quantity of the lines that were found", example = "3")
+    private Integer totalQuantity;
+
+    @Schema(description = "Total amount of the lines that were found", example = "450000.00")
+    private BigDecimal totalAmount;
+
+    @Schema(description = "True when every line is available in the requested quantity", example = "true")
+    private Boolean available;
+}
@@ -19,9 +19,16 @@ public class DashboardStatsResponse {
     private Integer totalProducts;
     private Integer lowStockProducts;
     
-    // Trend percentages (so với tháng trước)
+    // Trend percentages (tháng này so với cùng số ngày đầu của tháng trước):
+    // doanh thu đơn đã giao, số đơn hàng, khách hàng mới, sản phẩm có bán
     private Double revenueTrend;
     private Double ordersTrend;
     private Double customersTrend;
     private Double productsTrend;
+    
+    // Tuần này (từ thứ Hai) so với cùng số ngày đầu của tuần trước
+    private Double revenueWeekTrend;
+    private Double ordersWeekTrend;
+    private Double customersWeekTrend;
+    private Double productsWeekTrend;
 }
@@ -0,0 +1,25 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tình trạng tồn kho của một sản phẩm
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryResponse {
+    private Integer productId;
+    private String productCode;
+    private String mode;
+    // Số lượng có thể bán ngay
+    private Integer availableStock;
+    // Giá trị đang lưu trong products.quantity_stock
+    private Integer persistedStock;
+    // Tổng delta trong nhật ký chưa được gộp vào products
+    private Long pendingDelta;
+}
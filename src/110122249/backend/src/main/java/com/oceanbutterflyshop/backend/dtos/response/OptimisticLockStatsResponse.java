@@ -0,0 +1,24 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thống kê xung đột khóa lạc quan của một thao tác ghi
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OptimisticLockStatsResponse {
+    private String operation;
+    private Long calls;
+    private Long attempts;
+    private Long conflicts;
+    private Long retries;
+    private Long exhausted;
+    // Số lần xung đột / số lần chạy
+    private Double conflictRate;
+}
@@ -0,0 +1,38 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Tracking information of an asynchronously submitted order")
+public class OrderIntakeResponse {
+
+    @Schema(description = "Tracking id returned by POST /api/v1/orders/async", example = "3f2b8c1e-6a0d-4a53-9f8e-2d4c1b7a9e10")
+    private String trackingId;
+
+    @Schema(description = "Processing status", example = "QUEUED", allowableValues = {"QUEUED", "PROCESSING", "COMPLETED", "FAILED"})
+    private String status;
+
+    @Schema(description = "Created order (when COMPLETED)")
+    private OrderResponse order;
+
+    @Schema(description = "Reason the order was rejected (when FAILED)", example = "Insufficient stock for product: Serum. Requested: 2")
+    private String errorMessage;
+
+    @Schema(description = "Time the order was accepted")
+    private LocalDateTime submittedAt;
+
+    @Schema(description = "Time processing finished (when COMPLETED or FAILED)")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,28 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thống kê hàng đợi đặt hàng bất đồng bộ
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeStatsResponse {
+    private Boolean enabled;
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Integer workers;
+    private Long accepted;
+    private Long rejected;
+    private Long completed;
+    private Long failed;
+    private Long batches;
+    private Double averageBatchSize;
+    private Double averageLatencyMillis;
+    private Long maxLatencyMillis;
+}
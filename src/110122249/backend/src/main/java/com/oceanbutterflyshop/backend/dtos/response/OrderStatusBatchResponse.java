@@ -0,0 +1,32 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a bulk order status transition")
+public class OrderStatusBatchResponse {
+
+    @Schema(description = "Target status", example = "SHIPPING")
+    private String status;
+
+    @Schema(description = "Number of orders moved to the target status", example = "120")
+    private Integer updated;
+
+    @Schema(description = "Number of orders already in the target status", example = "3")
+    private Integer unchanged;
+
+    @Schema(description = "Number of orders rejected or not found", example = "1")
+    private Integer failed;
+
+    @Schema(description = "Per-order results, in request order (ids first, then codes)")
+    private List<OrderStatusChangeResponse> results;
+}
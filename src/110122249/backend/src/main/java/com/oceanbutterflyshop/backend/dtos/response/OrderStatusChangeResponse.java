@@ -0,0 +1,36 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Result of a status transition for one order")
+public class OrderStatusChangeResponse {
+
+    @Schema(description = "Order identifier", example = "101")
+    private Integer orderId;
+
+    @Schema(description = "Order code", example = "DH12345678")
+    private String orderCode;
+
+    @Schema(description = "Status before the request", example = "PROCESSING")
+    private String previousStatus;
+
+    @Schema(description = "Status after the request", example = "SHIPPING")
+    private String status;
+
+    @Schema(description = "Outcome", example = "UPDATED", allowableValues = {"UPDATED", "UNCHANGED", "REJECTED", "NOT_FOUND"})
+    private String outcome;
+
+    @Schema(description = "Reason when the order was not updated")
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thông tin tóm tắt của đơn hàng cho các màn hình danh sách (không kèm mục đơn hàng)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Order summary for list views (items are not loaded)")
+public class OrderSummaryResponse {
+    private Integer orderId;
+    private String orderCode;
+    private LocalDate orderDate;
+    private String orderStatus;
+    private BigDecimal orderAmount;
+    private String paymentMethod;
+    private LocalDate paymentDate;
+    private String customerName;
+}
@@ -1,10 +1,13 @@
 package com.oceanbutterflyshop.backend.dtos.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -45,12 +48,12 @@ public class PageResponseWrapper<T> {
     private int pageSize;
     
     /**
-     * Tổng số trang
+     * Tổng số trang (-1 ở chế độ con trỏ vì không chạy truy vấn đếm)
      */
     private int totalPages;
     
     /**
-     * Tổng số phần tử trên tất cả các trang
+     * Tổng số phần tử trên tất cả các trang (-1 ở chế độ con trỏ vì không chạy truy vấn đếm)
      */
     private long totalElements;
     
@@ -74,6 +77,12 @@ public class PageResponseWrapper<T> {
      */
     private boolean hasPrevious;
     
+    /**
+     * Con trỏ để lấy trang tiếp theo (chỉ có ở chế độ con trỏ, null khi đã hết dữ liệu)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    
     /**
      * Phương thức static factory để tạo PageResponseWrapper từ đối tượng Spring Data Page
      *
@@ -94,4 +103,31 @@ public class PageResponseWrapper<T> {
                 .hasPrevious(page.hasPrevious())
                 .build();
     }
+
+    /**
+     * Phương thức static factory cho chế độ phân trang bằng con trỏ (keyset).
+     * Không có tổng số phần tử/tổng số trang vì chế độ này bỏ qua truy vấn COUNT(*).
+     *
+     * @param window Kết quả truy vấn keyset
+     * @param pageSize Số lượng item yêu cầu trên mỗi trang
+     * @param cursor Con trỏ của request hiện tại (rỗng nếu là trang đầu)
+     * @param nextCursor Con trỏ cho trang tiếp theo (null nếu đã hết dữ liệu)
+     * @param <T> Loại của các item trong trang
+     * @return PageResponseWrapper chứa dữ liệu trang và con trỏ tiếp theo
+     */
+    public static <T> PageResponseWrapper<T> of(Window<T> window, int pageSize, String cursor, String nextCursor) {
+        boolean firstPage = cursor == null || cursor.isBlank();
+        return PageResponseWrapper.<T>builder()
+                .items(window.getContent())
+                .pageNo(0)
+                .pageSize(pageSize)
+                .totalPages(-1)
+                .totalElements(-1)
+                .first(firstPage)
+                .last(!window.hasNext())
+                .hasNext(window.hasNext())
+                .hasPrevious(!firstPage)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
@@ -0,0 +1,27 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Xu hướng (%) của kỳ hiện tại (từ đầu kỳ đến hôm nay) so với cùng số ngày đầu của kỳ trước
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodTrendResponse {
+    private String period;
+    private LocalDate currentPeriodStart;
+    private LocalDate previousPeriodStart;
+    private Integer comparedDays;
+
+    private Double revenueTrend;
+    private Double ordersTrend;
+    private Double customersTrend;
+    private Double productsTrend;
+}
@@ -0,0 +1,70 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Số lượng sản phẩm theo từng giá trị bộ lọc (thương hiệu, loại, trạng thái, khoảng giá)
+ * cho tập bộ lọc hiện tại. Dùng để hiển thị sidebar bộ lọc trên storefront.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Facet counts for the current product filter set")
+public class ProductFacetsResponse {
+
+    @Schema(description = "Product count per brand")
+    private List<FacetCount> brands;
+
+    @Schema(description = "Product count per category")
+    private List<FacetCount> categories;
+
+    @Schema(description = "Product count per status")
+    private List<FacetCount> statuses;
+
+    @Schema(description = "Product count per price range")
+    private List<PriceRangeCount> priceRanges;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+        @Schema(description = "Filter value to send back (brandId, category or status)", example = "SKINCARE")
+        private String value;
+
+        @Schema(description = "Display label", example = "Dưỡng da")
+        private String label;
+
+        @Schema(description = "Number of matching products", example = "12")
+        private long count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceRangeCount {
+        @Schema(description = "Price range key", example = "FROM_100K_TO_300K")
+        private String value;
+
+        @Schema(description = "Display label", example = "100.000đ - 300.000đ")
+        private String label;
+
+        @Schema(description = "Minimum price (inclusive), null if unbounded", example = "100000")
+        private BigDecimal minPrice;
+
+        @Schema(description = "Maximum price (exclusive), null if unbounded", example = "300000")
+        private BigDecimal maxPrice;
+
+        @Schema(description = "Number of matching products", example = "7")
+        private long count;
+    }
+}
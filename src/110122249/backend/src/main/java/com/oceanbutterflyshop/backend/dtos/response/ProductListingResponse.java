@@ -0,0 +1,27 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Phản hồi của endpoint danh sách sản phẩm.
+ * Các trường phân trang được trải phẳng (giống PageResponseWrapper),
+ * trường facets chỉ xuất hiện khi client yêu cầu facets=true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductListingResponse {
+
+    @JsonUnwrapped
+    private PageResponseWrapper<ProductResponse> page;
+
+    private ProductFacetsResponse facets;
+}
@@ -0,0 +1,44 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một gợi ý trong danh sách tự động hoàn thành (typeahead) của ô tìm kiếm
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Autocomplete suggestion for the search box")
+public class ProductSuggestionResponse {
+
+    public enum SuggestionType {
+        PRODUCT,
+        BRAND
+    }
+
+    @Schema(description = "Suggestion type", example = "PRODUCT")
+    private SuggestionType type;
+
+    @Schema(description = "Product ID or brand ID depending on type", example = "12")
+    private Integer id;
+
+    @Schema(description = "Text to display", example = "Sữa rửa mặt đậu đỏ")
+    private String text;
+
+    @Schema(description = "Product code (PRODUCT only)", example = "SP12345")
+    private String productCode;
+
+    @Schema(description = "Brand name (PRODUCT only)", example = "Cocoon")
+    private String brandName;
+
+    @Schema(description = "Popularity score (units sold)", example = "150")
+    private Long popularity;
+}
@@ -0,0 +1,29 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sản phẩm đã bị xóa, trả về trong kết quả đồng bộ thay đổi
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Deleted product entry in a delta-sync response")
+public class ProductTombstoneResponse {
+
+    @Schema(description = "ID of the deleted product", example = "12")
+    private Integer productId;
+
+    @Schema(description = "Code of the deleted product", example = "SP12345")
+    private String productCode;
+
+    @Schema(description = "Deletion time")
+    private LocalDateTime deletedAt;
+}
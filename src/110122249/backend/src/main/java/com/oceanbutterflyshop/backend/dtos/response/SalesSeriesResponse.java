@@ -0,0 +1,23 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Một đường trên biểu đồ: giá trị theo từng khoảng, cùng thứ tự với bucketStarts (khoảng không có dữ liệu = 0)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSeriesResponse {
+    private String key;
+    private String label;
+    private List<Long> orders;
+    private List<BigDecimal> revenue;
+}
@@ -0,0 +1,27 @@
+package com.oceanbutterflyshop.backend.dtos.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Doanh số theo thời gian cho biểu đồ dashboard
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesTimeSeriesResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private String bucket;
+    private String groupBy;
+
+    // Ngày đầu của mỗi khoảng; khoảng đầu và cuối có thể chỉ gồm một phần nằm trong [from, to]
+    private List<LocalDate> bucketStarts;
+    private List<SalesSeriesResponse> series;
+}
@@ -0,0 +1,48 @@
+package com.oceanbutterflyshop.backend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Phiên bản của dữ liệu catalog dùng làm ETag / Last-Modified, dùng chung giữa các node.
+ *
+ * Mỗi dòng là phiên bản của một phần tử (khóa "PRODUCT:12") hoặc phiên bản nền của cả nhóm (khóa "PRODUCT:*"),
+ * tăng khi dữ liệu của phần tử / cả nhóm thay đổi. Số phiên bản lấy từ sequence catalog_version_seq.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "catalog_versions", indexes = {
+    @Index(name = "idx_catalog_versions_scope_version", columnList = "scope, version")
+})
+public class CatalogVersion {
+    // Hậu tố khóa của phiên bản nền
+    public static final String FLOOR_SUFFIX = "*";
+
+    @Id
+    @Column(name = "version_key", length = 40)
+    private String versionKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private CatalogScope scope;
+
+    @Column(nullable = false)
+    private Long version;
+
+    // Thời điểm thay đổi (epoch millis) do node ghi phiên bản đặt, nên mọi node trả cùng Last-Modified
+    @Column(name = "last_modified", nullable = false)
+    private Long lastModified;
+}
@@ -0,0 +1,81 @@
+package com.oceanbutterflyshop.backend.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Doanh số tổng hợp theo ngày, khóa theo (ngày đặt hàng, trạng thái, sản phẩm, thương hiệu, danh mục).
+ * Được cộng dồn trong cùng transaction với đơn hàng (tạo, đổi trạng thái, hủy, xóa) và đối soát định kỳ
+ * từ orders/order_items. Báo cáo theo khoảng ngày đọc O(số ngày) dòng thay vì O(số đơn hàng).
+ *
+ * Mỗi (ngày, trạng thái) có thêm một dòng tổng của đơn hàng (productId = 0, brandId = 0, danh mục = ALL):
+ * số đơn hàng riêng biệt và tổng tiền đơn hàng, vì một đơn nhiều sản phẩm được tính ở nhiều dòng sản phẩm.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "daily_sales_rollup", indexes = {
+    @Index(name = "idx_daily_sales_rollup_key",
+           columnList = "sales_date, order_status, product_id, brand_id, product_category", unique = true)
+})
+public class DailySalesRollup {
+    // Giá trị khóa của dòng tổng đơn hàng
+    public static final int ORDER_TOTAL_PRODUCT_ID = 0;
+    public static final int ORDER_TOTAL_BRAND_ID = 0;
+    public static final String ORDER_TOTAL_CATEGORY = "ALL";
+    // Sản phẩm chưa có thương hiệu/danh mục
+    public static final int NO_BRAND_ID = 0;
+    public static final String NO_CATEGORY = "NONE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", length = 20, nullable = false)
+    private OrderStatus orderStatus;
+
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    @Column(name = "brand_id", nullable = false)
+    private Integer brandId;
+
+    @Column(name = "product_category", length = 30, nullable = false)
+    private String productCategory;
+
+    // Dòng sản phẩm: số đơn hàng có sản phẩm; dòng tổng: số đơn hàng
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "item_quantity", nullable = false)
+    private Long itemQuantity;
+
+    // Dòng sản phẩm: tổng giá bán × số lượng; dòng tổng: tổng tiền đơn hàng
+    @Column(name = "sales_amount", precision = 17, scale = 2, nullable = false)
+    private BigDecimal salesAmount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
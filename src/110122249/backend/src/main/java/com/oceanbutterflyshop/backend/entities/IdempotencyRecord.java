@@ -0,0 +1,54 @@
+package com.oceanbutterflyshop.backend.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.oceanbutterflyshop.backend.enums.IdempotencyStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kết quả của một yêu cầu tạo đơn hàng theo Idempotency-Key, dùng chung giữa các node.
+ * Khóa bản ghi là SHA-256 của (tên đăng nhập, Idempotency-Key) nên mỗi người dùng có không gian khóa riêng.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_records", indexes = {
+    @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "record_key", length = 64)
+    private String recordKey;
+
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private IdempotencyStatus status;
+
+    // Mã ngẫu nhiên của lần xử lý đang giữ khóa; dùng để nhận lại khóa bị bỏ dở
+    @Column(name = "owner_token", length = 36)
+    private String ownerToken;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,60 @@
+package com.oceanbutterflyshop.backend.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.oceanbutterflyshop.backend.enums.InventoryChangeReason;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một thay đổi tồn kho chưa được gộp vào products.quantity_stock (chế độ inventory.mode=memory).
+ * Được ghi trong cùng transaction với đơn hàng (chỉ thêm dòng, không khóa dòng sản phẩm);
+ * tác vụ định kỳ cộng dồn delta theo sản phẩm vào bảng products rồi xóa các dòng đã gộp.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_journal", indexes = {
+    @Index(name = "idx_inventory_journal_product_id", columnList = "product_id")
+})
+public class InventoryJournalEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "journal_id")
+    private Long journalId;
+
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    // Âm khi giữ hàng, dương khi hoàn hàng/nhập thêm
+    @Column(name = "delta", nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", length = 20, nullable = false)
+    private InventoryChangeReason reason;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public InventoryJournalEntry(Integer productId, Integer delta, InventoryChangeReason reason) {
+        this.productId = productId;
+        this.delta = delta;
+        this.reason = reason;
+    }
+}
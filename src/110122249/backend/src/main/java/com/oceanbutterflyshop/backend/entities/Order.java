@@ -16,10 +16,13 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -27,7 +30,13 @@ import lombok.Data;
 
 @Entity
 @Data
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // Lịch sử đơn hàng của khách hàng và hàng đợi theo trạng thái (phân trang keyset theo ngày giảm dần)
+    @Index(name = "idx_orders_user_date", columnList = "user_id, order_date DESC, order_id DESC"),
+    @Index(name = "idx_orders_status_date", columnList = "order_status, order_date DESC, order_id DESC"),
+    // Biểu đồ doanh số theo phương thức thanh toán (quét theo khoảng ngày chỉ trên chỉ mục)
+    @Index(name = "idx_orders_date_payment", columnList = "order_date, payment_method, order_status, order_amount")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -66,6 +75,12 @@ public class Order {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Hủy đơn và đổi trạng thái/thanh toán cùng lúc: lần ghi dựa trên trạng thái cũ được đọc lại và kiểm tra lại
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "user_id")
     private User user;
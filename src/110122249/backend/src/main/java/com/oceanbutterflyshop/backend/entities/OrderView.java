@@ -0,0 +1,62 @@
+package com.oceanbutterflyshop.backend.entities;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.PaymentMethod;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mô hình đọc của đơn hàng: một dòng cho mỗi đơn, chứa sẵn OrderResponse (JSON) với tên, mã, thương hiệu
+ * và ảnh đại diện của sản phẩm tại thời điểm đặt hàng. Chi tiết và danh sách đơn hàng đọc một dòng/đơn
+ * thay vì nạp đơn hàng, người dùng, mục đơn hàng, sản phẩm, thương hiệu và ảnh.
+ * Các trường thay đổi sau khi tạo (trạng thái, thanh toán) nằm ở cột riêng và ghi đè lên tài liệu khi đọc.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_views", indexes = {
+    @Index(name = "idx_order_views_order_code", columnList = "order_code", unique = true)
+})
+public class OrderView {
+    @Id
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(name = "order_code", nullable = false, length = 10)
+    private String orderCode;
+
+    // Chủ đơn hàng, dùng để kiểm tra quyền xem mà không cần nạp đơn hàng
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", length = 20, nullable = false)
+    private OrderStatus orderStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", length = 20)
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "payment_date")
+    private LocalDate paymentDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "document", columnDefinition = "TEXT", nullable = false)
+    private String document;
+}
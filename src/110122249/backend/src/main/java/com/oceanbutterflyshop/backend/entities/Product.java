@@ -15,18 +15,27 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import lombok.Data;
 
 @Entity
 @Data
-@Table(name = "products")
+// Chỉ ghi các cột thay đổi: lưu thông tin sản phẩm không ghi đè quantity_stock do InventoryService quản lý
+@DynamicUpdate
+@Table(name = "products", indexes = {
+    // Đồng bộ thay đổi (GET /api/v1/products/changes)
+    @Index(name = "idx_products_updated_at", columnList = "updated_at")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -62,6 +71,12 @@ public class Product {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Hai lần sửa sản phẩm cùng lúc (updateProduct) không ghi đè lẫn nhau: lần sau được đọc lại và thử lại
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "brand_id")
     private Brand brand;
@@ -0,0 +1,34 @@
+package com.oceanbutterflyshop.backend.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bộ đếm số lượng đã bán của từng sản phẩm (bảng xếp hạng bán chạy được duy trì sẵn).
+ * Cập nhật khi tạo/hủy/xóa đơn hàng; không tính các đơn hàng đã hủy.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "product_sales")
+public class ProductSales {
+    @Id
+    @Column(name = "product_id")
+    private Integer productId;
+
+    @Column(name = "sold_quantity", nullable = false)
+    private Long soldQuantity;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
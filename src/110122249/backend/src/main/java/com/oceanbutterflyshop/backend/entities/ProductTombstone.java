@@ -0,0 +1,41 @@
+package com.oceanbutterflyshop.backend.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nhật ký sản phẩm đã bị xóa, để client đồng bộ thay đổi biết cần xóa sản phẩm nào khỏi bản sao cục bộ.
+ * Được dọn định kỳ sau thời gian lưu giữ (sync.tombstone-retention-days).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "product_tombstones", indexes = {
+    @Index(name = "idx_product_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class ProductTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long tombstoneId;
+
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+
+    @Column(name = "product_code", length = 10)
+    private String productCode;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -14,6 +14,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -25,7 +26,10 @@ import lombok.Data;
 
 @Entity
 @Data
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // Số khách hàng mới theo ngày (xu hướng trên dashboard)
+    @Index(name = "idx_users_created_at", columnList = "created_at")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
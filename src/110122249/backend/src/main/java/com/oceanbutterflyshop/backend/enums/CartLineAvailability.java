@@ -0,0 +1,12 @@
+package com.oceanbutterflyshop.backend.enums;
+
+/**
+ * Tình trạng của một dòng trong giỏ hàng khi tính giá
+ */
+public enum CartLineAvailability {
+    AVAILABLE,
+    INSUFFICIENT_STOCK,
+    // Sản phẩm ngừng kinh doanh: không bán dù còn tồn kho
+    UNAVAILABLE,
+    NOT_FOUND
+}
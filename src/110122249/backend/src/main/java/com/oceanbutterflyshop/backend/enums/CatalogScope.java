@@ -0,0 +1,12 @@
+package com.oceanbutterflyshop.backend.enums;
+
+/**
+ * Các nhóm dữ liệu catalog được theo dõi phiên bản để hỗ trợ HTTP conditional GET.
+ * Khóa của từng phần tử: PRODUCT/IMAGE theo productId, BRAND theo brandId, REVIEW theo productId.
+ */
+public enum CatalogScope {
+    PRODUCT,
+    BRAND,
+    REVIEW,
+    IMAGE
+}
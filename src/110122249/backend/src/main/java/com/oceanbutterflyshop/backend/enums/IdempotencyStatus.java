@@ -0,0 +1,9 @@
+package com.oceanbutterflyshop.backend.enums;
+
+/**
+ * Trạng thái của một Idempotency-Key
+ */
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,10 @@
+package com.oceanbutterflyshop.backend.enums;
+
+/**
+ * Nguyên nhân của một thay đổi tồn kho ghi trong nhật ký inventory_journal
+ */
+public enum InventoryChangeReason {
+    ORDER,
+    CANCEL,
+    ADJUSTMENT
+}
@@ -0,0 +1,11 @@
+package com.oceanbutterflyshop.backend.enums;
+
+/**
+ * Trạng thái của một đơn hàng gửi qua chế độ đặt hàng bất đồng bộ
+ */
+public enum OrderIntakeStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
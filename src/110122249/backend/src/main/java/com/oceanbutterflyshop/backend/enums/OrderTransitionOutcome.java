@@ -0,0 +1,11 @@
+package com.oceanbutterflyshop.backend.enums;
+
+/**
+ * Kết quả chuyển trạng thái của một đơn hàng trong yêu cầu cập nhật hàng loạt
+ */
+public enum OrderTransitionOutcome {
+    UPDATED,
+    UNCHANGED,
+    REJECTED,
+    NOT_FOUND
+}
@@ -0,0 +1,37 @@
+package com.oceanbutterflyshop.backend.enums;
+
+import java.math.BigDecimal;
+
+/**
+ * Các khoảng giá dùng cho bộ lọc (facet) trên trang danh sách sản phẩm.
+ * Cận dưới bao gồm, cận trên không bao gồm; null nghĩa là không giới hạn.
+ */
+public enum PriceRange {
+    UNDER_100K("Dưới 100.000đ", null, new BigDecimal("100000")),
+    FROM_100K_TO_300K("100.000đ - 300.000đ", new BigDecimal("100000"), new BigDecimal("300000")),
+    FROM_300K_TO_500K("300.000đ - 500.000đ", new BigDecimal("300000"), new BigDecimal("500000")),
+    FROM_500K_TO_1M("500.000đ - 1.000.000đ", new BigDecimal("500000"), new BigDecimal("1000000")),
+    OVER_1M("Trên 1.000.000đ", new BigDecimal("1000000"), null);
+
+    private final String displayName;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+
+    PriceRange(String displayName, BigDecimal minPrice, BigDecimal maxPrice) {
+        this.displayName = displayName;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+}
@@ -0,0 +1,12 @@
+package com.oceanbutterflyshop.backend.enums;
+
+/**
+ * Cách chia doanh số thành nhiều đường trên biểu đồ theo thời gian
+ */
+public enum SalesGroupBy {
+    NONE,            // Một đường cho toàn bộ đơn hàng
+    STATUS,          // Theo trạng thái đơn hàng
+    PAYMENT_METHOD,  // Theo phương thức thanh toán
+    CATEGORY,        // Theo danh mục sản phẩm
+    BRAND            // Theo thương hiệu
+}
@@ -0,0 +1,36 @@
+package com.oceanbutterflyshop.backend.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Độ rộng của một điểm trên biểu đồ theo thời gian (tương tự date_trunc: tuần bắt đầu thứ Hai)
+ */
+public enum TimeBucket {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * Ngày đầu của khoảng chứa date
+     */
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Ngày đầu của khoảng kế tiếp
+     */
+    public LocalDate next(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.oceanbutterflyshop.backend.events;
+
+/**
+ * Sự kiện phát ra khi thông tin thương hiệu thay đổi.
+ * Thông tin thương hiệu được nhúng trong dữ liệu sản phẩm (ProductResponse, chỉ mục tìm kiếm)
+ * nên các sản phẩm thuộc thương hiệu cần được làm mới.
+ *
+ * @param brandId ID thương hiệu
+ */
+public record BrandChangedEvent(Integer brandId) {
+}
@@ -0,0 +1,33 @@
+package com.oceanbutterflyshop.backend.events;
+
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
+import com.oceanbutterflyshop.backend.utils.BoundedTtlCache;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Vô hiệu hóa cache chi tiết sản phẩm sau khi thay đổi đã được commit.
+ * fallbackExecution = true để vẫn xử lý khi sự kiện được phát ngoài transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidationListener {
+
+    private final BoundedTtlCache<Integer, ProductResponse> productDetailCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        event.productIds().forEach(productDetailCache::invalidate);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        // Chỉ các sản phẩm thuộc thương hiệu này bị ảnh hưởng
+        productDetailCache.invalidateIf(product -> Objects.equals(product.getBrandId(), event.brandId()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.oceanbutterflyshop.backend.events;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Sự kiện phát ra khi dữ liệu hiển thị của sản phẩm thay đổi
+ * (thông tin sản phẩm, tồn kho, hình ảnh hoặc sản phẩm bị xóa).
+ *
+ * Được xử lý sau khi transaction commit để các cache/chỉ mục trong bộ nhớ
+ * không bao giờ phản ánh dữ liệu chưa được ghi.
+ *
+ * @param productIds ID các sản phẩm bị ảnh hưởng
+ * @param change Phần dữ liệu thay đổi; bên xử lý có thể bỏ qua thay đổi không liên quan tới dữ liệu của nó
+ */
+public record ProductChangedEvent(Set<Integer> productIds, Change change) {
+
+    public enum Change {
+        /**
+         * Thông tin sản phẩm (tên, mô tả, giá, thương hiệu, trạng thái...), sản phẩm được tạo hoặc bị xóa
+         */
+        DETAILS,
+        /**
+         * Chỉ tồn kho (và số lượng đã bán) thay đổi: tạo/hủy/xóa đơn hàng, điều chỉnh tồn kho
+         */
+        STOCK,
+        /**
+         * Chỉ hình ảnh của sản phẩm thay đổi
+         */
+        IMAGES
+    }
+
+    public static ProductChangedEvent of(Integer productId) {
+        return new ProductChangedEvent(Set.of(productId), Change.DETAILS);
+    }
+
+    public static ProductChangedEvent of(Collection<Integer> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), Change.DETAILS);
+    }
+
+    public static ProductChangedEvent stockChanged(Integer productId) {
+        return new ProductChangedEvent(Set.of(productId), Change.STOCK);
+    }
+
+    public static ProductChangedEvent stockChanged(Collection<Integer> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), Change.STOCK);
+    }
+
+    public static ProductChangedEvent imagesChanged(Collection<Integer> productIds) {
+        return new ProductChangedEvent(Set.copyOf(productIds), Change.IMAGES);
+    }
+}
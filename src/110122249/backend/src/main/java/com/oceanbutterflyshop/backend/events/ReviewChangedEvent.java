@@ -0,0 +1,9 @@
+package com.oceanbutterflyshop.backend.events;
+
+/**
+ * Sự kiện phát ra khi đánh giá của một sản phẩm được tạo, sửa hoặc xóa.
+ *
+ * @param productId ID sản phẩm được đánh giá
+ */
+public record ReviewChangedEvent(Integer productId) {
+}
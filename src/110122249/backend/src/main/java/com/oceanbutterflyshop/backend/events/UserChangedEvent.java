@@ -0,0 +1,11 @@
+package com.oceanbutterflyshop.backend.events;
+
+/**
+ * Sự kiện phát ra khi tên hiển thị của người dùng thay đổi hoặc người dùng bị xóa.
+ * Tên người dùng được nhúng trong dữ liệu đánh giá (ReviewResponse) và đánh giá bị xóa theo người dùng,
+ * nên các danh sách đánh giá cần được làm mới.
+ *
+ * @param userId ID người dùng
+ */
+public record UserChangedEvent(Integer userId) {
+}
@@ -0,0 +1,10 @@
+package com.oceanbutterflyshop.backend.exceptions;
+
+/**
+ * Yêu cầu xung đột với trạng thái hiện tại của tài nguyên (HTTP 409)
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
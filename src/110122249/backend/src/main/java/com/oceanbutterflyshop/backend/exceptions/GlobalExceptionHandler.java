@@ -1,6 +1,8 @@
 package com.oceanbutterflyshop.backend.exceptions;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
@@ -36,6 +38,35 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiResponse<Object>> handleConflictException(
+            ConflictException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            ApiResponse.error(HttpStatus.CONFLICT.value(), ex.getMessage()),
+            HttpStatus.CONFLICT
+        );
+    }
+
+    /**
+     * Xung đột khóa lạc quan vẫn còn sau khi đã thử lại (@RetryOnOptimisticLock)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            ApiResponse.error(HttpStatus.CONFLICT.value(), "The resource was modified by another request, please reload and try again"),
+            HttpStatus.CONFLICT
+        );
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(ApiResponse.error(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage()));
+    }
+
     /**
      * Xử lý lỗi validation từ các annotation @Valid
      * Trả về định dạng phản hồi API chuẩn với chi tiết lỗi validation
@@ -0,0 +1,18 @@
+package com.oceanbutterflyshop.backend.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Không đủ tồn kho để giữ hàng cho một sản phẩm (HTTP 400 như các lỗi nghiệp vụ khác)
+ */
+@Getter
+public class InsufficientStockException extends BadRequestException {
+    private final Integer productId;
+    private final int requestedQuantity;
+
+    public InsufficientStockException(Integer productId, int requestedQuantity) {
+        super("Insufficient stock for product id: " + productId + ". Requested: " + requestedQuantity);
+        this.productId = productId;
+        this.requestedQuantity = requestedQuantity;
+    }
+}
@@ -0,0 +1,16 @@
+package com.oceanbutterflyshop.backend.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Máy chủ tạm thời quá tải, client nên thử lại sau (HTTP 503 kèm Retry-After)
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
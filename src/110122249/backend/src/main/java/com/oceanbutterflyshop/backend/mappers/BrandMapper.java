@@ -11,7 +11,7 @@ public class BrandMapper {
     
     /**
      * Chuyển BrandRequest thành Brand entity
-     * Note: brandCode sẽ được thiết lập bởi service sử dụng CodeGeneratorUtils
+     * Note: brandCode sẽ được cấp phát bởi CodeAllocatorService
      */
     public Brand toEntity(BrandRequest request) {
         if (request == null) {
@@ -23,7 +23,7 @@ public class OrderMapper {
     
     /**
      * Chuyển OrderRequest thành Order entity
-     * Note: orderCode sẽ được thiết lập bởi service sử dụng CodeGeneratorUtils
+     * Note: orderCode sẽ được cấp phát bởi CodeAllocatorService
      */
     public Order toEntity(OrderRequest request, User user) {
         if (request == null) {
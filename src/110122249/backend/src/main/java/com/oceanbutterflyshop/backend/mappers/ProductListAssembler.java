@@ -0,0 +1,77 @@
+package com.oceanbutterflyshop.backend.mappers;
+
+import org.springframework.stereotype.Component;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
+import com.oceanbutterflyshop.backend.entities.Image;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.repositories.ImageRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Dựng danh sách ProductResponse cho các trang danh sách sản phẩm mà không gây N+1 truy vấn.
+ *
+ * Với một danh sách ID (đã phân trang, đã sắp xếp), chỉ dùng đúng 2 truy vấn:
+ * - Sản phẩm kèm thương hiệu (JOIN FETCH)
+ * - Hình ảnh của tất cả sản phẩm trong trang (IN)
+ * Số truy vấn không phụ thuộc vào kích thước trang.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductListAssembler {
+
+    private final ProductRepository productRepository;
+    private final ImageRepository imageRepository;
+    private final ProductMapper productMapper;
+
+    /**
+     * Tải và chuyển đổi sản phẩm theo danh sách ID, giữ nguyên thứ tự đầu vào.
+     * ID không còn tồn tại sẽ bị bỏ qua.
+     *
+     * @param productIds Danh sách ID sản phẩm theo thứ tự hiển thị
+     * @return Danh sách ProductResponse theo đúng thứ tự của productIds
+     */
+    public List<ProductResponse> toResponses(List<Integer> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Product> productsById = productRepository.findAllWithBrandByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        Map<Integer, List<Image>> imagesByProductId = loadImages(productsById.keySet());
+
+        List<ProductResponse> responses = new ArrayList<>(productIds.size());
+        for (Integer productId : productIds) {
+            Product product = productsById.get(productId);
+            if (product != null) {
+                responses.add(productMapper.toResponse(
+                    product, imagesByProductId.getOrDefault(productId, List.of())
+                ));
+            }
+        }
+        return responses;
+    }
+
+    private Map<Integer, List<Image>> loadImages(Collection<Integer> productIds) {
+        Map<Integer, List<Image>> imagesByProductId = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return imagesByProductId;
+        }
+        for (Image image : imageRepository.findByProductIds(productIds)) {
+            imagesByProductId
+                    .computeIfAbsent(image.getProduct().getProductId(), key -> new ArrayList<>())
+                    .add(image);
+        }
+        return imagesByProductId;
+    }
+}
@@ -6,6 +6,7 @@ import com.oceanbutterflyshop.backend.dtos.request.ProductRequestDTO;
 import com.oceanbutterflyshop.backend.dtos.response.ImageResponse;
 import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
 import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Image;
 import com.oceanbutterflyshop.backend.entities.Product;
 
 import java.util.List;
@@ -16,7 +17,7 @@ public class ProductMapper {
     
     /**
      * Chuyển ProductRequest thành entity Product
-     * Note: productCode sẽ được thiết lập bởi service sử dụng CodeGeneratorUtils
+     * Note: productCode sẽ được cấp phát bởi CodeAllocatorService
      */
     public Product toEntity(ProductRequestDTO request, Brand brand) {
         if (request == null) {
@@ -59,6 +60,18 @@ public class ProductMapper {
         if (product == null) {
             return null;
         }
+        return toResponse(product, product.getImages());
+    }
+    
+    /**
+     * Chuyển đổi entity Product thành ProductResponse với danh sách hình ảnh đã được tải sẵn.
+     * Dùng cho trang danh sách: hình ảnh của cả trang được tải bằng một truy vấn
+     * thay vì truy cập product.getImages() (lazy) cho từng sản phẩm.
+     */
+    public ProductResponse toResponse(Product product, List<Image> images) {
+        if (product == null) {
+            return null;
+        }
         
         ProductResponse response = new ProductResponse();
         response.setProductId(product.getProductId());
@@ -82,15 +95,15 @@ public class ProductMapper {
         }
         
         // Cập nhật thông tin hình ảnh
-        if (product.getImages() != null) {
-            List<ImageResponse> imageResponses = product.getImages().stream()
+        if (images != null) {
+            List<ImageResponse> imageResponses = images.stream()
                     .map(image -> {
                         ImageResponse imageResponse = new ImageResponse();
                         imageResponse.setImageId(image.getImageId());
-                        imageResponse.setProductId(image.getProduct().getProductId());
+                        imageResponse.setProductId(product.getProductId());
                         imageResponse.setImageName(image.getImageName());
                         imageResponse.setImageURL(image.getImageURL());
-                        imageResponse.setProductName(image.getProduct().getProductName());
+                        imageResponse.setProductName(product.getProductName());
                         return imageResponse;
                     })
                     .collect(Collectors.toList());
@@ -13,7 +13,7 @@ public class UserMapper {
     
     /**
      * Chuyển UserRequest thành entity User
-     * Note: userCode sẽ được thiết lập bởi service sử dụng CodeGeneratorUtils
+     * Note: userCode sẽ được cấp phát bởi CodeAllocatorService
      */
     public User toEntity(UserRequest request, Role role) {
         if (request == null) {
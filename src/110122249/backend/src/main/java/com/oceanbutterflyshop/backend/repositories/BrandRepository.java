@@ -1,8 +1,11 @@
 package com.oceanbutterflyshop.backend.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.oceanbutterflyshop.backend.entities.Brand;
@@ -12,4 +15,10 @@ public interface BrandRepository extends JpaRepository<Brand, Integer> {
     List<Brand> findByBrandNameContainingIgnoreCase(String brandName);
     Optional<Brand> findByBrandCode(String brandCode);
     boolean existsByBrandCode(String brandCode);
+
+    /**
+     * Lọc ra các mã thương hiệu đã tồn tại trong danh sách (kiểm tra cả khối mã bằng một truy vấn)
+     */
+    @Query("SELECT b.brandCode FROM Brand b WHERE b.brandCode IN :brandCodes")
+    List<String> findExistingBrandCodes(@Param("brandCodes") Collection<String> brandCodes);
 }
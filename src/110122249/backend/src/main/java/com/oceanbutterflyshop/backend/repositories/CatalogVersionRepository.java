@@ -0,0 +1,24 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.oceanbutterflyshop.backend.entities.CatalogVersion;
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String>, CatalogVersionRepositoryCustom {
+
+    /**
+     * Phiên bản mới nhất của cả nhóm (theo chỉ mục (scope, version))
+     */
+    Optional<CatalogVersion> findFirstByScopeOrderByVersionDesc(CatalogScope scope);
+
+    /**
+     * Phiên bản mới nhất trong các khóa cho trước (phần tử và phiên bản nền của nhóm)
+     */
+    Optional<CatalogVersion> findFirstByVersionKeyInOrderByVersionDesc(Collection<String> versionKeys);
+}
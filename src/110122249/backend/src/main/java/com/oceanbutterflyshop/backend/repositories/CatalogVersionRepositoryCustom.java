@@ -0,0 +1,30 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+
+/**
+ * Các câu lệnh của CatalogVersionRepository viết tay (phụ thuộc DB) không biểu diễn được bằng @Query
+ */
+public interface CatalogVersionRepositoryCustom {
+
+    /**
+     * Tạo sequence catalog_version_seq nếu chưa có
+     */
+    void createVersionSequence();
+
+    /**
+     * Lấy số phiên bản tiếp theo. Gọi sau khi thay đổi dữ liệu đã commit, nên mọi thay đổi commit sau
+     * một phiên bản đều nhận số lớn hơn.
+     */
+    long nextVersion();
+
+    /**
+     * Ghi phiên bản của một khóa; không bao giờ hạ phiên bản đã có (các node có thể ghi không theo thứ tự)
+     */
+    void upsertVersion(String versionKey, CatalogScope scope, long version, long lastModified);
+
+    /**
+     * Tạo phiên bản cho khóa nếu chưa có, giữ nguyên nếu đã có
+     */
+    void insertVersionIfMissing(String versionKey, CatalogScope scope, long version, long lastModified);
+}
@@ -0,0 +1,94 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+import com.oceanbutterflyshop.backend.utils.SqlUpsertUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Triển khai các câu lệnh tùy chỉnh của CatalogVersionRepository
+ */
+public class CatalogVersionRepositoryImpl implements CatalogVersionRepositoryCustom {
+
+    static final String VERSION_SEQUENCE = "catalog_version_seq";
+
+    static final String ON_CONFLICT_UPSERT =
+            "INSERT INTO catalog_versions (version_key, scope, version, last_modified) " +
+            "VALUES (:versionKey, :scope, :version, :lastModified) " +
+            "ON CONFLICT (version_key) DO UPDATE SET " +
+            "last_modified = CASE WHEN EXCLUDED.version > catalog_versions.version " +
+            "THEN EXCLUDED.last_modified ELSE catalog_versions.last_modified END, " +
+            "version = GREATEST(catalog_versions.version, EXCLUDED.version)";
+
+    static final String MERGE_UPSERT =
+            "MERGE INTO catalog_versions c " +
+            "USING (SELECT CAST(:versionKey AS VARCHAR(40)) AS version_key, CAST(:scope AS VARCHAR(10)) AS scope, " +
+            "CAST(:version AS BIGINT) AS version, CAST(:lastModified AS BIGINT) AS last_modified) v " +
+            "ON c.version_key = v.version_key " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "last_modified = CASE WHEN v.version > c.version THEN v.last_modified ELSE c.last_modified END, " +
+            "version = GREATEST(c.version, v.version) " +
+            "WHEN NOT MATCHED THEN INSERT (version_key, scope, version, last_modified) " +
+            "VALUES (v.version_key, v.scope, v.version, v.last_modified)";
+
+    static final String ON_CONFLICT_INSERT_IF_MISSING =
+            "INSERT INTO catalog_versions (version_key, scope, version, last_modified) " +
+            "VALUES (:versionKey, :scope, :version, :lastModified) " +
+            "ON CONFLICT (version_key) DO NOTHING";
+
+    static final String MERGE_INSERT_IF_MISSING =
+            "MERGE INTO catalog_versions c " +
+            "USING (SELECT CAST(:versionKey AS VARCHAR(40)) AS version_key, CAST(:scope AS VARCHAR(10)) AS scope, " +
+            "CAST(:version AS BIGINT) AS version, CAST(:lastModified AS BIGINT) AS last_modified) v " +
+            "ON c.version_key = v.version_key " +
+            "WHEN NOT MATCHED THEN INSERT (version_key, scope, version, last_modified) " +
+            "VALUES (v.version_key, v.scope, v.version, v.last_modified)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void createVersionSequence() {
+        entityManager.createNativeQuery("CREATE SEQUENCE IF NOT EXISTS " + VERSION_SEQUENCE + " START WITH 1")
+                .executeUpdate();
+    }
+
+    @Override
+    public long nextVersion() {
+        String query = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport()
+                .getSequenceNextValString(VERSION_SEQUENCE);
+        Number value = (Number) entityManager.createNativeQuery(query)
+                .setFlushMode(FlushModeType.COMMIT)
+                .getSingleResult();
+        return value.longValue();
+    }
+
+    @Override
+    public void upsertVersion(String versionKey, CatalogScope scope, long version, long lastModified) {
+        execute(SqlUpsertUtils.supportsOnConflict(entityManager) ? ON_CONFLICT_UPSERT : MERGE_UPSERT,
+                versionKey, scope, version, lastModified);
+    }
+
+    @Override
+    public void insertVersionIfMissing(String versionKey, CatalogScope scope, long version, long lastModified) {
+        execute(SqlUpsertUtils.supportsOnConflict(entityManager) ? ON_CONFLICT_INSERT_IF_MISSING : MERGE_INSERT_IF_MISSING,
+                versionKey, scope, version, lastModified);
+    }
+
+    private void execute(String sql, String versionKey, CatalogScope scope, long version, long lastModified) {
+        entityManager.createNativeQuery(sql)
+                .setParameter("versionKey", versionKey)
+                .setParameter("scope", scope.name())
+                .setParameter("version", version)
+                .setParameter("lastModified", lastModified)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,176 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.oceanbutterflyshop.backend.entities.DailySalesRollup;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long>, DailySalesRollupRepositoryCustom {
+
+    // ===== Cập nhật cộng dồn =====
+
+    /**
+     * Phần đóng góp của các mục đơn hàng vào dòng sản phẩm (chưa gồm trạng thái: do nơi gọi quyết định)
+     */
+    interface ItemContribution {
+        LocalDate getSalesDate();
+        Integer getProductId();
+        Integer getBrandId();
+        ProductCategory getProductCategory();
+        Long getOrderCount();
+        Long getItemQuantity();
+        BigDecimal getSalesAmount();
+    }
+
+    @Query("SELECT o.orderDate AS salesDate, p.productId AS productId, b.brandId AS brandId, " +
+           "p.productCategory AS productCategory, COUNT(DISTINCT o.orderId) AS orderCount, " +
+           "SUM(oi.itemQuantity) AS itemQuantity, SUM(oi.itemPrice * oi.itemQuantity) AS salesAmount " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p LEFT JOIN p.brand b " +
+           "WHERE o.orderId IN :orderIds " +
+           "GROUP BY o.orderDate, p.productId, b.brandId, p.productCategory")
+    List<ItemContribution> summarizeItems(@Param("orderIds") Collection<Integer> orderIds);
+
+    /**
+     * Phần đóng góp của đơn hàng vào dòng tổng (số đơn, tổng tiền đơn hàng)
+     */
+    interface OrderContribution {
+        LocalDate getSalesDate();
+        Long getOrderCount();
+        BigDecimal getSalesAmount();
+    }
+
+    @Query("SELECT o.orderDate AS salesDate, COUNT(o) AS orderCount, SUM(o.orderAmount) AS salesAmount " +
+           "FROM Order o WHERE o.orderId IN :orderIds GROUP BY o.orderDate")
+    List<OrderContribution> summarizeOrders(@Param("orderIds") Collection<Integer> orderIds);
+
+    // ===== Tính lại từ orders/order_items =====
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_sales_rollup WHERE sales_date BETWEEN :fromDate AND :toDate", nativeQuery = true)
+    int deleteRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Tạo lại các dòng sản phẩm của khoảng ngày từ order_items
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup (sales_date, order_status, product_id, brand_id, product_category, " +
+                   "order_count, item_quantity, sales_amount, updated_at) " +
+                   "SELECT o.order_date, o.order_status, p.product_id, COALESCE(p.brand_id, 0), " +
+                   "COALESCE(p.product_category, 'NONE'), COUNT(DISTINCT o.order_id), SUM(oi.item_quantity), " +
+                   "SUM(oi.item_price * oi.item_quantity), CURRENT_TIMESTAMP " +
+                   "FROM orders o " +
+                   "JOIN order_items oi ON oi.order_id = o.order_id " +
+                   "JOIN products p ON p.product_id = oi.product_id " +
+                   "WHERE o.order_date BETWEEN :fromDate AND :toDate " +
+                   "GROUP BY o.order_date, o.order_status, p.product_id, p.brand_id, p.product_category",
+           nativeQuery = true)
+    int insertItemRows(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Tạo lại các dòng tổng đơn hàng của khoảng ngày từ orders
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_rollup (sales_date, order_status, product_id, brand_id, product_category, " +
+                   "order_count, item_quantity, sales_amount, updated_at) " +
+                   "SELECT o.order_date, o.order_status, 0, 0, 'ALL', COUNT(*), COALESCE(SUM(q.item_quantity), 0), " +
+                   "SUM(o.order_amount), CURRENT_TIMESTAMP " +
+                   "FROM orders o " +
+                   "LEFT JOIN (SELECT oi.order_id, SUM(oi.item_quantity) AS item_quantity FROM order_items oi " +
+                   "           JOIN orders io ON io.order_id = oi.order_id " +
+                   "           WHERE io.order_date BETWEEN :fromDate AND :toDate GROUP BY oi.order_id) q " +
+                   "ON q.order_id = o.order_id " +
+                   "WHERE o.order_date BETWEEN :fromDate AND :toDate " +
+                   "GROUP BY o.order_date, o.order_status",
+           nativeQuery = true)
+    int insertOrderTotalRows(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    // ===== Truy vấn theo khoảng ngày =====
+
+    /**
+     * Số đơn, số lượng sản phẩm và doanh số của mỗi (ngày, trạng thái)
+     */
+    interface DailyTotalView {
+        LocalDate getSalesDate();
+        OrderStatus getOrderStatus();
+        Long getOrderCount();
+        Long getItemQuantity();
+        BigDecimal getSalesAmount();
+    }
+
+    @Query("SELECT r.salesDate AS salesDate, r.orderStatus AS orderStatus, r.orderCount AS orderCount, " +
+           "r.itemQuantity AS itemQuantity, r.salesAmount AS salesAmount FROM DailySalesRollup r " +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate AND r.productId = 0 " +
+           "ORDER BY r.salesDate, r.orderStatus")
+    List<DailyTotalView> findDailyTotals(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Số lượng và doanh số của từng sản phẩm trong khoảng ngày
+     */
+    interface ProductTotalView {
+        Integer getProductId();
+        Long getOrderCount();
+        Long getItemQuantity();
+        BigDecimal getSalesAmount();
+    }
+
+    @Query("SELECT r.productId AS productId, SUM(r.orderCount) AS orderCount, SUM(r.itemQuantity) AS itemQuantity, " +
+           "SUM(r.salesAmount) AS salesAmount FROM DailySalesRollup r " +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate AND r.productId <> 0 AND r.orderStatus IN :statuses " +
+           "GROUP BY r.productId ORDER BY SUM(r.itemQuantity) DESC, r.productId")
+    List<ProductTotalView> findProductTotals(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                             @Param("statuses") Collection<OrderStatus> statuses, Limit limit);
+
+    /**
+     * Ngày bán đầu tiên trong khoảng của mỗi sản phẩm có bán (không tính đơn hàng ở trạng thái loại trừ)
+     */
+    interface FirstSaleView {
+        Integer getProductId();
+        LocalDate getFirstSaleDate();
+    }
+
+    @Query("SELECT r.productId AS productId, MIN(r.salesDate) AS firstSaleDate FROM DailySalesRollup r " +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate AND r.productId <> 0 " +
+           "AND r.orderStatus <> :excludedStatus AND r.itemQuantity > 0 GROUP BY r.productId")
+    List<FirstSaleView> findFirstSaleDates(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                           @Param("excludedStatus") OrderStatus excludedStatus);
+
+    /**
+     * Số đơn và doanh số của mỗi (ngày, nhóm) từ các dòng sản phẩm, không tính đơn hàng ở trạng thái loại trừ
+     */
+    interface DailyGroupTotalView {
+        LocalDate getSalesDate();
+        String getGroupKey();
+        Long getOrderCount();
+        BigDecimal getSalesAmount();
+    }
+
+    @Query("SELECT r.salesDate AS salesDate, r.productCategory AS groupKey, SUM(r.orderCount) AS orderCount, " +
+           "SUM(r.salesAmount) AS salesAmount FROM DailySalesRollup r " +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate AND r.productId <> 0 " +
+           "AND r.orderStatus <> :excludedStatus GROUP BY r.salesDate, r.productCategory")
+    List<DailyGroupTotalView> sumByDayAndCategory(@Param("fromDate") LocalDate fromDate,
+                                                  @Param("toDate") LocalDate toDate,
+                                                  @Param("excludedStatus") OrderStatus excludedStatus);
+
+    @Query("SELECT r.salesDate AS salesDate, CAST(r.brandId AS String) AS groupKey, SUM(r.orderCount) AS orderCount, " +
+           "SUM(r.salesAmount) AS salesAmount FROM DailySalesRollup r " +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate AND r.productId <> 0 " +
+           "AND r.orderStatus <> :excludedStatus GROUP BY r.salesDate, r.brandId")
+    List<DailyGroupTotalView> sumByDayAndBrand(@Param("fromDate") LocalDate fromDate,
+                                               @Param("toDate") LocalDate toDate,
+                                               @Param("excludedStatus") OrderStatus excludedStatus);
+
+    boolean existsBySalesDate(LocalDate salesDate);
+}
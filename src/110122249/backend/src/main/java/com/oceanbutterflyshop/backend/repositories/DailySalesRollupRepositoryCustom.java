@@ -0,0 +1,21 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+
+/**
+ * Các câu lệnh ghi bảng doanh số tổng hợp viết tay (phụ thuộc DB) không biểu diễn được bằng @Query
+ */
+public interface DailySalesRollupRepositoryCustom {
+
+    /**
+     * Cộng delta (có thể âm) vào một dòng, tạo dòng nếu khóa chưa tồn tại, trong một câu lệnh nguyên tử
+     * (khóa dòng đến khi commit). Hai transaction cùng tạo một khóa mới không lỗi trùng khóa.
+     */
+    void upsertDelta(LocalDate salesDate, OrderStatus orderStatus, Integer productId, Integer brandId,
+                     String productCategory, long orderCount, long itemQuantity, BigDecimal salesAmount,
+                     LocalDateTime now);
+}
@@ -0,0 +1,66 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.utils.SqlUpsertUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Triển khai các câu lệnh ghi tùy chỉnh của DailySalesRollupRepository
+ */
+public class DailySalesRollupRepositoryImpl implements DailySalesRollupRepositoryCustom {
+
+    private static final String ON_CONFLICT_UPSERT =
+            "INSERT INTO daily_sales_rollup (sales_date, order_status, product_id, brand_id, product_category, " +
+            "order_count, item_quantity, sales_amount, updated_at) " +
+            "VALUES (:salesDate, :orderStatus, :productId, :brandId, :productCategory, " +
+            ":orderCount, :itemQuantity, :salesAmount, :now) " +
+            "ON CONFLICT (sales_date, order_status, product_id, brand_id, product_category) DO UPDATE SET " +
+            "order_count = daily_sales_rollup.order_count + EXCLUDED.order_count, " +
+            "item_quantity = daily_sales_rollup.item_quantity + EXCLUDED.item_quantity, " +
+            "sales_amount = daily_sales_rollup.sales_amount + EXCLUDED.sales_amount, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO daily_sales_rollup r " +
+            "USING (SELECT CAST(:salesDate AS DATE) AS sales_date, CAST(:orderStatus AS VARCHAR(20)) AS order_status, " +
+            "CAST(:productId AS INTEGER) AS product_id, CAST(:brandId AS INTEGER) AS brand_id, " +
+            "CAST(:productCategory AS VARCHAR(30)) AS product_category, CAST(:orderCount AS BIGINT) AS order_count, " +
+            "CAST(:itemQuantity AS BIGINT) AS item_quantity, CAST(:salesAmount AS NUMERIC(17, 2)) AS sales_amount, " +
+            "CAST(:now AS TIMESTAMP) AS updated_at) v " +
+            "ON r.sales_date = v.sales_date AND r.order_status = v.order_status AND r.product_id = v.product_id " +
+            "AND r.brand_id = v.brand_id AND r.product_category = v.product_category " +
+            "WHEN MATCHED THEN UPDATE SET order_count = r.order_count + v.order_count, " +
+            "item_quantity = r.item_quantity + v.item_quantity, sales_amount = r.sales_amount + v.sales_amount, " +
+            "updated_at = v.updated_at " +
+            "WHEN NOT MATCHED THEN INSERT (sales_date, order_status, product_id, brand_id, product_category, " +
+            "order_count, item_quantity, sales_amount, updated_at) " +
+            "VALUES (v.sales_date, v.order_status, v.product_id, v.brand_id, v.product_category, " +
+            "v.order_count, v.item_quantity, v.sales_amount, v.updated_at)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void upsertDelta(LocalDate salesDate, OrderStatus orderStatus, Integer productId, Integer brandId,
+                            String productCategory, long orderCount, long itemQuantity, BigDecimal salesAmount,
+                            LocalDateTime now) {
+        entityManager.createNativeQuery(SqlUpsertUtils.supportsOnConflict(entityManager)
+                        ? ON_CONFLICT_UPSERT : MERGE_UPSERT)
+                .setParameter("salesDate", salesDate)
+                .setParameter("orderStatus", orderStatus.name())
+                .setParameter("productId", productId)
+                .setParameter("brandId", brandId)
+                .setParameter("productCategory", productCategory)
+                .setParameter("orderCount", orderCount)
+                .setParameter("itemQuantity", itemQuantity)
+                .setParameter("salesAmount", salesAmount)
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+}
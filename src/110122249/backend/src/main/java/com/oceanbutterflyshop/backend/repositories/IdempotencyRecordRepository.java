@@ -0,0 +1,68 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.oceanbutterflyshop.backend.entities.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Giữ khóa cho lần xử lý đầu tiên. Dùng INSERT thay vì save() để yêu cầu trùng
+     * (cùng node hoặc node khác) nhận lỗi trùng khóa chứ không ghi đè.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_records (record_key, request_hash, status, owner_token, locked_at, expires_at) " +
+                   "VALUES (:recordKey, :requestHash, 'IN_PROGRESS', :ownerToken, :now, :expiresAt)",
+           nativeQuery = true)
+    int insertInProgress(@Param("recordKey") String recordKey, @Param("requestHash") String requestHash,
+                         @Param("ownerToken") String ownerToken, @Param("now") LocalDateTime now,
+                         @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Nhận lại khóa đang IN_PROGRESS nhưng đã quá hạn giữ (node xử lý trước bị dừng giữa chừng)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.ownerToken = :ownerToken, r.lockedAt = :now " +
+           "WHERE r.recordKey = :recordKey AND r.status = com.oceanbutterflyshop.backend.enums.IdempotencyStatus.IN_PROGRESS " +
+           "AND r.lockedAt < :staleBefore")
+    int takeOver(@Param("recordKey") String recordKey, @Param("ownerToken") String ownerToken,
+                 @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Lưu kết quả; chỉ thành công nếu lần xử lý này vẫn đang giữ khóa
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.oceanbutterflyshop.backend.enums.IdempotencyStatus.COMPLETED, " +
+           "r.responseBody = :responseBody, r.ownerToken = NULL, r.expiresAt = :expiresAt " +
+           "WHERE r.recordKey = :recordKey AND r.ownerToken = :ownerToken")
+    int complete(@Param("recordKey") String recordKey, @Param("ownerToken") String ownerToken,
+                 @Param("responseBody") String responseBody, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Nhả khóa khi xử lý thất bại để client có thể thử lại
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordKey = :recordKey AND r.ownerToken = :ownerToken")
+    int release(@Param("recordKey") String recordKey, @Param("ownerToken") String ownerToken);
+
+    /**
+     * Xóa bản ghi nếu đã hết hạn, để khóa được dùng lại như khóa mới
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordKey = :recordKey AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("recordKey") String recordKey, @Param("now") LocalDateTime now);
+
+    /**
+     * Xóa các bản ghi đã hết hạn
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
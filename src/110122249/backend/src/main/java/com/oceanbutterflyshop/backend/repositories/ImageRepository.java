@@ -1,14 +1,23 @@
 package com.oceanbutterflyshop.backend.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.oceanbutterflyshop.backend.entities.Image;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Integer> {
     List<Image> findByProductProductId(Integer productId);
     void deleteByProductProductId(Integer productId);
+
+    /**
+     * Lấy hình ảnh của nhiều sản phẩm trong một truy vấn (dùng khi dựng trang danh sách sản phẩm)
+     */
+    @Query("SELECT i FROM Image i WHERE i.product.productId IN :productIds ORDER BY i.imageId")
+    List<Image> findByProductIds(@Param("productIds") Collection<Integer> productIds);
 }
\ No newline at end of file
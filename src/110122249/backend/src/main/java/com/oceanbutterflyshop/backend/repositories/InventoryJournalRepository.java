@@ -0,0 +1,55 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.oceanbutterflyshop.backend.entities.InventoryJournalEntry;
+
+@Repository
+public interface InventoryJournalRepository extends JpaRepository<InventoryJournalEntry, Long> {
+
+    /**
+     * Các dòng nhật ký cũ nhất (theo ID tăng dần) để gộp vào bảng products
+     */
+    @Query("SELECT j FROM InventoryJournalEntry j ORDER BY j.journalId")
+    List<InventoryJournalEntry> findOldest(Pageable pageable);
+
+    /**
+     * Tổng delta chưa gộp của một sản phẩm
+     */
+    @Query("SELECT COALESCE(SUM(j.delta), 0) FROM InventoryJournalEntry j WHERE j.productId = :productId")
+    long sumPendingDelta(@Param("productId") Integer productId);
+
+    /**
+     * Tồn kho hiệu lực của một sản phẩm = products.quantity_stock + delta chưa gộp,
+     * đọc trong một câu lệnh nên nhất quán với tác vụ gộp chạy đồng thời
+     * @return null nếu sản phẩm không tồn tại
+     */
+    @Query(value = "SELECT p.quantity_stock + COALESCE((SELECT SUM(j.delta) FROM inventory_journal j " +
+                   "WHERE j.product_id = p.product_id), 0) FROM products p WHERE p.product_id = :productId",
+           nativeQuery = true)
+    Long findEffectiveStock(@Param("productId") Integer productId);
+
+    /**
+     * Tồn kho hiệu lực của tất cả sản phẩm: [product_id, tồn kho]
+     */
+    @Query(value = "SELECT p.product_id, p.quantity_stock + COALESCE(s.total_delta, 0) FROM products p " +
+                   "LEFT JOIN (SELECT product_id, SUM(delta) AS total_delta FROM inventory_journal " +
+                   "GROUP BY product_id) s ON s.product_id = p.product_id",
+           nativeQuery = true)
+    List<Object[]> findAllEffectiveStock();
+
+    /**
+     * Xóa đúng các dòng đã được gộp (theo ID, không theo khoảng: dòng commit muộn vẫn được giữ lại)
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryJournalEntry j WHERE j.journalId IN :journalIds")
+    int deleteByIdIn(@Param("journalIds") Collection<Long> journalIds);
+}
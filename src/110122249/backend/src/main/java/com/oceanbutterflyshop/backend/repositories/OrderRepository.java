@@ -1,23 +1,164 @@
 package com.oceanbutterflyshop.backend.repositories;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.oceanbutterflyshop.backend.entities.Order;
 import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.PaymentMethod;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Integer> {
+public interface OrderRepository extends JpaRepository<Order, Integer>, JpaSpecificationExecutor<Order> {
     List<Order> findByUserUserIdOrderByOrderDateDesc(Integer userId);
     Optional<Order> findByOrderCode(String orderCode);
     List<Order> findByOrderStatusOrderByOrderDateDesc(OrderStatus orderStatus);
     boolean existsByOrderCode(String orderCode);
+
+    /**
+     * Lọc ra các mã đơn hàng đã tồn tại trong danh sách (kiểm tra cả khối mã bằng một truy vấn)
+     */
+    @Query("SELECT o.orderCode FROM Order o WHERE o.orderCode IN :orderCodes")
+    List<String> findExistingOrderCodes(@Param("orderCodes") Collection<String> orderCodes);
     
+    /**
+     * Tóm tắt đơn hàng cho danh sách: chỉ các cột của orders và tên khách hàng, không tải mục đơn hàng
+     */
+    interface OrderSummaryView {
+        Integer getOrderId();
+        String getOrderCode();
+        LocalDate getOrderDate();
+        OrderStatus getOrderStatus();
+        BigDecimal getOrderAmount();
+        PaymentMethod getPaymentMethod();
+        LocalDate getPaymentDate();
+        String getCustomerName();
+    }
+
+    String SUMMARY_SELECT = "SELECT o.orderId AS orderId, o.orderCode AS orderCode, o.orderDate AS orderDate, " +
+            "o.orderStatus AS orderStatus, o.orderAmount AS orderAmount, o.paymentMethod AS paymentMethod, " +
+            "o.paymentDate AS paymentDate, u.userName AS customerName FROM Order o LEFT JOIN o.user u ";
+
+    // Trang tiếp theo theo keyset (orderDate, orderId) giảm dần, dùng chỉ mục idx_orders_user_date / idx_orders_status_date
+    String BEFORE_POSITION = "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.orderId < :orderId)) ";
+
+    String SUMMARY_ORDER = "ORDER BY o.orderDate DESC, o.orderId DESC";
+
+    @Query(value = SUMMARY_SELECT + "WHERE o.user.userId = :userId " + SUMMARY_ORDER,
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.userId = :userId")
+    Page<OrderSummaryView> findSummariesByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE o.user.userId = :userId " + SUMMARY_ORDER)
+    List<OrderSummaryView> findSummariesByUserId(@Param("userId") Integer userId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.user.userId = :userId " + BEFORE_POSITION + SUMMARY_ORDER)
+    List<OrderSummaryView> findSummariesByUserIdBefore(@Param("userId") Integer userId,
+                                                       @Param("orderDate") LocalDate orderDate,
+                                                       @Param("orderId") Integer orderId, Limit limit);
+
+    @Query(value = SUMMARY_SELECT + "WHERE o.orderStatus = :orderStatus " + SUMMARY_ORDER,
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.orderStatus = :orderStatus")
+    Page<OrderSummaryView> findSummariesByStatus(@Param("orderStatus") OrderStatus orderStatus, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE o.orderStatus = :orderStatus " + SUMMARY_ORDER)
+    List<OrderSummaryView> findSummariesByStatus(@Param("orderStatus") OrderStatus orderStatus, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE o.orderStatus = :orderStatus " + BEFORE_POSITION + SUMMARY_ORDER)
+    List<OrderSummaryView> findSummariesByStatusBefore(@Param("orderStatus") OrderStatus orderStatus,
+                                                       @Param("orderDate") LocalDate orderDate,
+                                                       @Param("orderId") Integer orderId, Limit limit);
+
+    /**
+     * Thông tin tối thiểu để xác thực chuyển trạng thái (không tải mục đơn hàng, người dùng)
+     */
+    interface OrderStatusView {
+        Integer getOrderId();
+        String getOrderCode();
+        OrderStatus getOrderStatus();
+    }
+
+    @Query("SELECT o.orderId AS orderId, o.orderCode AS orderCode, o.orderStatus AS orderStatus " +
+           "FROM Order o WHERE o.orderId IN :orderIds")
+    List<OrderStatusView> findStatusViewsByIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Query("SELECT o.orderId AS orderId, o.orderCode AS orderCode, o.orderStatus AS orderStatus " +
+           "FROM Order o WHERE o.orderCode IN :orderCodes")
+    List<OrderStatusView> findStatusViewsByCodeIn(@Param("orderCodes") Collection<String> orderCodes);
+
+    /**
+     * Chuyển trạng thái hàng loạt trong một câu UPDATE. Điều kiện trạng thái cũ bảo đảm chỉ các đơn
+     * vẫn ở trạng thái đã được xác thực mới bị thay đổi (đơn bị sửa đồng thời được bỏ qua)
+     * Tăng version để các lần sửa đơn hàng đang dựa trên dữ liệu đã đọc trước đó (ví dụ hủy đơn) bị phát hiện
+     * @return số đơn hàng đã cập nhật
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.orderStatus = :toStatus, o.updatedAt = :now, o.version = o.version + 1 " +
+           "WHERE o.orderId IN :orderIds AND o.orderStatus = :fromStatus")
+    int transitionStatus(@Param("orderIds") Collection<Integer> orderIds, @Param("fromStatus") OrderStatus fromStatus,
+                         @Param("toStatus") OrderStatus toStatus, @Param("now") LocalDateTime now);
+
+    /**
+     * Đặt ngày thanh toán cho các đơn đã giao chưa có ngày thanh toán
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentDate = :paymentDate, o.version = o.version + 1 " +
+           "WHERE o.orderId IN :orderIds AND o.paymentDate IS NULL")
+    int setMissingPaymentDate(@Param("orderIds") Collection<Integer> orderIds, @Param("paymentDate") LocalDate paymentDate);
+
+    /**
+     * Số đơn và tổng tiền của mỗi trạng thái
+     */
+    interface OrderStatusTotals {
+        OrderStatus getOrderStatus();
+        Long getOrderCount();
+        BigDecimal getTotalAmount();
+    }
+
+    /**
+     * Thống kê đơn hàng theo trạng thái trong một lần quét bảng (GROUP BY), không nạp entity
+     */
+    @Query("SELECT o.orderStatus AS orderStatus, COUNT(o) AS orderCount, " +
+           "COALESCE(SUM(o.orderAmount), 0) AS totalAmount " +
+           "FROM Order o GROUP BY o.orderStatus")
+    List<OrderStatusTotals> summarizeByStatus();
+
+    /**
+     * Số đơn và tổng tiền của mỗi (ngày, phương thức thanh toán)
+     */
+    interface DailyPaymentTotals {
+        LocalDate getSalesDate();
+        PaymentMethod getPaymentMethod();
+        Long getOrderCount();
+        BigDecimal getSalesAmount();
+    }
+
+    /**
+     * Quét theo khoảng order_date trên chỉ mục idx_orders_date_payment (đủ cột, không đọc bảng)
+     */
+    @Query("SELECT o.orderDate AS salesDate, o.paymentMethod AS paymentMethod, COUNT(o) AS orderCount, " +
+           "COALESCE(SUM(o.orderAmount), 0) AS salesAmount FROM Order o " +
+           "WHERE o.orderDate BETWEEN :fromDate AND :toDate AND o.orderStatus <> :excludedStatus " +
+           "GROUP BY o.orderDate, o.paymentMethod")
+    List<DailyPaymentTotals> sumByDayAndPaymentMethod(@Param("fromDate") LocalDate fromDate,
+                                                      @Param("toDate") LocalDate toDate,
+                                                      @Param("excludedStatus") OrderStatus excludedStatus);
+
+    @Query("SELECT MIN(o.orderDate) FROM Order o")
+    Optional<LocalDate> findEarliestOrderDate();
+
     /**
      * Kiểm tra xem user đã mua sản phẩm và đơn hàng đã được giao hay chưa
      * @param userId ID của user
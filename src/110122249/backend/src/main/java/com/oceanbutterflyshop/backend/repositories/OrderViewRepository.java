@@ -0,0 +1,42 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.oceanbutterflyshop.backend.entities.OrderView;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+
+@Repository
+public interface OrderViewRepository extends JpaRepository<OrderView, Integer> {
+
+    Optional<OrderView> findByOrderCode(String orderCode);
+
+    /**
+     * Đồng bộ trạng thái sau khi chuyển trạng thái hàng loạt (cùng điều kiện với OrderRepository.transitionStatus)
+     */
+    @Modifying
+    @Query("UPDATE OrderView v SET v.orderStatus = :status, v.updatedAt = :now WHERE v.orderId IN :orderIds")
+    int updateStatus(@Param("orderIds") Collection<Integer> orderIds, @Param("status") OrderStatus status,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OrderView v SET v.paymentDate = :paymentDate WHERE v.orderId IN :orderIds AND v.paymentDate IS NULL")
+    int setMissingPaymentDate(@Param("orderIds") Collection<Integer> orderIds, @Param("paymentDate") LocalDate paymentDate);
+
+    /**
+     * Đơn hàng chưa có mô hình đọc (tạo trước khi có bảng order_views hoặc do DataSeeder)
+     */
+    @Query("SELECT o.orderId FROM Order o WHERE NOT EXISTS (SELECT 1 FROM OrderView v WHERE v.orderId = o.orderId) " +
+           "ORDER BY o.orderId")
+    List<Integer> findOrderIdsWithoutView(Limit limit);
+}
@@ -1,18 +1,156 @@
 package com.oceanbutterflyshop.backend.repositories;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
     List<Product> findByProductNameContainingIgnoreCase(String productName);
     Optional<Product> findByProductCode(String productCode);
     List<Product> findByBrandBrandId(Integer brandId);
     boolean existsByProductCode(String productCode);
+
+    /**
+     * Lọc ra các mã sản phẩm đã tồn tại trong danh sách (kiểm tra cả khối mã bằng một truy vấn)
+     */
+    @Query("SELECT p.productCode FROM Product p WHERE p.productCode IN :productCodes")
+    List<String> findExistingProductCodes(@Param("productCodes") Collection<String> productCodes);
+
+    /**
+     * Lấy toàn bộ sản phẩm kèm thương hiệu trong một truy vấn (dùng để xây dựng chỉ mục tìm kiếm)
+     */
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand")
+    List<Product> findAllWithBrand();
+
+    /**
+     * Lấy các sản phẩm theo danh sách ID kèm thương hiệu trong một truy vấn (không theo thứ tự)
+     */
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.brand WHERE p.productId IN :productIds")
+    List<Product> findAllWithBrandByIdIn(@Param("productIds") Collection<Integer> productIds);
+
+    /**
+     * ID các sản phẩm được tạo/cập nhật sau thời điểm cho trước (dùng chỉ mục idx_products_updated_at)
+     */
+    @Query("SELECT p.productId FROM Product p WHERE p.updatedAt > :since")
+    List<Integer> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    /**
+     * ID các sản phẩm có thương hiệu được cập nhật sau thời điểm cho trước
+     * (thông tin thương hiệu được nhúng trong dữ liệu sản phẩm)
+     */
+    @Query("SELECT p.productId FROM Product p WHERE p.brand.updatedAt > :since")
+    List<Integer> findIdsByBrandUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT p.productId FROM Product p")
+    List<Integer> findAllIds();
+
+    /**
+     * Các cột cần để tính giá giỏ hàng (không nạp thương hiệu, hình ảnh)
+     */
+    interface ProductPriceView {
+        Integer getProductId();
+        String getProductCode();
+        String getProductName();
+        BigDecimal getProductPrice();
+        Integer getQuantityStock();
+        ProductStatus getProductStatus();
+    }
+
+    String PRICE_SELECT = "SELECT p.productId AS productId, p.productCode AS productCode, p.productName AS productName, " +
+                          "p.productPrice AS productPrice, p.quantityStock AS quantityStock, " +
+                          "p.productStatus AS productStatus FROM Product p";
+
+    @Query(PRICE_SELECT)
+    List<ProductPriceView> findAllPriceViews();
+
+    @Query(PRICE_SELECT + " WHERE p.productId IN :productIds")
+    List<ProductPriceView> findPriceViewsByIdIn(@Param("productIds") Collection<Integer> productIds);
+
+    /**
+     * Sản phẩm bán chạy cho dashboard: thông tin hiển thị, số lượng đã bán và URL hình ảnh đầu tiên
+     */
+    interface TopSellingProductView {
+        Integer getProductId();
+        String getProductCode();
+        String getProductName();
+        BigDecimal getProductPrice();
+        Long getTotalSold();
+        String getImageUrl();
+    }
+
+    // Hình ảnh đầu tiên (image_id nhỏ nhất) của sản phẩm, theo chỉ mục idx_images_product_id
+    String FIRST_IMAGE_JOIN = "LEFT JOIN Image i ON i.product = p " +
+                              "AND i.imageId = (SELECT MIN(fi.imageId) FROM Image fi WHERE fi.product = p) ";
+
+    /**
+     * Bán chạy toàn thời gian từ bộ đếm product_sales (một dòng mỗi sản phẩm, không tính đơn đã hủy)
+     */
+    @Query("SELECT p.productId AS productId, p.productCode AS productCode, p.productName AS productName, " +
+           "p.productPrice AS productPrice, s.soldQuantity AS totalSold, i.imageURL AS imageUrl " +
+           "FROM ProductSales s JOIN Product p ON p.productId = s.productId " + FIRST_IMAGE_JOIN +
+           "WHERE s.soldQuantity > 0 AND (:category IS NULL OR p.productCategory = :category) " +
+           "ORDER BY s.soldQuantity DESC, p.productId")
+    List<TopSellingProductView> findTopSelling(@Param("category") ProductCategory category, Limit limit);
+
+    /**
+     * Bán chạy trong khoảng ngày từ các dòng sản phẩm của daily_sales_rollup
+     */
+    @Query("SELECT p.productId AS productId, p.productCode AS productCode, p.productName AS productName, " +
+           "p.productPrice AS productPrice, SUM(r.itemQuantity) AS totalSold, i.imageURL AS imageUrl " +
+           "FROM DailySalesRollup r JOIN Product p ON p.productId = r.productId " + FIRST_IMAGE_JOIN +
+           "WHERE r.salesDate BETWEEN :fromDate AND :toDate AND r.orderStatus <> :excludedStatus " +
+           "AND (:category IS NULL OR p.productCategory = :category) " +
+           "GROUP BY p.productId, p.productCode, p.productName, p.productPrice, i.imageURL " +
+           "HAVING SUM(r.itemQuantity) > 0 ORDER BY SUM(r.itemQuantity) DESC, p.productId")
+    List<TopSellingProductView> findTopSellingBetween(@Param("fromDate") LocalDate fromDate,
+                                                      @Param("toDate") LocalDate toDate,
+                                                      @Param("excludedStatus") OrderStatus excludedStatus,
+                                                      @Param("category") ProductCategory category, Limit limit);
+
+    long countByQuantityStockLessThan(Integer quantityStock);
+
+    /**
+     * Đánh dấu sản phẩm đã thay đổi khi dữ liệu con (ví dụ hình ảnh) thay đổi
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.updatedAt = :now WHERE p.productId IN :productIds")
+    int touchUpdatedAt(@Param("productIds") Collection<Integer> productIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Trừ tồn kho có điều kiện trong một câu UPDATE nguyên tử (không đọc-sửa-ghi).
+     * Không tăng version: tồn kho chỉ thay đổi theo delta nên không xung đột với các lần sửa sản phẩm
+     * @return 1 nếu thành công, 0 nếu không đủ hàng (hoặc sản phẩm không tồn tại)
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.quantityStock = p.quantityStock - :quantity, p.updatedAt = :now " +
+           "WHERE p.productId = :productId AND p.quantityStock >= :quantity")
+    int decrementStock(@Param("productId") Integer productId, @Param("quantity") int quantity,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Hoàn lại tồn kho (hủy/xóa đơn hàng) trong một câu UPDATE nguyên tử
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.quantityStock = p.quantityStock + :quantity, p.updatedAt = :now " +
+           "WHERE p.productId = :productId")
+    int incrementStock(@Param("productId") Integer productId, @Param("quantity") int quantity,
+                       @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,50 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.PriceRange;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+
+/**
+ * Các truy vấn sản phẩm viết tay (Criteria API) không biểu diễn được bằng derived query
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Một dòng kết quả gom nhóm: số sản phẩm cho mỗi tổ hợp (thương hiệu, loại, trạng thái, khoảng giá)
+     */
+    record FacetRow(
+        Integer brandId,
+        String brandName,
+        ProductCategory category,
+        ProductStatus status,
+        PriceRange priceRange,
+        long count
+    ) {
+    }
+
+    /**
+     * Đếm sản phẩm thỏa specification, gom nhóm theo thương hiệu, loại, trạng thái và khoảng giá
+     * trong một truy vấn GROUP BY duy nhất. Bên gọi cộng dồn các dòng để ra từng facet.
+     *
+     * @param spec Bộ lọc hiện tại (có thể null)
+     * @return Danh sách tổ hợp và số lượng tương ứng
+     */
+    List<FacetRow> aggregateFacets(Specification<Product> spec);
+
+    /**
+     * Lấy một trang ID sản phẩm thỏa specification (chỉ chọn cột ID, không tải entity).
+     * Dữ liệu chi tiết của trang được tải sau bằng truy vấn theo lô.
+     *
+     * @param spec Bộ lọc hiện tại (có thể null)
+     * @param pageable Thông tin phân trang và sắp xếp
+     * @return Trang chứa ID sản phẩm theo đúng thứ tự sắp xếp
+     */
+    Page<Integer> findIds(Specification<Product> spec, Pageable pageable);
+}
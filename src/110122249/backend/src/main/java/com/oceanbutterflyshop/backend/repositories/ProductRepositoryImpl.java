@@ -0,0 +1,121 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.PriceRange;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Triển khai các truy vấn tùy chỉnh của ProductRepository
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FacetRow> aggregateFacets(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Brand> brand = root.join("brand", JoinType.LEFT);
+
+        Expression<Integer> brandId = brand.get("brandId");
+        Expression<String> brandName = brand.get("brandName");
+        Expression<ProductCategory> category = root.get("productCategory");
+        Expression<ProductStatus> status = root.get("productStatus");
+        Expression<Integer> priceBucket = priceBucket(cb, root.get("productPrice"));
+        Expression<Long> count = cb.count(root);
+
+        query.select(cb.tuple(brandId, brandName, category, status, priceBucket, count));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.groupBy(brandId, brandName, category, status, priceBucket);
+
+        PriceRange[] ranges = PriceRange.values();
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> new FacetRow(
+                    tuple.get(0, Integer.class),
+                    tuple.get(1, String.class),
+                    tuple.get(2, ProductCategory.class),
+                    tuple.get(3, ProductStatus.class),
+                    ranges[tuple.get(4, Integer.class)],
+                    tuple.get(5, Long.class)
+                ))
+                .toList();
+    }
+
+    @Override
+    public Page<Integer> findIds(Specification<Product> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("productId"));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Integer> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Integer> ids = typedQuery.getResultList();
+
+        // Chỉ đếm khi cần (giống PageableExecutionUtils của Spring Data)
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * CASE WHEN ánh xạ giá sản phẩm sang chỉ số (ordinal) của PriceRange
+     */
+    private Expression<Integer> priceBucket(CriteriaBuilder cb, Expression<BigDecimal> price) {
+        PriceRange[] ranges = PriceRange.values();
+        CriteriaBuilder.Case<Integer> bucket = cb.selectCase();
+        for (int i = 0; i < ranges.length - 1; i++) {
+            bucket = bucket.when(cb.lessThan(price, ranges[i].getMaxPrice()), i);
+        }
+        return bucket.otherwise(ranges.length - 1);
+    }
+}
@@ -0,0 +1,38 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.oceanbutterflyshop.backend.entities.ProductSales;
+
+@Repository
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Integer>, ProductSalesRepositoryCustom {
+
+    /**
+     * Tạo bộ đếm cho các sản phẩm chưa có, tính từ order_items của các đơn hàng chưa hủy.
+     * Lần chạy đầu tiên (bảng rỗng) tương đương backfill toàn bộ.
+     * @return Số bộ đếm được tạo
+     */
+    @Modifying
+    @Query(value = "INSERT INTO product_sales (product_id, sold_quantity, updated_at) " +
+                   "SELECT p.product_id, COALESCE(SUM(CASE WHEN o.order_status <> 'CANCELLED' THEN oi.item_quantity END), 0), " +
+                   "CURRENT_TIMESTAMP " +
+                   "FROM products p " +
+                   "LEFT JOIN order_items oi ON oi.product_id = p.product_id " +
+                   "LEFT JOIN orders o ON o.order_id = oi.order_id " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM product_sales s WHERE s.product_id = p.product_id) " +
+                   "GROUP BY p.product_id",
+           nativeQuery = true)
+    int insertMissingCounters();
+
+    /**
+     * Xóa bộ đếm của các sản phẩm không còn tồn tại
+     */
+    @Modifying
+    @Query(value = "DELETE FROM product_sales s " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.product_id = s.product_id)",
+           nativeQuery = true)
+    int deleteOrphanCounters();
+}
@@ -0,0 +1,13 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+/**
+ * Các câu lệnh ghi bộ đếm bán chạy viết tay (phụ thuộc DB) không biểu diễn được bằng @Query
+ */
+public interface ProductSalesRepositoryCustom {
+
+    /**
+     * Cộng dồn số lượng đã bán (delta có thể âm khi hủy đơn), tạo bộ đếm nếu sản phẩm chưa có
+     * trong cùng một câu lệnh nguyên tử. Bộ đếm mới không nhận giá trị âm.
+     */
+    void upsertSoldQuantity(Integer productId, long delta);
+}
@@ -0,0 +1,47 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import org.hibernate.dialect.Dialect;
+
+import com.oceanbutterflyshop.backend.utils.SqlUpsertUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Triển khai các câu lệnh ghi tùy chỉnh của ProductSalesRepository
+ */
+public class ProductSalesRepositoryImpl implements ProductSalesRepositoryCustom {
+
+    private static final String ON_CONFLICT_UPSERT =
+            "INSERT INTO product_sales (product_id, sold_quantity, updated_at) " +
+            "VALUES (:productId, GREATEST(:delta, 0), CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (product_id) DO UPDATE SET " +
+            "sold_quantity = product_sales.sold_quantity + :delta, updated_at = CURRENT_TIMESTAMP";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO product_sales s " +
+            "USING (SELECT CAST(:productId AS INTEGER) AS product_id, CAST(:delta AS BIGINT) AS delta) v " +
+            "ON s.product_id = v.product_id " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "sold_quantity = s.sold_quantity + v.delta, updated_at = CURRENT_TIMESTAMP " +
+            "WHEN NOT MATCHED THEN INSERT (product_id, sold_quantity, updated_at) " +
+            "VALUES (v.product_id, GREATEST(v.delta, 0), CURRENT_TIMESTAMP)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void upsertSoldQuantity(Integer productId, long delta) {
+        entityManager.createNativeQuery(upsertSql(SqlUpsertUtils.dialectOf(entityManager)))
+                .setParameter("productId", productId)
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    /**
+     * Câu lệnh upsert bộ đếm theo dialect của DB
+     */
+    static String upsertSql(Dialect dialect) {
+        return SqlUpsertUtils.supportsOnConflict(dialect) ? ON_CONFLICT_UPSERT : MERGE_UPSERT;
+    }
+}
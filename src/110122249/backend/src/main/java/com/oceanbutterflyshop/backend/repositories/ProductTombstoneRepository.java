@@ -0,0 +1,26 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.oceanbutterflyshop.backend.entities.ProductTombstone;
+
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    List<ProductTombstone> findByDeletedAtAfterOrderByDeletedAtAsc(LocalDateTime since);
+
+    /**
+     * Xóa các bản ghi cũ hơn thời gian lưu giữ bằng một câu DELETE
+     * @return Số bản ghi đã xóa
+     */
+    @Modifying
+    @Query("DELETE FROM ProductTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -1,10 +1,14 @@
 package com.oceanbutterflyshop.backend.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import com.oceanbutterflyshop.backend.entities.User;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -14,15 +18,49 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, JpaSpecificationExecutor<User> {
     Optional<User> findByUserAccount(String userAccount);
     Optional<User> findByUserCode(String userCode);
     Optional<User> findByUserPhone(String userPhone);
     boolean existsByUserAccount(String userAccount);
     boolean existsByUserPhone(String userPhone);
     boolean existsByUserCode(String userCode);
+
+    /**
+     * Lọc ra các mã người dùng đã tồn tại trong danh sách (kiểm tra cả khối mã bằng một truy vấn)
+     */
+    @Query("SELECT u.userCode FROM User u WHERE u.userCode IN :userCodes")
+    List<String> findExistingUserCodes(@Param("userCodes") Collection<String> userCodes);
     List<User> findByRoleRoleCode(String roleCode);
     List<User> findByRole_RoleCode(String roleCode);
+    long countByRole_RoleCode(String roleCode);
+
+    /**
+     * Tên và số điện thoại hiện tại của người dùng (ghi đè lên mô hình đọc của đơn hàng)
+     */
+    interface UserContactView {
+        Integer getUserId();
+        String getUserName();
+        String getUserPhone();
+    }
+
+    @Query("SELECT u.userId AS userId, u.userName AS userName, u.userPhone AS userPhone FROM User u " +
+           "WHERE u.userId IN :userIds")
+    List<UserContactView> findContactViewsByIdIn(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * Số người dùng mới của vai trò theo từng ngày trong khoảng [from, to)
+     */
+    interface DailyUserCount {
+        LocalDate getCreatedDate();
+        Long getUserCount();
+    }
+
+    @Query("SELECT CAST(u.createdAt AS LocalDate) AS createdDate, COUNT(u) AS userCount FROM User u " +
+           "WHERE u.role.roleCode = :roleCode AND u.createdAt >= :from AND u.createdAt < :to " +
+           "GROUP BY CAST(u.createdAt AS LocalDate)")
+    List<DailyUserCount> countCreatedByDay(@Param("roleCode") String roleCode, @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
 
     @Query("SELECT u FROM User u WHERE " +
            "(:roleName IS NULL OR u.role.roleName = :roleName) AND " +
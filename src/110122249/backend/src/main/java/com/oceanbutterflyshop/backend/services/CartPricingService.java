@@ -0,0 +1,38 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.util.Map;
+
+import com.oceanbutterflyshop.backend.dtos.request.CartPriceRequest;
+import com.oceanbutterflyshop.backend.dtos.response.CartPriceResponse;
+import com.oceanbutterflyshop.backend.entities.Product;
+
+/**
+ * Tính giá giỏ hàng và đơn hàng bằng một bộ tính duy nhất: giá khách hàng thấy khi xem giỏ hàng
+ * và giá bị tính khi đặt hàng đi qua cùng một phép tính.
+ */
+public interface CartPricingService {
+    /**
+     * Tính giá cả giỏ hàng từ bảng giá trong bộ nhớ; các dòng cùng sản phẩm được gộp lại
+     */
+    CartPriceResponse priceCart(CartPriceRequest request);
+
+    /**
+     * Tính giá từ bảng giá trong bộ nhớ
+     *
+     * @param quantities ID sản phẩm → số lượng
+     */
+    CartPriceResponse price(Map<Integer, Integer> quantities);
+
+    /**
+     * Tính giá từ các sản phẩm đã đọc trong transaction của người gọi (giá tính tiền khi tạo đơn hàng)
+     *
+     * @param quantities ID sản phẩm → số lượng
+     * @param productsById sản phẩm đã đọc; ID không có trong map được coi là không tồn tại
+     */
+    CartPriceResponse price(Map<Integer, Integer> quantities, Map<Integer, Product> productsById);
+
+    /**
+     * Nạp lại toàn bộ bảng giá từ DB
+     */
+    void rebuild();
+}
@@ -0,0 +1,30 @@
+package com.oceanbutterflyshop.backend.services;
+
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+
+/**
+ * Phiên bản của dữ liệu catalog, dùng làm ETag / Last-Modified.
+ *
+ * Phiên bản được tăng sau khi transaction thay đổi dữ liệu commit và được lưu trong database,
+ * nên mọi node trả cùng ETag cho cùng dữ liệu, kể cả sau khi restart. Trả lời
+ * If-None-Match / If-Modified-Since chỉ cần một truy vấn theo khóa chính, không đọc dữ liệu catalog.
+ */
+public interface CatalogVersionService {
+
+    /**
+     * @param etag ETag mạnh (đã có dấu ngoặc kép)
+     * @param lastModified Thời điểm thay đổi (epoch millis)
+     */
+    record Version(String etag, long lastModified) {
+    }
+
+    /**
+     * Phiên bản của cả tập dữ liệu (dùng cho các API danh sách)
+     */
+    Version collectionVersion(CatalogScope scope);
+
+    /**
+     * Phiên bản của một phần tử; phần tử chưa thay đổi riêng lẻ dùng phiên bản nền của nhóm
+     */
+    Version entryVersion(CatalogScope scope, Integer id);
+}
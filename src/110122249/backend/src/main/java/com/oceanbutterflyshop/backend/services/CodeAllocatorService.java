@@ -0,0 +1,30 @@
+package com.oceanbutterflyshop.backend.services;
+
+/**
+ * Cấp phát mã nghiệp vụ dạng TIỀN_TỐ + 8 chữ số (ví dụ: DH87654321) không trùng lặp.
+ *
+ * Thay cho vòng lặp "sinh ngẫu nhiên rồi kiểm tra tồn tại": mỗi node giữ trước một khối số thứ tự
+ * từ bộ đếm trong DB, rồi đưa từng số qua hoán vị có khóa nên mã không đoán được theo thứ tự
+ * nhưng không bao giờ trùng nhau, kể cả khi chạy nhiều node.
+ */
+public interface CodeAllocatorService {
+
+    String ORDER_PREFIX = "DH";
+    String PRODUCT_PREFIX = "SP";
+    String BRAND_PREFIX = "TH";
+    String CUSTOMER_PREFIX = "KH";
+    String STAFF_PREFIX = "NV";
+    String ADMIN_PREFIX = "AD";
+
+    /**
+     * Cấp phát mã tiếp theo cho tiền tố
+     *
+     * @param prefix Một trong DH, SP, TH, KH, NV, AD
+     */
+    String nextCode(String prefix);
+
+    /**
+     * Cấp phát mã người dùng theo tên vai trò (Admin → AD, Staff → NV, Customer → KH)
+     */
+    String nextUserCode(String roleName);
+}
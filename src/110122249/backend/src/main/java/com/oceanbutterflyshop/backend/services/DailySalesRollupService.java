@@ -0,0 +1,41 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+
+/**
+ * Bảng doanh số tổng hợp theo ngày (daily_sales_rollup).
+ * Các thao tác cộng dồn chạy trong transaction của người gọi nên luôn khớp với bảng orders;
+ * việc tính lại từ orders/order_items sửa mọi sai lệch còn lại.
+ */
+public interface DailySalesRollupService {
+    /**
+     * Cộng các đơn hàng (đã lưu kèm mục đơn hàng) vào trạng thái cho trước
+     */
+    void addOrders(Collection<Integer> orderIds, OrderStatus status);
+
+    /**
+     * Trừ các đơn hàng khỏi trạng thái cho trước (gọi trước khi xóa đơn hàng)
+     */
+    void removeOrders(Collection<Integer> orderIds, OrderStatus status);
+
+    /**
+     * Chuyển đóng góp của các đơn hàng từ trạng thái cũ sang trạng thái mới
+     */
+    void moveOrders(Collection<Integer> orderIds, OrderStatus fromStatus, OrderStatus toStatus);
+
+    /**
+     * Tính lại các ngày trong khoảng [fromDate, toDate] từ orders/order_items,
+     * chia thành các khối ngày chạy song song, mỗi khối một transaction
+     *
+     * @return Số dòng tổng hợp đã tạo
+     */
+    int rebuild(LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Đối soát định kỳ: tính lại các ngày gần nhất
+     */
+    void reconcile();
+}
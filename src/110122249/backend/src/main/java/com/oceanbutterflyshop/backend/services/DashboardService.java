@@ -3,11 +3,20 @@ package com.oceanbutterflyshop.backend.services;
 import com.oceanbutterflyshop.backend.dtos.response.DashboardStatsResponse;
 import com.oceanbutterflyshop.backend.dtos.response.RecentOrderResponse;
 import com.oceanbutterflyshop.backend.dtos.response.TopProductResponse;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface DashboardService {
     DashboardStatsResponse getDashboardStats();
     List<RecentOrderResponse> getRecentOrders(int limit);
-    List<TopProductResponse> getTopSellingProducts(int limit);
+
+    /**
+     * Sản phẩm bán chạy nhất (không tính đơn đã hủy), đọc bằng một truy vấn
+     * @param from Ngày đặt hàng đầu tiên (cùng có hoặc cùng null với to; null = toàn thời gian)
+     * @param to Ngày đặt hàng cuối cùng
+     * @param category Danh mục sản phẩm (null = tất cả)
+     */
+    List<TopProductResponse> getTopSellingProducts(int limit, LocalDate from, LocalDate to, ProductCategory category);
 }
@@ -0,0 +1,21 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.time.LocalDate;
+
+import com.oceanbutterflyshop.backend.dtos.response.PeriodTrendResponse;
+
+/**
+ * Xu hướng theo kỳ cho dashboard: doanh thu (đơn đã giao), số đơn hàng, khách hàng mới và sản phẩm có bán.
+ * Tính từ bảng doanh số theo ngày và số người dùng mới theo ngày, nên chi phí chỉ phụ thuộc số ngày của kỳ.
+ */
+public interface DashboardTrendService {
+    /**
+     * Tháng này (đến hôm nay) so với cùng số ngày đầu của tháng trước
+     */
+    PeriodTrendResponse getMonthOverMonth(LocalDate today);
+
+    /**
+     * Tuần này (từ thứ Hai đến hôm nay) so với cùng số ngày đầu của tuần trước
+     */
+    PeriodTrendResponse getWeekOverWeek(LocalDate today);
+}
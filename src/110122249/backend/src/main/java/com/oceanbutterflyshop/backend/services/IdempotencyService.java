@@ -0,0 +1,48 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.util.function.Supplier;
+
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+
+/**
+ * Xử lý header Idempotency-Key của POST /api/v1/orders.
+ *
+ * Lần gửi đầu tiên được thực thi và kết quả được lưu có thời hạn; các lần gửi lại với cùng khóa
+ * (kể cả gửi đồng thời) nhận lại đúng OrderResponse đó mà không chạy lại việc tạo đơn hàng.
+ */
+public interface IdempotencyService {
+
+    int MAX_KEY_LENGTH = 255;
+
+    /**
+     * Kết quả đã hoàn tất của một khóa
+     *
+     * @param requestHash SHA-256 của nội dung yêu cầu, để phát hiện khóa bị dùng lại cho yêu cầu khác
+     * @param response    Đơn hàng đã tạo
+     */
+    record CompletedRequest(String requestHash, OrderResponse response) {
+    }
+
+    /**
+     * @param response Đơn hàng (mới tạo hoặc của lần gửi trước)
+     * @param replayed true nếu là kết quả lưu lại từ lần gửi trước
+     */
+    record Result(OrderResponse response, boolean replayed) {
+    }
+
+    /**
+     * Thực thi việc tạo đơn hàng đúng một lần cho mỗi (người dùng, Idempotency-Key)
+     *
+     * @param idempotencyKey Giá trị header Idempotency-Key
+     * @param username       Người dùng đang đăng nhập
+     * @param orderRequest   Nội dung yêu cầu
+     * @param action         Việc tạo đơn hàng thực sự
+     */
+    Result execute(String idempotencyKey, String username, OrderRequest orderRequest, Supplier<OrderResponse> action);
+
+    /**
+     * Xóa các bản ghi đã hết hạn trong DB (chế độ database)
+     */
+    void purgeExpiredRecords();
+}
@@ -0,0 +1,60 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.util.Map;
+
+import com.oceanbutterflyshop.backend.dtos.response.InventoryResponse;
+import com.oceanbutterflyshop.backend.entities.Product;
+
+/**
+ * Giữ/hoàn tồn kho sản phẩm.
+ *
+ * - inventory.mode=database (mặc định): UPDATE có điều kiện trực tiếp trên products.quantity_stock
+ * - inventory.mode=memory: bộ đếm chia ngăn trong bộ nhớ là nguồn quyết định; mỗi thay đổi được ghi
+ *   vào inventory_journal trong transaction của người gọi và được gộp định kỳ vào products.quantity_stock.
+ *   Chỉ dùng khi chạy một node (các node khác không thấy bộ đếm này)
+ */
+public interface InventoryService {
+    /**
+     * Tồn kho khả dụng của sản phẩm (ở chế độ database là giá trị vừa đọc từ entity)
+     */
+    int getAvailableStock(Product product);
+
+    /**
+     * Tồn kho khả dụng khi chỉ có ID và tồn kho đã ghi vào products (ví dụ từ bảng giá trong bộ nhớ)
+     */
+    int getAvailableStock(Integer productId, int persistedStock);
+
+    /**
+     * Giữ hàng cho đơn hàng trong transaction hiện tại; transaction rollback thì hàng được trả lại.
+     * Các sản phẩm được xử lý theo thứ tự ID tăng dần
+     *
+     * @param quantities ID sản phẩm → số lượng (dương)
+     * @throws com.oceanbutterflyshop.backend.exceptions.InsufficientStockException nếu có sản phẩm không đủ hàng
+     */
+    void reserve(Map<Integer, Integer> quantities);
+
+    /**
+     * Hoàn hàng (hủy/xóa đơn hàng); có hiệu lực khi transaction hiện tại commit
+     */
+    void release(Map<Integer, Integer> quantities);
+
+    /**
+     * Điều chỉnh tồn kho của một sản phẩm (nhập hàng, kiểm kê, cập nhật sản phẩm)
+     *
+     * @param delta số lượng thay đổi, âm để giảm
+     * @throws com.oceanbutterflyshop.backend.exceptions.InsufficientStockException nếu tồn kho trở thành âm
+     */
+    void adjustStock(Integer productId, int delta);
+
+    /**
+     * Tồn kho khả dụng, tồn kho đã ghi vào products và phần chưa gộp của một sản phẩm
+     */
+    InventoryResponse getInventory(Integer productId);
+
+    /**
+     * Gộp nhật ký tồn kho vào products.quantity_stock (chế độ memory)
+     *
+     * @return số dòng nhật ký đã gộp
+     */
+    int flush();
+}
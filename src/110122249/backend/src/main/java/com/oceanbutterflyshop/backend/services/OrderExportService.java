@@ -0,0 +1,26 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+import com.oceanbutterflyshop.backend.enums.ExportFormat;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+
+/**
+ * Xuất đơn hàng cho kế toán: mỗi dòng là một mục đơn hàng kèm thông tin đơn (đơn không có mục → một dòng).
+ * Dữ liệu được đọc bằng con trỏ JDBC và ghi thẳng ra luồng, không tạo entity,
+ * nên bộ nhớ sử dụng không phụ thuộc số dòng.
+ */
+public interface OrderExportService {
+
+    /**
+     * Ghi các đơn hàng thỏa điều kiện ra luồng, sắp theo ID đơn hàng
+     *
+     * @param from Ngày đặt hàng từ (bao gồm), null = không giới hạn
+     * @param to Ngày đặt hàng đến (bao gồm), null = không giới hạn
+     * @param status Trạng thái đơn hàng, null = tất cả
+     */
+    void exportOrders(LocalDate from, LocalDate to, OrderStatus status, ExportFormat format,
+                      OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,40 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderIntakeResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderIntakeStatsResponse;
+
+/**
+ * Chế độ đặt hàng bất đồng bộ (order-intake.enabled=true).
+ *
+ * Yêu cầu được đưa vào hàng đợi có giới hạn và trả về mã theo dõi ngay; các worker chạy trên virtual thread
+ * lấy đơn hàng theo lô nhỏ và tạo chúng bằng {@link OrderService#createOrders}, nên số kết nối DB
+ * dùng cho việc tạo đơn hàng bị giới hạn bởi số worker thay vì số request đồng thời.
+ */
+public interface OrderIntakeService {
+
+    /**
+     * Đưa đơn hàng vào hàng đợi
+     *
+     * @return Thông tin theo dõi (trạng thái QUEUED)
+     * @throws com.oceanbutterflyshop.backend.exceptions.ServiceUnavailableException khi hàng đợi đầy
+     */
+    OrderIntakeResponse submit(OrderRequest orderRequest, String username);
+
+    /**
+     * Lấy trạng thái hiện tại của đơn hàng đã gửi (chỉ người gửi được xem)
+     */
+    OrderIntakeResponse getStatus(String trackingId, String username);
+
+    /**
+     * Future hoàn tất khi đơn hàng được xử lý xong (COMPLETED hoặc FAILED)
+     */
+    CompletableFuture<OrderIntakeResponse> awaitResult(String trackingId, String username);
+
+    /**
+     * Độ sâu hàng đợi, số lượng đã xử lý và độ trễ xử lý
+     */
+    OrderIntakeStatsResponse getStats();
+}
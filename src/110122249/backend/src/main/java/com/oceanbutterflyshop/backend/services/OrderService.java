@@ -4,18 +4,56 @@ import java.math.BigDecimal;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderStatusBatchRequest;
 import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderStatusBatchResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderSummaryResponse;
 
 public interface OrderService {
     Page<OrderResponse> getAllOrdersPaginated(Pageable pageable);
+    Window<OrderResponse> getAllOrdersByCursor(String cursor, int size, Sort sort);
     List<OrderResponse> getOrdersByUserId(Integer userId);
     List<OrderResponse> getOrdersByStatus(String status);
+
+    /**
+     * Lịch sử đơn hàng (tóm tắt, không kèm mục đơn hàng) của một khách hàng, mới nhất trước.
+     * Khách hàng chỉ xem được lịch sử của chính mình; admin/staff xem được của mọi khách hàng.
+     */
+    Page<OrderSummaryResponse> getOrderHistory(Integer userId, int page, int size, String currentUsername);
+
+    /**
+     * Như getOrderHistory nhưng phân trang bằng con trỏ (keyset), không chạy COUNT(*)
+     */
+    Window<OrderSummaryResponse> getOrderHistoryByCursor(Integer userId, String cursor, int size, String currentUsername);
+
+    /**
+     * Đơn hàng (tóm tắt) theo trạng thái, mới nhất trước
+     */
+    Page<OrderSummaryResponse> getOrderSummariesByStatus(String status, int page, int size);
+
+    Window<OrderSummaryResponse> getOrderSummariesByStatusByCursor(String status, String cursor, int size);
     OrderResponse getOrderById(Integer orderId, String currentUsername);
     OrderResponse getOrderByCode(String orderCode, String currentUsername);
     OrderResponse createOrder(OrderRequest orderRequest, String username);
+
+    /**
+     * Tạo một lô đơn hàng trong cùng một transaction, tồn kho được trừ một lần cho mỗi sản phẩm.
+     * Một đơn hàng không hợp lệ làm rollback cả lô (người gọi tự xử lý lại từng đơn nếu cần).
+     *
+     * @param usernames Người đặt tương ứng với từng phần tử của orderRequests
+     */
+    List<OrderResponse> createOrders(List<OrderRequest> orderRequests, List<String> usernames);
     OrderResponse updateOrderStatus(Integer orderId, String newStatus);
+
+    /**
+     * Chuyển nhiều đơn hàng sang cùng một trạng thái bằng các câu UPDATE theo tập hợp.
+     * Đơn không hợp lệ (không tồn tại, đã giao/đã hủy) không làm hỏng cả yêu cầu mà được báo trong kết quả.
+     */
+    OrderStatusBatchResponse updateOrderStatuses(OrderStatusBatchRequest request);
     OrderResponse updatePayment(Integer orderId, String paymentMethod);
     OrderResponse updatePaymentStatus(Integer orderId, Boolean isPaid);
     void cancelOrder(Integer orderId, String currentUsername);
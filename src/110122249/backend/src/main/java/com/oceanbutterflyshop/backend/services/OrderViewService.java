@@ -0,0 +1,59 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.entities.Order;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+
+/**
+ * Mô hình đọc của đơn hàng (bảng order_views).
+ * Các thao tác ghi chạy trong transaction của người gọi nên luôn khớp với bảng orders.
+ */
+public interface OrderViewService {
+    /**
+     * Lưu mô hình đọc của đơn hàng vừa tạo
+     *
+     * @param response OrderResponse đầy đủ (kèm mục đơn hàng) của đơn hàng
+     */
+    void create(Order order, OrderResponse response);
+
+    /**
+     * Đồng bộ trạng thái và thông tin thanh toán sau khi đơn hàng thay đổi
+     */
+    void syncState(Order order);
+
+    /**
+     * Đồng bộ trạng thái của nhiều đơn hàng trong một câu UPDATE
+     */
+    void updateStatuses(Collection<Integer> orderIds, OrderStatus status, LocalDateTime updatedAt);
+
+    /**
+     * Đặt ngày thanh toán cho các đơn hàng chưa có
+     */
+    void setMissingPaymentDate(Collection<Integer> orderIds, LocalDate paymentDate);
+
+    void delete(Integer orderId);
+
+    Optional<OrderResponse> findById(Integer orderId);
+
+    Optional<OrderResponse> findByCode(String orderCode);
+
+    /**
+     * Đọc nhiều đơn hàng trong một truy vấn; đơn hàng chưa có mô hình đọc không có trong kết quả
+     *
+     * @return ID đơn hàng → OrderResponse
+     */
+    Map<Integer, OrderResponse> findAllById(Collection<Integer> orderIds);
+
+    /**
+     * Tạo mô hình đọc cho các đơn hàng còn thiếu
+     *
+     * @return số đơn hàng đã được tạo mô hình đọc
+     */
+    int backfill();
+}
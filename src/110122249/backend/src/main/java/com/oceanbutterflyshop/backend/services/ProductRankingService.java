@@ -0,0 +1,34 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bảng xếp hạng sản phẩm bán chạy được duy trì sẵn.
+ * Bộ đếm lưu trong bảng product_sales; bản sao top-K trong bộ nhớ trả lời truy vấn trong O(K).
+ */
+public interface ProductRankingService {
+    /**
+     * Cộng dồn số lượng đã bán trong transaction hiện tại (giá trị âm khi hủy/xóa đơn hàng).
+     * Bản sao trong bộ nhớ được cập nhật sau khi transaction commit.
+     *
+     * @param quantityDeltas ID sản phẩm → số lượng thay đổi
+     */
+    void adjustSoldQuantities(Map<Integer, Integer> quantityDeltas);
+
+    /**
+     * Lấy ID các sản phẩm bán chạy nhất theo thứ tự giảm dần
+     */
+    List<Integer> getTopProductIds(int limit);
+
+    /**
+     * Lấy số lượng đã bán của các sản phẩm
+     */
+    Map<Integer, Long> getSoldQuantities(Collection<Integer> productIds);
+
+    /**
+     * Đồng bộ bộ đếm với dữ liệu đơn hàng và nạp lại bảng xếp hạng trong bộ nhớ
+     */
+    void rebuild();
+}
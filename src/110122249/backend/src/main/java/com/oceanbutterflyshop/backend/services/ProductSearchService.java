@@ -0,0 +1,52 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+
+/**
+ * Bộ máy tìm kiếm sản phẩm trong bộ nhớ (inverted index).
+ * Chỉ mục gồm tên, mô tả và tên thương hiệu, đã bỏ dấu tiếng Việt.
+ */
+public interface ProductSearchService {
+    /**
+     * Xây dựng lại toàn bộ chỉ mục từ database
+     */
+    void rebuildIndex();
+
+    /**
+     * Thêm mới hoặc cập nhật một sản phẩm trong chỉ mục
+     */
+    void indexProduct(Product product);
+
+    /**
+     * Xóa một sản phẩm khỏi chỉ mục
+     */
+    void removeProduct(Integer productId);
+
+    /**
+     * Đánh chỉ mục lại các sản phẩm thuộc thương hiệu (khi tên thương hiệu thay đổi)
+     */
+    void reindexBrand(Integer brandId);
+
+    /**
+     * Tìm kiếm theo từ khóa và áp dụng các bộ lọc, trả về ID sản phẩm đã sắp xếp.
+     *
+     * @param sort Thứ tự sắp xếp; thuộc tính "relevance" (hoặc thuộc tính không hỗ trợ) sắp theo điểm liên quan
+     * @return Danh sách ID sản phẩm khớp, theo thứ tự yêu cầu
+     */
+    List<Integer> search(
+        String keyword,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Integer brandId,
+        ProductStatus status,
+        ProductCategory category,
+        Sort sort
+    );
+}
@@ -5,8 +5,11 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import com.oceanbutterflyshop.backend.dtos.request.ProductRequestDTO;
+import com.oceanbutterflyshop.backend.dtos.response.ProductFacetsResponse;
 import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
 import com.oceanbutterflyshop.backend.enums.ProductStatus;
 import com.oceanbutterflyshop.backend.enums.ProductCategory;
@@ -21,6 +24,24 @@ public interface ProductService {
         ProductStatus status,
         ProductCategory category
     );
+    Window<ProductResponse> getAllProductsByCursor(
+        String cursor,
+        int size,
+        Sort sort,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Integer brandId,
+        ProductStatus status,
+        ProductCategory category
+    );
+    ProductFacetsResponse getProductFacets(
+        String keyword,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Integer brandId,
+        ProductStatus status,
+        ProductCategory category
+    );
     ProductResponse getProductById(Integer productId);
     ProductResponse createProduct(ProductRequestDTO productRequest);
     ProductResponse updateProduct(Integer productId, ProductRequestDTO productRequest);
@@ -0,0 +1,30 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.util.List;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductSuggestionResponse;
+
+/**
+ * Gợi ý tự động hoàn thành cho ô tìm kiếm, phục vụ từ cây tiền tố (trie) trong bộ nhớ.
+ * Chỉ mục gồm tên sản phẩm, mã sản phẩm và tên thương hiệu, đã bỏ dấu tiếng Việt.
+ */
+public interface ProductSuggestService {
+    /**
+     * Số gợi ý tối đa cho một truy vấn
+     */
+    int MAX_LIMIT = 20;
+
+    /**
+     * Lấy các gợi ý có tiền tố khớp với chuỗi đang gõ, xếp theo độ phổ biến giảm dần.
+     *
+     * @param query Chuỗi người dùng đang gõ (không phân biệt dấu, hoa thường)
+     * @param limit Số gợi ý tối đa (bị giới hạn bởi {@link #MAX_LIMIT})
+     * @return Danh sách gợi ý; rỗng nếu query rỗng
+     */
+    List<ProductSuggestionResponse> suggest(String query, int limit);
+
+    /**
+     * Xây dựng lại toàn bộ chỉ mục gợi ý từ database
+     */
+    void rebuild();
+}
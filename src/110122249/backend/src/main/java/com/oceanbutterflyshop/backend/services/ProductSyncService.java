@@ -0,0 +1,54 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductTombstoneResponse;
+import com.oceanbutterflyshop.backend.entities.Product;
+
+/**
+ * Đồng bộ thay đổi catalog theo mốc (delta sync) cho client giữ bản sao cục bộ.
+ * Sản phẩm tạo/cập nhật được tìm theo updatedAt, sản phẩm bị xóa lấy từ nhật ký product_tombstones.
+ */
+public interface ProductSyncService {
+
+    /**
+     * Tập thay đổi đã xác định, chưa tải dữ liệu sản phẩm
+     *
+     * @param nextToken Mốc dùng cho lần đồng bộ tiếp theo
+     * @param fullResync true nếu client phải thay toàn bộ bản sao (không có mốc hoặc mốc đã quá hạn)
+     * @param changedProductIds ID các sản phẩm được tạo/cập nhật, tăng dần
+     * @param deleted Các sản phẩm đã bị xóa
+     */
+    record ChangeSet(
+        String nextToken,
+        boolean fullResync,
+        List<Integer> changedProductIds,
+        List<ProductTombstoneResponse> deleted
+    ) {
+    }
+
+    /**
+     * Xác định các thay đổi kể từ mốc (chỉ truy vấn ID, chưa tải sản phẩm)
+     *
+     * @param since Mốc từ lần đồng bộ trước; rỗng nghĩa là lấy toàn bộ
+     * @throws com.oceanbutterflyshop.backend.exceptions.BadRequestException nếu mốc không hợp lệ
+     */
+    ChangeSet getChanges(String since);
+
+    /**
+     * Ghi tập thay đổi ra dạng JSON theo từng lô sản phẩm, không giữ toàn bộ kết quả trong bộ nhớ
+     */
+    void writeChanges(ChangeSet changes, OutputStream outputStream) throws IOException;
+
+    /**
+     * Ghi nhận sản phẩm bị xóa trong transaction hiện tại
+     */
+    void recordDeletion(Product product);
+
+    /**
+     * Dọn các bản ghi xóa đã quá thời gian lưu giữ
+     */
+    void purgeExpiredTombstones();
+}
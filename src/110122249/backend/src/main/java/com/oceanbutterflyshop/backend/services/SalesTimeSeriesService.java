@@ -0,0 +1,30 @@
+package com.oceanbutterflyshop.backend.services;
+
+import java.time.LocalDate;
+
+import com.oceanbutterflyshop.backend.dtos.response.SalesTimeSeriesResponse;
+import com.oceanbutterflyshop.backend.enums.SalesGroupBy;
+import com.oceanbutterflyshop.backend.enums.TimeBucket;
+
+/**
+ * Doanh thu và số đơn hàng theo ngày/tuần/tháng cho biểu đồ dashboard, có thể chia theo trạng thái,
+ * phương thức thanh toán, danh mục hoặc thương hiệu.
+ */
+public interface SalesTimeSeriesService {
+
+    /**
+     * Khóa cache của một biểu đồ
+     */
+    record SeriesKey(LocalDate from, LocalDate to, TimeBucket bucket, SalesGroupBy groupBy) {
+    }
+
+    /**
+     * Doanh số theo thời gian trong khoảng [from, to], mọi khoảng đều có giá trị (0 nếu không có đơn hàng).
+     *
+     * - Doanh thu là tổng tiền đơn hàng (CATEGORY/BRAND: tổng tiền các mục đơn hàng của nhóm),
+     *   không tính đơn đã hủy trừ khi chia theo STATUS
+     * - CATEGORY/BRAND: số đơn được đếm theo từng sản phẩm, một đơn có hai sản phẩm cùng nhóm được tính hai lần
+     * - Khoảng ngày không hợp lệ hoặc quá nhiều điểm: BadRequestException
+     */
+    SalesTimeSeriesResponse getTimeSeries(LocalDate from, LocalDate to, TimeBucket bucket, SalesGroupBy groupBy);
+}
@@ -2,12 +2,15 @@ package com.oceanbutterflyshop.backend.services;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import com.oceanbutterflyshop.backend.dtos.request.UserRequest;
 import com.oceanbutterflyshop.backend.dtos.response.UserResponse;
 
 public interface UserService {
     Page<UserResponse> getAllUsersPaginated(String keyword, String roleName, Pageable pageable);
+    Window<UserResponse> getAllUsersByCursor(String keyword, String roleName, String cursor, int size, Sort sort);
     UserResponse getUserById(Integer userId);
     UserResponse getUserByAccount(String userAccount);
     UserResponse createUser(UserRequest userRequest);
@@ -17,8 +17,8 @@ import com.oceanbutterflyshop.backend.repositories.OTPVerificationRepository;
 import com.oceanbutterflyshop.backend.repositories.RoleRepository;
 import com.oceanbutterflyshop.backend.repositories.UserRepository;
 import com.oceanbutterflyshop.backend.services.AuthService;
+import com.oceanbutterflyshop.backend.services.CodeAllocatorService;
 import com.oceanbutterflyshop.backend.services.OTPService;
-import com.oceanbutterflyshop.backend.utils.CodeGeneratorUtils;
 import com.oceanbutterflyshop.backend.utils.JwtUtils;
 
 /**
@@ -33,13 +33,12 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-    private final CodeGeneratorUtils codeGeneratorUtils;
+    private final CodeAllocatorService codeAllocatorService;
     private final JwtUtils jwtUtils;
     private final OTPService otpService;
     private final OTPVerificationRepository otpVerificationRepository;
     
     private static final String CUSTOMER_ROLE_CODE = "CUS";
-    private static final String CUSTOMER_USER_PREFIX = "KH";
     
     @Override
     @Transactional
@@ -60,8 +59,8 @@ public class AuthServiceImpl implements AuthService {
         Role customerRole = roleRepository.findByRoleCode(CUSTOMER_ROLE_CODE)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer role not found. Please initialize roles first."));
         
-        // 4. Tạo mã người dùng duy nhất với tiền tố "KH"
-        String userCode = generateUniqueUserCode(CUSTOMER_USER_PREFIX);
+        // 4. Cấp phát mã người dùng duy nhất với tiền tố "KH"
+        String userCode = codeAllocatorService.nextCode(CodeAllocatorService.CUSTOMER_PREFIX);
         
         // 5. Tạo entity người dùng mới
         User user = new User();
@@ -168,17 +167,4 @@ public class AuthServiceImpl implements AuthService {
         log.info("Check phone exists: {}", phoneNumber);
         return userRepository.existsByUserPhone(phoneNumber);
     }
-
-    private String generateUniqueUserCode(String prefix) {
-        String userCode;
-        int attempts = 0;
-        do {
-            userCode = codeGeneratorUtils.generateCode(prefix);
-            attempts++;
-            if (attempts > 100) {
-                throw new RuntimeException("Failed to generate unique user code after 100 attempts");
-            }
-        } while (userRepository.existsByUserCode(userCode));
-        return userCode;
-    }
 }
@@ -4,17 +4,19 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import com.oceanbutterflyshop.backend.dtos.request.BrandRequest;
 import com.oceanbutterflyshop.backend.dtos.response.BrandResponse;
 import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.events.BrandChangedEvent;
 import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
 import com.oceanbutterflyshop.backend.mappers.BrandMapper;
 import com.oceanbutterflyshop.backend.repositories.BrandRepository;
 import com.oceanbutterflyshop.backend.services.BrandService;
-import com.oceanbutterflyshop.backend.utils.CodeGeneratorUtils;
+import com.oceanbutterflyshop.backend.services.CodeAllocatorService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,7 +26,8 @@ public class BrandServiceImpl implements BrandService {
 
     private final BrandRepository brandRepository;
     private final BrandMapper brandMapper;
-    private final CodeGeneratorUtils codeGeneratorUtils;
+    private final CodeAllocatorService codeAllocatorService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<BrandResponse> getAllBrands() {
@@ -47,14 +50,10 @@ public class BrandServiceImpl implements BrandService {
     public BrandResponse createBrand(BrandRequest brandRequest) {
         Brand brand = brandMapper.toEntity(brandRequest);
         
-        // Tạo mã thương hiệu duy nhất
-        String brandCode;
-        do {
-            brandCode = codeGeneratorUtils.generateCode("TH");
-        } while (brandRepository.existsByBrandCode(brandCode));
-        
-        brand.setBrandCode(brandCode);
+        // Cấp phát mã thương hiệu duy nhất
+        brand.setBrandCode(codeAllocatorService.nextCode(CodeAllocatorService.BRAND_PREFIX));
         Brand savedBrand = brandRepository.save(brand);
+        eventPublisher.publishEvent(new BrandChangedEvent(savedBrand.getBrandId()));
         return brandMapper.toResponse(savedBrand);
     }
 
@@ -69,6 +68,8 @@ public class BrandServiceImpl implements BrandService {
         brandMapper.updateEntity(existingBrand, brandRequest);
         
         Brand savedBrand = brandRepository.save(existingBrand);
+        // Thông tin thương hiệu được nhúng trong dữ liệu sản phẩm (cache chi tiết, chỉ mục tìm kiếm)
+        eventPublisher.publishEvent(new BrandChangedEvent(savedBrand.getBrandId()));
         return brandMapper.toResponse(savedBrand);
     }
 
@@ -81,6 +82,7 @@ public class BrandServiceImpl implements BrandService {
         
         try {
             brandRepository.deleteById(brandId);
+            eventPublisher.publishEvent(new BrandChangedEvent(brandId));
         } catch (DataIntegrityViolationException e) {
             throw new BadRequestException(
                 "Không thể xóa nhà sản xuất này vì đang có sản phẩm sử dụng. Vui lòng xóa các sản phẩm liên quan trước."
@@ -0,0 +1,237 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.oceanbutterflyshop.backend.dtos.request.CartItemRequest;
+import com.oceanbutterflyshop.backend.dtos.request.CartPriceRequest;
+import com.oceanbutterflyshop.backend.dtos.response.CartLineResponse;
+import com.oceanbutterflyshop.backend.dtos.response.CartPriceResponse;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.CartLineAvailability;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.services.CartPricingService;
+import com.oceanbutterflyshop.backend.services.InventoryService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai bộ tính giá giỏ hàng.
+ *
+ * - Bảng giá trong bộ nhớ: ID sản phẩm → (mã, tên, giá, tồn kho đã ghi), nạp khi khởi động và
+ *   cập nhật qua ProductChangedEvent sau khi transaction commit (sửa sản phẩm, tồn kho, xóa sản phẩm)
+ * - Sản phẩm chưa có trong bảng được đọc bổ sung trong một truy vấn cho cả giỏ hàng; kết quả chỉ được
+ *   đưa vào bảng nếu không có lần làm mới nào (epoch) bắt đầu sau khi đọc, để bản đọc cũ không ghi đè
+ *   lên việc gỡ sản phẩm vừa bị xóa
+ * - Nạp lại toàn bộ không ghi đè (hay gỡ) các sản phẩm đã được làm mới qua sự kiện trong lúc nạp,
+ *   vì dữ liệu của lần quét có thể cũ hơn
+ * - Sản phẩm ngừng kinh doanh được báo UNAVAILABLE dù còn tồn kho
+ * - Giá được giữ ở đơn vị nhỏ nhất (1/100 đồng, khớp scale 2 của product_price) dưới dạng long;
+ *   cộng/nhân là phép toán số nguyên có kiểm tra tràn, chỉ đổi sang BigDecimal khi trả kết quả
+ * - Tồn kho khả dụng lấy qua InventoryService nên đúng với cả chế độ memory
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CartPricingServiceImpl implements CartPricingService {
+
+    private static final int MINOR_UNIT_SCALE = 2;
+
+    private record PriceEntry(Integer productId, String productCode, String productName,
+                              long unitPriceMinor, BigDecimal unitPrice, int quantityStock,
+                              ProductStatus productStatus) {
+    }
+
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+
+    private final Map<Integer, PriceEntry> prices = new ConcurrentHashMap<>();
+    // Tăng trước mỗi lần đọc lại từ DB để làm mới bảng giá (sự kiện thay đổi, nạp lại toàn bộ)
+    private final AtomicLong epoch = new AtomicLong();
+    // Khác null khi đang nạp lại toàn bộ: ID các sản phẩm được làm mới qua sự kiện trong lúc đó
+    private volatile Set<Integer> productsChangedDuringRebuild;
+
+    @Override
+    public CartPriceResponse priceCart(CartPriceRequest request) {
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (CartItemRequest item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return price(quantities);
+    }
+
+    @Override
+    public CartPriceResponse price(Map<Integer, Integer> quantities) {
+        Set<Integer> missing = new HashSet<>(quantities.keySet());
+        missing.removeAll(prices.keySet());
+        if (missing.isEmpty()) {
+            return price(quantities, prices::get);
+        }
+
+        // Chưa có trong bảng (bảng chưa nạp xong hoặc sản phẩm vừa tạo): đọc một lần cho cả giỏ hàng
+        long readEpoch = epoch.get();
+        Map<Integer, PriceEntry> loaded = new HashMap<>();
+        for (ProductRepository.ProductPriceView view : productRepository.findPriceViewsByIdIn(missing)) {
+            PriceEntry entry = toEntry(view);
+            loaded.put(entry.productId(), entry);
+            // Có lần làm mới bắt đầu sau khi đọc: bản đọc có thể đã cũ, chỉ dùng cho yêu cầu này
+            prices.compute(entry.productId(),
+                    (productId, current) -> current != null || epoch.get() != readEpoch ? current : entry);
+        }
+        return price(quantities, productId -> {
+            PriceEntry entry = loaded.get(productId);
+            return entry != null ? entry : prices.get(productId);
+        });
+    }
+
+    @Override
+    public CartPriceResponse price(Map<Integer, Integer> quantities, Map<Integer, Product> productsById) {
+        return price(quantities, productId -> {
+            Product product = productsById.get(productId);
+            return product != null ? toEntry(product) : null;
+        });
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Set<Integer> changed = ConcurrentHashMap.newKeySet();
+        productsChangedDuringRebuild = changed;
+        epoch.incrementAndGet();
+        try {
+            Set<Integer> loaded = new HashSet<>();
+            for (ProductRepository.ProductPriceView view : productRepository.findAllPriceViews()) {
+                PriceEntry entry = toEntry(view);
+                // Sự kiện ghi nhận ID trước khi đọc DB: đã ghi nhận thì giá trị trong bảng mới hơn (hoặc sắp được ghi)
+                prices.compute(entry.productId(),
+                        (productId, current) -> changed.contains(productId) ? current : entry);
+                loaded.add(entry.productId());
+            }
+            prices.keySet().removeIf(productId -> !loaded.contains(productId) && !changed.contains(productId));
+            log.info("Cart price table loaded with {} products ({} refreshed during load)", loaded.size(), changed.size());
+        } finally {
+            productsChangedDuringRebuild = null;
+        }
+    }
+
+    /**
+     * Đọc lại giá/tồn kho của các sản phẩm bị ảnh hưởng sau khi transaction commit;
+     * sản phẩm không còn trong DB bị gỡ khỏi bảng giá
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<Integer> changedDuringRebuild = productsChangedDuringRebuild;
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.addAll(event.productIds());
+        }
+        epoch.incrementAndGet();
+        Set<Integer> remaining = new HashSet<>(event.productIds());
+        for (ProductRepository.ProductPriceView view : productRepository.findPriceViewsByIdIn(event.productIds())) {
+            prices.put(view.getProductId(), toEntry(view));
+            remaining.remove(view.getProductId());
+        }
+        remaining.forEach(prices::remove);
+    }
+
+    private CartPriceResponse price(Map<Integer, Integer> quantities, Function<Integer, PriceEntry> lookup) {
+        Map<Integer, Integer> sorted = new TreeMap<>(quantities);
+        List<CartLineResponse> lines = new ArrayList<>(sorted.size());
+        long totalMinor = 0;
+        int totalQuantity = 0;
+        boolean available = true;
+
+        for (Map.Entry<Integer, Integer> line : sorted.entrySet()) {
+            Integer productId = line.getKey();
+            int quantity = line.getValue();
+            PriceEntry entry = lookup.apply(productId);
+            if (entry == null) {
+                available = false;
+                lines.add(CartLineResponse.builder()
+                        .productId(productId)
+                        .quantity(quantity)
+                        .availability(CartLineAvailability.NOT_FOUND.name())
+                        .build());
+                continue;
+            }
+
+            long lineMinor;
+            try {
+                lineMinor = Math.multiplyExact(entry.unitPriceMinor(), quantity);
+                totalMinor = Math.addExact(totalMinor, lineMinor);
+            } catch (ArithmeticException e) {
+                throw new BadRequestException("Cart total is too large");
+            }
+            totalQuantity += quantity;
+
+            int availableStock = inventoryService.getAvailableStock(productId, entry.quantityStock());
+            CartLineAvailability availability;
+            if (entry.productStatus() == ProductStatus.DISCONTINUED) {
+                availability = CartLineAvailability.UNAVAILABLE;
+            } else if (availableStock < quantity) {
+                availability = CartLineAvailability.INSUFFICIENT_STOCK;
+            } else {
+                availability = CartLineAvailability.AVAILABLE;
+            }
+            available &= availability == CartLineAvailability.AVAILABLE;
+            lines.add(CartLineResponse.builder()
+                    .productId(productId)
+                    .productCode(entry.productCode())
+                    .productName(entry.productName())
+                    .quantity(quantity)
+                    .unitPrice(entry.unitPrice())
+                    .lineTotal(toAmount(lineMinor))
+                    .availableStock(availableStock)
+                    .availability(availability.name())
+                    .build());
+        }
+
+        return CartPriceResponse.builder()
+                .lines(lines)
+                .totalQuantity(totalQuantity)
+                .totalAmount(toAmount(totalMinor))
+                .available(available)
+                .build();
+    }
+
+    private PriceEntry toEntry(ProductRepository.ProductPriceView view) {
+        return toEntry(view.getProductId(), view.getProductCode(), view.getProductName(),
+                view.getProductPrice(), view.getQuantityStock(), view.getProductStatus());
+    }
+
+    private PriceEntry toEntry(Product product) {
+        return toEntry(product.getProductId(), product.getProductCode(), product.getProductName(),
+                product.getProductPrice(), product.getQuantityStock(), product.getProductStatus());
+    }
+
+    private PriceEntry toEntry(Integer productId, String productCode, String productName,
+                               BigDecimal price, Integer quantityStock, ProductStatus productStatus) {
+        long unitPriceMinor = price.setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return new PriceEntry(productId, productCode, productName, unitPriceMinor,
+                toAmount(unitPriceMinor), quantityStock != null ? quantityStock : 0, productStatus);
+    }
+
+    private static BigDecimal toAmount(long minor) {
+        return BigDecimal.valueOf(minor, MINOR_UNIT_SCALE);
+    }
+}
@@ -0,0 +1,149 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.entities.CatalogVersion;
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+import com.oceanbutterflyshop.backend.events.BrandChangedEvent;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.events.ReviewChangedEvent;
+import com.oceanbutterflyshop.backend.events.UserChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.CatalogVersionRepository;
+import com.oceanbutterflyshop.backend.services.CatalogVersionService;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai phiên bản catalog bằng bảng catalog_versions dùng chung giữa các node.
+ *
+ * - Mỗi thay đổi lấy một số phiên bản mới từ sequence catalog_version_seq sau khi dữ liệu đã commit,
+ *   nên phiên bản của mọi thay đổi commit sau một lần đọc đều lớn hơn phiên bản đã đọc
+ * - ETag = tên nhóm + số phiên bản: mọi node (và node vừa restart) trả cùng ETag cho cùng dữ liệu
+ * - Phần tử chưa thay đổi dùng phiên bản nền của nhóm; thay đổi ảnh hưởng toàn bộ nhóm
+ *   (ví dụ đổi tên thương hiệu được nhúng trong mọi sản phẩm) chỉ cần nâng phiên bản nền
+ * - Phiên bản của cả nhóm là phiên bản lớn nhất trong nhóm
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Tạo sequence và phiên bản nền còn thiếu khi khởi động; phiên bản nền đã có (do node khác tạo) được giữ nguyên
+     */
+    @PostConstruct
+    public void init() {
+        long now = System.currentTimeMillis();
+        newTransaction().executeWithoutResult(status -> {
+            catalogVersionRepository.createVersionSequence();
+            for (CatalogScope scope : CatalogScope.values()) {
+                catalogVersionRepository.insertVersionIfMissing(floorKey(scope), scope, 0L, now);
+            }
+        });
+    }
+
+    @Override
+    public Version collectionVersion(CatalogScope scope) {
+        return catalogVersionRepository.findFirstByScopeOrderByVersionDesc(scope)
+                .map(this::toVersion)
+                .orElseGet(() -> initialVersion(scope));
+    }
+
+    @Override
+    public Version entryVersion(CatalogScope scope, Integer id) {
+        List<String> keys = id != null ? List.of(entryKey(scope, id), floorKey(scope)) : List.of(floorKey(scope));
+        return catalogVersionRepository.findFirstByVersionKeyInOrderByVersionDesc(keys)
+                .map(this::toVersion)
+                .orElseGet(() -> initialVersion(scope));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Hình ảnh được nhúng trong dữ liệu sản phẩm và được tra theo productId;
+        // tên sản phẩm được nhúng trong đánh giá của sản phẩm
+        newTransaction().executeWithoutResult(status -> {
+            long version = catalogVersionRepository.nextVersion();
+            bump(CatalogScope.PRODUCT, event.productIds(), version);
+            bump(CatalogScope.IMAGE, event.productIds(), version);
+            bump(CatalogScope.REVIEW, event.productIds(), version);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        newTransaction().executeWithoutResult(status -> {
+            long version = catalogVersionRepository.nextVersion();
+            bump(CatalogScope.BRAND, Set.of(event.brandId()), version);
+            // Thông tin thương hiệu được nhúng trong mọi sản phẩm của nó
+            bumpAll(CatalogScope.PRODUCT, version);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        newTransaction().executeWithoutResult(status ->
+                bump(CatalogScope.REVIEW, Set.of(event.productId()), catalogVersionRepository.nextVersion()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // Tên người dùng được nhúng trong đánh giá của họ ở mọi sản phẩm
+        newTransaction().executeWithoutResult(status ->
+                bumpAll(CatalogScope.REVIEW, catalogVersionRepository.nextVersion()));
+    }
+
+    private void bump(CatalogScope scope, Collection<Integer> ids, long version) {
+        long now = System.currentTimeMillis();
+        for (Integer id : ids) {
+            catalogVersionRepository.upsertVersion(entryKey(scope, id), scope, version, now);
+        }
+    }
+
+    private void bumpAll(CatalogScope scope, long version) {
+        catalogVersionRepository.upsertVersion(floorKey(scope), scope, version, System.currentTimeMillis());
+    }
+
+    /**
+     * Sự kiện được xử lý sau khi transaction gây ra nó commit: ghi phiên bản trong transaction riêng
+     */
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    private Version toVersion(CatalogVersion version) {
+        return newVersion(version.getScope(), version.getVersion(), version.getLastModified());
+    }
+
+    /**
+     * Chỉ dùng khi phiên bản nền chưa được tạo (không xảy ra sau {@link #init()})
+     */
+    private Version initialVersion(CatalogScope scope) {
+        return newVersion(scope, 0L, 0L);
+    }
+
+    private static Version newVersion(CatalogScope scope, long value, long lastModified) {
+        String etag = "\"" + scope.name().toLowerCase() + "-" + value + "\"";
+        return new Version(etag, lastModified);
+    }
+
+    private static String entryKey(CatalogScope scope, Integer id) {
+        return scope.name() + ":" + id;
+    }
+
+    private static String floorKey(CatalogScope scope) {
+        return scope.name() + ":" + CatalogVersion.FLOOR_SUFFIX;
+    }
+}
@@ -0,0 +1,217 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.services.CodeAllocatorService;
+import com.oceanbutterflyshop.backend.utils.CodePermutation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai cấp phát mã theo khối.
+ *
+ * - Mỗi tiền tố có một sequence trong DB (code_seq_dh, ...); mỗi giá trị là số thứ tự của một khối
+ *   BLOCK_SIZE mã, nên các node (và các luồng) luôn nhận các khối rời nhau
+ * - nextval chạy trên kết nối của transaction đang gọi (không mở transaction/kết nối thứ hai, không giữ khóa),
+ *   nên luồng đang giữ khối không bao giờ phải chờ pool kết nối trong khi các luồng khác chờ nó
+ * - Số thứ tự n được ánh xạ qua {@link CodePermutation} (song ánh trên [0, 10^8)) thành 8 chữ số
+ * - Mã sinh ngẫu nhiên trước đây có thể trùng với mã mới: mỗi khối được lọc bằng một truy vấn IN duy nhất
+ *   (tắt bằng code-allocator.check-legacy-codes=false khi không còn dữ liệu cũ)
+ *
+ * Lưu ý: không được đổi code-allocator.secret sau khi đã cấp phát mã, vì hoán vị mới có thể sinh lại mã cũ.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CodeAllocatorServiceImpl implements CodeAllocatorService {
+
+    private static final Set<String> SUPPORTED_PREFIXES = Set.of(
+            ORDER_PREFIX, PRODUCT_PREFIX, BRAND_PREFIX, CUSTOMER_PREFIX, STAFF_PREFIX, ADMIN_PREFIX);
+
+    /**
+     * Số mã trong một khối. Giá trị sequence k ứng với khối [k * BLOCK_SIZE, (k + 1) * BLOCK_SIZE):
+     * cố định trong mã nguồn để mọi node luôn dùng cùng một cách chia khối.
+     */
+    static final int BLOCK_SIZE = 100;
+
+    /**
+     * Giá trị mẫu trong application-dev.properties.example: phải được thay trước khi chạy
+     */
+    static final String PLACEHOLDER_SECRET = "CHANGE_ME";
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    // Bắt buộc cấu hình: không có giá trị mặc định để mọi môi trường dùng khóa riêng
+    @Value("${code-allocator.secret:}")
+    private String secret;
+
+    @Value("${code-allocator.check-legacy-codes:true}")
+    private boolean checkLegacyCodes;
+
+    /**
+     * Khối mã đã giữ trước nhưng chưa cấp phát của từng tiền tố
+     */
+    private static final class CodeBlock {
+        private final CodePermutation permutation;
+        private final Deque<String> pending = new ArrayDeque<>();
+        // Không dùng synchronized: luồng ảo chờ I/O của nextval/truy vấn IN bên trong monitor sẽ ghim luồng mang
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private CodeBlock(CodePermutation permutation) {
+            this.permutation = permutation;
+        }
+    }
+
+    private final Map<String, CodeBlock> blocks = new ConcurrentHashMap<>();
+
+    // Câu lệnh lấy giá trị tiếp theo của sequence theo dialect của DB, theo tiền tố
+    private final Map<String, String> nextBlockQueries = new ConcurrentHashMap<>();
+
+    /**
+     * Kiểm tra khóa hoán vị và tạo sequence còn thiếu khi khởi động (ngoài mọi transaction nghiệp vụ)
+     */
+    @PostConstruct
+    public void init() {
+        if (secret == null || secret.isBlank() || PLACEHOLDER_SECRET.equals(secret.strip())) {
+            throw new IllegalStateException("code-allocator.secret must be configured");
+        }
+
+        SequenceSupport sequenceSupport = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceSupport();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (String prefix : SUPPORTED_PREFIXES) {
+            String sequenceName = sequenceName(prefix);
+            transactionTemplate.executeWithoutResult(status -> entityManager
+                    .createNativeQuery("CREATE SEQUENCE IF NOT EXISTS " + sequenceName
+                            + " MINVALUE 0 START WITH 0")
+                    .executeUpdate());
+            nextBlockQueries.put(prefix, sequenceSupport.getSequenceNextValString(sequenceName));
+        }
+    }
+
+    @Override
+    public String nextCode(String prefix) {
+        if (prefix == null || !SUPPORTED_PREFIXES.contains(prefix)) {
+            throw new IllegalArgumentException("Unsupported code prefix: " + prefix);
+        }
+
+        CodeBlock block = blocks.computeIfAbsent(prefix, p -> new CodeBlock(new CodePermutation(secret, p)));
+        // Chỉ giữ khóa trong một lần đọc sequence trên kết nối sẵn có của luồng đang giữ
+        block.lock.lock();
+        try {
+            while (block.pending.isEmpty()) {
+                block.pending.addAll(reserveBlock(prefix, block.permutation));
+            }
+            return block.pending.poll();
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    @Override
+    public String nextUserCode(String roleName) {
+        if (roleName == null) {
+            throw new IllegalArgumentException("Role cannot be null");
+        }
+
+        switch (roleName.toUpperCase()) {
+            case "ADMIN":
+            case "ADMINISTRATOR":
+                return nextCode(ADMIN_PREFIX);
+            case "STAFF":
+            case "NV":
+                return nextCode(STAFF_PREFIX);
+            case "CUSTOMER":
+            case "KH":
+                return nextCode(CUSTOMER_PREFIX);
+            default:
+                throw new IllegalArgumentException("Invalid role: " + roleName + ". Expected: Admin, Staff, or Customer");
+        }
+    }
+
+    /**
+     * Giữ trước một khối số thứ tự và chuyển thành danh sách mã (đã loại các mã cũ bị trùng)
+     */
+    private List<String> reserveBlock(String prefix, CodePermutation permutation) {
+        long start = nextBlock(prefix) * BLOCK_SIZE;
+        if (start >= CodePermutation.DOMAIN_SIZE) {
+            throw new IllegalStateException("Code space exhausted for prefix " + prefix);
+        }
+        long end = Math.min(start + BLOCK_SIZE, CodePermutation.DOMAIN_SIZE);
+
+        List<String> codes = new ArrayList<>((int) (end - start));
+        for (long value = start; value < end; value++) {
+            codes.add(prefix + String.format("%08d", permutation.permute((int) value)));
+        }
+
+        if (checkLegacyCodes) {
+            Set<String> existing = new HashSet<>(findExistingCodes(prefix, codes));
+            if (!existing.isEmpty()) {
+                log.info("Skipped {} legacy {} codes in reserved block", existing.size(), prefix);
+                codes.removeIf(existing::contains);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Lấy số thứ tự khối tiếp theo từ sequence của tiền tố.
+     * nextval không thuộc transaction: khối đã lấy không bị trả lại khi transaction của đơn hàng rollback.
+     */
+    private long nextBlock(String prefix) {
+        Number value = (Number) entityManager.createNativeQuery(nextBlockQueries.get(prefix))
+                // Không flush các thay đổi đang chờ của transaction gọi chỉ để đọc sequence
+                .setFlushMode(FlushModeType.COMMIT)
+                .getSingleResult();
+        return value.longValue();
+    }
+
+    private static String sequenceName(String prefix) {
+        return "code_seq_" + prefix.toLowerCase();
+    }
+
+    private List<String> findExistingCodes(String prefix, Collection<String> codes) {
+        switch (prefix) {
+            case ORDER_PREFIX:
+                return orderRepository.findExistingOrderCodes(codes);
+            case PRODUCT_PREFIX:
+                return productRepository.findExistingProductCodes(codes);
+            case BRAND_PREFIX:
+                return brandRepository.findExistingBrandCodes(codes);
+            default:
+                return userRepository.findExistingUserCodes(codes);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.entities.DailySalesRollup;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.repositories.DailySalesRollupRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.services.DailySalesRollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai bảng doanh số tổng hợp theo ngày.
+ *
+ * - Cộng dồn: đọc phần đóng góp của các đơn hàng bằng hai truy vấn GROUP BY, sau đó một câu upsert
+ *   (INSERT ... ON CONFLICT DO UPDATE) cho mỗi dòng bị ảnh hưởng trong transaction của đơn hàng,
+ *   theo thứ tự khóa cố định (tránh deadlock giữa các đơn hàng đồng thời)
+ * - Tính lại: xóa và INSERT ... SELECT từ orders/order_items theo từng khối ngày, các khối chạy song song
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailySalesRollupServiceImpl implements DailySalesRollupService {
+
+    /**
+     * Đóng góp của một nhóm đơn hàng vào một dòng tổng hợp (chưa gồm trạng thái)
+     */
+    private record Contribution(LocalDate salesDate, Integer productId, Integer brandId, String productCategory,
+                                long orderCount, long itemQuantity, BigDecimal salesAmount) {
+    }
+
+    private record Delta(OrderStatus status, Contribution contribution, int sign) {
+    }
+
+    private static final Comparator<Delta> LOCK_ORDER = Comparator
+            .comparing((Delta delta) -> delta.contribution().salesDate())
+            .thenComparing(Delta::status)
+            .thenComparing(delta -> delta.contribution().productId())
+            .thenComparing(delta -> delta.contribution().brandId())
+            .thenComparing(delta -> delta.contribution().productCategory());
+
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${sales-rollup.chunk-days:31}")
+    private int chunkDays;
+
+    @Value("${sales-rollup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${sales-rollup.reconcile-days:7}")
+    private int reconcileDays;
+
+    @Override
+    @Transactional
+    public void addOrders(Collection<Integer> orderIds, OrderStatus status) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        applyDeltas(contributionsOf(orderIds).stream()
+                .map(contribution -> new Delta(status, contribution, 1))
+                .toList());
+    }
+
+    @Override
+    @Transactional
+    public void removeOrders(Collection<Integer> orderIds, OrderStatus status) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        applyDeltas(contributionsOf(orderIds).stream()
+                .map(contribution -> new Delta(status, contribution, -1))
+                .toList());
+    }
+
+    @Override
+    @Transactional
+    public void moveOrders(Collection<Integer> orderIds, OrderStatus fromStatus, OrderStatus toStatus) {
+        if (orderIds.isEmpty() || fromStatus == toStatus) {
+            return;
+        }
+        List<Delta> deltas = new ArrayList<>();
+        for (Contribution contribution : contributionsOf(orderIds)) {
+            deltas.add(new Delta(fromStatus, contribution, -1));
+            deltas.add(new Delta(toStatus, contribution, 1));
+        }
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Đọc phần đóng góp của các đơn hàng: dòng sản phẩm từ order_items, dòng tổng từ orders
+     */
+    private List<Contribution> contributionsOf(Collection<Integer> orderIds) {
+        List<Contribution> contributions = new ArrayList<>();
+        Map<LocalDate, Long> quantitiesByDate = new HashMap<>();
+        for (DailySalesRollupRepository.ItemContribution item : dailySalesRollupRepository.summarizeItems(orderIds)) {
+            contributions.add(new Contribution(
+                    item.getSalesDate(),
+                    item.getProductId(),
+                    item.getBrandId() != null ? item.getBrandId() : DailySalesRollup.NO_BRAND_ID,
+                    item.getProductCategory() != null ? item.getProductCategory().name() : DailySalesRollup.NO_CATEGORY,
+                    item.getOrderCount(),
+                    item.getItemQuantity(),
+                    item.getSalesAmount()));
+            quantitiesByDate.merge(item.getSalesDate(), item.getItemQuantity(), Long::sum);
+        }
+        for (DailySalesRollupRepository.OrderContribution order : dailySalesRollupRepository.summarizeOrders(orderIds)) {
+            contributions.add(new Contribution(
+                    order.getSalesDate(),
+                    DailySalesRollup.ORDER_TOTAL_PRODUCT_ID,
+                    DailySalesRollup.ORDER_TOTAL_BRAND_ID,
+                    DailySalesRollup.ORDER_TOTAL_CATEGORY,
+                    order.getOrderCount(),
+                    quantitiesByDate.getOrDefault(order.getSalesDate(), 0L),
+                    order.getSalesAmount()));
+        }
+        return contributions;
+    }
+
+    private void applyDeltas(List<Delta> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Delta> ordered = new ArrayList<>(deltas);
+        ordered.sort(LOCK_ORDER);
+        for (Delta delta : ordered) {
+            Contribution contribution = delta.contribution();
+            BigDecimal salesAmount = delta.sign() < 0 ? contribution.salesAmount().negate() : contribution.salesAmount();
+            dailySalesRollupRepository.upsertDelta(
+                    contribution.salesDate(), delta.status(), contribution.productId(), contribution.brandId(),
+                    contribution.productCategory(), delta.sign() * contribution.orderCount(),
+                    delta.sign() * contribution.itemQuantity(), salesAmount, now);
+        }
+    }
+
+    @Override
+    public int rebuild(LocalDate fromDate, LocalDate toDate) {
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("Rebuild range ends before it starts: " + fromDate + " > " + toDate);
+        }
+        List<LocalDate> chunkStarts = new ArrayList<>();
+        for (LocalDate start = fromDate; !start.isAfter(toDate); start = start.plusDays(chunkDays)) {
+            chunkStarts.add(start);
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Future<Integer>> chunks = new ArrayList<>(chunkStarts.size());
+        int threads = Math.max(1, Math.min(parallelism, chunkStarts.size()));
+        // Số luồng = số kết nối DB tối đa dùng cho việc tính lại
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads,
+                Thread.ofVirtual().name("sales-rollup-", 0).factory())) {
+            for (LocalDate start : chunkStarts) {
+                LocalDate end = start.plusDays(chunkDays - 1L);
+                LocalDate chunkEnd = end.isAfter(toDate) ? toDate : end;
+                chunks.add(executor.submit(() -> transactionTemplate.execute(status -> rebuildChunk(start, chunkEnd))));
+            }
+
+            int rows = 0;
+            for (Future<Integer> chunk : chunks) {
+                rows += chunk.get();
+            }
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sales rollup rebuild was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Sales rollup rebuild failed", e.getCause());
+        }
+    }
+
+    /**
+     * Thay toàn bộ dòng của một khối ngày bằng số liệu tính từ orders/order_items (một transaction)
+     */
+    private int rebuildChunk(LocalDate fromDate, LocalDate toDate) {
+        dailySalesRollupRepository.deleteRange(fromDate, toDate);
+        return dailySalesRollupRepository.insertItemRows(fromDate, toDate)
+                + dailySalesRollupRepository.insertOrderTotalRows(fromDate, toDate);
+    }
+
+    @Override
+    @Scheduled(cron = "${sales-rollup.reconcile-cron:0 45 2 * * *}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = today.minusDays(Math.max(1, reconcileDays) - 1L);
+        int rows = rebuild(fromDate, today);
+        log.info("Sales rollup reconciled {} rows for {} to {}", rows, fromDate, today);
+    }
+
+    /**
+     * Lần chạy đầu tiên (chưa có số liệu cho ngày đặt hàng sớm nhất): tính toàn bộ lịch sử đơn hàng
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        orderRepository.findEarliestOrderDate()
+                .filter(earliest -> !dailySalesRollupRepository.existsBySalesDate(earliest))
+                .ifPresent(earliest -> {
+                    LocalDate today = LocalDate.now();
+                    int rows = rebuild(earliest, today);
+                    log.info("Sales rollup backfilled {} rows over {} days", rows,
+                            ChronoUnit.DAYS.between(earliest, today) + 1);
+                });
+    }
+}
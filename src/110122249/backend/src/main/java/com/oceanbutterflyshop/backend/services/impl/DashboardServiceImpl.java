@@ -1,24 +1,36 @@
 package com.oceanbutterflyshop.backend.services.impl;
 
 import com.oceanbutterflyshop.backend.dtos.response.DashboardStatsResponse;
+import com.oceanbutterflyshop.backend.dtos.response.PeriodTrendResponse;
 import com.oceanbutterflyshop.backend.dtos.response.RecentOrderResponse;
 import com.oceanbutterflyshop.backend.dtos.response.TopProductResponse;
 import com.oceanbutterflyshop.backend.entities.Order;
 import com.oceanbutterflyshop.backend.enums.OrderStatus;
-import com.oceanbutterflyshop.backend.repositories.OrderItemRepository;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
 import com.oceanbutterflyshop.backend.repositories.OrderRepository;
 import com.oceanbutterflyshop.backend.repositories.ProductRepository;
 import com.oceanbutterflyshop.backend.repositories.UserRepository;
 import com.oceanbutterflyshop.backend.services.DashboardService;
+import com.oceanbutterflyshop.backend.services.DashboardTrendService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,51 +39,82 @@ import java.util.stream.Collectors;
 public class DashboardServiceImpl implements DashboardService {
     
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final DashboardTrendService dashboardTrendService;
+    private final PlatformTransactionManager transactionManager;
 
+    private static final int LOW_STOCK_THRESHOLD = 10;
+
+    @Value("${dashboard.stats-ttl-seconds:10}")
+    private long statsTtlSeconds;
+
+    private final AtomicReference<CachedStats> cachedStats = new AtomicReference<>();
+
+    /**
+     * Trả về thống kê dùng chung trong dashboard.stats-ttl-seconds; các lời gọi đồng thời khi kết quả
+     * hết hạn chờ cùng một lần tính thay vì mỗi tab quản trị chạy lại toàn bộ truy vấn
+     * (không giữ transaction/kết nối trong lúc chờ)
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardStatsResponse getDashboardStats() {
-        // Tổng doanh thu từ các đơn hàng đã giao
-        BigDecimal totalRevenue = orderRepository.findAll().stream()
-                .filter(order -> order.getOrderStatus() == OrderStatus.DELIVERED)
-                .map(Order::getOrderAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Tổng số đơn hàng
-        long totalOrders = orderRepository.count();
-        
-        // Số đơn hàng mới (trạng thái NEW)
-        long newOrders = orderRepository.findAll().stream()
-                .filter(order -> order.getOrderStatus() == OrderStatus.NEW)
-                .count();
-        
+        while (true) {
+            CachedStats current = cachedStats.get();
+            if (current != null && current.isUsable(System.nanoTime())) {
+                return awaitStats(current.result());
+            }
+
+            CachedStats computing = new CachedStats(new CompletableFuture<>(),
+                    System.nanoTime() + TimeUnit.SECONDS.toNanos(statsTtlSeconds));
+            if (!cachedStats.compareAndSet(current, computing)) {
+                // Lời gọi khác vừa bắt đầu tính: chờ kết quả của lời gọi đó
+                continue;
+            }
+            try {
+                TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+                readOnlyTransaction.setReadOnly(true);
+                DashboardStatsResponse stats = readOnlyTransaction.execute(status -> computeDashboardStats());
+                computing.result().complete(stats);
+                return stats;
+            } catch (RuntimeException e) {
+                // Không ghi nhớ lỗi: lời gọi sau sẽ tính lại
+                cachedStats.compareAndSet(computing, null);
+                computing.result().completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private DashboardStatsResponse computeDashboardStats() {
+        // Số đơn, doanh thu theo trạng thái trong một truy vấn GROUP BY
+        long totalOrders = 0;
+        long newOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (OrderRepository.OrderStatusTotals totals : orderRepository.summarizeByStatus()) {
+            totalOrders += totals.getOrderCount();
+            if (totals.getOrderStatus() == OrderStatus.NEW) {
+                newOrders = totals.getOrderCount();
+            }
+            if (totals.getOrderStatus() == OrderStatus.DELIVERED) {
+                // Doanh thu chỉ tính các đơn hàng đã giao
+                totalRevenue = totals.getTotalAmount();
+            }
+        }
+
         // Tổng số khách hàng (role = CUS)
-        long totalCustomers = userRepository.findByRole_RoleCode("CUS").size();
+        long totalCustomers = userRepository.countByRole_RoleCode("CUS");
         
         // Tổng số sản phẩm
         long totalProducts = productRepository.count();
         
         // Sản phẩm sắp hết hàng (< 10)
-        long lowStockProducts = productRepository.findAll().stream()
-                .filter(p -> p.getQuantityStock() < 10)
-                .count();
+        long lowStockProducts = productRepository.countByQuantityStockLessThan(LOW_STOCK_THRESHOLD);
         
-        // Calculate trends (simplified - comparing with last month)
-        LocalDate lastMonthStart = LocalDate.now().minusMonths(1).withDayOfMonth(1);
-        LocalDate lastMonthEnd = LocalDate.now().minusMonths(1).withDayOfMonth(
-                LocalDate.now().minusMonths(1).lengthOfMonth());
-        
-        BigDecimal lastMonthRevenue = orderRepository.findAll().stream()
-                .filter(order -> order.getOrderStatus() == OrderStatus.DELIVERED)
-                .filter(order -> order.getOrderDate() != null &&
-                        !order.getOrderDate().isBefore(lastMonthStart) &&
-                        !order.getOrderDate().isAfter(lastMonthEnd))
-                .map(Order::getOrderAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        double revenueTrend = calculateTrend(totalRevenue, lastMonthRevenue);
+        // Xu hướng so với cùng số ngày đầu của tháng trước / tuần trước
+        LocalDate today = LocalDate.now();
+        PeriodTrendResponse monthly = dashboardTrendService.getMonthOverMonth(today);
+        PeriodTrendResponse weekly = dashboardTrendService.getWeekOverWeek(today);
         
         return DashboardStatsResponse.builder()
                 .totalRevenue(totalRevenue)
@@ -80,13 +123,38 @@ public class DashboardServiceImpl implements DashboardService {
                 .totalCustomers((int) totalCustomers)
                 .totalProducts((int) totalProducts)
                 .lowStockProducts((int) lowStockProducts)
-                .revenueTrend(revenueTrend)
-                .ordersTrend(8.2)  // Mock data
-                .customersTrend(5.1) // Mock data
-                .productsTrend(-2.4) // Mock data
+                .revenueTrend(monthly.getRevenueTrend())
+                .ordersTrend(monthly.getOrdersTrend())
+                .customersTrend(monthly.getCustomersTrend())
+                .productsTrend(monthly.getProductsTrend())
+                .revenueWeekTrend(weekly.getRevenueTrend())
+                .ordersWeekTrend(weekly.getOrdersTrend())
+                .customersWeekTrend(weekly.getCustomersTrend())
+                .productsWeekTrend(weekly.getProductsTrend())
                 .build();
     }
 
+    private static DashboardStatsResponse awaitStats(CompletableFuture<DashboardStatsResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Kết quả thống kê (hoặc lần tính đang chạy) cùng thời điểm hết hạn
+     */
+    private record CachedStats(CompletableFuture<DashboardStatsResponse> result, long expiresAtNanos) {
+        boolean isUsable(long nowNanos) {
+            // Lần tính đang chạy luôn được dùng chung; kết quả đã có chỉ dùng khi chưa hết hạn
+            return !result.isDone() || expiresAtNanos - nowNanos > 0;
+        }
+    }
+
     @Override
     public List<RecentOrderResponse> getRecentOrders(int limit) {
         List<Order> orders = orderRepository.findAll(
@@ -106,43 +174,32 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
-    public List<TopProductResponse> getTopSellingProducts(int limit) {
-        List<Integer> productIds = orderItemRepository.findBestSellingProductIds();
-        
-        return productIds.stream()
-                .limit(limit)
-                .map(id -> productRepository.findById(id).orElse(null))
-                .filter(product -> product != null)
-                .map(product -> {
-                    // Tính tổng số lượng đã bán
-                    int totalSold = orderItemRepository.findByProductProductId(product.getProductId())
-                            .stream()
-                            .mapToInt(item -> item.getItemQuantity())
-                            .sum();
-                    
-                    // Lấy URL hình ảnh đầu tiên
-                    String imageUrl = product.getImages().isEmpty() ? null : 
-                            product.getImages().get(0).getImageURL();
-                    
-                    return TopProductResponse.builder()
-                            .productId(product.getProductId())
-                            .productCode(product.getProductCode())
-                            .productName(product.getProductName())
-                            .productPrice(product.getProductPrice())
-                            .totalSold(totalSold)
-                            .imageUrl(imageUrl)
-                            .build();
-                })
-                .collect(Collectors.toList());
-    }
-    
-    private double calculateTrend(BigDecimal current, BigDecimal previous) {
-        if (previous.compareTo(BigDecimal.ZERO) == 0) {
-            return current.compareTo(BigDecimal.ZERO) > 0 ? 100.0 : 0.0;
+    public List<TopProductResponse> getTopSellingProducts(int limit, LocalDate from, LocalDate to,
+                                                          ProductCategory category) {
+        if ((from == null) != (to == null)) {
+            throw new BadRequestException("'from' and 'to' must be given together");
+        }
+        if (from != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
         }
-        BigDecimal diff = current.subtract(previous);
-        return diff.divide(previous, 4, java.math.RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100))
-                .doubleValue();
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // Một truy vấn: toàn thời gian từ bộ đếm product_sales, theo khoảng ngày từ daily_sales_rollup
+        List<ProductRepository.TopSellingProductView> rows = from == null
+                ? productRepository.findTopSelling(category, Limit.of(limit))
+                : productRepository.findTopSellingBetween(from, to, OrderStatus.CANCELLED, category, Limit.of(limit));
+
+        return rows.stream()
+                .map(row -> TopProductResponse.builder()
+                        .productId(row.getProductId())
+                        .productCode(row.getProductCode())
+                        .productName(row.getProductName())
+                        .productPrice(row.getProductPrice())
+                        .totalSold(row.getTotalSold().intValue())
+                        .imageUrl(row.getImageUrl())
+                        .build())
+                .collect(Collectors.toList());
     }
 }
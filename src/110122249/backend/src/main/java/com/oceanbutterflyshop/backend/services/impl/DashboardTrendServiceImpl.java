@@ -0,0 +1,192 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.response.PeriodTrendResponse;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.repositories.DailySalesRollupRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.services.DashboardTrendService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai xu hướng theo kỳ.
+ *
+ * - Mỗi kỳ được đọc thành số liệu theo ngày: doanh số từ daily_sales_rollup, khách hàng mới từ users
+ *   (chỉ mục created_at), sản phẩm có bán theo ngày bán đầu tiên trong kỳ
+ * - So sánh cùng số ngày đầu kỳ (ngày 1..N của tháng này với ngày 1..N của tháng trước)
+ * - Số liệu theo ngày của kỳ trước được giữ trong bộ nhớ đến khi sang kỳ mới; chỉ kỳ hiện tại được đọc lại.
+ *   Thay đổi muộn của đơn hàng thuộc kỳ trước (ví dụ giao hàng) không được phản ánh cho đến kỳ sau.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DashboardTrendServiceImpl implements DashboardTrendService {
+
+    private static final String CUSTOMER_ROLE_CODE = "CUS";
+
+    private enum TrendPeriod {
+        MONTH {
+            @Override
+            LocalDate startOf(LocalDate date) {
+                return date.withDayOfMonth(1);
+            }
+
+            @Override
+            LocalDate previousStart(LocalDate start) {
+                return start.minusMonths(1);
+            }
+        },
+        WEEK {
+            @Override
+            LocalDate startOf(LocalDate date) {
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            }
+
+            @Override
+            LocalDate previousStart(LocalDate start) {
+                return start.minusWeeks(1);
+            }
+        };
+
+        abstract LocalDate startOf(LocalDate date);
+
+        abstract LocalDate previousStart(LocalDate start);
+    }
+
+    /**
+     * Số liệu theo từng ngày của một kỳ (chỉ số 0 = ngày đầu kỳ)
+     *
+     * @param newlyActiveProducts số sản phẩm có lần bán đầu tiên trong kỳ vào ngày đó;
+     *                            tổng các ngày đầu = số sản phẩm khác nhau đã có bán
+     */
+    private record PeriodBuckets(LocalDate start, BigDecimal[] revenue, long[] orders, long[] newCustomers,
+                                 long[] newlyActiveProducts) {
+        int days() {
+            return orders.length;
+        }
+
+        Totals totalsOfFirstDays(int days) {
+            BigDecimal revenueTotal = BigDecimal.ZERO;
+            long ordersTotal = 0;
+            long customersTotal = 0;
+            long productsTotal = 0;
+            for (int day = 0; day < Math.min(days, days()); day++) {
+                revenueTotal = revenueTotal.add(revenue[day]);
+                ordersTotal += orders[day];
+                customersTotal += newCustomers[day];
+                productsTotal += newlyActiveProducts[day];
+            }
+            return new Totals(revenueTotal, ordersTotal, customersTotal, productsTotal);
+        }
+    }
+
+    private record Totals(BigDecimal revenue, long orders, long newCustomers, long activeProducts) {
+    }
+
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final UserRepository userRepository;
+
+    // Số liệu kỳ trước của mỗi loại kỳ, thay thế khi sang kỳ mới
+    private final Map<TrendPeriod, PeriodBuckets> baselines = new ConcurrentHashMap<>();
+
+    @Override
+    public PeriodTrendResponse getMonthOverMonth(LocalDate today) {
+        return trend(TrendPeriod.MONTH, today);
+    }
+
+    @Override
+    public PeriodTrendResponse getWeekOverWeek(LocalDate today) {
+        return trend(TrendPeriod.WEEK, today);
+    }
+
+    private PeriodTrendResponse trend(TrendPeriod period, LocalDate today) {
+        LocalDate currentStart = period.startOf(today);
+        LocalDate previousStart = period.previousStart(currentStart);
+        int elapsedDays = (int) ChronoUnit.DAYS.between(currentStart, today) + 1;
+
+        PeriodBuckets baseline = baselines.compute(period, (key, cached) ->
+                cached != null && cached.start().equals(previousStart)
+                        ? cached
+                        : loadBuckets(previousStart, currentStart.minusDays(1)));
+        // Tháng trước ngắn hơn (ví dụ 31/3 so với tháng 2): so với toàn bộ tháng trước
+        int comparedDays = Math.min(elapsedDays, baseline.days());
+
+        Totals previous = baseline.totalsOfFirstDays(comparedDays);
+        Totals current = loadBuckets(currentStart, today).totalsOfFirstDays(elapsedDays);
+
+        return PeriodTrendResponse.builder()
+                .period(period.name())
+                .currentPeriodStart(currentStart)
+                .previousPeriodStart(previousStart)
+                .comparedDays(comparedDays)
+                .revenueTrend(percentChange(current.revenue(), previous.revenue()))
+                .ordersTrend(percentChange(current.orders(), previous.orders()))
+                .customersTrend(percentChange(current.newCustomers(), previous.newCustomers()))
+                .productsTrend(percentChange(current.activeProducts(), previous.activeProducts()))
+                .build();
+    }
+
+    /**
+     * Đọc số liệu theo ngày của khoảng [start, end] bằng ba truy vấn theo khoảng ngày
+     */
+    private PeriodBuckets loadBuckets(LocalDate start, LocalDate end) {
+        int days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+        BigDecimal[] revenue = new BigDecimal[days];
+        Arrays.fill(revenue, BigDecimal.ZERO);
+        long[] orders = new long[days];
+        long[] newCustomers = new long[days];
+        long[] newlyActiveProducts = new long[days];
+
+        for (DailySalesRollupRepository.DailyTotalView row : dailySalesRollupRepository.findDailyTotals(start, end)) {
+            int day = dayIndex(start, row.getSalesDate());
+            orders[day] += row.getOrderCount();
+            // Doanh thu chỉ tính các đơn hàng đã giao
+            if (row.getOrderStatus() == OrderStatus.DELIVERED) {
+                revenue[day] = revenue[day].add(row.getSalesAmount());
+            }
+        }
+
+        for (UserRepository.DailyUserCount row : userRepository.countCreatedByDay(
+                CUSTOMER_ROLE_CODE, start.atStartOfDay(), end.plusDays(1).atStartOfDay())) {
+            newCustomers[dayIndex(start, row.getCreatedDate())] += row.getUserCount();
+        }
+
+        for (DailySalesRollupRepository.FirstSaleView row : dailySalesRollupRepository.findFirstSaleDates(
+                start, end, OrderStatus.CANCELLED)) {
+            newlyActiveProducts[dayIndex(start, row.getFirstSaleDate())]++;
+        }
+
+        return new PeriodBuckets(start, revenue, orders, newCustomers, newlyActiveProducts);
+    }
+
+    private static int dayIndex(LocalDate start, LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(start, date);
+    }
+
+    private static double percentChange(long current, long previous) {
+        return percentChange(BigDecimal.valueOf(current), BigDecimal.valueOf(previous));
+    }
+
+    private static double percentChange(BigDecimal current, BigDecimal previous) {
+        if (previous.compareTo(BigDecimal.ZERO) == 0) {
+            return current.compareTo(BigDecimal.ZERO) > 0 ? 100.0 : 0.0;
+        }
+        BigDecimal diff = current.subtract(previous);
+        return diff.divide(previous, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100))
+                .doubleValue();
+    }
+}
@@ -0,0 +1,271 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.entities.IdempotencyRecord;
+import com.oceanbutterflyshop.backend.enums.IdempotencyStatus;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.exceptions.ConflictException;
+import com.oceanbutterflyshop.backend.repositories.IdempotencyRecordRepository;
+import com.oceanbutterflyshop.backend.services.IdempotencyService;
+import com.oceanbutterflyshop.backend.utils.BoundedTtlCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai Idempotency-Key cho việc tạo đơn hàng.
+ *
+ * - Trong một node: yêu cầu trùng khóa đang xử lý chờ trên cùng một CompletableFuture, không chạy lần hai
+ * - Kết quả hoàn tất được giữ trong cache có giới hạn dung lượng và TTL (idempotencyCache)
+ * - Chế độ database (idempotency.store=database, dùng khi chạy nhiều node): khóa được giữ bằng bản ghi
+ *   IN_PROGRESS trong idempotency_records; kết quả được ghi trong cùng transaction với đơn hàng
+ *   nên không thể có đơn hàng mà thiếu kết quả lưu lại
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final BoundedTtlCache<String, CompletedRequest> idempotencyCache;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${idempotency.store:memory}")
+    private String store;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.wait-timeout-seconds:30}")
+    private long waitTimeoutSeconds;
+
+    @Value("${idempotency.lock-timeout-seconds:120}")
+    private long lockTimeoutSeconds;
+
+    private final Map<String, CompletableFuture<CompletedRequest>> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public Result execute(String idempotencyKey, String username, OrderRequest orderRequest,
+                          Supplier<OrderResponse> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        String recordKey = sha256Hex(username + "\n" + idempotencyKey);
+        String requestHash = sha256Hex(toJson(orderRequest));
+
+        CompletedRequest cached = idempotencyCache.get(recordKey);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<CompletedRequest> own = new CompletableFuture<>();
+        CompletableFuture<CompletedRequest> running = inFlight.putIfAbsent(recordKey, own);
+        if (running != null) {
+            // Cùng khóa đang được xử lý trên node này: chờ kết quả thay vì tạo đơn lần nữa
+            return replay(await(running), requestHash);
+        }
+
+        try {
+            // Kiểm tra lại: lần xử lý trước có thể vừa hoàn tất giữa lúc đọc cache và lúc giữ khóa
+            cached = idempotencyCache.get(recordKey);
+            Result result;
+            if (cached != null) {
+                result = replay(cached, requestHash);
+            } else if ("database".equalsIgnoreCase(store)) {
+                result = executeWithDatabase(recordKey, requestHash, action);
+                cached = new CompletedRequest(requestHash, result.response());
+            } else {
+                cached = new CompletedRequest(requestHash, action.get());
+                result = new Result(cached.response(), false);
+            }
+            idempotencyCache.put(recordKey, cached);
+            own.complete(cached);
+            return result;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(recordKey, own);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "0 15 * * * *") // Chạy phút 15 mỗi giờ
+    public void purgeExpiredRecords() {
+        if (!"database".equalsIgnoreCase(store)) {
+            return;
+        }
+        Integer removed = newTransaction().execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        log.info("Purged {} expired idempotency records", removed);
+    }
+
+    /**
+     * Giữ khóa trong DB (hoặc chờ node khác đang giữ), rồi tạo đơn hàng và lưu kết quả trong cùng transaction
+     */
+    private Result executeWithDatabase(String recordKey, String requestHash, Supplier<OrderResponse> action) {
+        String ownerToken = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(waitTimeoutSeconds);
+
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(recordKey);
+
+            if (existing.isEmpty()) {
+                if (tryInsert(recordKey, requestHash, ownerToken, now)) {
+                    return new Result(runAndComplete(recordKey, requestHash, ownerToken, action), false);
+                }
+                continue;
+            }
+
+            IdempotencyRecord existingRecord = existing.get();
+            if (existingRecord.getExpiresAt().isBefore(now)) {
+                newTransaction().executeWithoutResult(status ->
+                        idempotencyRecordRepository.deleteIfExpired(recordKey, now));
+                continue;
+            }
+            if (!existingRecord.getRequestHash().equals(requestHash)) {
+                throw new BadRequestException("Idempotency-Key has already been used with a different request");
+            }
+            if (existingRecord.getStatus() == IdempotencyStatus.COMPLETED) {
+                return new Result(fromJson(existingRecord.getResponseBody()), true);
+            }
+
+            // IN_PROGRESS: node giữ khóa bị dừng giữa chừng thì nhận lại, nếu không thì chờ
+            LocalDateTime staleBefore = now.minusSeconds(lockTimeoutSeconds);
+            Integer taken = newTransaction().execute(status ->
+                    idempotencyRecordRepository.takeOver(recordKey, ownerToken, now, staleBefore));
+            if (taken != null && taken > 0) {
+                log.warn("Took over abandoned idempotency record {}", recordKey);
+                return new Result(runAndComplete(recordKey, requestHash, ownerToken, action), false);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new ConflictException("A request with this Idempotency-Key is still being processed");
+            }
+            sleep();
+        }
+    }
+
+    private boolean tryInsert(String recordKey, String requestHash, String ownerToken, LocalDateTime now) {
+        try {
+            newTransaction().executeWithoutResult(status -> idempotencyRecordRepository.insertInProgress(
+                    recordKey, requestHash, ownerToken, now, now.plusHours(ttlHours)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Yêu cầu trùng trên node khác vừa giữ khóa trước
+            return false;
+        }
+    }
+
+    private OrderResponse runAndComplete(String recordKey, String requestHash, String ownerToken,
+                                         Supplier<OrderResponse> action) {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                OrderResponse response = action.get();
+                int updated = idempotencyRecordRepository.complete(
+                        recordKey, ownerToken, toJson(response), LocalDateTime.now().plusHours(ttlHours));
+                if (updated == 0) {
+                    // Khóa đã bị nhận lại vì xử lý quá lâu: hủy đơn hàng này để không tạo trùng
+                    throw new ConflictException("A request with this Idempotency-Key is still being processed");
+                }
+                return response;
+            });
+        } catch (RuntimeException e) {
+            newTransaction().executeWithoutResult(status -> idempotencyRecordRepository.release(recordKey, ownerToken));
+            throw e;
+        }
+    }
+
+    private Result replay(CompletedRequest completed, String requestHash) {
+        if (!completed.requestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key has already been used with a different request");
+        }
+        return new Result(completed.response(), true);
+    }
+
+    private CompletedRequest await(CompletableFuture<CompletedRequest> running) {
+        try {
+            return running.get(waitTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private OrderResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored order response", e);
+        }
+    }
+
+    private static String sha256Hex(String input) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.oceanbutterflyshop.backend.services.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.oceanbutterflyshop.backend.dtos.ImageDTO;
 import com.oceanbutterflyshop.backend.entities.Image;
 import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
 import com.oceanbutterflyshop.backend.exceptions.ResourceNotFoundException;
 import com.oceanbutterflyshop.backend.repositories.ImageRepository;
 import com.oceanbutterflyshop.backend.repositories.ProductRepository;
 import com.oceanbutterflyshop.backend.services.ImageService;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +27,7 @@ public class ImageServiceImpl implements ImageService {
     
     private final ImageRepository imageRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -56,6 +62,7 @@ public class ImageServiceImpl implements ImageService {
         Image image = convertToEntity(imageDTO);
         image.setProduct(product);
         image = imageRepository.save(image);
+        markProductsChanged(Set.of(product.getProductId()));
         
         return convertToDTO(image);
     }
@@ -65,17 +72,23 @@ public class ImageServiceImpl implements ImageService {
         Image existingImage = imageRepository.findById(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Image", "id", imageId));
         
+        // Sản phẩm cũ (và sản phẩm mới nếu ảnh được chuyển) đều thay đổi danh sách ảnh
+        Set<Integer> affectedProductIds = new HashSet<>();
+        affectedProductIds.add(existingImage.getProduct().getProductId());
+        
         // Xác thực sản phẩm tồn tại nếu sản phẩm bị thay đổi
         if (!existingImage.getProduct().getProductId().equals(imageDTO.getProductId())) {
             Product product = productRepository.findById(imageDTO.getProductId())
                     .orElseThrow(() -> new ResourceNotFoundException("Product", "id", imageDTO.getProductId()));
             existingImage.setProduct(product);
+            affectedProductIds.add(product.getProductId());
         }
         
         existingImage.setImageName(imageDTO.getImageName());
         existingImage.setImageURL(imageDTO.getImageURL());
         
         existingImage = imageRepository.save(existingImage);
+        markProductsChanged(affectedProductIds);
         return convertToDTO(existingImage);
     }
 
@@ -84,6 +97,7 @@ public class ImageServiceImpl implements ImageService {
         Image image = imageRepository.findById(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Image", "id", imageId));
         imageRepository.delete(image);
+        markProductsChanged(Set.of(image.getProduct().getProductId()));
     }
 
     @Override
@@ -93,6 +107,16 @@ public class ImageServiceImpl implements ImageService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
         
         imageRepository.deleteByProductProductId(productId);
+        markProductsChanged(Set.of(productId));
+    }
+
+    /**
+     * Hình ảnh là một phần dữ liệu sản phẩm: cập nhật updatedAt của sản phẩm (để đồng bộ thay đổi nhận biết)
+     * và phát sự kiện để làm mới cache/chỉ mục sau khi commit
+     */
+    private void markProductsChanged(Set<Integer> productIds) {
+        productRepository.touchUpdatedAt(productIds, LocalDateTime.now());
+        eventPublisher.publishEvent(ProductChangedEvent.imagesChanged(productIds));
     }
 
     private ImageDTO convertToDTO(Image image) {
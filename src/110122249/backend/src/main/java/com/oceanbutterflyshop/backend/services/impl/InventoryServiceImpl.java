@@ -0,0 +1,317 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.dtos.response.InventoryResponse;
+import com.oceanbutterflyshop.backend.entities.InventoryJournalEntry;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.InventoryChangeReason;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.exceptions.InsufficientStockException;
+import com.oceanbutterflyshop.backend.exceptions.ResourceNotFoundException;
+import com.oceanbutterflyshop.backend.repositories.InventoryJournalRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.services.InventoryService;
+import com.oceanbutterflyshop.backend.utils.StripedStockCounter;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai giữ/hoàn tồn kho.
+ *
+ * Chế độ memory:
+ * - Mỗi sản phẩm có một StripedStockCounter; giữ hàng là CAS trong bộ nhớ, không khóa dòng products
+ * - Bộ đếm được trừ ngay khi giữ hàng và cộng lại nếu transaction rollback; hoàn hàng/nhập thêm chỉ
+ *   được cộng sau khi commit, nên bộ đếm không bao giờ cho bán số hàng chưa thực sự có
+ * - Mỗi thay đổi được ghi một dòng inventory_journal trong transaction của người gọi (bền vững cùng đơn hàng)
+ * - Tác vụ định kỳ gộp delta theo sản phẩm vào products.quantity_stock rồi xóa các dòng đã gộp
+ * - Khi khởi động: gộp phần nhật ký còn lại của lần chạy trước rồi nạp bộ đếm từ DB
+ * - Bộ đếm luôn được tạo trước khi ghi nhật ký cho sản phẩm đó, nên giá trị nạp từ DB
+ *   (quantity_stock + nhật ký đã commit) không bị cộng trùng với thay đổi đang chờ commit
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final String MEMORY_MODE = "memory";
+
+    private final ProductRepository productRepository;
+    private final InventoryJournalRepository inventoryJournalRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.mode:database}")
+    private String mode;
+
+    @Value("${inventory.stripes:8}")
+    private int stripes;
+
+    @Value("${inventory.flush-batch-size:5000}")
+    private int flushBatchSize;
+
+    private final Map<Integer, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    @Override
+    public int getAvailableStock(Product product) {
+        return getAvailableStock(product.getProductId(), product.getQuantityStock());
+    }
+
+    @Override
+    public int getAvailableStock(Integer productId, int persistedStock) {
+        return isMemoryMode() ? counterFor(productId).available() : persistedStock;
+    }
+
+    @Override
+    @Transactional
+    public void reserve(Map<Integer, Integer> quantities) {
+        Map<Integer, Integer> sorted = new TreeMap<>(quantities);
+        if (!isMemoryMode()) {
+            // Kiểm tra và trừ là một câu UPDATE nguyên tử nên các đơn hàng đồng thời không thể bán vượt số lượng
+            LocalDateTime now = LocalDateTime.now();
+            sorted.forEach((productId, quantity) -> {
+                if (productRepository.decrementStock(productId, quantity, now) == 0) {
+                    throw new InsufficientStockException(productId, quantity);
+                }
+            });
+            return;
+        }
+
+        reserveCounters(sorted, InventoryChangeReason.ORDER);
+    }
+
+    @Override
+    @Transactional
+    public void release(Map<Integer, Integer> quantities) {
+        Map<Integer, Integer> sorted = new TreeMap<>(quantities);
+        if (!isMemoryMode()) {
+            LocalDateTime now = LocalDateTime.now();
+            sorted.forEach((productId, quantity) -> productRepository.incrementStock(productId, quantity, now));
+            return;
+        }
+
+        sorted.keySet().forEach(this::counterFor);
+        appendJournal(sorted, 1, InventoryChangeReason.CANCEL);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseCounters(sorted);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void adjustStock(Integer productId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (!isMemoryMode()) {
+            LocalDateTime now = LocalDateTime.now();
+            if (delta < 0) {
+                if (productRepository.decrementStock(productId, -delta, now) == 0) {
+                    if (!productRepository.existsById(productId)) {
+                        throw new ResourceNotFoundException("Product", "id", productId);
+                    }
+                    throw new InsufficientStockException(productId, -delta);
+                }
+            } else if (productRepository.incrementStock(productId, delta, now) == 0) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId));
+            return;
+        }
+
+        if (delta < 0) {
+            reserveCounters(Map.of(productId, -delta), InventoryChangeReason.ADJUSTMENT);
+            return;
+        }
+        counterFor(productId);
+        Map<Integer, Integer> added = Map.of(productId, delta);
+        appendJournal(added, 1, InventoryChangeReason.ADJUSTMENT);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseCounters(added);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryResponse getInventory(Integer productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        boolean memoryMode = isMemoryMode();
+        return InventoryResponse.builder()
+                .productId(productId)
+                .productCode(product.getProductCode())
+                .mode(memoryMode ? MEMORY_MODE : "database")
+                .availableStock(getAvailableStock(product))
+                .persistedStock(product.getQuantityStock())
+                .pendingDelta(memoryMode ? inventoryJournalRepository.sumPendingDelta(productId) : 0L)
+                .build();
+    }
+
+    @Override
+    public int flush() {
+        if (!isMemoryMode()) {
+            return 0;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        synchronized (flushLock) {
+            int flushed;
+            do {
+                flushed = transactionTemplate.execute(status -> flushBatch());
+                total += flushed;
+            } while (flushed == flushBatchSize);
+        }
+        return total;
+    }
+
+    /**
+     * Gộp một lô nhật ký: cộng tổng delta của từng sản phẩm (theo ID tăng dần) rồi xóa đúng các dòng đã đọc
+     */
+    private int flushBatch() {
+        List<InventoryJournalEntry> entries = inventoryJournalRepository.findOldest(PageRequest.of(0, flushBatchSize));
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Integer> deltas = new TreeMap<>();
+        List<Long> journalIds = new ArrayList<>(entries.size());
+        for (InventoryJournalEntry entry : entries) {
+            deltas.merge(entry.getProductId(), entry.getDelta(), Integer::sum);
+            journalIds.add(entry.getJournalId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((productId, delta) -> {
+            if (delta != 0) {
+                productRepository.incrementStock(productId, delta, now);
+            }
+        });
+        inventoryJournalRepository.deleteByIdIn(journalIds);
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(deltas.keySet()));
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (!isMemoryMode()) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Nhật ký vẫn còn nguyên, lần chạy sau sẽ gộp lại
+            log.warn("Inventory journal flush failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Đối chiếu khi khởi động: gộp nhật ký còn lại rồi nạp bộ đếm cho tất cả sản phẩm
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (!isMemoryMode()) {
+            return;
+        }
+        int flushed = flush();
+        int loaded = 0;
+        for (Object[] row : inventoryJournalRepository.findAllEffectiveStock()) {
+            Integer productId = ((Number) row[0]).intValue();
+            int stock = Math.max(0, ((Number) row[1]).intValue());
+            if (counters.putIfAbsent(productId, new StripedStockCounter(stock, stripes)) == null) {
+                loaded++;
+            }
+        }
+        log.info("In-memory inventory loaded for {} products ({} journal entries flushed)", loaded, flushed);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!isMemoryMode()) {
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Final inventory journal flush failed, entries will be applied on next startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Trừ bộ đếm theo thứ tự ID; thiếu hàng thì trả lại phần đã trừ. Rollback → cộng lại bộ đếm
+     */
+    private void reserveCounters(Map<Integer, Integer> quantities, InventoryChangeReason reason) {
+        Map<Integer, Integer> reserved = new TreeMap<>();
+        try {
+            quantities.forEach((productId, quantity) -> {
+                if (!counterFor(productId).tryReserve(quantity)) {
+                    throw new InsufficientStockException(productId, quantity);
+                }
+                reserved.put(productId, quantity);
+            });
+        } catch (RuntimeException e) {
+            releaseCounters(reserved);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    releaseCounters(reserved);
+                }
+            }
+        });
+        appendJournal(reserved, -1, reason);
+    }
+
+    private StripedStockCounter counterFor(Integer productId) {
+        return counters.computeIfAbsent(productId, id -> {
+            Long stock = inventoryJournalRepository.findEffectiveStock(id);
+            if (stock == null) {
+                throw new ResourceNotFoundException("Product", "id", id);
+            }
+            return new StripedStockCounter((int) Math.max(0, stock), stripes);
+        });
+    }
+
+    private void releaseCounters(Map<Integer, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> counterFor(productId).release(quantity));
+    }
+
+    private void appendJournal(Map<Integer, Integer> quantities, int sign, InventoryChangeReason reason) {
+        List<InventoryJournalEntry> entries = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) ->
+                entries.add(new InventoryJournalEntry(productId, sign * quantity, reason)));
+        inventoryJournalRepository.saveAll(entries);
+    }
+
+    private boolean isMemoryMode() {
+        return MEMORY_MODE.equalsIgnoreCase(mode);
+    }
+}
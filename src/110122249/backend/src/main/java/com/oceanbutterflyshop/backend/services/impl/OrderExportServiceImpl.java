@@ -0,0 +1,238 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbutterflyshop.backend.enums.ExportFormat;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.services.OrderExportService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai xuất đơn hàng dạng luồng.
+ *
+ * - Một câu SQL nối orders/users/order_items/products, đọc bằng con trỏ phía server
+ *   (transaction chỉ đọc + fetch size: PostgreSQL chỉ trả từng nhóm dòng thay vì toàn bộ kết quả)
+ * - Mỗi dòng được ghi ngay ra luồng (CSV hoặc NDJSON), không giữ lại trong bộ nhớ
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final String[] COLUMNS = {
+        "order_id", "order_code", "order_date", "order_status", "order_amount", "payment_method", "payment_date",
+        "user_code", "user_name", "shipping_address", "shipping_phone",
+        "product_code", "product_name", "item_quantity", "item_price", "unit_price"
+    };
+
+    private static final String SELECT_SQL =
+        "SELECT o.order_id, o.order_code, o.order_date, o.order_status, o.order_amount, o.payment_method, " +
+        "o.payment_date, u.user_code, u.user_name, o.shipping_address, o.shipping_phone, " +
+        "p.product_code, p.product_name, oi.item_quantity, oi.item_price, oi.unit_price " +
+        "FROM orders o " +
+        "LEFT JOIN users u ON u.user_id = o.user_id " +
+        "LEFT JOIN order_items oi ON oi.order_id = o.order_id " +
+        "LEFT JOIN products p ON p.product_id = oi.product_id";
+
+    // Số dòng ghi giữa hai lần đẩy dữ liệu xuống client
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order-export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDate from, LocalDate to, OrderStatus status, ExportFormat format,
+                             OutputStream outputStream) throws IOException {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add("o.order_date >= ?");
+            params.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("o.order_date <= ?");
+            params.add(Date.valueOf(to));
+        }
+        if (status != null) {
+            conditions.add("o.order_status = ?");
+            params.add(status.name());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY o.order_id, oi.order_item_id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        rowWriter.writeHeader();
+
+        int[] rowCount = {0};
+        RowCallbackHandler handler = resultSet -> {
+            try {
+                rowWriter.writeRow(resultSet);
+                if (++rowCount[0] % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, handler);
+        } catch (UncheckedIOException e) {
+            // Client ngắt kết nối giữa chừng
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * CSV theo RFC 4180; ô văn bản bắt đầu bằng = + - @ được thêm dấu ' để bảng tính không hiểu là công thức
+     */
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(ResultSet resultSet) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = resultSet.getObject(i);
+                if (value == null) {
+                    continue;
+                }
+                if (value instanceof String text) {
+                    writeText(text);
+                } else if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else {
+                    writer.write(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeText(String text) throws IOException {
+            if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * Mỗi dòng là một đối tượng JSON, ngày theo ISO-8601 (yyyy-MM-dd)
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // flush() chỉ đẩy dữ liệu vào bộ đệm của writer, không đẩy xuống client sau mỗi dòng
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void writeRow(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                Object value = resultSet.getObject(i);
+                if (value == null) {
+                    generator.writeNullField(COLUMNS[i - 1]);
+                } else if (value instanceof Number number) {
+                    generator.writeFieldName(COLUMNS[i - 1]);
+                    generator.writeNumber(number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString());
+                } else {
+                    generator.writeStringField(COLUMNS[i - 1], value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderIntakeResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderIntakeStatsResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.enums.OrderIntakeStatus;
+import com.oceanbutterflyshop.backend.exceptions.AccessDeniedException;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.exceptions.ResourceNotFoundException;
+import com.oceanbutterflyshop.backend.exceptions.ServiceUnavailableException;
+import com.oceanbutterflyshop.backend.services.OrderIntakeService;
+import com.oceanbutterflyshop.backend.services.OrderService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai hàng đợi đặt hàng bất đồng bộ.
+ *
+ * - Hàng đợi ArrayBlockingQueue có giới hạn; đầy thì từ chối ngay (503 + Retry-After) thay vì giữ thread
+ * - Mỗi worker (virtual thread) lấy tối đa batch-size đơn hàng và tạo cả lô trong một transaction,
+ *   tồn kho được trừ một lần cho mỗi sản phẩm; lô lỗi (ví dụ một đơn thiếu hàng) được xử lý lại từng đơn
+ *   để chỉ đơn lỗi bị từ chối
+ * - Kết quả được giữ trong bộ nhớ result-ttl-minutes phút để client hỏi lại
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIntakeServiceImpl implements OrderIntakeService {
+
+    private final OrderService orderService;
+
+    @Value("${order-intake.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order-intake.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${order-intake.workers:4}")
+    private int workerCount;
+
+    @Value("${order-intake.batch-size:20}")
+    private int batchSize;
+
+    @Value("${order-intake.result-ttl-minutes:30}")
+    private long resultTtlMinutes;
+
+    @Value("${order-intake.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    /**
+     * Một đơn hàng trong hàng đợi và kết quả xử lý của nó
+     */
+    private static final class Ticket {
+        private final String trackingId = UUID.randomUUID().toString();
+        private final OrderRequest request;
+        private final String username;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final long submittedNanos = System.nanoTime();
+        private final CompletableFuture<OrderIntakeResponse> result = new CompletableFuture<>();
+        private volatile OrderIntakeStatus status = OrderIntakeStatus.QUEUED;
+
+        private Ticket(OrderRequest request, String username) {
+            this.request = request;
+            this.username = username;
+        }
+
+        private OrderIntakeResponse toResponse() {
+            OrderIntakeResponse finished = result.getNow(null);
+            if (finished != null) {
+                return finished;
+            }
+            return OrderIntakeResponse.builder()
+                    .trackingId(trackingId)
+                    .status(status.name())
+                    .submittedAt(submittedAt)
+                    .build();
+        }
+    }
+
+    private BlockingQueue<Ticket> queue;
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean accepting;
+    private volatile boolean running;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedOrders = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            accepting = true;
+        }
+    }
+
+    /**
+     * Khởi động worker khi ứng dụng sẵn sàng (đơn nhận trước đó nằm chờ trong hàng đợi)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("order-intake-" + i).start(this::runWorker));
+        }
+        log.info("Order intake started with {} workers, queue capacity {}, batch size {}",
+                workerCount, queueCapacity, batchSize);
+    }
+
+    /**
+     * Ngừng nhận đơn mới và chờ các worker xử lý hết hàng đợi
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        accepting = false;
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+            worker.interrupt();
+        }
+        workers.clear();
+        log.info("Order intake stopped");
+    }
+
+    @Override
+    public OrderIntakeResponse submit(OrderRequest orderRequest, String username) {
+        if (!accepting) {
+            throw new BadRequestException("Asynchronous checkout is disabled");
+        }
+
+        Ticket ticket = new Ticket(orderRequest, username);
+        OrderIntakeResponse response = ticket.toResponse();
+        tickets.put(ticket.trackingId, ticket);
+        if (!queue.offer(ticket)) {
+            tickets.remove(ticket.trackingId);
+            rejected.increment();
+            throw new ServiceUnavailableException("Order queue is full, please retry later", retryAfterSeconds);
+        }
+        accepted.increment();
+        return response;
+    }
+
+    @Override
+    public OrderIntakeResponse getStatus(String trackingId, String username) {
+        return findTicket(trackingId, username).toResponse();
+    }
+
+    @Override
+    public CompletableFuture<OrderIntakeResponse> awaitResult(String trackingId, String username) {
+        return findTicket(trackingId, username).result;
+    }
+
+    @Override
+    public OrderIntakeStatsResponse getStats() {
+        long finished = completed.sum() + failed.sum();
+        long batchCount = batches.sum();
+        return OrderIntakeStatsResponse.builder()
+                .enabled(accepting)
+                .queueDepth(queue != null ? queue.size() : 0)
+                .queueCapacity(queueCapacity)
+                .workers(workers.size())
+                .accepted(accepted.sum())
+                .rejected(rejected.sum())
+                .completed(completed.sum())
+                .failed(failed.sum())
+                .batches(batchCount)
+                .averageBatchSize(batchCount == 0 ? 0.0 : (double) batchedOrders.sum() / batchCount)
+                .averageLatencyMillis(finished == 0 ? 0.0 : totalLatencyNanos.sum() / 1_000_000.0 / finished)
+                .maxLatencyMillis(TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()))
+                .build();
+    }
+
+    /**
+     * Xóa kết quả đã quá thời gian lưu
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictFinishedTickets() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(resultTtlMinutes);
+        tickets.values().removeIf(ticket -> {
+            OrderIntakeResponse finished = ticket.result.getNow(null);
+            return finished != null && finished.getCompletedAt().isBefore(before);
+        });
+    }
+
+    private Ticket findTicket(String trackingId, String username) {
+        Ticket ticket = tickets.get(trackingId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Order request", "trackingId", trackingId);
+        }
+        if (!ticket.username.equals(username)) {
+            throw new AccessDeniedException("You do not have permission to access this order request");
+        }
+        return ticket;
+    }
+
+    private void runWorker() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Ticket first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order intake worker failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Ticket> batch) {
+        batch.forEach(ticket -> ticket.status = OrderIntakeStatus.PROCESSING);
+        batches.increment();
+        batchedOrders.add(batch.size());
+
+        if (batch.size() > 1) {
+            try {
+                List<OrderResponse> orders = orderService.createOrders(
+                        batch.stream().map(ticket -> ticket.request).toList(),
+                        batch.stream().map(ticket -> ticket.username).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    complete(batch.get(i), orders.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Batch of {} orders rolled back ({}), processing one by one", batch.size(), e.getMessage());
+            }
+        }
+
+        for (Ticket ticket : batch) {
+            try {
+                complete(ticket, orderService.createOrder(ticket.request, ticket.username));
+            } catch (BadRequestException | ResourceNotFoundException e) {
+                fail(ticket, e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Failed to create queued order {}", ticket.trackingId, e);
+                fail(ticket, "Order could not be created");
+            }
+        }
+    }
+
+    private void complete(Ticket ticket, OrderResponse order) {
+        completed.increment();
+        finish(ticket, OrderIntakeStatus.COMPLETED, order, null);
+    }
+
+    private void fail(Ticket ticket, String errorMessage) {
+        failed.increment();
+        finish(ticket, OrderIntakeStatus.FAILED, null, errorMessage);
+    }
+
+    private void finish(Ticket ticket, OrderIntakeStatus status, OrderResponse order, String errorMessage) {
+        long latency = System.nanoTime() - ticket.submittedNanos;
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+
+        ticket.status = status;
+        ticket.result.complete(OrderIntakeResponse.builder()
+                .trackingId(ticket.trackingId)
+                .status(status.name())
+                .order(order)
+                .errorMessage(errorMessage)
+                .submittedAt(ticket.submittedAt)
+                .completedAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -1,33 +1,68 @@
 package com.oceanbutterflyshop.backend.services.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.oceanbutterflyshop.backend.aspects.RetryOnOptimisticLock;
 import com.oceanbutterflyshop.backend.dtos.request.OrderItemRequest;
 import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderStatusBatchRequest;
+import com.oceanbutterflyshop.backend.dtos.response.CartLineResponse;
+import com.oceanbutterflyshop.backend.dtos.response.CartPriceResponse;
 import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderStatusBatchResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderStatusChangeResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderSummaryResponse;
 import com.oceanbutterflyshop.backend.entities.Order;
 import com.oceanbutterflyshop.backend.entities.OrderItem;
 import com.oceanbutterflyshop.backend.entities.Product;
 import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.enums.CartLineAvailability;
 import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.OrderTransitionOutcome;
 import com.oceanbutterflyshop.backend.enums.PaymentMethod;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
 import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.exceptions.InsufficientStockException;
 import com.oceanbutterflyshop.backend.exceptions.ResourceNotFoundException;
 import com.oceanbutterflyshop.backend.mappers.OrderMapper;
 import com.oceanbutterflyshop.backend.repositories.OrderItemRepository;
 import com.oceanbutterflyshop.backend.repositories.OrderRepository;
 import com.oceanbutterflyshop.backend.repositories.ProductRepository;
 import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.services.CartPricingService;
+import com.oceanbutterflyshop.backend.services.CodeAllocatorService;
+import com.oceanbutterflyshop.backend.services.DailySalesRollupService;
+import com.oceanbutterflyshop.backend.services.InventoryService;
 import com.oceanbutterflyshop.backend.services.OrderService;
-import com.oceanbutterflyshop.backend.utils.CodeGeneratorUtils;
+import com.oceanbutterflyshop.backend.services.OrderViewService;
+import com.oceanbutterflyshop.backend.services.ProductRankingService;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,49 +70,201 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderServiceImpl implements OrderService {
     
+    // Các cột NOT NULL được phép sắp xếp ở chế độ con trỏ
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of(
+        "orderId", "orderDate", "orderAmount", "orderStatus"
+    );
+
+    // Thứ tự của lịch sử đơn hàng/hàng đợi theo trạng thái (khớp với chỉ mục idx_orders_user_date, idx_orders_status_date)
+    private static final Sort SUMMARY_SORT = Sort.by(Sort.Direction.DESC, "orderDate", "orderId");
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final OrderMapper orderMapper;
-    private final CodeGeneratorUtils codeGeneratorUtils;
+    private final CodeAllocatorService codeAllocatorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductRankingService productRankingService;
+    private final InventoryService inventoryService;
+    private final OrderViewService orderViewService;
+    private final CartPricingService cartPricingService;
+    private final DailySalesRollupService dailySalesRollupService;
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderResponse> getAllOrdersPaginated(Pageable pageable) {
         Page<Order> orderPage = orderRepository.findAll(pageable);
-        return orderPage.map(orderMapper::toResponse);
+        Map<Integer, OrderResponse> views = findViews(orderPage.getContent());
+        return orderPage.map(order -> toResponse(order, views));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<OrderResponse> getAllOrdersByCursor(String cursor, int size, Sort sort) {
+        CursorUtils.validateSize(size);
+        CursorUtils.validateSort(sort, CURSOR_SORT_FIELDS);
+        ScrollPosition position = CursorUtils.decode(cursor, sort, Order.class);
+
+        // Keyset scroll: WHERE (sort, id) > (...) LIMIT size + 1, không chạy COUNT(*)
+        Window<Order> window = orderRepository.findBy(Specification.unrestricted(),
+                query -> query.sortBy(sort).limit(size).scroll(position));
+        Map<Integer, OrderResponse> views = findViews(window.getContent());
+        return window.map(order -> toResponse(order, views));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByUserId(Integer userId) {
-        return orderRepository.findByUserUserIdOrderByOrderDateDesc(userId).stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(orderRepository.findByUserUserIdOrderByOrderDateDesc(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByStatus(String status) {
         // Parse status from enum name (NEW, PROCESSING, DELIVERED, CANCELLED)
-        OrderStatus orderStatus;
+        OrderStatus orderStatus = parseOrderStatus(status);
+        
+        return toResponses(orderRepository.findByOrderStatusOrderByOrderDateDesc(orderStatus));
+    }
+
+    /**
+     * Đọc mô hình đọc của các đơn hàng trong một truy vấn (thay vì nạp mục đơn hàng, sản phẩm,
+     * thương hiệu và ảnh cho từng đơn); đơn hàng chưa có mô hình đọc được ánh xạ từ entity
+     */
+    private List<OrderResponse> toResponses(List<Order> orders) {
+        Map<Integer, OrderResponse> views = findViews(orders);
+        return orders.stream()
+                .map(order -> toResponse(order, views))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Integer, OrderResponse> findViews(List<Order> orders) {
+        return orderViewService.findAllById(orders.stream().map(Order::getOrderId).toList());
+    }
+
+    private OrderResponse toResponse(Order order, Map<Integer, OrderResponse> views) {
+        OrderResponse view = views.get(order.getOrderId());
+        return view != null ? view : orderMapper.toResponse(order);
+    }
+
+    /**
+     * Phản hồi sau khi thay đổi đơn hàng: mô hình đọc đã được đồng bộ trong cùng transaction
+     */
+    private OrderResponse toResponse(Order order) {
+        return orderViewService.findById(order.getOrderId()).orElseGet(() -> orderMapper.toResponse(order));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryResponse> getOrderHistory(Integer userId, int page, int size, String currentUsername) {
+        checkCanViewOrdersOf(userId, currentUsername);
+        return orderRepository.findSummariesByUserId(userId, summaryPage(page, size)).map(this::toSummaryResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<OrderSummaryResponse> getOrderHistoryByCursor(Integer userId, String cursor, int size,
+                                                                String currentUsername) {
+        checkCanViewOrdersOf(userId, currentUsername);
+        CursorUtils.validateSize(size);
+        KeysetScrollPosition position = (KeysetScrollPosition) CursorUtils.decode(cursor, SUMMARY_SORT, Order.class);
+        Limit limit = Limit.of(size + 1);
+        List<OrderRepository.OrderSummaryView> rows = position.isInitial()
+                ? orderRepository.findSummariesByUserId(userId, limit)
+                : orderRepository.findSummariesByUserIdBefore(userId, (LocalDate) position.getKeys().get("orderDate"),
+                        (Integer) position.getKeys().get("orderId"), limit);
+        return toSummaryWindow(rows, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryResponse> getOrderSummariesByStatus(String status, int page, int size) {
+        return orderRepository.findSummariesByStatus(parseOrderStatus(status), summaryPage(page, size))
+                .map(this::toSummaryResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<OrderSummaryResponse> getOrderSummariesByStatusByCursor(String status, String cursor, int size) {
+        OrderStatus orderStatus = parseOrderStatus(status);
+        CursorUtils.validateSize(size);
+        KeysetScrollPosition position = (KeysetScrollPosition) CursorUtils.decode(cursor, SUMMARY_SORT, Order.class);
+        Limit limit = Limit.of(size + 1);
+        List<OrderRepository.OrderSummaryView> rows = position.isInitial()
+                ? orderRepository.findSummariesByStatus(orderStatus, limit)
+                : orderRepository.findSummariesByStatusBefore(orderStatus, (LocalDate) position.getKeys().get("orderDate"),
+                        (Integer) position.getKeys().get("orderId"), limit);
+        return toSummaryWindow(rows, size);
+    }
+
+    /**
+     * Khách hàng chỉ xem được đơn hàng của chính mình (trừ khi là admin/staff)
+     */
+    private void checkCanViewOrdersOf(Integer userId, String currentUsername) {
+        User currentUser = userRepository.findByUserAccount(currentUsername)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", currentUsername));
+        String roleCode = currentUser.getRole() != null ? currentUser.getRole().getRoleCode() : null;
+        if (!"ADM".equals(roleCode) && !"STF".equals(roleCode) && !currentUser.getUserId().equals(userId)) {
+            throw new com.oceanbutterflyshop.backend.exceptions.AccessDeniedException(
+                "You do not have permission to access these orders");
+        }
+    }
+
+    private OrderStatus parseOrderStatus(String status) {
         try {
-            orderStatus = OrderStatus.valueOf(status.toUpperCase());
+            return OrderStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new BadRequestException("Invalid order status: " + status);
         }
-        
-        return orderRepository.findByOrderStatusOrderByOrderDateDesc(orderStatus).stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+    }
+
+    private Pageable summaryPage(int page, int size) {
+        CursorUtils.validateSize(size);
+        if (page < 0) {
+            throw new BadRequestException("Page number must not be negative");
+        }
+        // Thứ tự sắp xếp cố định trong câu truy vấn (khớp với chỉ mục)
+        return PageRequest.of(page, size);
+    }
+
+    /**
+     * Đọc dư một dòng để biết còn trang sau; vị trí của mỗi phần tử là (orderDate, orderId)
+     */
+    private Window<OrderSummaryResponse> toSummaryWindow(List<OrderRepository.OrderSummaryView> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<OrderSummaryResponse> content = rows.stream()
+                .limit(size)
+                .map(this::toSummaryResponse)
+                .toList();
+        return Window.from(content, index -> {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("orderDate", content.get(index).getOrderDate());
+            keys.put("orderId", content.get(index).getOrderId());
+            return ScrollPosition.forward(keys);
+        }, hasNext);
+    }
+
+    private OrderSummaryResponse toSummaryResponse(OrderRepository.OrderSummaryView view) {
+        return OrderSummaryResponse.builder()
+                .orderId(view.getOrderId())
+                .orderCode(view.getOrderCode())
+                .orderDate(view.getOrderDate())
+                .orderStatus(view.getOrderStatus().name())
+                .orderAmount(view.getOrderAmount())
+                .paymentMethod(view.getPaymentMethod() != null ? view.getPaymentMethod().name() : null)
+                .paymentDate(view.getPaymentDate())
+                .customerName(view.getCustomerName())
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Integer orderId, String currentUsername) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+        // Một dòng order_views; chỉ nạp đơn hàng đầy đủ nếu đơn chưa có mô hình đọc
+        OrderResponse response = orderViewService.findById(orderId)
+                .orElseGet(() -> orderMapper.toResponse(orderRepository.findById(orderId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId))));
         
         // Bảo vệ IDOR: Kiểm tra người dùng hiện tại có sở hữu đơn hàng này không (trừ khi là admin/staff)
         User currentUser = userRepository.findByUserAccount(currentUsername)
@@ -85,21 +272,22 @@ public class OrderServiceImpl implements OrderService {
         
         boolean isAdmin = "ADMIN".equals(currentUser.getRole().getRoleCode());
         boolean isStaff = "STAFF".equals(currentUser.getRole().getRoleCode());
-        boolean isOwner = order.getUser().getUserId().equals(currentUser.getUserId());
+        boolean isOwner = currentUser.getUserId().equals(response.getUserId());
         
         if (!isAdmin && !isStaff && !isOwner) {
             throw new com.oceanbutterflyshop.backend.exceptions.AccessDeniedException(
                 "You do not have permission to access this order");
         }
         
-        return orderMapper.toResponse(order);
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderResponse getOrderByCode(String orderCode, String currentUsername) {
-        Order order = orderRepository.findByOrderCode(orderCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "code", orderCode));
+        OrderResponse response = orderViewService.findByCode(orderCode)
+                .orElseGet(() -> orderMapper.toResponse(orderRepository.findByOrderCode(orderCode)
+                        .orElseThrow(() -> new ResourceNotFoundException("Order", "code", orderCode))));
         
         // Bảo vệ IDOR: Kiểm tra người dùng hiện tại có sở hữu đơn hàng này không (trừ khi là admin/staff)
         User currentUser = userRepository.findByUserAccount(currentUsername)
@@ -107,14 +295,14 @@ public class OrderServiceImpl implements OrderService {
         
         boolean isAdmin = "ADMIN".equals(currentUser.getRole().getRoleCode());
         boolean isStaff = "STAFF".equals(currentUser.getRole().getRoleCode());
-        boolean isOwner = order.getUser().getUserId().equals(currentUser.getUserId());
+        boolean isOwner = currentUser.getUserId().equals(response.getUserId());
         
         if (!isAdmin && !isStaff && !isOwner) {
             throw new com.oceanbutterflyshop.backend.exceptions.AccessDeniedException(
                 "You do not have permission to access this order");
         }
         
-        return orderMapper.toResponse(order);
+        return response;
     }
 
     @Override
@@ -123,16 +311,96 @@ public class OrderServiceImpl implements OrderService {
         User user = userRepository.findByUserAccount(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
         
+        // Tải tất cả sản phẩm trong một truy vấn
+        Map<Integer, Product> productsById = loadProducts(List.of(orderRequest));
+        
+        PreparedOrder prepared = prepareOrder(orderRequest, user, productsById);
+        
+        // Giữ hàng: kiểm tra và trừ là một thao tác nguyên tử nên các đơn hàng đồng thời
+        // không thể bán vượt số lượng. Không đủ hàng → rollback toàn bộ đơn
+        decrementStock(prepared.quantities(), productsById);
+        
+        OrderResponse response = saveOrder(prepared);
+        
+        // Cập nhật bảng xếp hạng bán chạy và doanh số theo ngày
+        productRankingService.adjustSoldQuantities(prepared.quantities());
+        dailySalesRollupService.addOrders(List.of(response.getOrderId()), prepared.order().getOrderStatus());
+        
+        // Tồn kho thay đổi: làm mới dữ liệu sản phẩm sau khi commit
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(prepared.quantities().keySet()));
+        
+        // Trả về đơn hàng hoàn chỉnh với các mục đã lưu
+        return response;
+    }
+
+    @Override
+    public List<OrderResponse> createOrders(List<OrderRequest> orderRequests, List<String> usernames) {
+        if (orderRequests.size() != usernames.size()) {
+            throw new IllegalArgumentException("Each order request needs exactly one username");
+        }
+        
+        // Sản phẩm của cả lô được tải trong một truy vấn, người dùng được tải một lần cho mỗi tài khoản
+        Map<Integer, Product> productsById = loadProducts(orderRequests);
+        Map<String, User> usersByAccount = new HashMap<>();
+        
+        List<PreparedOrder> preparedOrders = new ArrayList<>(orderRequests.size());
+        Map<Integer, Integer> totalQuantities = new TreeMap<>();
+        for (int i = 0; i < orderRequests.size(); i++) {
+            String username = usernames.get(i);
+            User user = usersByAccount.computeIfAbsent(username, account -> userRepository.findByUserAccount(account)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "username", account)));
+            
+            PreparedOrder prepared = prepareOrder(orderRequests.get(i), user, productsById);
+            prepared.quantities().forEach((productId, quantity) -> totalQuantities.merge(productId, quantity, Integer::sum));
+            preparedOrders.add(prepared);
+        }
+        
+        // Mỗi sản phẩm chỉ giữ hàng một lần cho tổng số lượng của cả lô
+        decrementStock(totalQuantities, productsById);
+        
+        List<OrderResponse> responses = new ArrayList<>(preparedOrders.size());
+        Map<OrderStatus, List<Integer>> orderIdsByStatus = new EnumMap<>(OrderStatus.class);
+        for (PreparedOrder prepared : preparedOrders) {
+            OrderResponse response = saveOrder(prepared);
+            responses.add(response);
+            orderIdsByStatus.computeIfAbsent(prepared.order().getOrderStatus(), status -> new ArrayList<>())
+                    .add(response.getOrderId());
+        }
+        
+        productRankingService.adjustSoldQuantities(totalQuantities);
+        orderIdsByStatus.forEach((status, ids) -> dailySalesRollupService.addOrders(ids, status));
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(totalQuantities.keySet()));
+        
+        return responses;
+    }
+
+    /**
+     * Đơn hàng đã được xác thực, chờ trừ tồn kho và lưu
+     *
+     * @param quantities ID sản phẩm → tổng số lượng, sắp theo ID tăng dần
+     */
+    private record PreparedOrder(Order order, OrderRequest request, Map<Integer, Integer> quantities,
+                                 Map<Integer, Product> productsById) {
+    }
+
+    private Map<Integer, Product> loadProducts(List<OrderRequest> orderRequests) {
+        Set<Integer> productIds = orderRequests.stream()
+                .flatMap(request -> request.getOrderItems().stream())
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toSet());
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+    }
+
+    /**
+     * Tạo entity đơn hàng, xác thực sản phẩm và tính tổng tiền (chưa trừ tồn kho, chưa lưu)
+     */
+    private PreparedOrder prepareOrder(OrderRequest orderRequest, User user, Map<Integer, Product> productsById) {
         // Tạo entity order từ request
         Order order = orderMapper.toEntity(orderRequest, user);
         
-        // Tạo mã đơn hàng duy nhất
-        String orderCode;
-        do {
-            orderCode = codeGeneratorUtils.generateOrderCode();
-        } while (orderRepository.existsByOrderCode(orderCode));
-        
-        order.setOrderCode(orderCode);
+        // Cấp phát mã đơn hàng duy nhất
+        order.setOrderCode(codeAllocatorService.nextCode(CodeAllocatorService.ORDER_PREFIX));
         
         // Snapshot: Ghi lại địa chỉ và số điện thoại hiện tại của người dùng làm thông tin giao hàng
         // Đây là snapshot tại thời điểm tạo đơn hàng
@@ -143,37 +411,62 @@ public class OrderServiceImpl implements OrderService {
             order.setShippingPhone(user.getUserPhone());
         }
         
-        // Tính tổng tiền sử dụng các phép toán BigDecimal
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        
-        // Xác thực order items và tính tổng
+        // Gộp số lượng theo sản phẩm; TreeMap để luôn khóa các dòng sản phẩm theo thứ tự ID tăng dần (tránh deadlock)
+        Map<Integer, Integer> requestedQuantities = new TreeMap<>();
         for (OrderItemRequest itemRequest : orderRequest.getOrderItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", itemRequest.getProductId()));
-            
-            // Kiểm tra đủ số lượng tồn kho
-            if (product.getQuantityStock() < itemRequest.getItemQuantity()) {
-                throw new BadRequestException("Insufficient stock for product: " + product.getProductName() + 
-                                            ". Available: " + product.getQuantityStock() + 
-                                            ", Requested: " + itemRequest.getItemQuantity());
+            requestedQuantities.merge(itemRequest.getProductId(), itemRequest.getItemQuantity(), Integer::sum);
+        }
+        
+        // Tính tổng tiền bằng cùng bộ tính giá với giỏ hàng (POST /api/v1/cart/price),
+        // trên các sản phẩm vừa đọc trong transaction này
+        CartPriceResponse quote = cartPricingService.price(requestedQuantities, productsById);
+        
+        // Xác thực order items
+        for (CartLineResponse line : quote.getLines()) {
+            if (CartLineAvailability.NOT_FOUND.name().equals(line.getAvailability())) {
+                throw new ResourceNotFoundException("Product", "id", line.getProductId());
+            }
+            if (CartLineAvailability.UNAVAILABLE.name().equals(line.getAvailability())) {
+                throw new BadRequestException("Product is discontinued: " + line.getProductName());
             }
             
-            // Tính tổng tiền từng mục sử dụng các phép toán BigDecimal
-            BigDecimal itemPrice = product.getProductPrice(); // BigDecimal
-            BigDecimal quantity = BigDecimal.valueOf(itemRequest.getItemQuantity());
-            BigDecimal itemTotal = itemPrice.multiply(quantity);
-            
-            totalAmount = totalAmount.add(itemTotal);
+            // Kiểm tra nhanh trên dữ liệu vừa đọc; điều kiện chính xác nằm ở bước giữ hàng (InventoryService)
+            if (CartLineAvailability.INSUFFICIENT_STOCK.name().equals(line.getAvailability())) {
+                throw new BadRequestException("Insufficient stock for product: " + line.getProductName() + 
+                                            ". Available: " + line.getAvailableStock() + 
+                                            ", Requested: " + line.getQuantity());
+            }
         }
         
-        order.setOrderAmount(totalAmount);
-        
+        order.setOrderAmount(quote.getTotalAmount());
+        return new PreparedOrder(order, orderRequest, requestedQuantities, productsById);
+    }
+
+    /**
+     * Giữ hàng theo thứ tự ID tăng dần; sản phẩm nào không đủ hàng → BadRequestException (rollback)
+     */
+    private void decrementStock(Map<Integer, Integer> quantities, Map<Integer, Product> productsById) {
+        try {
+            inventoryService.reserve(quantities);
+        } catch (InsufficientStockException e) {
+            Product product = productsById.get(e.getProductId());
+            throw new BadRequestException("Insufficient stock for product: " + product.getProductName() + 
+                                        ". Requested: " + e.getRequestedQuantity());
+        }
+    }
+
+    /**
+     * Lưu đơn hàng và các mục đơn hàng (giá được snapshot tại thời điểm mua)
+     */
+    private OrderResponse saveOrder(PreparedOrder prepared) {
         // Lưu đơn hàng trước
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = orderRepository.save(prepared.order());
         
-        // Tạo các mục đơn hàng và cập nhật tồn kho sản phẩm
-        for (OrderItemRequest itemRequest : orderRequest.getOrderItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId()).get();
+        // Tạo các mục đơn hàng, lưu cùng lúc
+        List<OrderItemRequest> itemRequests = prepared.request().getOrderItems();
+        List<OrderItem> orderItems = new ArrayList<>(itemRequests.size());
+        for (OrderItemRequest itemRequest : itemRequests) {
+            Product product = prepared.productsById().get(itemRequest.getProductId());
             
             // Tạo mục đơn hàng sử dụng mapper
             OrderItem orderItem = orderMapper.toOrderItemEntity(itemRequest, savedOrder, product);
@@ -183,19 +476,18 @@ public class OrderServiceImpl implements OrderService {
             orderItem.setItemPrice(itemPrice); // BigDecimal
             orderItem.setUnitPrice(itemPrice.doubleValue()); // Chuyển đổi sang Double theo yêu cầu
             
-            orderItemRepository.save(orderItem);
-            
-            // Cập nhật tồn kho sản phẩm
-            product.setQuantityStock(product.getQuantityStock() - itemRequest.getItemQuantity());
-            productRepository.save(product);
+            orderItems.add(orderItem);
         }
+        savedOrder.setOrderItems(orderItemRepository.saveAll(orderItems));
         
-        // Trả về đơn hàng hoàn chỉnh với các mục đã lưu
-        Order finalOrder = orderRepository.findById(savedOrder.getOrderId()).get();
-        return orderMapper.toResponse(finalOrder);
+        // Mô hình đọc: snapshot sản phẩm (tên, mã, thương hiệu, ảnh) tại thời điểm mua
+        OrderResponse response = orderMapper.toResponse(savedOrder);
+        orderViewService.create(savedOrder, response);
+        return response;
     }
 
     @Override
+    @RetryOnOptimisticLock
     public OrderResponse updateOrderStatus(Integer orderId, String newStatus) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
@@ -223,10 +515,159 @@ public class OrderServiceImpl implements OrderService {
         }
         
         Order updatedOrder = orderRepository.save(order);
-        return orderMapper.toResponse(updatedOrder);
+        orderViewService.syncState(updatedOrder);
+        dailySalesRollupService.moveOrders(List.of(orderId), currentStatus, newOrderStatus);
+        return toResponse(updatedOrder);
+    }
+
+    @Override
+    public OrderStatusBatchResponse updateOrderStatuses(OrderStatusBatchRequest request) {
+        List<Integer> orderIds = request.getOrderIds() != null ? request.getOrderIds() : List.of();
+        List<String> orderCodes = request.getOrderCodes() != null ? request.getOrderCodes() : List.of();
+        if (orderIds.isEmpty() && orderCodes.isEmpty()) {
+            throw new BadRequestException("At least one order id or order code is required");
+        }
+        
+        OrderStatus targetStatus;
+        try {
+            targetStatus = OrderStatus.valueOf(request.getStatus().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid order status: " + request.getStatus());
+        }
+        // Hủy đơn phải hoàn tồn kho và bảng xếp hạng nên chỉ đi qua cancelOrder
+        if (targetStatus == OrderStatus.CANCELLED) {
+            throw new BadRequestException("Orders cannot be cancelled in bulk, use the cancel endpoint");
+        }
+        
+        // Chỉ đọc (ID, mã, trạng thái): không tải mục đơn hàng hay người dùng
+        Map<Integer, OrderRepository.OrderStatusView> viewsById = new HashMap<>();
+        Map<String, OrderRepository.OrderStatusView> viewsByCode = new HashMap<>();
+        if (!orderIds.isEmpty()) {
+            orderRepository.findStatusViewsByIdIn(new HashSet<>(orderIds))
+                    .forEach(view -> viewsById.put(view.getOrderId(), view));
+        }
+        if (!orderCodes.isEmpty()) {
+            orderRepository.findStatusViewsByCodeIn(new HashSet<>(orderCodes))
+                    .forEach(view -> viewsByCode.put(view.getOrderCode(), view));
+        }
+        
+        // Xác thực trong bộ nhớ (cùng quy tắc với updateOrderStatus); mỗi đơn chỉ xuất hiện một lần trong kết quả
+        List<OrderStatusChangeResponse> results = new ArrayList<>(orderIds.size() + orderCodes.size());
+        Map<Integer, OrderStatusChangeResponse> resultsByOrderId = new HashMap<>();
+        Map<OrderStatus, List<Integer>> pendingByStatus = new EnumMap<>(OrderStatus.class);
+        for (Integer orderId : orderIds) {
+            OrderRepository.OrderStatusView view = viewsById.get(orderId);
+            if (view == null) {
+                results.add(notFound(orderId, null));
+            } else {
+                planTransition(view, targetStatus, results, resultsByOrderId, pendingByStatus);
+            }
+        }
+        for (String orderCode : orderCodes) {
+            OrderRepository.OrderStatusView view = viewsByCode.get(orderCode);
+            if (view == null) {
+                results.add(notFound(null, orderCode));
+            } else {
+                planTransition(view, targetStatus, results, resultsByOrderId, pendingByStatus);
+            }
+        }
+        
+        // Một câu UPDATE cho mỗi trạng thái nguồn
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> transitionedIds = new ArrayList<>();
+        pendingByStatus.forEach((fromStatus, ids) -> {
+            int updated = orderRepository.transitionStatus(ids, fromStatus, targetStatus, now);
+            if (updated == ids.size()) {
+                transitionedIds.addAll(ids);
+                orderViewService.updateStatuses(ids, targetStatus, now);
+                dailySalesRollupService.moveOrders(ids, fromStatus, targetStatus);
+                return;
+            }
+            // Một số đơn đã bị đổi trạng thái hoặc bị xóa sau khi đọc: đọc lại để biết đơn nào không được cập nhật
+            List<Integer> updatedIds = new ArrayList<>(updated);
+            Set<Integer> missingIds = new HashSet<>(ids);
+            for (OrderRepository.OrderStatusView view : orderRepository.findStatusViewsByIdIn(ids)) {
+                missingIds.remove(view.getOrderId());
+                if (view.getOrderStatus() == targetStatus) {
+                    updatedIds.add(view.getOrderId());
+                } else {
+                    OrderStatusChangeResponse result = resultsByOrderId.get(view.getOrderId());
+                    result.setStatus(view.getOrderStatus().name());
+                    result.setOutcome(OrderTransitionOutcome.REJECTED.name());
+                    result.setMessage("Order status was changed concurrently");
+                }
+            }
+            for (Integer orderId : missingIds) {
+                OrderStatusChangeResponse result = resultsByOrderId.get(orderId);
+                result.setStatus(null);
+                result.setOutcome(OrderTransitionOutcome.NOT_FOUND.name());
+                result.setMessage("Order was deleted concurrently");
+            }
+            transitionedIds.addAll(updatedIds);
+            orderViewService.updateStatuses(updatedIds, targetStatus, now);
+            dailySalesRollupService.moveOrders(updatedIds, fromStatus, targetStatus);
+        });
+        
+        // Nếu đánh dấu là đã giao, đặt ngày thanh toán
+        if (targetStatus == OrderStatus.DELIVERED && !transitionedIds.isEmpty()) {
+            LocalDate paymentDate = LocalDate.now();
+            orderRepository.setMissingPaymentDate(transitionedIds, paymentDate);
+            orderViewService.setMissingPaymentDate(transitionedIds, paymentDate);
+        }
+        
+        Map<String, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(OrderStatusChangeResponse::getOutcome, Collectors.counting()));
+        int updated = counts.getOrDefault(OrderTransitionOutcome.UPDATED.name(), 0L).intValue();
+        int unchanged = counts.getOrDefault(OrderTransitionOutcome.UNCHANGED.name(), 0L).intValue();
+        return OrderStatusBatchResponse.builder()
+                .status(targetStatus.name())
+                .updated(updated)
+                .unchanged(unchanged)
+                .failed(results.size() - updated - unchanged)
+                .results(results)
+                .build();
+    }
+
+    private void planTransition(OrderRepository.OrderStatusView view, OrderStatus targetStatus,
+                                List<OrderStatusChangeResponse> results,
+                                Map<Integer, OrderStatusChangeResponse> resultsByOrderId,
+                                Map<OrderStatus, List<Integer>> pendingByStatus) {
+        if (resultsByOrderId.containsKey(view.getOrderId())) {
+            return;
+        }
+        OrderStatus currentStatus = view.getOrderStatus();
+        OrderStatusChangeResponse result = OrderStatusChangeResponse.builder()
+                .orderId(view.getOrderId())
+                .orderCode(view.getOrderCode())
+                .previousStatus(currentStatus.name())
+                .status(currentStatus.name())
+                .build();
+        
+        if (currentStatus == targetStatus) {
+            result.setOutcome(OrderTransitionOutcome.UNCHANGED.name());
+        } else if (currentStatus == OrderStatus.DELIVERED || currentStatus == OrderStatus.CANCELLED) {
+            result.setOutcome(OrderTransitionOutcome.REJECTED.name());
+            result.setMessage("Cannot update status of a delivered or cancelled order");
+        } else {
+            result.setStatus(targetStatus.name());
+            result.setOutcome(OrderTransitionOutcome.UPDATED.name());
+            pendingByStatus.computeIfAbsent(currentStatus, status -> new ArrayList<>()).add(view.getOrderId());
+        }
+        results.add(result);
+        resultsByOrderId.put(view.getOrderId(), result);
+    }
+
+    private OrderStatusChangeResponse notFound(Integer orderId, String orderCode) {
+        return OrderStatusChangeResponse.builder()
+                .orderId(orderId)
+                .orderCode(orderCode)
+                .outcome(OrderTransitionOutcome.NOT_FOUND.name())
+                .message("Order not found")
+                .build();
     }
 
     @Override
+    @RetryOnOptimisticLock
     public OrderResponse updatePayment(Integer orderId, String paymentMethod) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
@@ -247,10 +688,12 @@ public class OrderServiceImpl implements OrderService {
         }
         
         Order updatedOrder = orderRepository.save(order);
-        return orderMapper.toResponse(updatedOrder);
+        orderViewService.syncState(updatedOrder);
+        return toResponse(updatedOrder);
     }
 
     @Override
+    @RetryOnOptimisticLock
     public OrderResponse updatePaymentStatus(Integer orderId, Boolean isPaid) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
@@ -262,10 +705,12 @@ public class OrderServiceImpl implements OrderService {
         }
         
         Order updatedOrder = orderRepository.save(order);
-        return orderMapper.toResponse(updatedOrder);
+        orderViewService.syncState(updatedOrder);
+        return toResponse(updatedOrder);
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void cancelOrder(Integer orderId, String currentUsername) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
@@ -291,17 +736,20 @@ public class OrderServiceImpl implements OrderService {
         
         // Khôi phục tồn kho sản phẩm
         List<OrderItem> orderItems = orderItemRepository.findByOrderOrderId(orderId);
-        for (OrderItem item : orderItems) {
-            Product product = item.getProduct();
-            product.setQuantityStock(product.getQuantityStock() + item.getItemQuantity());
-            productRepository.save(product);
-        }
+        restoreStock(orderItems);
+        productRankingService.adjustSoldQuantities(negatedQuantities(orderItems));
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(orderItems.stream()
+                .map(item -> item.getProduct().getProductId())
+                .collect(Collectors.toSet())));
         
         order.setOrderStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        orderViewService.syncState(order);
+        dailySalesRollupService.moveOrders(List.of(orderId), currentStatus, OrderStatus.CANCELLED);
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void deleteOrder(Integer orderId, String currentUsername) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
@@ -325,16 +773,40 @@ public class OrderServiceImpl implements OrderService {
         // If deleting a PROCESSING order, restore stock
         if (order.getOrderStatus() == OrderStatus.PROCESSING) {
             List<OrderItem> orderItems = orderItemRepository.findByOrderOrderId(orderId);
-            for (OrderItem item : orderItems) {
-                Product product = item.getProduct();
-                product.setQuantityStock(product.getQuantityStock() + item.getItemQuantity());
-                productRepository.save(product);
-            }
+            restoreStock(orderItems);
+            // Đơn đã hủy đã được trừ khỏi bảng xếp hạng lúc hủy
+            productRankingService.adjustSoldQuantities(negatedQuantities(orderItems));
+            eventPublisher.publishEvent(ProductChangedEvent.stockChanged(orderItems.stream()
+                    .map(item -> item.getProduct().getProductId())
+                    .collect(Collectors.toSet())));
         }
         
+        orderViewService.delete(orderId);
+        // Trừ khỏi doanh số theo ngày trước khi xóa các mục đơn hàng
+        dailySalesRollupService.removeOrders(List.of(orderId), order.getOrderStatus());
         orderRepository.delete(order);
     }
 
+    /**
+     * Hoàn lại tồn kho cho các mục đơn hàng, theo thứ tự ID sản phẩm tăng dần
+     */
+    private void restoreStock(List<OrderItem> orderItems) {
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : orderItems) {
+            quantities.merge(item.getProduct().getProductId(), item.getItemQuantity(), Integer::sum);
+        }
+        inventoryService.release(quantities);
+    }
+
+    /**
+     * Số lượng cần trừ khỏi bảng xếp hạng bán chạy khi hủy/xóa đơn hàng
+     */
+    private Map<Integer, Integer> negatedQuantities(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getProductId(),
+                        item -> -item.getItemQuantity(), Integer::sum));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BigDecimal calculateOrderAmount(List<Integer> productIds, List<Integer> quantities) {
@@ -342,14 +814,18 @@ public class OrderServiceImpl implements OrderService {
             throw new BadRequestException("Product IDs and quantities must have the same size");
         }
         
-        BigDecimal total = BigDecimal.ZERO;
+        Map<Integer, Integer> quantitiesByProduct = new TreeMap<>();
         for (int i = 0; i < productIds.size(); i++) {
-            final Integer productId = productIds.get(i);
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
-            BigDecimal itemTotal = product.getProductPrice().multiply(BigDecimal.valueOf(quantities.get(i)));
-            total = total.add(itemTotal);
+            quantitiesByProduct.merge(productIds.get(i), quantities.get(i), Integer::sum);
+        }
+        
+        // Bảng giá trong bộ nhớ thay vì một truy vấn cho mỗi sản phẩm
+        CartPriceResponse quote = cartPricingService.price(quantitiesByProduct);
+        for (CartLineResponse line : quote.getLines()) {
+            if (CartLineAvailability.NOT_FOUND.name().equals(line.getAvailability())) {
+                throw new ResourceNotFoundException("Product", "id", line.getProductId());
+            }
         }
-        return total;
+        return quote.getTotalAmount();
     }
 }
\ No newline at end of file
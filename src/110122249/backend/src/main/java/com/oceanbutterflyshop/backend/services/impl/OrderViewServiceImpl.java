@@ -0,0 +1,219 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.entities.Order;
+import com.oceanbutterflyshop.backend.entities.OrderView;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.mappers.OrderMapper;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderViewRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository.UserContactView;
+import com.oceanbutterflyshop.backend.services.OrderViewService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai mô hình đọc của đơn hàng.
+ *
+ * - Tài liệu JSON được ghi một lần khi tạo đơn hàng; snapshot sản phẩm không đổi khi sản phẩm bị sửa/xóa sau đó
+ * - Trạng thái, phương thức/ngày thanh toán và thời điểm cập nhật là cột riêng, được ghi đè lên tài liệu khi đọc,
+ *   nên thay đổi trạng thái/thanh toán chỉ cập nhật vài cột chứ không ghi lại tài liệu
+ * - Tên và số điện thoại của khách hàng có thể đổi sau khi mua: được đọc lại theo lô từ bảng users khi đọc
+ * - Đơn hàng chưa có mô hình đọc được tạo dần theo lô bởi tác vụ định kỳ
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderViewServiceImpl implements OrderViewService {
+
+    private final OrderViewRepository orderViewRepository;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${order-view.backfill-batch-size:200}")
+    private int backfillBatchSize;
+
+    @Override
+    @Transactional
+    public void create(Order order, OrderResponse response) {
+        orderViewRepository.save(new OrderView(
+                order.getOrderId(),
+                order.getOrderCode(),
+                order.getUser() != null ? order.getUser().getUserId() : null,
+                order.getOrderStatus(),
+                order.getPaymentMethod(),
+                order.getPaymentDate(),
+                response.getUpdatedAt(),
+                toJson(response)));
+    }
+
+    @Override
+    @Transactional
+    public void syncState(Order order) {
+        // Entity được quản lý: chỉ các cột thay đổi được ghi khi flush
+        orderViewRepository.findById(order.getOrderId()).ifPresent(view -> {
+            view.setOrderStatus(order.getOrderStatus());
+            view.setPaymentMethod(order.getPaymentMethod());
+            view.setPaymentDate(order.getPaymentDate());
+            view.setUpdatedAt(LocalDateTime.now());
+        });
+    }
+
+    @Override
+    @Transactional
+    public void updateStatuses(Collection<Integer> orderIds, OrderStatus status, LocalDateTime updatedAt) {
+        if (!orderIds.isEmpty()) {
+            orderViewRepository.updateStatus(orderIds, status, updatedAt);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void setMissingPaymentDate(Collection<Integer> orderIds, LocalDate paymentDate) {
+        if (!orderIds.isEmpty()) {
+            orderViewRepository.setMissingPaymentDate(orderIds, paymentDate);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void delete(Integer orderId) {
+        orderViewRepository.deleteById(orderId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> findById(Integer orderId) {
+        return orderViewRepository.findById(orderId).map(this::toResponseWithContact);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> findByCode(String orderCode) {
+        return orderViewRepository.findByOrderCode(orderCode).map(this::toResponseWithContact);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, OrderResponse> findAllById(Collection<Integer> orderIds) {
+        Map<Integer, OrderResponse> responses = new HashMap<>();
+        if (!orderIds.isEmpty()) {
+            List<OrderView> views = orderViewRepository.findAllById(orderIds);
+            Map<Integer, UserContactView> contacts = loadContacts(views);
+            views.forEach(view -> responses.put(view.getOrderId(), toResponse(view, contacts)));
+        }
+        return responses;
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${order-view.backfill-interval-ms:60000}",
+               fixedDelayString = "${order-view.backfill-interval-ms:60000}")
+    public int backfill() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int created = 0;
+        try {
+            int batch;
+            do {
+                // Mỗi lô một transaction: không giữ kết nối/khóa lâu khi có nhiều đơn hàng cũ
+                batch = transactionTemplate.execute(status -> backfillBatch());
+                created += batch;
+            } while (batch == backfillBatchSize);
+        } catch (DataIntegrityViolationException e) {
+            // Node khác (hoặc đơn hàng vừa bị xóa) chen vào giữa chừng: lần chạy sau sẽ làm tiếp
+            log.warn("Order view backfill stopped after {} orders: {}", created, e.getMessage());
+        }
+        if (created > 0) {
+            log.info("Created order views for {} existing orders", created);
+        }
+        return created;
+    }
+
+    private int backfillBatch() {
+        List<Integer> orderIds = orderViewRepository.findOrderIdsWithoutView(Limit.of(backfillBatchSize));
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            create(order, orderMapper.toResponse(order));
+        }
+        orderViewRepository.flush();
+        return orderIds.size();
+    }
+
+    private OrderResponse toResponseWithContact(OrderView view) {
+        return toResponse(view, loadContacts(List.of(view)));
+    }
+
+    /**
+     * Đọc tên/số điện thoại hiện tại của các khách hàng trong lô bằng một truy vấn
+     */
+    private Map<Integer, UserContactView> loadContacts(Collection<OrderView> views) {
+        List<Integer> userIds = views.stream()
+                .map(OrderView::getUserId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findContactViewsByIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserContactView::getUserId, Function.identity()));
+    }
+
+    private OrderResponse toResponse(OrderView view, Map<Integer, UserContactView> contacts) {
+        OrderResponse response = fromJson(view.getDocument());
+        // Người dùng đã bị xóa: giữ thông tin lúc mua
+        UserContactView contact = view.getUserId() != null ? contacts.get(view.getUserId()) : null;
+        if (contact != null) {
+            response.setUserName(contact.getUserName());
+            response.setUserPhone(contact.getUserPhone());
+        }
+        response.setOrderStatus(view.getOrderStatus().name());
+        response.setPaymentMethod(view.getPaymentMethod() != null ? view.getPaymentMethod().name() : null);
+        response.setPaymentDate(view.getPaymentDate());
+        if (view.getUpdatedAt() != null) {
+            response.setUpdatedAt(view.getUpdatedAt());
+        }
+        return response;
+    }
+
+    private String toJson(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order " + response.getOrderId(), e);
+        }
+    }
+
+    private OrderResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored order view", e);
+        }
+    }
+}
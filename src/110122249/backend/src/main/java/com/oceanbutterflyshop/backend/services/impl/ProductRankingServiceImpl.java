@@ -0,0 +1,194 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.entities.ProductSales;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.services.ProductRankingService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai bảng xếp hạng bán chạy.
+ *
+ * - Nguồn dữ liệu chuẩn: bảng product_sales, cập nhật bằng upsert cộng dồn trong cùng transaction với đơn hàng
+ *   (hai đơn hàng đầu tiên đồng thời của một sản phẩm mới không lỗi trùng khóa)
+ * - Bản sao trong bộ nhớ: skip list sắp theo (số lượng giảm dần, ID tăng dần), lấy K phần tử đầu trong O(K)
+ * - Sau khi commit, bộ đếm của các sản phẩm bị ảnh hưởng được đọc lại từ DB nên bản sao không bị lệch
+ * - Thay đổi xảy ra trong lúc nạp lại toàn bộ được ghi nhận và đọc lại sau khi thay bản sao
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductRankingServiceImpl implements ProductRankingService {
+
+    private record RankEntry(Integer productId, long soldQuantity) {
+    }
+
+    /**
+     * Kết quả của lần đọc toàn bộ bộ đếm (kèm số bộ đếm được tạo/xóa khi đối soát với products)
+     */
+    private record LoadedCounters(List<ProductSales> counters, int created, int removed) {
+    }
+
+    private static final Comparator<RankEntry> RANK_ORDER = Comparator
+            .comparingLong(RankEntry::soldQuantity).reversed()
+            .thenComparing(RankEntry::productId);
+
+    private final ProductSalesRepository productSalesRepository;
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final NavigableSet<RankEntry> ranking = new ConcurrentSkipListSet<>(RANK_ORDER);
+    private final Map<Integer, RankEntry> entriesByProductId = new ConcurrentHashMap<>();
+
+    // Khác null khi đang nạp lại: ID các sản phẩm thay đổi trong lúc đó (truy cập khi giữ monitor của this)
+    private Set<Integer> productsChangedDuringRebuild;
+
+    @Override
+    @Transactional
+    public void adjustSoldQuantities(Map<Integer, Integer> quantityDeltas) {
+        quantityDeltas.forEach((productId, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            productSalesRepository.upsertSoldQuantity(productId, delta);
+        });
+    }
+
+    @Override
+    public List<Integer> getTopProductIds(int limit) {
+        List<Integer> productIds = new ArrayList<>(Math.max(0, limit));
+        Iterator<RankEntry> iterator = ranking.iterator();
+        while (productIds.size() < limit && iterator.hasNext()) {
+            RankEntry entry = iterator.next();
+            // Sắp theo số lượng giảm dần: từ đây trở đi chỉ còn sản phẩm chưa bán được
+            if (entry.soldQuantity() <= 0) {
+                break;
+            }
+            productIds.add(entry.productId());
+        }
+        return productIds;
+    }
+
+    @Override
+    public Map<Integer, Long> getSoldQuantities(Collection<Integer> productIds) {
+        Map<Integer, Long> quantities = new HashMap<>();
+        for (Integer productId : productIds) {
+            RankEntry entry = entriesByProductId.get(productId);
+            quantities.put(productId, entry != null ? entry.soldQuantity() : 0L);
+        }
+        return quantities;
+    }
+
+    /**
+     * Bộ đếm được đọc trong transaction riêng; sự kiện xử lý trong lúc đọc chỉ được áp dụng lên bản sao cũ
+     * và có thể mới hơn dữ liệu vừa đọc, nên các sản phẩm đó được đọc lại sau khi thay bản sao.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            productsChangedDuringRebuild = new HashSet<>();
+        }
+
+        LoadedCounters loaded = null;
+        Set<Integer> changedProducts;
+        try {
+            loaded = new TransactionTemplate(transactionManager).execute(status -> {
+                int created = productSalesRepository.insertMissingCounters();
+                int removed = productSalesRepository.deleteOrphanCounters();
+                return new LoadedCounters(productSalesRepository.findAll(), created, removed);
+            });
+        } finally {
+            synchronized (this) {
+                if (loaded != null) {
+                    ranking.clear();
+                    entriesByProductId.clear();
+                    loaded.counters().forEach(counter -> replace(counter.getProductId(), counter.getSoldQuantity()));
+                }
+                changedProducts = productsChangedDuringRebuild;
+                productsChangedDuringRebuild = null;
+            }
+        }
+
+        if (!changedProducts.isEmpty()) {
+            onProductChanged(ProductChangedEvent.of(changedProducts));
+        }
+        log.info("Best-seller ranking loaded with {} products ({} counters created, {} removed, {} replayed)",
+                loaded.counters().size(), loaded.created(), loaded.removed(), changedProducts.size());
+    }
+
+    /**
+     * Đọc lại bộ đếm của các sản phẩm bị ảnh hưởng sau khi transaction commit.
+     * Sản phẩm mới được khởi tạo bộ đếm (transaction riêng, vì transaction gây ra sự kiện đã commit),
+     * sản phẩm đã xóa bị gỡ khỏi bảng xếp hạng.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (this) {
+            if (productsChangedDuringRebuild != null) {
+                productsChangedDuringRebuild.addAll(event.productIds());
+            }
+        }
+
+        Set<Integer> missing = new HashSet<>(event.productIds());
+        for (ProductSales counter : productSalesRepository.findAllById(event.productIds())) {
+            replace(counter.getProductId(), counter.getSoldQuantity());
+            missing.remove(counter.getProductId());
+        }
+
+        for (Integer productId : missing) {
+            if (productRepository.existsById(productId)) {
+                newTransaction().executeWithoutResult(status -> productSalesRepository.upsertSoldQuantity(productId, 0L));
+                replace(productId, 0L);
+            } else {
+                remove(productId);
+            }
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    private synchronized void replace(Integer productId, long soldQuantity) {
+        RankEntry previous = entriesByProductId.put(productId, new RankEntry(productId, soldQuantity));
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        ranking.add(entriesByProductId.get(productId));
+    }
+
+    private synchronized void remove(Integer productId) {
+        RankEntry previous = entriesByProductId.remove(productId);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+import com.oceanbutterflyshop.backend.events.BrandChangedEvent;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.services.ProductSearchService;
+import com.oceanbutterflyshop.backend.utils.VietnameseTextUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai tìm kiếm sản phẩm bằng inverted index trong bộ nhớ.
+ *
+ * - Mỗi từ (đã bỏ dấu) trỏ tới danh sách sản phẩm chứa nó cùng trọng số
+ * - Trọng số theo trường: tên (3.0), thương hiệu (2.0), mô tả (1.0), có giảm dần theo tần suất
+ * - Điểm liên quan = tổng (idf * trọng số) của các từ khóa; mọi từ khóa phải khớp (AND)
+ * - Từ khóa cuối cùng được so khớp theo tiền tố để hỗ trợ người dùng đang gõ dở
+ * - Các bộ lọc giá, thương hiệu, trạng thái, loại được áp dụng trên dữ liệu lưu trong chỉ mục
+ * - Chỉ mục được cập nhật qua ProductChangedEvent/BrandChangedEvent sau khi transaction commit;
+ *   sự kiện chỉ đổi tồn kho/hình ảnh (không thuộc dữ liệu được đánh chỉ mục) bị bỏ qua
+ * - Thay đổi xảy ra trong lúc xây dựng lại được ghi nhận và phát lại lên chỉ mục mới sau khi thay thế
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final float NAME_BOOST = 3.0f;
+    private static final float BRAND_BOOST = 2.0f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+    private static final String RELEVANCE = "relevance";
+
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Từ → (ID sản phẩm → trọng số); TreeMap để tra cứu theo tiền tố
+    private final NavigableMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+
+    // ID sản phẩm → tài liệu đã đánh chỉ mục
+    private final Map<Integer, IndexedProduct> documents = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Khác null khi đang xây dựng lại: ID các sản phẩm/thương hiệu thay đổi trong lúc đó (giữ write lock khi truy cập)
+    private Set<Integer> productsChangedDuringRebuild;
+    private Set<Integer> brandsChangedDuringRebuild;
+
+    /**
+     * Dữ liệu của một sản phẩm được giữ trong chỉ mục (đủ để lọc và sắp xếp mà không cần truy vấn DB)
+     */
+    private record IndexedProduct(
+        Integer productId,
+        String foldedName,
+        BigDecimal price,
+        Integer brandId,
+        ProductStatus status,
+        ProductCategory category,
+        Map<String, Float> terms
+    ) {
+    }
+
+    /**
+     * Dữ liệu được đọc trong transaction riêng; sự kiện commit trong lúc đọc chỉ được áp dụng lên chỉ mục cũ
+     * và có thể chưa có trong dữ liệu vừa đọc, nên được phát lại (đọc lại từ DB) sau khi thay chỉ mục.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        lock.writeLock().lock();
+        try {
+            productsChangedDuringRebuild = new HashSet<>();
+            brandsChangedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Integer, IndexedProduct> rebuilt = null;
+        Set<Integer> changedProducts;
+        Set<Integer> changedBrands;
+        int termCount;
+        try {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            rebuilt = readOnlyTransaction.execute(status -> {
+                Map<Integer, IndexedProduct> loaded = new HashMap<>();
+                for (Product product : productRepository.findAllWithBrand()) {
+                    loaded.put(product.getProductId(), toDocument(product));
+                }
+                return loaded;
+            });
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rebuilt != null) {
+                    postings.clear();
+                    documents.clear();
+                    rebuilt.values().forEach(this::addDocument);
+                }
+                termCount = postings.size();
+                changedProducts = productsChangedDuringRebuild;
+                changedBrands = brandsChangedDuringRebuild;
+                productsChangedDuringRebuild = null;
+                brandsChangedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        if (!changedProducts.isEmpty()) {
+            onProductChanged(ProductChangedEvent.of(changedProducts));
+        }
+        changedBrands.forEach(this::reindexBrand);
+        log.info("Product search index built with {} products and {} terms ({} products, {} brands replayed)",
+            rebuilt.size(), termCount, changedProducts.size(), changedBrands.size());
+    }
+
+    @Override
+    public void indexProduct(Product product) {
+        if (product == null || product.getProductId() == null) {
+            return;
+        }
+        IndexedProduct document = toDocument(product);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getProductId());
+            addDocument(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeProduct(Integer productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexBrand(Integer brandId) {
+        if (brandId == null) {
+            return;
+        }
+        List<Product> products = productRepository.findByBrandBrandId(brandId);
+        lock.writeLock().lock();
+        try {
+            if (brandsChangedDuringRebuild != null) {
+                brandsChangedDuringRebuild.add(brandId);
+            }
+            products.forEach(this::indexProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cập nhật chỉ mục sau khi transaction thay đổi sản phẩm đã commit.
+     * Sản phẩm không còn trong DB (đã bị xóa) được gỡ khỏi chỉ mục.
+     * Thay đổi chỉ về tồn kho/hình ảnh không ảnh hưởng chỉ mục nên không cần đọc lại sản phẩm.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.change() != ProductChangedEvent.Change.DETAILS) {
+            return;
+        }
+        List<Product> products = productRepository.findAllWithBrandByIdIn(event.productIds());
+
+        lock.writeLock().lock();
+        try {
+            if (productsChangedDuringRebuild != null) {
+                productsChangedDuringRebuild.addAll(event.productIds());
+            }
+            Set<Integer> remaining = new HashSet<>(event.productIds());
+            for (Product product : products) {
+                indexProduct(product);
+                remaining.remove(product.getProductId());
+            }
+            remaining.forEach(this::removeProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        reindexBrand(event.brandId());
+    }
+
+    @Override
+    public List<Integer> search(
+            String keyword,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer brandId,
+            ProductStatus status,
+            ProductCategory category,
+            Sort sort
+    ) {
+        List<String> queryTerms = VietnameseTextUtils.tokenize(keyword);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, Double> scores;
+        List<IndexedProduct> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            scores = score(queryTerms);
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                IndexedProduct document = documents.get(entry.getKey());
+                if (document != null && matchesFilters(document, minPrice, maxPrice, brandId, status, category)) {
+                    matches.add(document);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(comparatorFor(sort, scores));
+        return matches.stream().map(IndexedProduct::productId).toList();
+    }
+
+    /**
+     * Tính điểm liên quan cho các sản phẩm chứa tất cả từ khóa.
+     * Phải được gọi khi đang giữ read lock.
+     */
+    private Map<Integer, Double> score(List<String> queryTerms) {
+        int totalDocuments = Math.max(documents.size(), 1);
+        Map<Integer, Double> scores = null;
+
+        for (int i = 0; i < queryTerms.size(); i++) {
+            String term = queryTerms.get(i);
+            boolean isLastTerm = i == queryTerms.size() - 1;
+
+            // Gộp posting list của từ (hoặc các từ có cùng tiền tố với từ cuối cùng)
+            Map<Integer, Double> termScores = new HashMap<>();
+            Map<String, Map<Integer, Float>> candidates = isLastTerm
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : (postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of());
+
+            for (Map.Entry<String, Map<Integer, Float>> candidate : candidates.entrySet()) {
+                Map<Integer, Float> postingList = candidate.getValue();
+                double idf = Math.log(1.0 + (double) totalDocuments / postingList.size());
+                // Khớp chính xác được ưu tiên hơn khớp theo tiền tố
+                double exactFactor = candidate.getKey().equals(term) ? 1.0 : 0.7;
+                for (Map.Entry<Integer, Float> posting : postingList.entrySet()) {
+                    double value = idf * posting.getValue() * exactFactor;
+                    termScores.merge(posting.getKey(), value, Math::max);
+                }
+            }
+
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                // Giao: chỉ giữ sản phẩm khớp mọi từ khóa
+                Map<Integer, Double> intersection = new HashMap<>();
+                for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                    Double termScore = termScores.get(entry.getKey());
+                    if (termScore != null) {
+                        intersection.put(entry.getKey(), entry.getValue() + termScore);
+                    }
+                }
+                scores = intersection;
+            }
+
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores == null ? Map.of() : scores;
+    }
+
+    private boolean matchesFilters(
+            IndexedProduct document,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer brandId,
+            ProductStatus status,
+            ProductCategory category
+    ) {
+        if (minPrice != null && (document.price() == null || document.price().compareTo(minPrice) < 0)) {
+            return false;
+        }
+        if (maxPrice != null && (document.price() == null || document.price().compareTo(maxPrice) > 0)) {
+            return false;
+        }
+        if (brandId != null && !brandId.equals(document.brandId())) {
+            return false;
+        }
+        if (status != null && status != document.status()) {
+            return false;
+        }
+        return category == null || category == document.category();
+    }
+
+    /**
+     * Tạo comparator theo tham số sort của API.
+     * Hỗ trợ: productId, productName, productPrice, productStatus; còn lại sắp theo điểm liên quan.
+     */
+    private Comparator<IndexedProduct> comparatorFor(Sort sort, Map<Integer, Double> scores) {
+        Comparator<IndexedProduct> byRelevance = Comparator
+            .comparingDouble((IndexedProduct document) -> scores.getOrDefault(document.productId(), 0.0))
+            .reversed()
+            .thenComparing(IndexedProduct::productId, Comparator.reverseOrder());
+
+        Sort.Order order = sort == null ? null : sort.stream().findFirst().orElse(null);
+        if (order == null || RELEVANCE.equalsIgnoreCase(order.getProperty())) {
+            return byRelevance;
+        }
+
+        Comparator<IndexedProduct> comparator;
+        switch (order.getProperty()) {
+            case "productId" -> comparator = Comparator.comparing(IndexedProduct::productId);
+            case "productName" -> comparator = Comparator.comparing(IndexedProduct::foldedName);
+            case "productPrice" -> comparator = Comparator.comparing(IndexedProduct::price,
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "productStatus" -> comparator = Comparator.comparing(document -> document.status().name());
+            default -> {
+                return byRelevance;
+            }
+        }
+        if (order.isDescending()) {
+            comparator = comparator.reversed();
+        }
+        return comparator.thenComparing(byRelevance);
+    }
+
+    private IndexedProduct toDocument(Product product) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, product.getProductName(), NAME_BOOST);
+        addField(terms, product.getProductDescription(), DESCRIPTION_BOOST);
+        if (product.getBrand() != null) {
+            addField(terms, product.getBrand().getBrandName(), BRAND_BOOST);
+        }
+
+        return new IndexedProduct(
+            product.getProductId(),
+            VietnameseTextUtils.fold(product.getProductName()),
+            product.getProductPrice(),
+            product.getBrand() != null ? product.getBrand().getBrandId() : null,
+            product.getProductStatus(),
+            product.getProductCategory(),
+            terms
+        );
+    }
+
+    /**
+     * Cộng trọng số của một trường vào bảng từ: boost * (1 + ln(tần suất))
+     */
+    private void addField(Map<String, Float> terms, String text, float boost) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : VietnameseTextUtils.tokenize(text)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        frequencies.forEach((token, frequency) ->
+            terms.merge(token, (float) (boost * (1.0 + Math.log(frequency))), Float::sum));
+    }
+
+    /**
+     * Phải được gọi khi đang giữ write lock
+     */
+    private void addDocument(IndexedProduct document) {
+        documents.put(document.productId(), document);
+        document.terms().forEach((term, weight) ->
+            postings.computeIfAbsent(term, key -> new HashMap<>()).put(document.productId(), weight));
+    }
+
+    /**
+     * Phải được gọi khi đang giữ write lock
+     */
+    private void removeDocument(Integer productId) {
+        IndexedProduct existing = documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms().keySet()) {
+            Map<Integer, Float> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(productId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
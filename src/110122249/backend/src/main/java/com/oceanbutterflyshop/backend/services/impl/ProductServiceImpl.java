@@ -1,30 +1,56 @@
 package com.oceanbutterflyshop.backend.services.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.oceanbutterflyshop.backend.aspects.RetryOnOptimisticLock;
 import com.oceanbutterflyshop.backend.dtos.request.ProductRequestDTO;
+import com.oceanbutterflyshop.backend.dtos.response.ProductFacetsResponse;
 import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
 import com.oceanbutterflyshop.backend.entities.Brand;
 import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.PriceRange;
 import com.oceanbutterflyshop.backend.enums.ProductStatus;
 import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
 import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
 import com.oceanbutterflyshop.backend.exceptions.ResourceNotFoundException;
+import com.oceanbutterflyshop.backend.mappers.ProductListAssembler;
 import com.oceanbutterflyshop.backend.mappers.ProductMapper;
 import com.oceanbutterflyshop.backend.repositories.BrandRepository;
-import com.oceanbutterflyshop.backend.repositories.OrderItemRepository;
 import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepositoryCustom;
+import com.oceanbutterflyshop.backend.services.CodeAllocatorService;
+import com.oceanbutterflyshop.backend.services.InventoryService;
+import com.oceanbutterflyshop.backend.services.ProductRankingService;
+import com.oceanbutterflyshop.backend.services.ProductSearchService;
 import com.oceanbutterflyshop.backend.services.ProductService;
+import com.oceanbutterflyshop.backend.services.ProductSyncService;
 import com.oceanbutterflyshop.backend.specifications.ProductSpecification;
-import com.oceanbutterflyshop.backend.utils.CodeGeneratorUtils;
+import com.oceanbutterflyshop.backend.utils.BoundedTtlCache;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
 
 import lombok.RequiredArgsConstructor;
 
@@ -32,11 +58,26 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Transactional
 public class ProductServiceImpl implements ProductService {
+
+    // Các cột NOT NULL được phép sắp xếp ở chế độ con trỏ
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of(
+        "productId", "productName", "productPrice", "productStatus"
+    );
+
+    // Số ID tối đa trong một truy vấn facet (PostgreSQL giới hạn 32767 tham số bind mỗi câu lệnh)
+    private static final int FACET_ID_BATCH_SIZE = 1000;
+
     private final ProductRepository productRepository;
     private final BrandRepository brandRepository;
-    private final OrderItemRepository orderItemRepository;
     private final ProductMapper productMapper;
-    private final CodeGeneratorUtils codeGeneratorUtils;
+    private final ProductListAssembler productListAssembler;
+    private final CodeAllocatorService codeAllocatorService;
+    private final ProductSearchService productSearchService;
+    private final ProductRankingService productRankingService;
+    private final ProductSyncService productSyncService;
+    private final InventoryService inventoryService;
+    private final BoundedTtlCache<Integer, ProductResponse> productDetailCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -49,19 +90,177 @@ public class ProductServiceImpl implements ProductService {
             ProductStatus status,
             ProductCategory category
     ) {
+        // Có từ khóa: dùng chỉ mục tìm kiếm trong bộ nhớ thay cho LIKE '%kw%'
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            return searchProducts(pageable, keyword, minPrice, maxPrice, brandId, status, category);
+        }
+
+        // "relevance" chỉ có nghĩa khi tìm theo từ khóa; không phải cột của bảng
+        if (pageable.getSort().getOrderFor("relevance") != null) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(Sort.Direction.DESC, "productId"));
+        }
+
         Specification<Product> spec = ProductSpecification.filterProducts(
-            keyword, minPrice, maxPrice, brandId, status, category
+            null, minPrice, maxPrice, brandId, status, category
         );
-        Page<Product> productPage = productRepository.findAll(spec, pageable);
-        return productPage.map(productMapper::toResponse);
+        // Lấy trang ID trước, sau đó tải thương hiệu và hình ảnh theo lô (tránh N+1)
+        Page<Integer> idPage = productRepository.findIds(spec, pageable);
+        List<ProductResponse> content = productListAssembler.toResponses(idPage.getContent());
+        return new PageImpl<>(content, pageable, idPage.getTotalElements());
+    }
+
+    /**
+     * Tìm kiếm qua chỉ mục: chỉ mục trả về danh sách ID đã lọc và sắp xếp,
+     * sau đó chỉ tải từ DB các sản phẩm thuộc trang hiện tại.
+     */
+    private Page<ProductResponse> searchProducts(
+            Pageable pageable,
+            String keyword,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer brandId,
+            ProductStatus status,
+            ProductCategory category
+    ) {
+        List<Integer> matchedIds = productSearchService.search(
+            keyword, minPrice, maxPrice, brandId, status, category, pageable.getSort()
+        );
+
+        int fromIndex = (int) Math.min(pageable.getOffset(), matchedIds.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), matchedIds.size());
+        List<Integer> pageIds = matchedIds.subList(fromIndex, toIndex);
+
+        // Giữ nguyên thứ tự mà chỉ mục đã sắp xếp
+        List<ProductResponse> content = productListAssembler.toResponses(pageIds);
+
+        return new PageImpl<>(content, pageable, matchedIds.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Window<ProductResponse> getAllProductsByCursor(
+            String cursor,
+            int size,
+            Sort sort,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer brandId,
+            ProductStatus status,
+            ProductCategory category
+    ) {
+        CursorUtils.validateSize(size);
+        CursorUtils.validateSort(sort, CURSOR_SORT_FIELDS);
+        ScrollPosition position = CursorUtils.decode(cursor, sort, Product.class);
+        Specification<Product> spec = ProductSpecification.filterProducts(
+            null, minPrice, maxPrice, brandId, status, category
+        );
+
+        // Keyset scroll: WHERE (sort, id) > (...) LIMIT size + 1, không chạy COUNT(*)
+        Window<Product> window = productRepository.findBy(spec,
+                query -> query.sortBy(sort).limit(size).scroll(position));
+
+        // Tải thương hiệu và hình ảnh của cả cửa sổ theo lô (tránh N+1)
+        List<Integer> windowIds = window.stream().map(Product::getProductId).toList();
+        Map<Integer, ProductResponse> responsesById = productListAssembler.toResponses(windowIds).stream()
+                .collect(Collectors.toMap(ProductResponse::getProductId, response -> response));
+        return window.map(product -> responsesById.get(product.getProductId()));
     }
 
     @Override
     @Transactional(readOnly = true)
+    public ProductFacetsResponse getProductFacets(
+            String keyword,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer brandId,
+            ProductStatus status,
+            ProductCategory category
+    ) {
+        Specification<Product> spec = ProductSpecification.filterProducts(
+            null, minPrice, maxPrice, brandId, status, category
+        );
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return buildFacets(productRepository.aggregateFacets(spec));
+        }
+
+        // Chỉ mục đã áp dụng sẵn các bộ lọc, chỉ cần giới hạn theo ID khớp.
+        // Gom nhóm theo từng lô ID rời nhau; buildFacets cộng dồn các dòng nên kết quả không đổi.
+        List<Integer> matchedIds = productSearchService.search(
+            keyword, minPrice, maxPrice, brandId, status, category, Sort.unsorted()
+        );
+        List<ProductRepositoryCustom.FacetRow> rows = new ArrayList<>();
+        for (int from = 0; from < matchedIds.size(); from += FACET_ID_BATCH_SIZE) {
+            List<Integer> batch = matchedIds.subList(from, Math.min(from + FACET_ID_BATCH_SIZE, matchedIds.size()));
+            rows.addAll(productRepository.aggregateFacets(ProductSpecification.hasIdIn(batch)));
+        }
+        return buildFacets(rows);
+    }
+
+    /**
+     * Cộng dồn các dòng GROUP BY (thương hiệu, loại, trạng thái, khoảng giá) thành từng facet riêng
+     */
+    private ProductFacetsResponse buildFacets(List<ProductRepositoryCustom.FacetRow> rows) {
+        Map<Integer, String> brandNames = new HashMap<>();
+        Map<Integer, Long> brandCounts = new LinkedHashMap<>();
+        Map<ProductCategory, Long> categoryCounts = new EnumMap<>(ProductCategory.class);
+        Map<ProductStatus, Long> statusCounts = new EnumMap<>(ProductStatus.class);
+        Map<PriceRange, Long> priceCounts = new EnumMap<>(PriceRange.class);
+
+        for (ProductRepositoryCustom.FacetRow row : rows) {
+            if (row.brandId() != null) {
+                brandNames.put(row.brandId(), row.brandName());
+                brandCounts.merge(row.brandId(), row.count(), Long::sum);
+            }
+            if (row.category() != null) {
+                categoryCounts.merge(row.category(), row.count(), Long::sum);
+            }
+            if (row.status() != null) {
+                statusCounts.merge(row.status(), row.count(), Long::sum);
+            }
+            priceCounts.merge(row.priceRange(), row.count(), Long::sum);
+        }
+
+        List<ProductFacetsResponse.FacetCount> brands = brandCounts.entrySet().stream()
+                .map(entry -> new ProductFacetsResponse.FacetCount(
+                    String.valueOf(entry.getKey()), brandNames.get(entry.getKey()), entry.getValue()))
+                .sorted(Comparator.comparingLong(ProductFacetsResponse.FacetCount::getCount).reversed()
+                    .thenComparing(ProductFacetsResponse.FacetCount::getLabel,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+
+        List<ProductFacetsResponse.FacetCount> categories = categoryCounts.entrySet().stream()
+                .map(entry -> new ProductFacetsResponse.FacetCount(
+                    entry.getKey().name(), entry.getKey().name(), entry.getValue()))
+                .collect(Collectors.toList());
+
+        List<ProductFacetsResponse.FacetCount> statuses = statusCounts.entrySet().stream()
+                .map(entry -> new ProductFacetsResponse.FacetCount(
+                    entry.getKey().name(), entry.getKey().getDisplayName(), entry.getValue()))
+                .collect(Collectors.toList());
+
+        // Luôn trả đủ các khoảng giá (kể cả 0) để sidebar hiển thị cố định
+        List<ProductFacetsResponse.PriceRangeCount> priceRanges = Arrays.stream(PriceRange.values())
+                .map(range -> new ProductFacetsResponse.PriceRangeCount(
+                    range.name(), range.getDisplayName(), range.getMinPrice(), range.getMaxPrice(),
+                    priceCounts.getOrDefault(range, 0L)))
+                .collect(Collectors.toList());
+
+        return ProductFacetsResponse.builder()
+                .brands(brands)
+                .categories(categories)
+                .statuses(statuses)
+                .priceRanges(priceRanges)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponse getProductById(Integer productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
-        return productMapper.toResponse(product);
+        // Đọc xuyên cache: chỉ truy vấn DB khi chưa có hoặc đã bị vô hiệu hóa
+        return productDetailCache.getOrLoad(productId, id -> productListAssembler.toResponses(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id)));
     }
 
     @Override
@@ -73,19 +272,16 @@ public class ProductServiceImpl implements ProductService {
         // Chuyển đổi request sang entity
         Product product = productMapper.toEntity(productRequest, brand);
         
-        // Tạo mã sản phẩm duy nhất
-        String productCode;
-        do {
-            productCode = codeGeneratorUtils.generateProductCode();
-        } while (productRepository.existsByProductCode(productCode));
-        
-        product.setProductCode(productCode);
+        // Cấp phát mã sản phẩm duy nhất
+        product.setProductCode(codeAllocatorService.nextCode(CodeAllocatorService.PRODUCT_PREFIX));
         
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(savedProduct.getProductId()));
         return productMapper.toResponse(savedProduct);
     }
 
     @Override
+    @RetryOnOptimisticLock
     public ProductResponse updateProduct(Integer productId, ProductRequestDTO productRequest) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
@@ -94,14 +290,26 @@ public class ProductServiceImpl implements ProductService {
         Brand brand = brandRepository.findById(productRequest.getBrandId())
                 .orElseThrow(() -> new ResourceNotFoundException("Brand", "id", productRequest.getBrandId()));
         
+        // Tồn kho được đổi thành một điều chỉnh tương đối qua InventoryService (không ghi đè quantity_stock
+        // bằng giá trị vừa đọc, vốn có thể đã cũ so với các đơn hàng đồng thời hoặc nhật ký tồn kho chưa gộp)
+        Integer persistedStock = product.getQuantityStock();
+        int stockDelta = productRequest.getQuantityStock() - inventoryService.getAvailableStock(product);
+        
         // Cập nhật entity với dữ liệu từ request (mã vẫn giữ nguyên)
         productMapper.updateEntity(product, productRequest, brand);
+        product.setQuantityStock(persistedStock);
         
         Product updatedProduct = productRepository.save(product);
-        return productMapper.toResponse(updatedProduct);
+        inventoryService.adjustStock(productId, stockDelta);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
+        
+        ProductResponse response = productMapper.toResponse(updatedProduct);
+        response.setQuantityStock(productRequest.getQuantityStock());
+        return response;
     }
 
     @Override
+    @RetryOnOptimisticLock
     public void deleteProduct(Integer productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
@@ -112,24 +320,15 @@ public class ProductServiceImpl implements ProductService {
         }
         
         productRepository.delete(product);
+        productSyncService.recordDeletion(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponse> getBestSellingProducts(int limit) {
-        List<Integer> productIds = orderItemRepository.findBestSellingProductIds();
-        
-        // Giới hạn số lượng sản phẩm
-        List<Integer> limitedIds = productIds.stream()
-                .limit(limit)
-                .collect(Collectors.toList());
-        
-        // Lấy sản phẩm theo thứ tự bán chạy
-        return limitedIds.stream()
-                .map(id -> productRepository.findById(id)
-                        .map(productMapper::toResponse)
-                        .orElse(null))
-                .filter(product -> product != null)
-                .collect(Collectors.toList());
+        // Bảng xếp hạng duy trì sẵn trả về top-K trong O(K), sau đó tải sản phẩm theo lô
+        List<Integer> topIds = productRankingService.getTopProductIds(limit);
+        return productListAssembler.toResponses(topIds);
     }
 }
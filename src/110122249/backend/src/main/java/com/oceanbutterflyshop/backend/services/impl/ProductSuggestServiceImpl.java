@@ -0,0 +1,527 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductSuggestionResponse;
+import com.oceanbutterflyshop.backend.dtos.response.ProductSuggestionResponse.SuggestionType;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.entities.ProductSales;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+import com.oceanbutterflyshop.backend.events.BrandChangedEvent;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.services.ProductSuggestService;
+import com.oceanbutterflyshop.backend.utils.VietnameseTextUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai gợi ý tự động hoàn thành bằng cây tiền tố (trie) trong bộ nhớ.
+ *
+ * - Khóa là văn bản đã bỏ dấu; mỗi hậu tố bắt đầu tại đầu một từ đều được đánh chỉ mục,
+ *   nên "rua mat" khớp với "Sữa rửa mặt"
+ * - Mỗi nút lưu sẵn top-N gợi ý phổ biến nhất trong cây con của nó, nên tra cứu chỉ tốn
+ *   O(độ dài query) và không phụ thuộc số lượng sản phẩm
+ * - Độ phổ biến: số lượng đã bán (product_sales); thương hiệu lấy tổng của các sản phẩm thuộc nó
+ * - Khi một gợi ý thay đổi, chỉ các nút nằm trên đường đi của các khóa liên quan được tính lại
+ * - Sản phẩm ngừng kinh doanh không được gợi ý
+ * - Thay đổi xảy ra trong lúc xây dựng lại được ghi nhận và phát lại lên chỉ mục mới sau khi thay thế
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestServiceImpl implements ProductSuggestService {
+
+    // Giới hạn độ dài khóa để chặn độ sâu của cây; query dài hơn được cắt tương ứng
+    private static final int MAX_KEY_LENGTH = 48;
+
+    private static final Comparator<Suggestion> POPULARITY_ORDER = Comparator
+        .comparingLong(Suggestion::popularity).reversed()
+        .thenComparing(Suggestion::foldedText)
+        .thenComparing(Suggestion::key);
+
+    private final ProductRepository productRepository;
+    private final BrandRepository brandRepository;
+    private final ProductSalesRepository productSalesRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private SuggestIndex index = new SuggestIndex();
+    // Khác null khi đang xây dựng lại: ID các sản phẩm/thương hiệu thay đổi trong lúc đó (giữ write lock khi truy cập)
+    private Set<Integer> productsChangedDuringRebuild;
+    private Set<Integer> brandsChangedDuringRebuild;
+
+    /**
+     * Một gợi ý đã đánh chỉ mục cùng các khóa của nó trong trie
+     */
+    private record Suggestion(
+        String key,
+        SuggestionType type,
+        Integer id,
+        String text,
+        String foldedText,
+        String productCode,
+        String brandName,
+        long popularity,
+        Set<String> indexKeys
+    ) {
+    }
+
+    /**
+     * Thông tin tối thiểu của một sản phẩm để tính độ phổ biến của thương hiệu
+     */
+    private record ProductEntry(Integer brandId, long soldQuantity) {
+    }
+
+    @Override
+    public List<ProductSuggestionResponse> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int effectiveLimit = Math.min(Math.max(limit, 1), MAX_LIMIT);
+
+        List<Suggestion> matches;
+        lock.readLock().lock();
+        try {
+            matches = index.lookup(prefix, effectiveLimit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Dữ liệu được đọc trong transaction riêng; sự kiện commit trong lúc đọc chỉ được áp dụng lên chỉ mục cũ
+     * và có thể chưa có trong dữ liệu vừa đọc, nên được phát lại (đọc lại từ DB) sau khi thay chỉ mục.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            productsChangedDuringRebuild = new HashSet<>();
+            brandsChangedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        SuggestIndex rebuilt = null;
+        Set<Integer> changedProducts;
+        Set<Integer> changedBrands;
+        try {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            rebuilt = readOnlyTransaction.execute(status -> loadIndex());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rebuilt != null) {
+                    index = rebuilt;
+                }
+                changedProducts = productsChangedDuringRebuild;
+                changedBrands = brandsChangedDuringRebuild;
+                productsChangedDuringRebuild = null;
+                brandsChangedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        if (!changedProducts.isEmpty()) {
+            onProductChanged(ProductChangedEvent.of(changedProducts));
+        }
+        changedBrands.forEach(brandId -> onBrandChanged(new BrandChangedEvent(brandId)));
+        log.info("Product suggest index built with {} suggestions ({} products, {} brands replayed)",
+            rebuilt.suggestions.size(), changedProducts.size(), changedBrands.size());
+    }
+
+    private SuggestIndex loadIndex() {
+        Map<Integer, Long> soldQuantities = new HashMap<>();
+        for (ProductSales counter : productSalesRepository.findAll()) {
+            soldQuantities.put(counter.getProductId(), counter.getSoldQuantity());
+        }
+
+        // Nạp hàng loạt rồi tính top-N cho toàn bộ cây một lần
+        SuggestIndex rebuilt = new SuggestIndex();
+        rebuilt.bulkLoading = true;
+        for (Product product : productRepository.findAllWithBrand()) {
+            rebuilt.putProduct(product, brandNameOf(product),
+                soldQuantities.getOrDefault(product.getProductId(), 0L));
+        }
+        for (Brand brand : brandRepository.findAll()) {
+            rebuilt.putBrand(brand.getBrandId(), brand.getBrandName());
+        }
+        rebuilt.bulkLoading = false;
+        rebuilt.recomputeAll();
+        return rebuilt;
+    }
+
+    /**
+     * Cập nhật gợi ý của các sản phẩm bị ảnh hưởng sau khi transaction commit
+     * (bao gồm thay đổi số lượng đã bán khi tạo/hủy đơn hàng).
+     * Sản phẩm không còn trong DB bị gỡ khỏi chỉ mục.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        List<Product> products = productRepository.findAllWithBrandByIdIn(event.productIds());
+        Map<Integer, Long> soldQuantities = loadSoldQuantities(event.productIds());
+
+        lock.writeLock().lock();
+        try {
+            if (productsChangedDuringRebuild != null) {
+                productsChangedDuringRebuild.addAll(event.productIds());
+            }
+            Set<Integer> remaining = new HashSet<>(event.productIds());
+            for (Product product : products) {
+                index.putProduct(product, brandNameOf(product),
+                    soldQuantities.getOrDefault(product.getProductId(), 0L));
+                remaining.remove(product.getProductId());
+            }
+            remaining.forEach(index::removeProduct);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cập nhật gợi ý thương hiệu và tên thương hiệu hiển thị kèm các sản phẩm của nó
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        if (event.brandId() == null) {
+            return;
+        }
+        Optional<Brand> brand = brandRepository.findById(event.brandId());
+        List<Product> products = brand.isPresent()
+            ? productRepository.findByBrandBrandId(event.brandId())
+            : List.of();
+        Map<Integer, Long> soldQuantities = loadSoldQuantities(
+            products.stream().map(Product::getProductId).toList());
+
+        lock.writeLock().lock();
+        try {
+            if (brandsChangedDuringRebuild != null) {
+                brandsChangedDuringRebuild.add(event.brandId());
+            }
+            if (brand.isEmpty()) {
+                index.removeBrand(event.brandId());
+                return;
+            }
+            String brandName = brand.get().getBrandName();
+            for (Product product : products) {
+                index.putProduct(product, brandName,
+                    soldQuantities.getOrDefault(product.getProductId(), 0L));
+            }
+            index.putBrand(event.brandId(), brandName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Integer, Long> loadSoldQuantities(Collection<Integer> productIds) {
+        Map<Integer, Long> soldQuantities = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return soldQuantities;
+        }
+        for (ProductSales counter : productSalesRepository.findAllById(productIds)) {
+            soldQuantities.put(counter.getProductId(), counter.getSoldQuantity());
+        }
+        return soldQuantities;
+    }
+
+    private String brandNameOf(Product product) {
+        return product.getBrand() != null ? product.getBrand().getBrandName() : null;
+    }
+
+    private ProductSuggestionResponse toResponse(Suggestion suggestion) {
+        return ProductSuggestionResponse.builder()
+            .type(suggestion.type())
+            .id(suggestion.id())
+            .text(suggestion.text())
+            .productCode(suggestion.productCode())
+            .brandName(suggestion.brandName())
+            .popularity(suggestion.popularity())
+            .build();
+    }
+
+    /**
+     * Chuẩn hóa văn bản thành khóa: bỏ dấu, chữ thường, các từ cách nhau một khoảng trắng
+     */
+    private static String normalize(String text) {
+        return truncate(String.join(" ", VietnameseTextUtils.tokenize(text)));
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    /**
+     * Các khóa của một văn bản: mọi hậu tố bắt đầu tại đầu một từ
+     */
+    private static void addWordSuffixes(Set<String> keys, String text) {
+        List<String> tokens = VietnameseTextUtils.tokenize(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(truncate(String.join(" ", tokens.subList(i, tokens.size()))));
+        }
+    }
+
+    /**
+     * Nút của trie. Phải được truy cập khi đang giữ lock.
+     */
+    private static final class TrieNode {
+        private final TrieNode parent;
+        private final char label;
+        private final int depth;
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        // Khóa của các gợi ý có một khóa chỉ mục kết thúc đúng tại nút này
+        private final Set<String> terminals = new HashSet<>();
+        // Top-N gợi ý phổ biến nhất trong cây con (đã sắp xếp)
+        private List<Suggestion> top = List.of();
+
+        private TrieNode(TrieNode parent, char label) {
+            this.parent = parent;
+            this.label = label;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        private boolean isEmpty() {
+            return children.isEmpty() && terminals.isEmpty();
+        }
+    }
+
+    /**
+     * Toàn bộ trạng thái của chỉ mục gợi ý. Phải được truy cập khi đang giữ lock
+     * (trừ khi đang được xây dựng riêng trong {@link #loadIndex()}).
+     */
+    private static final class SuggestIndex {
+        private final TrieNode root = new TrieNode(null, '\0');
+        private final Map<String, Suggestion> suggestions = new HashMap<>();
+        private final Map<Integer, ProductEntry> products = new HashMap<>();
+        private final Map<Integer, String> brandNames = new HashMap<>();
+        private final Map<Integer, Long> brandPopularity = new HashMap<>();
+        private boolean bulkLoading;
+
+        private List<Suggestion> lookup(String prefix, int limit) {
+            TrieNode node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return List.copyOf(node.top.subList(0, Math.min(limit, node.top.size())));
+        }
+
+        private void putProduct(Product product, String brandName, long soldQuantity) {
+            Integer productId = product.getProductId();
+            Integer brandId = product.getBrand() != null ? product.getBrand().getBrandId() : null;
+
+            ProductEntry previous = products.put(productId, new ProductEntry(brandId, soldQuantity));
+            if (previous != null && previous.brandId() != null) {
+                brandPopularity.merge(previous.brandId(), -previous.soldQuantity(), Long::sum);
+            }
+            if (brandId != null) {
+                brandPopularity.merge(brandId, soldQuantity, Long::sum);
+            }
+
+            String key = productKey(productId);
+            if (product.getProductStatus() == ProductStatus.DISCONTINUED) {
+                remove(key);
+            } else {
+                Set<String> keys = new LinkedHashSet<>();
+                addWordSuffixes(keys, product.getProductName());
+                String code = normalize(product.getProductCode());
+                if (!code.isEmpty()) {
+                    keys.add(code);
+                }
+                keys.remove("");
+                upsert(new Suggestion(key, SuggestionType.PRODUCT, productId, product.getProductName(),
+                    VietnameseTextUtils.fold(product.getProductName()), product.getProductCode(),
+                    brandName, soldQuantity, keys));
+            }
+
+            if (previous != null && previous.brandId() != null && !previous.brandId().equals(brandId)) {
+                refreshBrand(previous.brandId());
+            }
+            if (brandId != null) {
+                refreshBrand(brandId);
+            }
+        }
+
+        private void removeProduct(Integer productId) {
+            ProductEntry previous = products.remove(productId);
+            remove(productKey(productId));
+            if (previous != null && previous.brandId() != null) {
+                brandPopularity.merge(previous.brandId(), -previous.soldQuantity(), Long::sum);
+                refreshBrand(previous.brandId());
+            }
+        }
+
+        private void putBrand(Integer brandId, String brandName) {
+            brandNames.put(brandId, brandName);
+            refreshBrand(brandId);
+        }
+
+        private void removeBrand(Integer brandId) {
+            brandNames.remove(brandId);
+            brandPopularity.remove(brandId);
+            remove(brandKey(brandId));
+        }
+
+        /**
+         * Cập nhật gợi ý thương hiệu khi tên hoặc độ phổ biến thay đổi
+         */
+        private void refreshBrand(Integer brandId) {
+            String brandName = brandNames.get(brandId);
+            if (brandName == null) {
+                return;
+            }
+            long popularity = brandPopularity.getOrDefault(brandId, 0L);
+            String key = brandKey(brandId);
+            Suggestion existing = suggestions.get(key);
+            if (existing != null && existing.popularity() == popularity && existing.text().equals(brandName)) {
+                return;
+            }
+
+            Set<String> keys = new LinkedHashSet<>();
+            addWordSuffixes(keys, brandName);
+            keys.remove("");
+            upsert(new Suggestion(key, SuggestionType.BRAND, brandId, brandName,
+                VietnameseTextUtils.fold(brandName), null, null, popularity, keys));
+        }
+
+        private void upsert(Suggestion suggestion) {
+            Set<TrieNode> affected = new HashSet<>();
+            Suggestion previous = suggestions.put(suggestion.key(), suggestion);
+            if (previous != null) {
+                detach(previous, affected);
+            }
+            for (String indexKey : suggestion.indexKeys()) {
+                TrieNode node = root;
+                for (int i = 0; i < indexKey.length(); i++) {
+                    TrieNode parent = node;
+                    node = node.children.computeIfAbsent(indexKey.charAt(i), label -> new TrieNode(parent, label));
+                }
+                node.terminals.add(suggestion.key());
+                collectPath(node, affected);
+            }
+            recompute(affected);
+        }
+
+        private void remove(String key) {
+            Suggestion previous = suggestions.remove(key);
+            if (previous == null) {
+                return;
+            }
+            Set<TrieNode> affected = new HashSet<>();
+            detach(previous, affected);
+            recompute(affected);
+        }
+
+        private void detach(Suggestion suggestion, Set<TrieNode> affected) {
+            for (String indexKey : suggestion.indexKeys()) {
+                TrieNode node = root;
+                for (int i = 0; i < indexKey.length() && node != null; i++) {
+                    node = node.children.get(indexKey.charAt(i));
+                }
+                if (node != null) {
+                    node.terminals.remove(suggestion.key());
+                    collectPath(node, affected);
+                }
+            }
+        }
+
+        private void collectPath(TrieNode node, Set<TrieNode> affected) {
+            if (bulkLoading) {
+                return;
+            }
+            // Thêm các nút từ dưới lên; gặp nút đã có nghĩa là phần còn lại của đường đi đã được thêm
+            TrieNode current = node;
+            while (current != null && affected.add(current)) {
+                current = current.parent;
+            }
+        }
+
+        /**
+         * Tính lại top-N cho các nút bị ảnh hưởng, từ nút sâu nhất lên gốc, và gỡ các nút rỗng
+         */
+        private void recompute(Set<TrieNode> affected) {
+            if (affected.isEmpty()) {
+                return;
+            }
+            List<TrieNode> nodes = new ArrayList<>(affected);
+            nodes.sort(Comparator.comparingInt((TrieNode node) -> node.depth).reversed());
+            for (TrieNode node : nodes) {
+                if (node.isEmpty() && node.parent != null) {
+                    node.parent.children.remove(node.label);
+                    node.top = List.of();
+                } else {
+                    node.top = computeTop(node);
+                }
+            }
+        }
+
+        private void recomputeAll() {
+            recomputeSubtree(root);
+        }
+
+        private void recomputeSubtree(TrieNode node) {
+            for (TrieNode child : node.children.values()) {
+                recomputeSubtree(child);
+            }
+            node.top = computeTop(node);
+        }
+
+        /**
+         * Top-N của một nút = top-N (không trùng) của các gợi ý kết thúc tại nút và top-N của các nút con
+         */
+        private List<Suggestion> computeTop(TrieNode node) {
+            Map<String, Suggestion> candidates = new HashMap<>();
+            for (String key : node.terminals) {
+                Suggestion suggestion = suggestions.get(key);
+                if (suggestion != null) {
+                    candidates.put(key, suggestion);
+                }
+            }
+            for (TrieNode child : node.children.values()) {
+                for (Suggestion suggestion : child.top) {
+                    candidates.putIfAbsent(suggestion.key(), suggestion);
+                }
+            }
+            List<Suggestion> sorted = new ArrayList<>(candidates.values());
+            sorted.sort(POPULARITY_ORDER);
+            return sorted.size() > MAX_LIMIT ? List.copyOf(sorted.subList(0, MAX_LIMIT)) : List.copyOf(sorted);
+        }
+
+        private static String productKey(Integer productId) {
+            return "P:" + productId;
+        }
+
+        private static String brandKey(Integer brandId) {
+            return "B:" + brandId;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
+import com.oceanbutterflyshop.backend.dtos.response.ProductTombstoneResponse;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.entities.ProductTombstone;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.mappers.ProductListAssembler;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductTombstoneRepository;
+import com.oceanbutterflyshop.backend.services.ProductSyncService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Triển khai đồng bộ thay đổi catalog.
+ *
+ * - Mốc (token) là thời điểm bắt đầu truy vấn, mã hóa Base64 (URL-safe)
+ * - Truy vấn lùi mốc một khoảng OVERLAP vì updatedAt được gán lúc flush, trước khi commit:
+ *   transaction commit muộn vẫn được lần đồng bộ sau nhìn thấy. Client có thể nhận lại
+ *   một sản phẩm nhiều lần và cần ghi đè (upsert) theo productId
+ * - Mốc cũ hơn thời gian lưu giữ tombstone buộc đồng bộ lại toàn bộ
+ * - Sản phẩm được tải theo lô qua ProductListAssembler (2 truy vấn mỗi lô) và ghi ngay ra response
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSyncServiceImpl implements ProductSyncService {
+
+    private static final int BATCH_SIZE = 200;
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+    private static final String TOKEN_PREFIX = "v1:";
+
+    @Value("${sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository productTombstoneRepository;
+    private final ProductListAssembler productListAssembler;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeSet getChanges(String since) {
+        LocalDateTime now = LocalDateTime.now();
+        String nextToken = encodeToken(now);
+
+        LocalDateTime sinceTime = (since == null || since.isBlank()) ? null : decodeToken(since);
+        if (sinceTime == null || sinceTime.isBefore(now.minusDays(tombstoneRetentionDays))) {
+            // Không có mốc, hoặc nhật ký xóa có thể đã bị dọn: trả toàn bộ catalog
+            List<Integer> allIds = new ArrayList<>(new TreeSet<>(productRepository.findAllIds()));
+            return new ChangeSet(nextToken, true, allIds, List.of());
+        }
+
+        LocalDateTime from = sinceTime.minus(OVERLAP);
+        TreeSet<Integer> changedIds = new TreeSet<>(productRepository.findIdsUpdatedAfter(from));
+        changedIds.addAll(productRepository.findIdsByBrandUpdatedAfter(from));
+
+        List<ProductTombstoneResponse> deleted = productTombstoneRepository
+            .findByDeletedAtAfterOrderByDeletedAtAsc(from).stream()
+            .map(tombstone -> ProductTombstoneResponse.builder()
+                .productId(tombstone.getProductId())
+                .productCode(tombstone.getProductCode())
+                .deletedAt(tombstone.getDeletedAt())
+                .build())
+            .toList();
+
+        return new ChangeSet(nextToken, false, new ArrayList<>(changedIds), deleted);
+    }
+
+    @Override
+    public void writeChanges(ChangeSet changes, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            // Cùng định dạng với ApiResponse: {"status", "message", "data"}
+            generator.writeStartObject();
+            generator.writeNumberField("status", 200);
+            generator.writeStringField("message", "Product changes retrieved successfully");
+            generator.writeObjectFieldStart("data");
+            generator.writeStringField("nextToken", changes.nextToken());
+            generator.writeBooleanField("fullResync", changes.fullResync());
+
+            generator.writeArrayFieldStart("deleted");
+            for (ProductTombstoneResponse tombstone : changes.deleted()) {
+                generator.writeObject(tombstone);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("upserted");
+            List<Integer> productIds = changes.changedProductIds();
+            for (int from = 0; from < productIds.size(); from += BATCH_SIZE) {
+                List<Integer> batch = productIds.subList(from, Math.min(from + BATCH_SIZE, productIds.size()));
+                for (ProductResponse product : productListAssembler.toResponses(batch)) {
+                    generator.writeObject(product);
+                }
+                generator.flush();
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordDeletion(Product product) {
+        productTombstoneRepository.save(new ProductTombstone(
+            null, product.getProductId(), product.getProductCode(), LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "0 30 3 * * *") // Chạy lúc 3:30 mỗi ngày
+    public void purgeExpiredTombstones() {
+        LocalDateTime before = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        int removed = productTombstoneRepository.deleteOlderThan(before);
+        log.info("Purged {} product tombstones older than {}", removed, before);
+    }
+
+    private String encodeToken(LocalDateTime time) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((TOKEN_PREFIX + time).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LocalDateTime decodeToken(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Unknown token version");
+            }
+            return LocalDateTime.parse(decoded.substring(TOKEN_PREFIX.length()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid sync token");
+        }
+    }
+}
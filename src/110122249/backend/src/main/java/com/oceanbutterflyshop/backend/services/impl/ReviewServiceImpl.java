@@ -5,6 +5,7 @@ import com.oceanbutterflyshop.backend.dtos.response.ReviewResponse;
 import com.oceanbutterflyshop.backend.entities.Product;
 import com.oceanbutterflyshop.backend.entities.Review;
 import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.events.ReviewChangedEvent;
 import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
 import com.oceanbutterflyshop.backend.exceptions.ResourceNotFoundException;
 import com.oceanbutterflyshop.backend.mappers.ReviewMapper;
@@ -14,6 +15,7 @@ import com.oceanbutterflyshop.backend.repositories.ReviewRepository;
 import com.oceanbutterflyshop.backend.repositories.UserRepository;
 import com.oceanbutterflyshop.backend.services.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +32,7 @@ public class ReviewServiceImpl implements ReviewService {
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final ReviewMapper reviewMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     public ReviewResponse createReview(ReviewRequestDTO reviewRequest, String userAccount) {
@@ -51,6 +54,7 @@ public class ReviewServiceImpl implements ReviewService {
         
         Review review = reviewMapper.toEntity(reviewRequest, product, user);
         Review savedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(product.getProductId()));
         
         return reviewMapper.toResponse(savedReview);
     }
@@ -67,6 +71,7 @@ public class ReviewServiceImpl implements ReviewService {
         
         reviewMapper.updateEntity(review, reviewRequest);
         Review updatedReview = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(review.getProduct().getProductId()));
         
         return reviewMapper.toResponse(updatedReview);
     }
@@ -91,6 +96,7 @@ public class ReviewServiceImpl implements ReviewService {
         }
         
         reviewRepository.delete(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(review.getProduct().getProductId()));
     }
     
     @Override
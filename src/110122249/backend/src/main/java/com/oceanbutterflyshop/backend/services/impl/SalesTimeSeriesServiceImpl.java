@@ -0,0 +1,198 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.oceanbutterflyshop.backend.dtos.response.SalesSeriesResponse;
+import com.oceanbutterflyshop.backend.dtos.response.SalesTimeSeriesResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.DailySalesRollup;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.PaymentMethod;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.SalesGroupBy;
+import com.oceanbutterflyshop.backend.enums.TimeBucket;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.DailySalesRollupRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.services.SalesTimeSeriesService;
+import com.oceanbutterflyshop.backend.utils.BoundedTtlCache;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Triển khai doanh số theo thời gian.
+ *
+ * - Số liệu theo ngày: trạng thái/danh mục/thương hiệu từ daily_sales_rollup, phương thức thanh toán
+ *   (không có trong bảng tổng hợp) bằng GROUP BY trên orders theo khoảng order_date
+ * - Gộp ngày thành tuần/tháng và điền 0 cho khoảng trống ở phía server
+ * - Kết quả được cache theo (from, to, bucket, groupBy); lần đọc từ cache không mở transaction
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesTimeSeriesServiceImpl implements SalesTimeSeriesService {
+
+    private static final String ALL_KEY = "ALL";
+    private static final String NONE_KEY = "NONE";
+    private static final String NO_BRAND_KEY = String.valueOf(DailySalesRollup.NO_BRAND_ID);
+
+    /**
+     * Số đơn và doanh thu của một nhóm trong một ngày
+     */
+    private record DailyValue(LocalDate date, String key, long orders, BigDecimal revenue) {
+    }
+
+    /**
+     * Giá trị theo từng khoảng của một đường, khởi tạo bằng 0
+     */
+    private static final class SeriesValues {
+        private final long[] orders;
+        private final BigDecimal[] revenue;
+
+        SeriesValues(int buckets) {
+            orders = new long[buckets];
+            revenue = new BigDecimal[buckets];
+            Arrays.fill(revenue, BigDecimal.ZERO);
+        }
+
+        void add(int bucket, DailyValue value) {
+            orders[bucket] += value.orders();
+            revenue[bucket] = revenue[bucket].add(value.revenue());
+        }
+    }
+
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final OrderRepository orderRepository;
+    private final BrandRepository brandRepository;
+    private final BoundedTtlCache<SeriesKey, SalesTimeSeriesResponse> salesTimeSeriesCache;
+
+    @Value("${dashboard.timeseries.max-buckets:366}")
+    private int maxBuckets;
+
+    @Override
+    public SalesTimeSeriesResponse getTimeSeries(LocalDate from, LocalDate to, TimeBucket bucket, SalesGroupBy groupBy) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        int buckets = 0;
+        for (LocalDate start = bucket.startOf(from); !start.isAfter(to); start = bucket.next(start)) {
+            if (++buckets > maxBuckets) {
+                throw new BadRequestException("Too many " + bucket.name().toLowerCase() + " buckets in range "
+                        + from + " to " + to + " (max " + maxBuckets + ")");
+            }
+        }
+        return salesTimeSeriesCache.getOrLoad(new SeriesKey(from, to, bucket, groupBy), this::load);
+    }
+
+    private SalesTimeSeriesResponse load(SeriesKey key) {
+        List<LocalDate> bucketStarts = new ArrayList<>();
+        for (LocalDate start = key.bucket().startOf(key.from()); !start.isAfter(key.to());
+             start = key.bucket().next(start)) {
+            bucketStarts.add(start);
+        }
+
+        Map<String, SeriesValues> valuesByKey = new LinkedHashMap<>();
+        for (String seriesKey : fixedKeys(key.groupBy())) {
+            valuesByKey.put(seriesKey, new SeriesValues(bucketStarts.size()));
+        }
+        for (DailyValue value : dailyValues(key)) {
+            int bucket = Collections.binarySearch(bucketStarts, key.bucket().startOf(value.date()));
+            valuesByKey.computeIfAbsent(value.key(), seriesKey -> new SeriesValues(bucketStarts.size()))
+                    .add(bucket, value);
+        }
+
+        Map<String, String> labels = labels(key.groupBy(), valuesByKey.keySet());
+        List<SalesSeriesResponse> series = new ArrayList<>(valuesByKey.size());
+        valuesByKey.forEach((seriesKey, values) -> series.add(SalesSeriesResponse.builder()
+                .key(seriesKey)
+                .label(labels.get(seriesKey))
+                .orders(Arrays.stream(values.orders).boxed().toList())
+                .revenue(List.of(values.revenue))
+                .build()));
+        if (key.groupBy() == SalesGroupBy.BRAND) {
+            series.sort(Comparator.comparing(SalesSeriesResponse::getLabel));
+        }
+
+        return SalesTimeSeriesResponse.builder()
+                .from(key.from())
+                .to(key.to())
+                .bucket(key.bucket().name())
+                .groupBy(key.groupBy().name())
+                .bucketStarts(bucketStarts)
+                .series(series)
+                .build();
+    }
+
+    /**
+     * Các đường luôn có mặt (kể cả khi toàn 0) để chú thích biểu đồ không đổi giữa các lần xem
+     */
+    private static List<String> fixedKeys(SalesGroupBy groupBy) {
+        return switch (groupBy) {
+            case NONE -> List.of(ALL_KEY);
+            case STATUS -> Arrays.stream(OrderStatus.values()).map(Enum::name).toList();
+            case PAYMENT_METHOD -> Arrays.stream(PaymentMethod.values()).map(Enum::name).toList();
+            case CATEGORY -> Arrays.stream(ProductCategory.values()).map(Enum::name).toList();
+            case BRAND -> List.of();
+        };
+    }
+
+    private List<DailyValue> dailyValues(SeriesKey key) {
+        LocalDate from = key.from();
+        LocalDate to = key.to();
+        return switch (key.groupBy()) {
+            case NONE -> dailySalesRollupRepository.findDailyTotals(from, to).stream()
+                    .filter(row -> row.getOrderStatus() != OrderStatus.CANCELLED)
+                    .map(row -> new DailyValue(row.getSalesDate(), ALL_KEY, row.getOrderCount(), row.getSalesAmount()))
+                    .toList();
+            case STATUS -> dailySalesRollupRepository.findDailyTotals(from, to).stream()
+                    .map(row -> new DailyValue(row.getSalesDate(), row.getOrderStatus().name(), row.getOrderCount(),
+                            row.getSalesAmount()))
+                    .toList();
+            case PAYMENT_METHOD -> orderRepository.sumByDayAndPaymentMethod(from, to, OrderStatus.CANCELLED).stream()
+                    .map(row -> new DailyValue(row.getSalesDate(),
+                            row.getPaymentMethod() != null ? row.getPaymentMethod().name() : NONE_KEY,
+                            row.getOrderCount(), row.getSalesAmount()))
+                    .toList();
+            case CATEGORY -> toDailyValues(dailySalesRollupRepository.sumByDayAndCategory(from, to, OrderStatus.CANCELLED));
+            case BRAND -> toDailyValues(dailySalesRollupRepository.sumByDayAndBrand(from, to, OrderStatus.CANCELLED));
+        };
+    }
+
+    private static List<DailyValue> toDailyValues(List<DailySalesRollupRepository.DailyGroupTotalView> rows) {
+        return rows.stream()
+                .map(row -> new DailyValue(row.getSalesDate(), row.getGroupKey(), row.getOrderCount(),
+                        row.getSalesAmount()))
+                .toList();
+    }
+
+    private Map<String, String> labels(SalesGroupBy groupBy, Collection<String> keys) {
+        Map<String, String> brandNames = groupBy != SalesGroupBy.BRAND ? Map.of() : brandRepository
+                .findAllById(keys.stream().filter(key -> !NO_BRAND_KEY.equals(key)).map(Integer::valueOf).toList())
+                .stream()
+                .collect(Collectors.toMap(brand -> String.valueOf(brand.getBrandId()), Brand::getBrandName));
+
+        return keys.stream().collect(Collectors.toMap(key -> key, key -> switch (groupBy) {
+            case NONE -> "Tất cả đơn hàng";
+            case STATUS -> OrderStatus.valueOf(key).getDisplayName();
+            case PAYMENT_METHOD -> NONE_KEY.equals(key) ? "Chưa chọn" : PaymentMethod.valueOf(key).getDisplayName();
+            case CATEGORY -> DailySalesRollup.NO_CATEGORY.equals(key) ? "Chưa phân loại" : key;
+            case BRAND -> NO_BRAND_KEY.equals(key)
+                    ? "Không có thương hiệu"
+                    // Thương hiệu đã bị xóa sau khi có đơn hàng
+                    : brandNames.getOrDefault(key, "Thương hiệu #" + key);
+        }));
+    }
+}
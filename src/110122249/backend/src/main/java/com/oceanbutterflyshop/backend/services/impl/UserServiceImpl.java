@@ -1,8 +1,12 @@
 package com.oceanbutterflyshop.backend.services.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,13 +14,19 @@ import com.oceanbutterflyshop.backend.dtos.request.UserRequest;
 import com.oceanbutterflyshop.backend.dtos.response.UserResponse;
 import com.oceanbutterflyshop.backend.entities.Role;
 import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.events.UserChangedEvent;
 import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
 import com.oceanbutterflyshop.backend.exceptions.ResourceNotFoundException;
 import com.oceanbutterflyshop.backend.mappers.UserMapper;
 import com.oceanbutterflyshop.backend.repositories.RoleRepository;
 import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.services.CodeAllocatorService;
 import com.oceanbutterflyshop.backend.services.UserService;
-import com.oceanbutterflyshop.backend.utils.CodeGeneratorUtils;
+import com.oceanbutterflyshop.backend.specifications.UserSpecification;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
+
+import java.util.Objects;
+import java.util.Set;
 
 
 @Service
@@ -24,10 +34,16 @@ import com.oceanbutterflyshop.backend.utils.CodeGeneratorUtils;
 @Transactional
 public class UserServiceImpl implements UserService {
     
+    // Các cột NOT NULL được phép sắp xếp ở chế độ con trỏ
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of(
+        "userId", "userCode", "userName", "userAccount"
+    );
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
-    private final CodeGeneratorUtils codeGeneratorUtils;
+    private final CodeAllocatorService codeAllocatorService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -41,6 +57,19 @@ public class UserServiceImpl implements UserService {
         return userPage.map(userMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Window<UserResponse> getAllUsersByCursor(String keyword, String roleName, String cursor, int size, Sort sort) {
+        CursorUtils.validateSize(size);
+        CursorUtils.validateSort(sort, CURSOR_SORT_FIELDS);
+        ScrollPosition position = CursorUtils.decode(cursor, sort, User.class);
+
+        // Keyset scroll: WHERE (sort, id) > (...) LIMIT size + 1, không chạy COUNT(*)
+        Window<User> window = userRepository.findBy(UserSpecification.filterUsers(keyword, roleName),
+                query -> query.sortBy(sort).limit(size).scroll(position));
+        return window.map(userMapper::toResponse);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserResponse getUserById(Integer userId) {
@@ -76,13 +105,8 @@ public class UserServiceImpl implements UserService {
         // Chuyển đổi request sang entity
         User user = userMapper.toEntity(userRequest, role);
         
-        // Tạo mã người dùng duy nhất dựa trên vai trò
-        String userCode;
-        do {
-            userCode = codeGeneratorUtils.generateUserCode(role.getRoleName());
-        } while (userRepository.existsByUserCode(userCode));
-        
-        user.setUserCode(userCode);
+        // Cấp phát mã người dùng duy nhất dựa trên vai trò
+        user.setUserCode(codeAllocatorService.nextUserCode(role.getRoleName()));
         
         User savedUser = userRepository.save(user);
         return userMapper.toResponse(savedUser);
@@ -111,9 +135,13 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found with id: " + userRequest.getRoleId()));
         
         // Cập nhật entity với dữ liệu request (userCode không thay đổi)
+        String previousName = existingUser.getUserName();
         userMapper.updateEntity(existingUser, userRequest, role);
         
         User updatedUser = userRepository.save(existingUser);
+        if (!Objects.equals(previousName, updatedUser.getUserName())) {
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
+        }
         return userMapper.toResponse(updatedUser);
     }
 
@@ -128,6 +156,7 @@ public class UserServiceImpl implements UserService {
         }
         
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
     @Override
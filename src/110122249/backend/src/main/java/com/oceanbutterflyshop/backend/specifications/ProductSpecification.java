@@ -9,6 +9,7 @@ import com.oceanbutterflyshop.backend.enums.ProductCategory;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -145,4 +146,14 @@ public class ProductSpecification {
     public static Specification<Product> filterByStatus(ProductStatus status) {
         return filterProducts(null, null, null, null, status, null);
     }
+
+    /**
+     * Tạo một specification giới hạn sản phẩm theo danh sách ID (ví dụ kết quả từ chỉ mục tìm kiếm)
+     *
+     * @param productIds Danh sách ID sản phẩm
+     * @return Specification cho thực thể Product
+     */
+    public static Specification<Product> hasIdIn(Collection<Integer> productIds) {
+        return (root, query, criteriaBuilder) -> root.get("productId").in(productIds);
+    }
 }
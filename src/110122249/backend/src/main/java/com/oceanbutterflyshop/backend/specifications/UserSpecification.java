@@ -0,0 +1,47 @@
+package com.oceanbutterflyshop.backend.specifications;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.oceanbutterflyshop.backend.entities.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPA Specification cho thực thể User.
+ * Điều kiện lọc giống với truy vấn UserRepository.searchUsers, dùng cho chế độ phân trang bằng con trỏ.
+ */
+public class UserSpecification {
+
+    /**
+     * Tạo một specification để lọc người dùng theo từ khóa và vai trò
+     *
+     * @param keyword Từ khóa tìm trong tên, số điện thoại, mã người dùng hoặc tài khoản
+     * @param roleName Tên vai trò để lọc
+     * @return Specification cho thực thể User
+     */
+    public static Specification<User> filterUsers(String keyword, String roleName) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // Lọc theo tên vai trò
+            if (roleName != null && !roleName.trim().isEmpty()) {
+                predicates.add(criteriaBuilder.equal(root.get("role").get("roleName"), roleName));
+            }
+
+            // Tìm kiếm từ khóa (không phân biệt chữ hoa chữ thường)
+            if (keyword != null && !keyword.trim().isEmpty()) {
+                String searchPattern = "%" + keyword.trim().toLowerCase() + "%";
+                predicates.add(criteriaBuilder.or(
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("userName")), searchPattern),
+                    criteriaBuilder.like(root.get("userPhone"), "%" + keyword.trim() + "%"),
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("userCode")), searchPattern),
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("userAccount")), searchPattern)
+                ));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
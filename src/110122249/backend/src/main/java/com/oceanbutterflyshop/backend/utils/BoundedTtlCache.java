@@ -0,0 +1,229 @@
+package com.oceanbutterflyshop.backend.utils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache trong bộ nhớ có giới hạn dung lượng, thời gian sống (TTL) và loại bỏ theo LRU.
+ *
+ * - Dung lượng tính theo "trọng số" của từng phần tử (ví dụ ước lượng số byte), không theo số lượng
+ * - Phần tử hết hạn bị coi như không tồn tại và được dọn khi truy cập
+ * - Khi vượt dung lượng, phần tử ít được truy cập gần đây nhất bị loại bỏ trước
+ * - Có bộ đếm hit/miss/eviction để theo dõi hiệu quả
+ *
+ * Đọc xuyên (read-through) qua {@link #getOrLoad}: nếu trong lúc đang tải có lệnh vô hiệu hóa
+ * thì giá trị vừa tải không được đưa vào cache, tránh lưu dữ liệu cũ.
+ *
+ * @param <K> Kiểu khóa
+ * @param <V> Kiểu giá trị
+ */
+public class BoundedTtlCache<K, V> {
+
+    private record Entry<V>(V value, long weight, long expiresAtNanos) {
+    }
+
+    /**
+     * Ảnh chụp các bộ đếm của cache tại một thời điểm
+     */
+    public record Stats(
+        String name,
+        int size,
+        long weight,
+        long maxWeight,
+        long hits,
+        long misses,
+        long evictions,
+        long expirations,
+        long invalidations
+    ) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private final String name;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+
+    // accessOrder = true: thứ tự duyệt từ phần tử ít được truy cập gần đây nhất (LRU)
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Tăng mỗi lần vô hiệu hóa; dùng để phát hiện giá trị tải về đã lỗi thời
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    /**
+     * @param name Tên cache (dùng khi hiển thị thống kê)
+     * @param maxWeight Tổng trọng số tối đa
+     * @param ttl Thời gian sống của mỗi phần tử
+     * @param weigher Hàm ước lượng trọng số của một giá trị
+     */
+    public BoundedTtlCache(String name, long maxWeight, Duration ttl, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+    }
+
+    /**
+     * Lấy giá trị từ cache; nếu chưa có hoặc đã hết hạn thì tải bằng loader và lưu lại.
+     * Giá trị null từ loader không được lưu.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long epochBeforeLoad = invalidationEpoch.get();
+        V loaded = loader.apply(key);
+        if (loaded != null && invalidationEpoch.get() == epochBeforeLoad) {
+            put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Lấy giá trị từ cache, trả về null nếu không có hoặc đã hết hạn
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+                removeEntry(key);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Thêm hoặc thay thế giá trị, loại bỏ phần tử LRU nếu vượt dung lượng
+     */
+    public void put(K key, V value) {
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            // Phần tử quá lớn so với toàn bộ cache: không lưu
+            return;
+        }
+
+        lock.lock();
+        try {
+            removeEntry(key);
+            entries.put(key, new Entry<>(value, weight, System.nanoTime() + ttlNanos));
+            currentWeight += weight;
+
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (currentWeight > maxWeight && iterator.hasNext()) {
+                Map.Entry<K, Entry<V>> eldest = iterator.next();
+                iterator.remove();
+                currentWeight -= eldest.getValue().weight();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vô hiệu hóa một khóa
+     */
+    public void invalidate(K key) {
+        invalidationEpoch.incrementAndGet();
+        lock.lock();
+        try {
+            if (removeEntry(key)) {
+                invalidations.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vô hiệu hóa mọi phần tử có giá trị thỏa điều kiện
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        invalidationEpoch.incrementAndGet();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Entry<V> entry = iterator.next().getValue();
+                if (predicate.test(entry.value())) {
+                    iterator.remove();
+                    currentWeight -= entry.weight();
+                    invalidations.incrementAndGet();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Xóa toàn bộ cache
+     */
+    public void invalidateAll() {
+        invalidationEpoch.incrementAndGet();
+        lock.lock();
+        try {
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+            currentWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(name, entries.size(), currentWeight, maxWeight,
+                hits.get(), misses.get(), evictions.get(), expirations.get(), invalidations.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Phải được gọi khi đang giữ lock
+     */
+    private boolean removeEntry(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed == null) {
+            return false;
+        }
+        currentWeight -= removed.weight();
+        return true;
+    }
+}
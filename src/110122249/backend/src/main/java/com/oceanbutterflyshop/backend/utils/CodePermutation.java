@@ -0,0 +1,91 @@
+package com.oceanbutterflyshop.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hoán vị có khóa trên miền [0, 10^8) (mã hóa bảo toàn định dạng cho phần 8 chữ số của mã).
+ *
+ * Dùng mạng Feistel cân bằng cơ số 10^4: giá trị được tách thành hai nửa 4 chữ số (L, R),
+ * mỗi vòng L' = R, R' = (L + F(k, R)) mod 10^4. Mỗi vòng là song ánh nên toàn bộ phép biến đổi
+ * là song ánh trên đúng miền 8 chữ số: số thứ tự khác nhau luôn cho mã khác nhau,
+ * trong khi mã liên tiếp trông như ngẫu nhiên.
+ */
+public final class CodePermutation {
+
+    public static final int DOMAIN_SIZE = 100_000_000;
+
+    private static final int HALF_MODULUS = 10_000;
+    private static final int ROUNDS = 8;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    /**
+     * @param secret Khóa bí mật của hệ thống
+     * @param tweak  Giá trị phân biệt (ví dụ tiền tố mã) để mỗi loại mã có hoán vị riêng
+     */
+    public CodePermutation(String secret, String tweak) {
+        byte[] digest = sha256(secret + ":" + tweak);
+        for (int round = 0; round < ROUNDS; round++) {
+            long key = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                key = (key << 8) | (digest[(round * 4 + i) % digest.length] & 0xFF);
+            }
+            roundKeys[round] = key;
+        }
+    }
+
+    /**
+     * Ánh xạ số thứ tự sang giá trị 8 chữ số
+     */
+    public int permute(int value) {
+        checkDomain(value);
+        int left = value / HALF_MODULUS;
+        int right = value % HALF_MODULUS;
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = (left + roundFunction(round, right)) % HALF_MODULUS;
+            left = right;
+            right = next;
+        }
+        return left * HALF_MODULUS + right;
+    }
+
+    /**
+     * Phép nghịch đảo của {@link #permute(int)}
+     */
+    public int inverse(int value) {
+        checkDomain(value);
+        int left = value / HALF_MODULUS;
+        int right = value % HALF_MODULUS;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            int previous = Math.floorMod(right - roundFunction(round, left), HALF_MODULUS);
+            right = left;
+            left = previous;
+        }
+        return left * HALF_MODULUS + right;
+    }
+
+    private int roundFunction(int round, int half) {
+        // Bộ trộn splitmix64 trên (khóa vòng, nửa giá trị)
+        long z = roundKeys[round] + half * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) Long.remainderUnsigned(z, HALF_MODULUS);
+    }
+
+    private static void checkDomain(int value) {
+        if (value < 0 || value >= DOMAIN_SIZE) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+    }
+
+    private static byte[] sha256(String input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.oceanbutterflyshop.backend.utils;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Tiện ích cho HTTP conditional GET (ETag / Last-Modified).
+ *
+ * Ví dụ trong controller (lấy phiên bản TRƯỚC khi đọc dữ liệu):
+ * <pre>
+ * CatalogVersionService.Version version = catalogVersionService.entryVersion(CatalogScope.PRODUCT, productId);
+ * if (ConditionalRequestUtils.checkNotModified(webRequest, version.etag(), version.lastModified())) {
+ *     return null; // 304 Not Modified, không đọc dữ liệu catalog và không serialize body
+ * }
+ * </pre>
+ */
+public final class ConditionalRequestUtils {
+
+    private ConditionalRequestUtils() {
+    }
+
+    /**
+     * So sánh If-None-Match / If-Modified-Since với phiên bản hiện tại và gắn ETag, Last-Modified vào response.
+     * Cache-Control: no-cache để client luôn kiểm tra lại thay vì tự suy đoán thời gian cache
+     * (đồng thời thay cho header no-store mặc định của Spring Security).
+     *
+     * @return true nếu client đã có bản mới nhất; controller trả về null để gửi 304
+     */
+    public static boolean checkNotModified(WebRequest request, String etag, long lastModified) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return request.checkNotModified(etag, lastModified);
+    }
+}
@@ -0,0 +1,175 @@
+package com.oceanbutterflyshop.backend.utils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.util.ReflectionUtils;
+
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+
+/**
+ * Tiện ích cho chế độ phân trang bằng con trỏ (keyset / seek pagination).
+ *
+ * Con trỏ là chuỗi Base64 (URL-safe) chứa giá trị các cột sắp xếp và ID của phần tử cuối trang,
+ * ví dụ "productPrice=150000.00&productId=42". Truy vấn trang tiếp theo dùng
+ * WHERE (sort, id) > (...) thay cho OFFSET và không cần COUNT(*).
+ *
+ * Ví dụ:
+ * <pre>
+ * ScrollPosition position = CursorUtils.decode(cursor, sort, Product.class);
+ * Window&lt;Product&gt; window = productRepository.findBy(spec,
+ *     query -&gt; query.sortBy(sort).limit(size).scroll(position));
+ * String nextCursor = CursorUtils.encode(window);
+ * </pre>
+ */
+public final class CursorUtils {
+
+    /**
+     * Kích thước trang tối đa (cả chế độ con trỏ và các API tóm tắt dùng OFFSET)
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorUtils() {
+    }
+
+    /**
+     * Kiểm tra kích thước trang nằm trong [1, MAX_PAGE_SIZE]
+     *
+     * @param size Kích thước trang từ request
+     * @throws BadRequestException nếu kích thước nằm ngoài khoảng cho phép
+     */
+    public static void validateSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Kiểm tra các trường sắp xếp có được hỗ trợ trong chế độ con trỏ hay không.
+     * Chỉ cho phép các cột NOT NULL vì so sánh (sort, id) &gt; (...) không xử lý được NULL.
+     *
+     * @param sort Thứ tự sắp xếp từ request
+     * @param allowedFields Các trường được phép
+     * @throws BadRequestException nếu có trường không được hỗ trợ
+     */
+    public static void validateSort(Sort sort, Set<String> allowedFields) {
+        for (Sort.Order order : sort) {
+            if (!allowedFields.contains(order.getProperty())) {
+                throw new BadRequestException("Sort field '" + order.getProperty()
+                        + "' is not supported in cursor mode. Allowed: " + allowedFields);
+            }
+        }
+    }
+
+    /**
+     * Giải mã con trỏ thành vị trí keyset.
+     *
+     * @param cursor Con trỏ từ request; rỗng nghĩa là trang đầu tiên
+     * @param sort Thứ tự sắp xếp hiện tại (con trỏ phải được tạo với cùng thứ tự)
+     * @param entityClass Lớp entity, dùng để chuyển giá trị về đúng kiểu dữ liệu của cột
+     * @return Vị trí bắt đầu đọc
+     * @throws BadRequestException nếu con trỏ không hợp lệ
+     */
+    public static ScrollPosition decode(String cursor, Sort sort, Class<?> entityClass) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String pair : decoded.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Malformed cursor entry");
+                }
+                String property = pair.substring(0, separator);
+                String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                keys.put(property, convert(entityClass, property, value));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+
+        // Con trỏ phải chứa đúng các trường đang sắp xếp (cộng thêm ID)
+        for (Sort.Order order : sort) {
+            if (!keys.containsKey(order.getProperty())) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Tạo con trỏ trỏ tới phần tử cuối cùng của cửa sổ kết quả.
+     *
+     * @param window Kết quả truy vấn keyset
+     * @return Con trỏ cho trang tiếp theo, hoặc null nếu đã hết dữ liệu
+     */
+    public static String encode(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        ScrollPosition position = window.positionAt(window.size() - 1);
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Object> entry : keyset.getKeys().entrySet()) {
+            if (!builder.isEmpty()) {
+                builder.append('&');
+            }
+            builder.append(entry.getKey())
+                    .append('=')
+                    .append(URLEncoder.encode(String.valueOf(entry.getValue()), StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Chuyển giá trị chuỗi trong con trỏ về kiểu dữ liệu của trường tương ứng trong entity
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(Class<?> entityClass, String property, String value) {
+        Field field = ReflectionUtils.findField(entityClass, property);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown cursor property: " + property);
+        }
+        Class<?> type = field.getType();
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Integer.class) {
+                return Integer.valueOf(value);
+            } else if (type == Long.class) {
+                return Long.valueOf(value);
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            } else if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            } else if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            } else if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor value for " + property, e);
+        }
+        throw new IllegalArgumentException("Unsupported cursor property type: " + type.getSimpleName());
+    }
+}
@@ -26,6 +26,7 @@ import com.oceanbutterflyshop.backend.repositories.OrderRepository;
 import com.oceanbutterflyshop.backend.repositories.ProductRepository;
 import com.oceanbutterflyshop.backend.repositories.RoleRepository;
 import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.services.CodeAllocatorService;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -63,7 +64,7 @@ public class DataSeeder implements CommandLineRunner {
     private final ImageRepository imageRepository;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final CodeGeneratorUtils codeGeneratorUtils;
+    private final CodeAllocatorService codeAllocatorService;
 
     private final Random random = new Random();
     
@@ -226,9 +227,7 @@ public class DataSeeder implements CommandLineRunner {
         for (String[] data : brandData) {
             Brand brand = new Brand();
             
-            String brandCode = generateUniqueCode("TH", code -> 
-                brandRepository.findByBrandCode(code).isPresent()
-            );
+            String brandCode = codeAllocatorService.nextCode(CodeAllocatorService.BRAND_PREFIX);
             
             brand.setBrandCode(brandCode);
             brand.setBrandName(data[0]);
@@ -271,9 +270,7 @@ public class DataSeeder implements CommandLineRunner {
         for (int i = 0; i < 20; i++) {
             Product product = new Product();
             
-            String productCode = generateUniqueCode("SP", code -> 
-                productRepository.findByProductCode(code).isPresent()
-            );
+            String productCode = codeAllocatorService.nextCode(CodeAllocatorService.PRODUCT_PREFIX);
             
             Brand randomBrand = brands.get(random.nextInt(brands.size()));
             String productType = productTypes[random.nextInt(productTypes.length)];
@@ -472,9 +469,7 @@ public class DataSeeder implements CommandLineRunner {
             User customer = customers.get(random.nextInt(customers.size()));
             
             Order order = new Order();
-            String orderCode = generateUniqueCode("DH", code -> 
-                orderRepository.findByOrderCode(code).isPresent()
-            );
+            String orderCode = codeAllocatorService.nextCode(CodeAllocatorService.ORDER_PREFIX);
             
             order.setOrderCode(orderCode);
             order.setUser(customer);
@@ -535,9 +530,7 @@ public class DataSeeder implements CommandLineRunner {
     private User createUser(String name, Gender gender, Role role, String account, String plainPassword) {
         User user = new User();
         String prefix = getUserCodePrefix(role.getRoleCode());
-        String userCode = generateUniqueCode(prefix, code -> 
-            userRepository.findByUserCode(code).isPresent()
-        );
+        String userCode = codeAllocatorService.nextCode(prefix);
         
         user.setUserCode(userCode);
         user.setUserName(name);
@@ -561,17 +554,6 @@ public class DataSeeder implements CommandLineRunner {
         }
     }
 
-    private String generateUniqueCode(String prefix, java.util.function.Predicate<String> existsChecker) {
-        String code;
-        int attempts = 0;
-        do {
-            code = codeGeneratorUtils.generateCode(prefix);
-            attempts++;
-            if (attempts > 100) throw new RuntimeException("Failed to generate unique code");
-        } while (existsChecker.test(code));
-        return code;
-    }
-
     /**
      * Helper: Generate realistic price based on Cosmetic Brand Tier
      */
@@ -0,0 +1,42 @@
+package com.oceanbutterflyshop.backend.utils;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Tiện ích chọn câu lệnh upsert (chèn hoặc cộng dồn trong một câu lệnh) theo DB đang dùng.
+ *
+ * - PostgreSQL: INSERT ... ON CONFLICT (khóa) DO UPDATE, nguyên tử kể cả khi hai transaction
+ *   cùng chèn một khóa mới (transaction sau chờ rồi cập nhật thay vì lỗi trùng khóa)
+ * - DB khác (H2 khi chạy test): MERGE theo chuẩn SQL; không an toàn khi hai transaction cùng chèn
+ *   một khóa mới (có thể lỗi trùng khóa), chỉ dùng cho test
+ */
+public final class SqlUpsertUtils {
+
+    private SqlUpsertUtils() {
+    }
+
+    /**
+     * @return true nếu DB hỗ trợ INSERT ... ON CONFLICT DO UPDATE
+     */
+    public static boolean supportsOnConflict(EntityManager entityManager) {
+        return supportsOnConflict(dialectOf(entityManager));
+    }
+
+    /**
+     * @return true nếu dialect hỗ trợ INSERT ... ON CONFLICT DO UPDATE
+     */
+    public static boolean supportsOnConflict(Dialect dialect) {
+        return dialect instanceof PostgreSQLDialect;
+    }
+
+    public static Dialect dialectOf(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+    }
+}
@@ -0,0 +1,100 @@
+package com.oceanbutterflyshop.backend.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Bộ đếm tồn kho chia thành nhiều ngăn (stripe) để nhiều luồng giữ hàng cùng một sản phẩm
+ * mà không tranh chấp trên cùng một biến.
+ *
+ * - Đường nhanh: CAS trên một ngăn chọn ngẫu nhiên, chỉ thành công khi ngăn đó còn đủ hàng
+ * - Đường chậm (ngăn không đủ): gom hàng từ tất cả các ngăn dưới một khóa; nếu tổng không đủ
+ *   thì trả lại phần đã gom nên tổng tồn kho không bao giờ âm
+ * - Mỗi ngăn cách nhau PADDING phần tử (64 byte) để tránh false sharing giữa các CPU
+ */
+public final class StripedStockCounter {
+
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    public StripedStockCounter(int initialStock, int stripes) {
+        if (initialStock < 0 || stripes < 1) {
+            throw new IllegalArgumentException("initialStock must be >= 0 and stripes >= 1");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+        // Chia đều tồn kho ban đầu cho các ngăn
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, initialStock / stripes + (i < initialStock % stripes ? 1 : 0));
+        }
+    }
+
+    /**
+     * Giữ quantity đơn vị hàng
+     * @return false nếu không đủ hàng (không thay đổi gì)
+     */
+    public boolean tryReserve(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        int index = homeIndex();
+        int current = cells.get(index);
+        while (current >= quantity) {
+            if (cells.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+            current = cells.get(index);
+        }
+        return reserveAcrossStripes(quantity);
+    }
+
+    /**
+     * Trả lại (hoặc nhập thêm) quantity đơn vị hàng
+     */
+    public void release(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        cells.addAndGet(homeIndex(), quantity);
+    }
+
+    /**
+     * Tổng tồn kho hiện có (ảnh chụp gần đúng khi có luồng đang ghi)
+     */
+    public int available() {
+        int total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+
+    private synchronized boolean reserveAcrossStripes(int quantity) {
+        int collected = 0;
+        for (int i = 0; i < stripes && collected < quantity; i++) {
+            int index = i * PADDING;
+            int current = cells.get(index);
+            while (current > 0) {
+                int take = Math.min(current, quantity - collected);
+                if (cells.compareAndSet(index, current, current - take)) {
+                    collected += take;
+                    break;
+                }
+                current = cells.get(index);
+            }
+        }
+        if (collected < quantity) {
+            if (collected > 0) {
+                cells.addAndGet(homeIndex(), collected);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private int homeIndex() {
+        return ThreadLocalRandom.current().nextInt(stripes) * PADDING;
+    }
+}
@@ -0,0 +1,63 @@
+package com.oceanbutterflyshop.backend.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Tiện ích chuẩn hóa văn bản tiếng Việt phục vụ tìm kiếm.
+ *
+ * Bỏ dấu (folding) để "son moi" khớp với "son môi", chuyển về chữ thường
+ * và tách từ theo các ký tự không phải chữ/số.
+ *
+ * Ví dụ:
+ * <pre>
+ * VietnameseTextUtils.fold("Sữa Rửa Mặt Đậu Đỏ")     → "sua rua mat dau do"
+ * VietnameseTextUtils.tokenize("Kem chống nắng SPF50") → [kem, chong, nang, spf50]
+ * </pre>
+ */
+public final class VietnameseTextUtils {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private VietnameseTextUtils() {
+    }
+
+    /**
+     * Bỏ dấu tiếng Việt và chuyển về chữ thường.
+     * Chữ "đ/Đ" không phải dấu kết hợp nên được thay thế riêng.
+     *
+     * @param text Văn bản gốc (có thể null)
+     * @return Văn bản đã bỏ dấu, chữ thường; chuỗi rỗng nếu đầu vào null
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String replaced = text.replace('đ', 'd').replace('Đ', 'D');
+        String decomposed = Normalizer.normalize(replaced, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase();
+    }
+
+    /**
+     * Bỏ dấu rồi tách văn bản thành danh sách từ (giữ nguyên thứ tự, có thể trùng lặp).
+     *
+     * @param text Văn bản gốc (có thể null)
+     * @return Danh sách từ đã chuẩn hóa, không chứa chuỗi rỗng
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String folded = fold(text);
+        if (folded.isEmpty()) {
+            return tokens;
+        }
+        for (String token : NON_ALPHANUMERIC.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,4 @@
+-- Lịch sử đơn hàng theo khách hàng và hàng đợi theo trạng thái:
+-- phân trang (OFFSET hoặc keyset) theo (order_date, order_id) giảm dần đọc thẳng từ chỉ mục.
+CREATE INDEX IF NOT EXISTS idx_orders_user_date ON orders (user_id, order_date DESC, order_id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_date ON orders (order_status, order_date DESC, order_id DESC);
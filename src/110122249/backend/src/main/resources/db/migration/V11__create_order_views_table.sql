@@ -0,0 +1,15 @@
+-- Mô hình đọc của đơn hàng: OrderResponse (JSON) kèm snapshot sản phẩm của từng mục,
+-- chi tiết và danh sách đơn hàng đọc một dòng cho mỗi đơn.
+-- Đơn hàng cũ được tạo mô hình đọc dần bởi tác vụ định kỳ (order-view.backfill-*).
+CREATE TABLE IF NOT EXISTS order_views (
+    order_id INTEGER PRIMARY KEY REFERENCES orders (order_id) ON DELETE CASCADE,
+    order_code VARCHAR(10) NOT NULL,
+    user_id INTEGER,
+    order_status VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(20),
+    payment_date DATE,
+    updated_at TIMESTAMP,
+    document TEXT NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_order_views_order_code ON order_views (order_code);
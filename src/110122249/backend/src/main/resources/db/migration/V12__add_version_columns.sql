@@ -0,0 +1,3 @@
+-- Khóa lạc quan (@Version) cho sản phẩm và đơn hàng: các dòng hiện có bắt đầu từ version 0.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
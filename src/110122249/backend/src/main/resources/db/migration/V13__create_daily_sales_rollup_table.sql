@@ -0,0 +1,21 @@
+-- Doanh số tổng hợp theo ngày, khóa theo (ngày đặt hàng, trạng thái, sản phẩm, thương hiệu, danh mục).
+-- Dòng product_id = 0 (brand_id = 0, product_category = 'ALL') là tổng của đơn hàng trong (ngày, trạng thái).
+-- Cộng dồn khi tạo/đổi trạng thái/hủy/xóa đơn hàng; đối soát định kỳ (sales-rollup.*).
+CREATE TABLE IF NOT EXISTS daily_sales_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    sales_date DATE NOT NULL,
+    order_status VARCHAR(20) NOT NULL,
+    product_id INTEGER NOT NULL,
+    brand_id INTEGER NOT NULL,
+    product_category VARCHAR(30) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    item_quantity BIGINT NOT NULL DEFAULT 0,
+    sales_amount NUMERIC(17, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+-- Khóa duy nhất; truy vấn theo khoảng ngày dùng cột đầu của chỉ mục
+CREATE UNIQUE INDEX IF NOT EXISTS idx_daily_sales_rollup_key
+    ON daily_sales_rollup (sales_date, order_status, product_id, brand_id, product_category);
+
+-- Dữ liệu hiện có được tính khi ứng dụng khởi động (chưa có số liệu cho ngày đặt hàng sớm nhất)
@@ -0,0 +1,2 @@
+-- Số khách hàng mới theo ngày cho xu hướng trên dashboard (truy vấn theo khoảng created_at)
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
@@ -0,0 +1,3 @@
+-- Biểu đồ doanh số theo phương thức thanh toán (GET /api/v1/dashboard/timeseries?groupBy=PAYMENT_METHOD):
+-- quét theo khoảng order_date, các cột cần thiết đều nằm trong chỉ mục
+CREATE INDEX IF NOT EXISTS idx_orders_date_payment ON orders (order_date, payment_method, order_status, order_amount);
@@ -0,0 +1,8 @@
+-- Cấp phát mã nghiệp vụ (DH/SP/TH/KH/NV/AD) bằng sequence: nextval chạy trên kết nối của transaction đang gọi.
+-- Mỗi giá trị là số thứ tự của một khối 100 mã.
+CREATE SEQUENCE IF NOT EXISTS code_seq_dh MINVALUE 0 START WITH 0;
+CREATE SEQUENCE IF NOT EXISTS code_seq_sp MINVALUE 0 START WITH 0;
+CREATE SEQUENCE IF NOT EXISTS code_seq_th MINVALUE 0 START WITH 0;
+CREATE SEQUENCE IF NOT EXISTS code_seq_kh MINVALUE 0 START WITH 0;
+CREATE SEQUENCE IF NOT EXISTS code_seq_nv MINVALUE 0 START WITH 0;
+CREATE SEQUENCE IF NOT EXISTS code_seq_ad MINVALUE 0 START WITH 0;
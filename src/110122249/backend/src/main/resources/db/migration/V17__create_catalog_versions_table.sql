@@ -0,0 +1,14 @@
+-- Phiên bản của dữ liệu catalog cho ETag / Last-Modified, dùng chung giữa các node và giữ nguyên sau khi restart.
+-- version_key: "PRODUCT:12" cho một phần tử, "PRODUCT:*" cho phiên bản nền của cả nhóm.
+CREATE TABLE IF NOT EXISTS catalog_versions (
+    version_key VARCHAR(40) PRIMARY KEY,
+    scope VARCHAR(10) NOT NULL,
+    version BIGINT NOT NULL,
+    last_modified BIGINT NOT NULL
+);
+
+-- Phiên bản của cả nhóm: phiên bản lớn nhất trong nhóm
+CREATE INDEX IF NOT EXISTS idx_catalog_versions_scope_version ON catalog_versions (scope, version);
+
+-- Số phiên bản tăng dần, cấp sau khi thay đổi dữ liệu đã commit
+CREATE SEQUENCE IF NOT EXISTS catalog_version_seq START WITH 1;
@@ -0,0 +1,21 @@
+-- Bảng xếp hạng bán chạy được duy trì sẵn: số lượng đã bán của từng sản phẩm
+-- (không tính đơn hàng đã hủy). Cập nhật khi tạo/hủy/xóa đơn hàng.
+CREATE TABLE IF NOT EXISTS product_sales (
+    product_id INTEGER PRIMARY KEY,
+    sold_quantity BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+-- Truy vấn top-K khi khởi động đọc theo thứ tự số lượng giảm dần
+CREATE INDEX IF NOT EXISTS idx_product_sales_sold_quantity ON product_sales (sold_quantity DESC, product_id);
+
+-- Backfill từ dữ liệu đơn hàng hiện có
+INSERT INTO product_sales (product_id, sold_quantity, updated_at)
+SELECT p.product_id,
+       COALESCE(SUM(CASE WHEN o.order_status <> 'CANCELLED' THEN oi.item_quantity END), 0),
+       CURRENT_TIMESTAMP
+FROM products p
+LEFT JOIN order_items oi ON oi.product_id = p.product_id
+LEFT JOIN orders o ON o.order_id = oi.order_id
+GROUP BY p.product_id
+ON CONFLICT (product_id) DO NOTHING;
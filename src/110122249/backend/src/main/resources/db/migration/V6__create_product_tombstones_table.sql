@@ -0,0 +1,11 @@
+-- Đồng bộ thay đổi catalog (GET /api/v1/products/changes):
+-- sản phẩm được tạo/cập nhật tìm theo updated_at, sản phẩm bị xóa ghi vào product_tombstones.
+CREATE TABLE IF NOT EXISTS product_tombstones (
+    tombstone_id BIGSERIAL PRIMARY KEY,
+    product_id INTEGER NOT NULL,
+    product_code VARCHAR(10),
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_tombstones_deleted_at ON product_tombstones (deleted_at);
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products (updated_at);
@@ -0,0 +1,13 @@
+-- Idempotency-Key cho POST /api/v1/orders khi chạy nhiều node (idempotency.store=database):
+-- bản ghi IN_PROGRESS giữ khóa, COMPLETED lưu OrderResponse (JSON) đến expires_at.
+CREATE TABLE IF NOT EXISTS idempotency_records (
+    record_key VARCHAR(64) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    owner_token VARCHAR(36),
+    response_body TEXT,
+    locked_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_records_expires_at ON idempotency_records (expires_at);
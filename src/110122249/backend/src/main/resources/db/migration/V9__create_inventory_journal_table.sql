@@ -0,0 +1,11 @@
+-- Nhật ký tồn kho cho chế độ inventory.mode=memory: mỗi lần giữ/hoàn hàng thêm một dòng delta,
+-- tác vụ định kỳ cộng dồn vào products.quantity_stock rồi xóa các dòng đã gộp.
+CREATE TABLE IF NOT EXISTS inventory_journal (
+    journal_id BIGSERIAL PRIMARY KEY,
+    product_id INTEGER NOT NULL,
+    delta INTEGER NOT NULL,
+    reason VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_journal_product_id ON inventory_journal (product_id);
@@ -0,0 +1,137 @@
+package com.oceanbutterflyshop.backend.aspects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.dtos.response.OptimisticLockStatsResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Khóa lạc quan: lần ghi dựa trên version cũ bị từ chối, được thử lại trong transaction mới
+ * (không làm mất thay đổi đồng thời), và bỏ cuộc sau số lần thử tối đa.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:optimistic-lock;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({OptimisticLockRetryAspect.class, OptimisticLockRetryAspectTests.ProductRenamer.class, TestDataFactory.class})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticLockRetryAspectTests {
+
+    /**
+     * Đổi tên sản phẩm; trong các lần chạy đầu, một transaction khác sửa giá sản phẩm ngay sau khi đọc
+     */
+    static class ProductRenamer {
+        private final ProductRepository productRepository;
+        private final TransactionTemplate concurrentWriter;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        ProductRenamer(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+            this.productRepository = productRepository;
+            this.concurrentWriter = new TransactionTemplate(transactionManager);
+            this.concurrentWriter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+
+        @RetryOnOptimisticLock(maxAttempts = 3, initialBackoffMillis = 1)
+        @Transactional
+        public void rename(Integer productId, String name, int concurrentEdits) {
+            Product product = productRepository.findById(productId).orElseThrow();
+            if (attempts.incrementAndGet() <= concurrentEdits) {
+                concurrentWriter.executeWithoutResult(status -> {
+                    Product other = productRepository.findById(productId).orElseThrow();
+                    other.setProductPrice(other.getProductPrice().add(BigDecimal.ONE));
+                });
+            }
+            product.setProductName(name);
+        }
+
+        public int attempts() {
+            return attempts.get();
+        }
+
+        public void reset() {
+            attempts.set(0);
+        }
+    }
+
+    @Autowired
+    private ProductRenamer productRenamer;
+
+    @Autowired
+    private OptimisticLockRetryAspect optimisticLockRetryAspect;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private Integer productId;
+
+    @BeforeEach
+    void setUp() {
+        Brand brand = testData.saveBrand("TH1", "Ocean");
+        productId = testData.saveProduct("SP1", "Serum", BigDecimal.valueOf(100), 5, brand).getProductId();
+        productRenamer.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void retriesStaleWriteWithoutLosingConcurrentChange() {
+        productRenamer.rename(productId, "Serum v2", 1);
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(product.getProductName()).isEqualTo("Serum v2");
+        assertThat(product.getProductPrice()).isEqualByComparingTo("101");
+        assertThat(product.getVersion()).isEqualTo(2L);
+        assertThat(productRenamer.attempts()).isEqualTo(2);
+        assertThat(statsOfRename().getRetries()).isGreaterThanOrEqualTo(1L);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        long exhaustedBefore = statsOfRename() != null ? statsOfRename().getExhausted() : 0L;
+
+        assertThatThrownBy(() -> productRenamer.rename(productId, "Serum v2", Integer.MAX_VALUE))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(productRenamer.attempts()).isEqualTo(3);
+        assertThat(productRepository.findById(productId).orElseThrow().getProductName()).isEqualTo("Serum");
+        assertThat(statsOfRename().getExhausted()).isEqualTo(exhaustedBefore + 1);
+    }
+
+    private OptimisticLockStatsResponse statsOfRename() {
+        return optimisticLockRetryAspect.getStats().stream()
+                .filter(stats -> stats.getOperation().equals("ProductRenamer.rename"))
+                .findFirst()
+                .orElse(null);
+    }
+}
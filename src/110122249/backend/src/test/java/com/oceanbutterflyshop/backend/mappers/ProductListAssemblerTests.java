@@ -0,0 +1,98 @@
+package com.oceanbutterflyshop.backend.mappers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Image;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductListAssembler.class, ProductMapper.class})
+class ProductListAssemblerTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductListAssembler productListAssembler;
+
+    private final List<Integer> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 5 thương hiệu, 50 sản phẩm, mỗi sản phẩm 2 hình ảnh
+        List<Brand> brands = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Brand brand = new Brand();
+            brand.setBrandCode("TH" + i);
+            brand.setBrandName("Brand " + i);
+            brands.add(entityManager.persist(brand));
+        }
+        for (int i = 0; i < 50; i++) {
+            Product product = TestDataFactory.newProduct("SP" + i, "Product " + i, BigDecimal.valueOf(100000 + i), 10,
+                    brands.get(i % brands.size()));
+            entityManager.persist(product);
+            for (int j = 0; j < 2; j++) {
+                Image image = new Image();
+                image.setImageName("image-" + i + "-" + j);
+                image.setImageURL("https://cdn.example.com/" + i + "/" + j + ".jpg");
+                image.setProduct(product);
+                entityManager.persist(image);
+            }
+            productIds.add(product.getProductId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void queryCountDoesNotDependOnPageSize() {
+        long smallPageQueries = countQueries(productIds.subList(0, 5));
+        long largePageQueries = countQueries(productIds);
+
+        assertThat(smallPageQueries).isEqualTo(2);
+        assertThat(largePageQueries).isEqualTo(smallPageQueries);
+    }
+
+    @Test
+    void keepsRequestedOrderAndLoadsBrandAndImages() {
+        List<Integer> reversed = new ArrayList<>(productIds.subList(0, 10));
+        Collections.reverse(reversed);
+
+        List<ProductResponse> responses = productListAssembler.toResponses(reversed);
+
+        assertThat(responses).extracting(ProductResponse::getProductId).containsExactlyElementsOf(reversed);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getBrandName()).startsWith("Brand ");
+            assertThat(response.getImages()).hasSize(2);
+        });
+    }
+
+    private long countQueries(List<Integer> ids) {
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ProductResponse> responses = productListAssembler.toResponses(ids);
+
+        assertThat(responses).hasSize(ids.size());
+        return statistics.getPrepareStatementCount();
+    }
+}
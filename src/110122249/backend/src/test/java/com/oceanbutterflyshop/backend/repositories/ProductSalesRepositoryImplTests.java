@@ -0,0 +1,39 @@
+package com.oceanbutterflyshop.backend.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Câu lệnh upsert bộ đếm theo dialect: PostgreSQL dùng ON CONFLICT trên khóa chính (nguyên tử khi hai đơn hàng
+ * cùng tạo bộ đếm), DB khác dùng MERGE. Nhánh MERGE được chạy thật trong ProductRankingServiceImplTests (H2).
+ */
+class ProductSalesRepositoryImplTests {
+
+    @Test
+    void usesOnConflictUpsertOnPostgres() {
+        String sql = ProductSalesRepositoryImpl.upsertSql(new PostgreSQLDialect());
+
+        assertThat(sql)
+                .startsWith("INSERT INTO product_sales (product_id, sold_quantity, updated_at) ")
+                // Bộ đếm mới không nhận giá trị âm, bộ đếm đã có cộng dồn delta (kể cả âm khi hủy đơn)
+                .contains("VALUES (:productId, GREATEST(:delta, 0), CURRENT_TIMESTAMP)")
+                .contains("ON CONFLICT (product_id) DO UPDATE SET ")
+                .contains("sold_quantity = product_sales.sold_quantity + :delta")
+                .doesNotContain("MERGE");
+    }
+
+    @Test
+    void usesMergeOnOtherDatabases() {
+        String sql = ProductSalesRepositoryImpl.upsertSql(new H2Dialect());
+
+        assertThat(sql)
+                .startsWith("MERGE INTO product_sales s ")
+                .contains(":productId", ":delta")
+                .contains("sold_quantity = s.sold_quantity + v.delta")
+                .contains("VALUES (v.product_id, GREATEST(v.delta, 0), CURRENT_TIMESTAMP)")
+                .doesNotContain("ON CONFLICT");
+    }
+}
@@ -0,0 +1,183 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.request.CartItemRequest;
+import com.oceanbutterflyshop.backend.dtos.request.CartPriceRequest;
+import com.oceanbutterflyshop.backend.dtos.response.CartLineResponse;
+import com.oceanbutterflyshop.backend.dtos.response.CartPriceResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.services.InventoryService;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Tính giá giỏ hàng: tổng tiền chính xác theo đơn vị nhỏ nhất, gộp dòng trùng sản phẩm, báo tình trạng
+ * từng dòng, và bảng giá theo kịp thay đổi sản phẩm sau khi commit (kể cả trong lúc nạp lại toàn bộ).
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:cart-pricing;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({CartPricingServiceImpl.class, InventoryServiceImpl.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartPricingServiceImplTests {
+
+    @Autowired
+    private CartPricingServiceImpl cartPricingService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private Brand brand;
+    private Product serum;
+    private Product toner;
+
+    @BeforeEach
+    void setUp() {
+        brand = testData.saveBrand("TH1", "Ocean");
+
+        serum = testData.saveProduct("SP1", "Serum", new BigDecimal("19999.99"), 5, brand);
+        toner = testData.saveProduct("SP2", "Toner", new BigDecimal("150000"), 1, brand);
+        cartPricingService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void pricesWholeCartWithPerLineAvailability() {
+        CartPriceResponse cart = cartPricingService.priceCart(cartOf(
+                item(serum.getProductId(), 1),
+                item(toner.getProductId(), 2),
+                item(serum.getProductId(), 2),
+                item(-1, 1)));
+
+        assertThat(cart.getLines()).extracting(CartLineResponse::getProductId)
+                .containsExactly(-1, serum.getProductId(), toner.getProductId());
+        assertThat(cart.getLines().get(0).getAvailability()).isEqualTo("NOT_FOUND");
+
+        CartLineResponse serumLine = cart.getLines().get(1);
+        assertThat(serumLine.getQuantity()).isEqualTo(3);
+        assertThat(serumLine.getUnitPrice()).isEqualByComparingTo("19999.99");
+        assertThat(serumLine.getLineTotal()).isEqualByComparingTo("59999.97");
+        assertThat(serumLine.getAvailability()).isEqualTo("AVAILABLE");
+
+        CartLineResponse tonerLine = cart.getLines().get(2);
+        assertThat(tonerLine.getAvailableStock()).isEqualTo(1);
+        assertThat(tonerLine.getAvailability()).isEqualTo("INSUFFICIENT_STOCK");
+
+        assertThat(cart.getTotalQuantity()).isEqualTo(5);
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("359999.97");
+        assertThat(cart.getAvailable()).isFalse();
+
+        // Cùng phép tính khi dùng sản phẩm đọc trong transaction của đơn hàng
+        CartPriceResponse order = cartPricingService.price(
+                Map.of(serum.getProductId(), 3, toner.getProductId(), 2),
+                Map.of(serum.getProductId(), serum, toner.getProductId(), toner));
+        assertThat(order.getTotalAmount()).isEqualTo(cart.getTotalAmount());
+    }
+
+    @Test
+    void priceTableFollowsCommittedProductChanges() {
+        serum.setProductPrice(new BigDecimal("25000.00"));
+        productRepository.save(serum);
+        // Chưa nhận sự kiện: vẫn là giá cũ trong bảng
+        assertThat(cartPricingService.price(Map.of(serum.getProductId(), 1)).getTotalAmount())
+                .isEqualByComparingTo("19999.99");
+
+        cartPricingService.onProductChanged(ProductChangedEvent.of(serum.getProductId()));
+        assertThat(cartPricingService.price(Map.of(serum.getProductId(), 1)).getTotalAmount())
+                .isEqualByComparingTo("25000.00");
+
+        productRepository.delete(toner);
+        cartPricingService.onProductChanged(ProductChangedEvent.of(toner.getProductId()));
+        CartPriceResponse cart = cartPricingService.price(Map.of(toner.getProductId(), 1));
+        assertThat(cart.getLines()).singleElement()
+                .satisfies(line -> assertThat(line.getAvailability()).isEqualTo("NOT_FOUND"));
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void discontinuedProductsAreUnavailableAndNewProductsAreLoadedOnDemand() {
+        serum.setProductStatus(ProductStatus.DISCONTINUED);
+        productRepository.save(serum);
+        cartPricingService.onProductChanged(ProductChangedEvent.of(serum.getProductId()));
+        // Tạo sau khi nạp bảng giá và chưa có sự kiện: đọc bổ sung từ DB
+        Product mask = testData.saveProduct("SP3", "Mask", new BigDecimal("30000"), 4, brand);
+
+        CartPriceResponse cart = cartPricingService.price(Map.of(serum.getProductId(), 1, mask.getProductId(), 2));
+        assertThat(cart.getLines()).extracting(CartLineResponse::getAvailability)
+                .containsExactly("UNAVAILABLE", "AVAILABLE");
+        assertThat(cart.getAvailable()).isFalse();
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("79999.99");
+
+        assertThat(cartPricingService.price(Map.of(mask.getProductId(), 1), Map.of(mask.getProductId(), mask))
+                .getAvailable()).isTrue();
+    }
+
+    @Test
+    void rebuildKeepsChangesAppliedDuringLoad() {
+        // Sửa giá và xóa sản phẩm (kèm sự kiện) ngay sau khi lần nạp lại đã đọc dữ liệu cũ
+        ProductRepository repositoryDuringRebuild = mock(ProductRepository.class,
+                AdditionalAnswers.delegatesTo(productRepository));
+        CartPricingServiceImpl service = new CartPricingServiceImpl(repositoryDuringRebuild, inventoryService);
+        doAnswer(invocation -> {
+            List<ProductRepository.ProductPriceView> stale = productRepository.findAllPriceViews();
+            serum.setProductPrice(new BigDecimal("25000.00"));
+            productRepository.save(serum);
+            productRepository.delete(toner);
+            service.onProductChanged(ProductChangedEvent.of(List.of(serum.getProductId(), toner.getProductId())));
+            return stale;
+        }).when(repositoryDuringRebuild).findAllPriceViews();
+
+        service.rebuild();
+
+        assertThat(service.price(Map.of(serum.getProductId(), 1)).getTotalAmount())
+                .isEqualByComparingTo("25000.00");
+        assertThat(service.price(Map.of(toner.getProductId(), 1)).getLines()).singleElement()
+                .satisfies(line -> assertThat(line.getAvailability()).isEqualTo("NOT_FOUND"));
+    }
+
+    private static CartItemRequest item(Integer productId, int quantity) {
+        CartItemRequest item = new CartItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static CartPriceRequest cartOf(CartItemRequest... items) {
+        CartPriceRequest request = new CartPriceRequest();
+        request.setItems(List.of(items));
+        return request;
+    }
+}
@@ -0,0 +1,137 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.oceanbutterflyshop.backend.enums.CatalogScope;
+import com.oceanbutterflyshop.backend.events.BrandChangedEvent;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.events.ReviewChangedEvent;
+import com.oceanbutterflyshop.backend.events.UserChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.CatalogVersionRepository;
+import com.oceanbutterflyshop.backend.services.CatalogVersionService.Version;
+import com.oceanbutterflyshop.backend.utils.ConditionalRequestUtils;
+
+/**
+ * Phiên bản catalog: 304 khi ETag còn khớp, ETag đổi sau thay đổi liên quan (kể cả dữ liệu được nhúng
+ * như tên sản phẩm/người dùng trong đánh giá), không đổi với phần tử không liên quan;
+ * các node dùng chung một bảng phiên bản nên trả cùng ETag, kể cả sau khi restart.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:catalog-version;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(CatalogVersionServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogVersionServiceImplTests {
+
+    @Autowired
+    private CatalogVersionServiceImpl catalogVersionService;
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        catalogVersionRepository.deleteAll();
+        catalogVersionService.init();
+    }
+
+    @Test
+    void answersNotModifiedUntilEntryChanges() {
+        Version version = catalogVersionService.entryVersion(CatalogScope.PRODUCT, 1);
+
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        assertThat(checkNotModified(null, version, firstResponse)).isFalse();
+        assertThat(firstResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(version.etag());
+        assertThat(firstResponse.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+
+        MockHttpServletResponse revalidation = new MockHttpServletResponse();
+        assertThat(checkNotModified(version.etag(), version, revalidation)).isTrue();
+        assertThat(revalidation.getStatus()).isEqualTo(304);
+
+        catalogVersionService.onProductChanged(ProductChangedEvent.of(1));
+        Version changed = catalogVersionService.entryVersion(CatalogScope.PRODUCT, 1);
+        assertThat(changed.etag()).isNotEqualTo(version.etag());
+        assertThat(checkNotModified(version.etag(), changed, new MockHttpServletResponse())).isFalse();
+        // Sản phẩm khác vẫn dùng phiên bản nền
+        assertThat(catalogVersionService.entryVersion(CatalogScope.PRODUCT, 2)).isEqualTo(version);
+    }
+
+    @Test
+    void invalidatesEmbeddedData() {
+        Version reviewsOfOne = catalogVersionService.entryVersion(CatalogScope.REVIEW, 1);
+        Version reviewsOfTwo = catalogVersionService.entryVersion(CatalogScope.REVIEW, 2);
+        Version allReviews = catalogVersionService.collectionVersion(CatalogScope.REVIEW);
+
+        // Đổi tên sản phẩm: đánh giá của sản phẩm đó hiển thị productName
+        catalogVersionService.onProductChanged(ProductChangedEvent.of(Set.of(1)));
+        assertThat(catalogVersionService.entryVersion(CatalogScope.REVIEW, 1)).isNotEqualTo(reviewsOfOne);
+        assertThat(catalogVersionService.entryVersion(CatalogScope.REVIEW, 2)).isEqualTo(reviewsOfTwo);
+        assertThat(catalogVersionService.collectionVersion(CatalogScope.REVIEW)).isNotEqualTo(allReviews);
+
+        // Đổi tên người dùng: đánh giá của họ có thể nằm ở bất kỳ sản phẩm nào
+        catalogVersionService.onUserChanged(new UserChangedEvent(7));
+        assertThat(catalogVersionService.entryVersion(CatalogScope.REVIEW, 2)).isNotEqualTo(reviewsOfTwo);
+
+        Version review = catalogVersionService.entryVersion(CatalogScope.REVIEW, 3);
+        catalogVersionService.onReviewChanged(new ReviewChangedEvent(3));
+        assertThat(catalogVersionService.entryVersion(CatalogScope.REVIEW, 3)).isNotEqualTo(review);
+
+        // Đổi thương hiệu: mọi sản phẩm nhúng thông tin thương hiệu
+        Version product = catalogVersionService.entryVersion(CatalogScope.PRODUCT, 5);
+        catalogVersionService.onBrandChanged(new BrandChangedEvent(9));
+        assertThat(catalogVersionService.entryVersion(CatalogScope.PRODUCT, 5)).isNotEqualTo(product);
+    }
+
+    @Test
+    void sharesVersionsBetweenNodesAndAcrossRestarts() {
+        // Node thứ hai (hoặc node vừa restart) dùng chung bảng phiên bản
+        CatalogVersionServiceImpl otherNode = new CatalogVersionServiceImpl(catalogVersionRepository, transactionManager);
+        otherNode.init();
+        assertThat(otherNode.collectionVersion(CatalogScope.PRODUCT))
+                .isEqualTo(catalogVersionService.collectionVersion(CatalogScope.PRODUCT));
+
+        Version product = catalogVersionService.entryVersion(CatalogScope.PRODUCT, 1);
+        Version brand = otherNode.entryVersion(CatalogScope.BRAND, 4);
+
+        // Ghi trên một node: node kia không còn trả 304 cho ETag cũ
+        catalogVersionService.onProductChanged(ProductChangedEvent.of(1));
+        Version changed = otherNode.entryVersion(CatalogScope.PRODUCT, 1);
+        assertThat(changed).isNotEqualTo(product).isEqualTo(catalogVersionService.entryVersion(CatalogScope.PRODUCT, 1));
+        assertThat(checkNotModified(product.etag(), changed, new MockHttpServletResponse())).isFalse();
+
+        otherNode.onBrandChanged(new BrandChangedEvent(4));
+        assertThat(catalogVersionService.entryVersion(CatalogScope.BRAND, 4)).isNotEqualTo(brand);
+        // Phiên bản nền mới hơn phiên bản riêng của sản phẩm 1
+        assertThat(catalogVersionService.entryVersion(CatalogScope.PRODUCT, 1)).isNotEqualTo(changed);
+
+        // Khởi động lại không đổi phiên bản đã lưu
+        Version beforeRestart = catalogVersionService.collectionVersion(CatalogScope.PRODUCT);
+        new CatalogVersionServiceImpl(catalogVersionRepository, transactionManager).init();
+        assertThat(otherNode.collectionVersion(CatalogScope.PRODUCT)).isEqualTo(beforeRestart);
+    }
+
+    private static boolean checkNotModified(String ifNoneMatch, Version version, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return ConditionalRequestUtils.checkNotModified(new ServletWebRequest(request, response),
+                version.etag(), version.lastModified());
+    }
+}
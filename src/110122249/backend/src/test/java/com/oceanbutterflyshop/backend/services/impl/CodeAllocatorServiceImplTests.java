@@ -0,0 +1,220 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.security.SecureRandom;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.services.CodeAllocatorService;
+import com.oceanbutterflyshop.backend.utils.CodePermutation;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Cấp phát mã: không trùng giữa nhiều luồng/nhiều node, bỏ qua mã cũ đã tồn tại,
+ * và so sánh thời gian với vòng lặp "sinh ngẫu nhiên rồi kiểm tra tồn tại" trước đây.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:code-allocator;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(CodeAllocatorServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CodeAllocatorServiceImplTests {
+
+    private static final String SECRET = "test-secret";
+
+    @Autowired
+    private CodeAllocatorServiceImpl codeAllocatorService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void permutationIsReversibleAndCollisionFree() {
+        CodePermutation permutation = new CodePermutation(SECRET, CodeAllocatorService.ORDER_PREFIX);
+        int sampleSize = 2_000_000;
+        BitSet seen = new BitSet(CodePermutation.DOMAIN_SIZE);
+        int mismatches = 0;
+        for (int value = 0; value < sampleSize; value++) {
+            int permuted = permutation.permute(value);
+            seen.set(permuted);
+            if (permutation.inverse(permuted) != value) {
+                mismatches++;
+            }
+        }
+        // Các số thứ tự đầu tiên cho mã đôi một khác nhau và giải ngược được về đúng số thứ tự
+        assertThat(seen.cardinality()).isEqualTo(sampleSize);
+        assertThat(mismatches).isZero();
+
+        int last = CodePermutation.DOMAIN_SIZE - 1;
+        assertThat(permutation.inverse(permutation.permute(last))).isEqualTo(last);
+    }
+
+    @Test
+    void concurrentNodesNeverAllocateTheSameCode() throws InterruptedException {
+        // Hai instance dùng chung sequence, mô phỏng hai node
+        CodeAllocatorServiceImpl otherNode = newNode(SECRET);
+        List<CodeAllocatorService> nodes = List.of(codeAllocatorService, otherNode);
+
+        int threads = 8;
+        int codesPerThread = 250;
+        ConcurrentLinkedQueue<String> codes = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            CodeAllocatorService node = nodes.get(i % nodes.size());
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < codesPerThread; j++) {
+                        codes.add(node.nextCode(CodeAllocatorService.ORDER_PREFIX));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(failures).isEmpty();
+        assertThat(codes).hasSize(threads * codesPerThread);
+        assertThat(new HashSet<>(codes)).hasSize(threads * codesPerThread);
+        assertThat(codes).allMatch(code -> code.matches("DH\\d{8}"));
+    }
+
+    @Test
+    void skipsLegacyCodesAlreadyInUse() {
+        CodePermutation permutation = new CodePermutation(SECRET, CodeAllocatorService.BRAND_PREFIX);
+        String legacyCode = "TH" + String.format("%08d", permutation.permute(0));
+
+        Brand brand = new Brand();
+        brand.setBrandCode(legacyCode);
+        brand.setBrandName("Legacy");
+        brandRepository.save(brand);
+
+        String first = codeAllocatorService.nextCode(CodeAllocatorService.BRAND_PREFIX);
+
+        assertThat(first).isNotEqualTo(legacyCode);
+        assertThat(first).isEqualTo("TH" + String.format("%08d", permutation.permute(1)));
+    }
+
+    /**
+     * Benchmark, không thuộc bộ test thường (xem excludedGroups trong pom.xml)
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkAgainstGenerateThenExistsLoop() {
+        int count = 2_000;
+        SecureRandom random = new SecureRandom();
+
+        // Vòng lặp cũ không lưu mã nên có thể sinh trùng: chỉ đo thời gian, không kiểm tra tính duy nhất
+        long loopStart = System.nanoTime();
+        int existenceQueries = 0;
+        for (int i = 0; i < count; i++) {
+            String code;
+            do {
+                code = "SP" + String.format("%08d", random.nextInt(CodePermutation.DOMAIN_SIZE));
+                existenceQueries++;
+            } while (productRepository.existsByProductCode(code));
+        }
+        long loopNanos = System.nanoTime() - loopStart;
+
+        long allocatorStart = System.nanoTime();
+        Set<String> allocatedCodes = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            allocatedCodes.add(codeAllocatorService.nextCode(CodeAllocatorService.PRODUCT_PREFIX));
+        }
+        long allocatorNanos = System.nanoTime() - allocatorStart;
+
+        assertThat(allocatedCodes).hasSize(count);
+        assertThat(allocatorNanos)
+                .as("allocator %d ms vs exists-loop %d ms (%d queries)",
+                        allocatorNanos / 1_000_000, loopNanos / 1_000_000, existenceQueries)
+                .isLessThan(loopNanos);
+    }
+
+    @Test
+    void allocatesInsideCallerTransactionWithoutReturningBlockOnRollback() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        String inRolledBack = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return codeAllocatorService.nextCode(CodeAllocatorService.ADMIN_PREFIX);
+        });
+
+        // Khối đã lấy không được cấp lại cho node khác sau khi transaction rollback
+        CodeAllocatorServiceImpl otherNode = newNode(SECRET);
+        String next = otherNode.nextCode(CodeAllocatorService.ADMIN_PREFIX);
+        assertThat(next).isNotEqualTo(inRolledBack);
+        CodePermutation permutation = new CodePermutation(SECRET, CodeAllocatorService.ADMIN_PREFIX);
+        assertThat(permutation.inverse(Integer.parseInt(next.substring(2))))
+                .isEqualTo(CodeAllocatorServiceImpl.BLOCK_SIZE);
+    }
+
+    @Test
+    void refusesToStartWithoutSecret() {
+        assertThatThrownBy(() -> newNode(" "))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("code-allocator.secret");
+        // Giá trị mẫu chưa được thay cũng bị coi như chưa cấu hình
+        assertThatThrownBy(() -> newNode(CodeAllocatorServiceImpl.PLACEHOLDER_SECRET))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("code-allocator.secret");
+    }
+
+    private CodeAllocatorServiceImpl newNode(String secret) {
+        CodeAllocatorServiceImpl node = new CodeAllocatorServiceImpl(orderRepository, productRepository,
+                brandRepository, userRepository, transactionManager, entityManager);
+        ReflectionTestUtils.setField(node, "secret", secret);
+        ReflectionTestUtils.setField(node, "checkLegacyCodes", true);
+        node.init();
+        return node;
+    }
+}
@@ -0,0 +1,211 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.request.OrderItemRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderStatusBatchRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.DailySalesRollupRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderItemRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderViewRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.repositories.RoleRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Doanh số theo ngày: số liệu cộng dồn qua vòng đời đơn hàng (tạo, đổi trạng thái từng đơn và hàng loạt,
+ * hủy, xóa) luôn khớp với số liệu tính lại từ orders/order_items.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:sales-rollup;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(OrderServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DailySalesRollupServiceImplTests {
+
+    private record Totals(long orderCount, long itemQuantity, BigDecimal salesAmount) {
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private DailySalesRollupServiceImpl dailySalesRollupService;
+
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private Product serum;
+    private Product lipstick;
+
+    @BeforeEach
+    void setUp() {
+        testData.saveUser("KH1", "buyer", testData.saveRole("CUS"));
+        testData.saveUser("QT1", "admin", testData.saveRole("ADM"));
+
+        serum = testData.saveProduct("SP1", "SP1", new BigDecimal("100000"), 100, testData.saveBrand("TH1", "TH1"));
+        Product makeup = TestDataFactory.newProduct("SP2", "SP2", new BigDecimal("50000"), 100,
+                testData.saveBrand("TH2", "TH2"));
+        makeup.setProductCategory(ProductCategory.MAKEUP);
+        lipstick = productRepository.save(makeup);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dailySalesRollupRepository.deleteAll();
+        orderItemRepository.deleteAll();
+        orderViewRepository.deleteAll();
+        orderRepository.deleteAll();
+        productSalesRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void incrementalUpdatesMatchRebuildFromOrders() {
+        OrderResponse first = orderService.createOrder(orderOf(item(serum, 2), item(lipstick, 1)), "buyer");
+        OrderResponse second = orderService.createOrder(orderOf(item(serum, 1)), "buyer");
+        OrderResponse third = orderService.createOrder(orderOf(item(lipstick, 3)), "buyer");
+
+        orderService.updateOrderStatus(first.getOrderId(), "PROCESSING");
+        OrderStatusBatchRequest batch = new OrderStatusBatchRequest();
+        batch.setOrderIds(List.of(first.getOrderId(), second.getOrderId()));
+        batch.setStatus("DELIVERED");
+        orderService.updateOrderStatuses(batch);
+        orderService.cancelOrder(third.getOrderId(), "buyer");
+
+        LocalDate today = LocalDate.now();
+        assertThat(dailyTotals(today)).containsOnly(
+                Map.entry(OrderStatus.DELIVERED, new Totals(2, 4, new BigDecimal("350000.00"))),
+                Map.entry(OrderStatus.CANCELLED, new Totals(1, 3, new BigDecimal("150000.00"))));
+        assertThat(dailySalesRollupRepository.findProductTotals(today, today, List.of(OrderStatus.DELIVERED),
+                Limit.of(10)))
+                .extracting(DailySalesRollupRepository.ProductTotalView::getProductId,
+                        DailySalesRollupRepository.ProductTotalView::getItemQuantity)
+                .containsExactly(
+                        tuple(serum.getProductId(), 3L),
+                        tuple(lipstick.getProductId(), 1L));
+        assertThat(nonEmptyRows()).isEqualTo(rebuiltRows(today));
+
+        orderService.deleteOrder(third.getOrderId(), "admin");
+        assertThat(dailyTotals(today)).containsOnlyKeys(OrderStatus.DELIVERED);
+        assertThat(nonEmptyRows()).isEqualTo(rebuiltRows(today));
+    }
+
+    @Test
+    void rebuildsRangeInParallelChunks() {
+        orderService.createOrder(orderOf(item(serum, 1)), "buyer");
+        OrderResponse older = orderService.createOrder(orderOf(item(lipstick, 2)), "buyer");
+        LocalDate today = LocalDate.now();
+        LocalDate lastMonth = today.minusDays(40);
+        orderRepository.findById(older.getOrderId()).ifPresent(order -> {
+            order.setOrderDate(lastMonth);
+            orderRepository.save(order);
+        });
+
+        // Thay đổi ngoài luồng cộng dồn: chỉ được sửa khi tính lại
+        assertThat(dailySalesRollupService.rebuild(lastMonth, today)).isEqualTo(4);
+        assertThat(dailyTotals(lastMonth)).containsOnly(
+                Map.entry(OrderStatus.NEW, new Totals(1, 2, new BigDecimal("100000.00"))));
+        assertThat(dailyTotals(today)).containsOnly(
+                Map.entry(OrderStatus.NEW, new Totals(1, 1, new BigDecimal("100000.00"))));
+    }
+
+    private Map<OrderStatus, Totals> dailyTotals(LocalDate date) {
+        return dailySalesRollupRepository.findDailyTotals(date, date).stream()
+                .filter(row -> row.getOrderCount() != 0)
+                .collect(Collectors.toMap(DailySalesRollupRepository.DailyTotalView::getOrderStatus,
+                        row -> new Totals(row.getOrderCount(), row.getItemQuantity(),
+                                row.getSalesAmount().setScale(2))));
+    }
+
+    /**
+     * Các dòng có số liệu (dòng về 0 sau khi chuyển trạng thái không được tạo lại khi tính lại)
+     */
+    private Map<String, Totals> nonEmptyRows() {
+        return dailySalesRollupRepository.findAll().stream()
+                .filter(row -> row.getOrderCount() != 0 || row.getItemQuantity() != 0
+                        || row.getSalesAmount().signum() != 0)
+                .collect(Collectors.toMap(
+                        row -> row.getSalesDate() + "/" + row.getOrderStatus() + "/" + row.getProductId() + "/"
+                                + row.getBrandId() + "/" + row.getProductCategory(),
+                        row -> new Totals(row.getOrderCount(), row.getItemQuantity(),
+                                row.getSalesAmount().setScale(2))));
+    }
+
+    private Map<String, Totals> rebuiltRows(LocalDate date) {
+        dailySalesRollupService.rebuild(date, date);
+        return nonEmptyRows();
+    }
+
+    private static OrderItemRequest item(Product product, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(product.getProductId());
+        item.setItemQuantity(quantity);
+        item.setItemPrice(product.getProductPrice());
+        item.setUnitPrice(product.getProductPrice().doubleValue());
+        return item;
+    }
+
+    private static OrderRequest orderOf(OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest();
+        request.setOrderStatus("NEW");
+        request.setOrderAmount(BigDecimal.ZERO);
+        request.setShippingAddress("Trà Vinh");
+        request.setShippingPhone("0900000000");
+        request.setOrderItems(List.of(items));
+        return request;
+    }
+}
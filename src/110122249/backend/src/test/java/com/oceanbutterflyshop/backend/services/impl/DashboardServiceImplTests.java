@@ -0,0 +1,223 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.response.DashboardStatsResponse;
+import com.oceanbutterflyshop.backend.dtos.response.TopProductResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.DailySalesRollup;
+import com.oceanbutterflyshop.backend.entities.Image;
+import com.oceanbutterflyshop.backend.entities.Order;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.entities.ProductSales;
+import com.oceanbutterflyshop.backend.entities.Role;
+import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.DailySalesRollupRepository;
+import com.oceanbutterflyshop.backend.repositories.ImageRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.repositories.RoleRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Thống kê dashboard: tính bằng truy vấn tổng hợp phía DB và được dùng chung giữa các lời gọi trong TTL.
+ * Sản phẩm bán chạy: một truy vấn gồm số lượng đã bán và hình ảnh đầu tiên.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:dashboard;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "dashboard.stats-ttl-seconds=300"
+})
+@Import({DashboardServiceImpl.class, DashboardTrendServiceImpl.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardServiceImplTests {
+
+    @Autowired
+    private DashboardServiceImpl dashboardService;
+
+    @Autowired
+    private DashboardTrendServiceImpl dashboardTrendService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private User buyer;
+    private Product cleanser;
+    private Product toner;
+    private Product serum;
+
+    @BeforeEach
+    void setUp() {
+        Role customer = testData.saveRole("CUS");
+        Role admin = testData.saveRole("ADM");
+        buyer = testData.saveUser("KH1", "buyer", customer);
+        testData.saveUser("KH2", "other", customer);
+        testData.saveUser("QT1", "admin", admin);
+
+        Brand brand = testData.saveBrand("TH1", "Ocean");
+        cleanser = testData.saveProduct("SP1", "SP1", TestDataFactory.DEFAULT_PRICE, 5, brand);
+        toner = testData.saveProduct("SP2", "SP2", TestDataFactory.DEFAULT_PRICE, 9, brand);
+        serum = testData.saveProduct("SP3", "SP3", TestDataFactory.DEFAULT_PRICE, 50, brand);
+
+        LocalDate lastMonth = LocalDate.now().minusMonths(1).withDayOfMonth(15);
+        saveOrder("DH00000001", OrderStatus.DELIVERED, "100000", lastMonth);
+        saveOrder("DH00000002", OrderStatus.DELIVERED, "300000", LocalDate.now());
+        saveOrder("DH00000003", OrderStatus.NEW, "50000", LocalDate.now());
+        saveOrder("DH00000004", OrderStatus.CANCELLED, "70000", lastMonth);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dailySalesRollupRepository.deleteAll();
+        productSalesRepository.deleteAll();
+        imageRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void aggregatesInDatabaseAndSharesResultWithinTtl() throws Exception {
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DashboardStatsResponse>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return dashboardService.getDashboardStats();
+                }));
+            }
+            start.countDown();
+        }
+
+        DashboardStatsResponse stats = results.get(0).get();
+        for (Future<DashboardStatsResponse> result : results) {
+            assertThat(result.get()).isSameAs(stats);
+        }
+
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("400000");
+        assertThat(stats.getCustomersTrend())
+                .isEqualTo(dashboardTrendService.getMonthOverMonth(LocalDate.now()).getCustomersTrend());
+        assertThat(stats.getCustomersWeekTrend())
+                .isEqualTo(dashboardTrendService.getWeekOverWeek(LocalDate.now()).getCustomersTrend());
+        assertThat(stats.getTotalOrders()).isEqualTo(4);
+        assertThat(stats.getNewOrders()).isEqualTo(1);
+        assertThat(stats.getTotalCustomers()).isEqualTo(2);
+        assertThat(stats.getTotalProducts()).isEqualTo(3);
+        assertThat(stats.getLowStockProducts()).isEqualTo(2);
+
+        // Trong TTL: đơn hàng mới chưa được phản ánh, không truy vấn lại
+        saveOrder("DH00000005", OrderStatus.NEW, "20000", LocalDate.now());
+        assertThat(dashboardService.getDashboardStats()).isSameAs(stats);
+    }
+
+    @Test
+    void readsTopProductsWithSoldQuantityAndFirstImage() {
+        productSalesRepository.save(new ProductSales(cleanser.getProductId(), 5L, null));
+        productSalesRepository.save(new ProductSales(toner.getProductId(), 8L, null));
+        productSalesRepository.save(new ProductSales(serum.getProductId(), 0L, null));
+        saveImage(toner, "toner-front.jpg");
+        saveImage(toner, "toner-back.jpg");
+
+        List<TopProductResponse> allTime = dashboardService.getTopSellingProducts(5, null, null, null);
+        assertThat(allTime).extracting(TopProductResponse::getProductCode, TopProductResponse::getTotalSold,
+                        TopProductResponse::getImageUrl)
+                .containsExactly(
+                        tuple("SP2", 8, "toner-front.jpg"),
+                        tuple("SP1", 5, null));
+        assertThat(allTime.get(0).getProductPrice()).isEqualByComparingTo("100000");
+        assertThat(dashboardService.getTopSellingProducts(1, null, null, ProductCategory.SKINCARE))
+                .extracting(TopProductResponse::getProductCode).containsExactly("SP2");
+        assertThat(dashboardService.getTopSellingProducts(5, null, null, ProductCategory.MAKEUP)).isEmpty();
+
+        // Theo khoảng ngày: cộng các ngày trong khoảng, không tính đơn đã hủy
+        LocalDate day = LocalDate.of(2026, 3, 10);
+        saveRollupItem(day, OrderStatus.DELIVERED, serum, 2);
+        saveRollupItem(day.plusDays(1), OrderStatus.NEW, serum, 1);
+        saveRollupItem(day, OrderStatus.CANCELLED, toner, 9);
+        saveRollupItem(day, OrderStatus.DELIVERED, toner, 1);
+        saveRollupItem(day.plusDays(5), OrderStatus.DELIVERED, cleanser, 7);
+        assertThat(dashboardService.getTopSellingProducts(5, day, day.plusDays(1), null))
+                .extracting(TopProductResponse::getProductCode, TopProductResponse::getTotalSold,
+                        TopProductResponse::getImageUrl)
+                .containsExactly(
+                        tuple("SP3", 3, null),
+                        tuple("SP2", 1, "toner-front.jpg"));
+    }
+
+    private void saveImage(Product product, String url) {
+        Image image = new Image();
+        image.setImageName(url);
+        image.setImageURL(url);
+        image.setProduct(product);
+        imageRepository.save(image);
+    }
+
+    private void saveRollupItem(LocalDate date, OrderStatus status, Product product, long quantity) {
+        dailySalesRollupRepository.save(new DailySalesRollup(null, date, status, product.getProductId(),
+                product.getBrand().getBrandId(), product.getProductCategory().name(), 1L, quantity,
+                product.getProductPrice().multiply(BigDecimal.valueOf(quantity)), null));
+    }
+
+    private void saveOrder(String code, OrderStatus status, String amount, LocalDate orderDate) {
+        Order order = new Order();
+        order.setOrderCode(code);
+        order.setOrderDate(orderDate);
+        order.setOrderStatus(status);
+        order.setOrderAmount(new BigDecimal(amount));
+        order.setShippingAddress("Trà Vinh");
+        order.setShippingPhone("0900000000");
+        order.setUser(buyer);
+        orderRepository.save(order);
+    }
+}
@@ -0,0 +1,121 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.response.PeriodTrendResponse;
+import com.oceanbutterflyshop.backend.entities.DailySalesRollup;
+import com.oceanbutterflyshop.backend.entities.Role;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.repositories.DailySalesRollupRepository;
+import com.oceanbutterflyshop.backend.repositories.RoleRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Xu hướng theo kỳ: so sánh cùng số ngày đầu kỳ từ bảng doanh số theo ngày,
+ * số liệu kỳ trước được giữ đến khi sang kỳ mới.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:dashboard-trends;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({DashboardTrendServiceImpl.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardTrendServiceImplTests {
+
+    // Thứ Ba: tuần này bắt đầu 30/3, tháng trước (tháng 2) chỉ có 28 ngày
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 31);
+
+    @Autowired
+    private DashboardTrendServiceImpl dashboardTrendService;
+
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @AfterEach
+    void tearDown() {
+        dailySalesRollupRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void comparesSameNumberOfDaysOfPreviousPeriod() {
+        LocalDate february = LocalDate.of(2026, 2, 10);
+        saveOrderTotal(february, OrderStatus.DELIVERED, 2, "200000");
+        saveItem(february, OrderStatus.DELIVERED, 1, 2);
+        saveOrderTotal(february, OrderStatus.CANCELLED, 1, "50000");
+        saveItem(february, OrderStatus.CANCELLED, 3, 1);
+
+        LocalDate march = LocalDate.of(2026, 3, 5);
+        saveOrderTotal(march, OrderStatus.DELIVERED, 3, "300000");
+        saveItem(march, OrderStatus.DELIVERED, 1, 1);
+        saveItem(march, OrderStatus.DELIVERED, 2, 2);
+        saveOrderTotal(LocalDate.of(2026, 3, 24), OrderStatus.NEW, 2, "20000");
+        saveOrderTotal(TODAY, OrderStatus.NEW, 1, "10000");
+        saveItem(TODAY, OrderStatus.NEW, 2, 1);
+
+        PeriodTrendResponse monthly = dashboardTrendService.getMonthOverMonth(TODAY);
+        assertThat(monthly.getPreviousPeriodStart()).isEqualTo(LocalDate.of(2026, 2, 1));
+        assertThat(monthly.getComparedDays()).isEqualTo(28);
+        assertThat(monthly.getRevenueTrend()).isEqualTo(50.0);
+        assertThat(monthly.getOrdersTrend()).isEqualTo(100.0);
+        // Sản phẩm có bán: {1, 2} so với {1} (sản phẩm 3 chỉ có trong đơn đã hủy)
+        assertThat(monthly.getProductsTrend()).isEqualTo(100.0);
+
+        PeriodTrendResponse weekly = dashboardTrendService.getWeekOverWeek(TODAY);
+        assertThat(weekly.getCurrentPeriodStart()).isEqualTo(LocalDate.of(2026, 3, 30));
+        assertThat(weekly.getComparedDays()).isEqualTo(2);
+        assertThat(weekly.getOrdersTrend()).isEqualTo(-50.0);
+        assertThat(weekly.getRevenueTrend()).isEqualTo(0.0);
+
+        // Kỳ trước được giữ đến khi sang kỳ mới
+        saveOrderTotal(february.plusDays(1), OrderStatus.DELIVERED, 1, "100000");
+        assertThat(dashboardTrendService.getMonthOverMonth(TODAY).getRevenueTrend()).isEqualTo(50.0);
+        PeriodTrendResponse april = dashboardTrendService.getMonthOverMonth(LocalDate.of(2026, 4, 30));
+        assertThat(april.getPreviousPeriodStart()).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(april.getRevenueTrend()).isEqualTo(-100.0);
+    }
+
+    @Test
+    void countsNewCustomersOnly() {
+        Role customer = testData.saveRole("CUS");
+        Role staff = testData.saveRole("STF");
+        testData.saveUser("KH1", "KH1", customer);
+        testData.saveUser("KH2", "KH2", customer);
+        testData.saveUser("NV1", "NV1", staff);
+
+        LocalDate today = LocalDate.now();
+        assertThat(dashboardTrendService.getMonthOverMonth(today).getCustomersTrend()).isEqualTo(100.0);
+        assertThat(dashboardTrendService.getWeekOverWeek(today).getCustomersTrend()).isEqualTo(100.0);
+        assertThat(dashboardTrendService.getWeekOverWeek(today.plusWeeks(1)).getCustomersTrend()).isEqualTo(-100.0);
+    }
+
+    private void saveOrderTotal(LocalDate date, OrderStatus status, long orderCount, String amount) {
+        dailySalesRollupRepository.save(new DailySalesRollup(null, date, status,
+                DailySalesRollup.ORDER_TOTAL_PRODUCT_ID, DailySalesRollup.ORDER_TOTAL_BRAND_ID,
+                DailySalesRollup.ORDER_TOTAL_CATEGORY, orderCount, 0L, new BigDecimal(amount), null));
+    }
+
+    private void saveItem(LocalDate date, OrderStatus status, int productId, long quantity) {
+        dailySalesRollupRepository.save(new DailySalesRollup(null, date, status, productId, 1, "SKINCARE",
+                1L, quantity, BigDecimal.valueOf(100000 * quantity), null));
+    }
+}
@@ -0,0 +1,174 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbutterflyshop.backend.config.CacheConfig;
+import com.oceanbutterflyshop.backend.config.WebConfig;
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.IdempotencyRecordRepository;
+import com.oceanbutterflyshop.backend.services.IdempotencyService;
+import com.oceanbutterflyshop.backend.utils.BoundedTtlCache;
+
+/**
+ * Gửi lại cùng Idempotency-Key (tuần tự hoặc đồng thời, một hay nhiều node) chỉ tạo đúng một đơn hàng.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({IdempotencyServiceImpl.class, CacheConfig.class, WebConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceImplTests {
+
+    private static final int DUPLICATES = 10;
+
+    @Autowired
+    private IdempotencyServiceImpl idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnceInMemory() throws InterruptedException {
+        List<IdempotencyService> nodes = List.of(idempotencyService);
+
+        ConcurrentLinkedQueue<IdempotencyService.Result> results = runDuplicates(nodes, "key-memory");
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(results).hasSize(DUPLICATES);
+        assertThat(results).extracting(result -> result.response().getOrderCode()).containsOnly("DH00000001");
+        assertThat(results).filteredOn(result -> !result.replayed()).hasSize(1);
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnceAcrossNodes() throws InterruptedException {
+        List<IdempotencyService> nodes = List.of(newNode(), newNode());
+
+        ConcurrentLinkedQueue<IdempotencyService.Result> results = runDuplicates(nodes, "key-cluster");
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(results).hasSize(DUPLICATES);
+        assertThat(results).extracting(result -> result.response().getOrderCode()).containsOnly("DH00000001");
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void reusingKeyForDifferentRequestIsRejected() {
+        idempotencyService.execute("key-reuse", "buyer", orderRequest("100000"), this::createOrder);
+
+        assertThatThrownBy(() ->
+                idempotencyService.execute("key-reuse", "buyer", orderRequest("200000"), this::createOrder))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRequestCanBeRetried() {
+        IdempotencyService node = newNode();
+        Supplier<OrderResponse> failing = () -> {
+            executions.incrementAndGet();
+            throw new BadRequestException("Insufficient stock");
+        };
+
+        assertThatThrownBy(() -> node.execute("key-retry", "buyer", orderRequest("100000"), failing))
+                .isInstanceOf(BadRequestException.class);
+        IdempotencyService.Result retried = node.execute("key-retry", "buyer", orderRequest("100000"), this::createOrder);
+
+        assertThat(retried.replayed()).isFalse();
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    private ConcurrentLinkedQueue<IdempotencyService.Result> runDuplicates(List<IdempotencyService> nodes, String key)
+            throws InterruptedException {
+        ConcurrentLinkedQueue<IdempotencyService.Result> results = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        for (int i = 0; i < DUPLICATES; i++) {
+            IdempotencyService node = nodes.get(i % nodes.size());
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    results.add(node.execute(key, "buyer", orderRequest("100000"), this::createOrder));
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        assertThat(failures).isEmpty();
+        return results;
+    }
+
+    private OrderResponse createOrder() {
+        int execution = executions.incrementAndGet();
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        OrderResponse response = new OrderResponse();
+        response.setOrderId(execution);
+        response.setOrderCode(String.format("DH%08d", execution));
+        return response;
+    }
+
+    private IdempotencyServiceImpl newNode() {
+        BoundedTtlCache<String, IdempotencyService.CompletedRequest> cache =
+                new BoundedTtlCache<>("idempotency", 1024 * 1024, Duration.ofHours(1), completed -> 1024);
+        IdempotencyServiceImpl node = new IdempotencyServiceImpl(
+                idempotencyRecordRepository, cache, objectMapper, transactionManager);
+        ReflectionTestUtils.setField(node, "store", "database");
+        ReflectionTestUtils.setField(node, "ttlHours", 24L);
+        ReflectionTestUtils.setField(node, "waitTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(node, "lockTimeoutSeconds", 120L);
+        return node;
+    }
+
+    private static OrderRequest orderRequest(String amount) {
+        OrderRequest request = new OrderRequest();
+        request.setOrderStatus("NEW");
+        request.setOrderAmount(new BigDecimal(amount));
+        request.setShippingAddress("123 Le Loi");
+        request.setShippingPhone("0912345678");
+        return request;
+    }
+}
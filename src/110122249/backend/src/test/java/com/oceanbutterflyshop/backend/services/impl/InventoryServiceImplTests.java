@@ -0,0 +1,146 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.exceptions.InsufficientStockException;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.InventoryJournalRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Chế độ tồn kho trong bộ nhớ: giữ hàng đồng thời không bán vượt, rollback trả lại hàng,
+ * nhật ký được gộp đúng vào products.quantity_stock.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:inventory;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "inventory.mode=memory",
+    "inventory.stripes=4"
+})
+@Import({InventoryServiceImpl.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceImplTests {
+
+    private static final int INITIAL_STOCK = 10;
+    private static final int BUYERS = 40;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private InventoryJournalRepository inventoryJournalRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private Integer productId;
+
+    @BeforeEach
+    void setUp() {
+        Brand brand = testData.saveBrand("TH1", "Brand");
+        productId = testData.saveProduct("SP1", "Hot item", BigDecimal.valueOf(150000), INITIAL_STOCK, brand)
+                .getProductId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryJournalRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversellAndFlushToProducts() throws InterruptedException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        for (int i = 0; i < BUYERS; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status -> inventoryService.reserve(Map.of(productId, 1)));
+                    succeeded.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(rejected.get()).isEqualTo(BUYERS - INITIAL_STOCK);
+        assertThat(inventoryService.getInventory(productId).getAvailableStock()).isZero();
+        // Chưa gộp: products vẫn giữ giá trị cũ, phần chênh nằm trong nhật ký
+        assertThat(inventoryService.getInventory(productId).getPendingDelta()).isEqualTo(-INITIAL_STOCK);
+
+        assertThat(inventoryService.flush()).isEqualTo(INITIAL_STOCK);
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantityStock()).isZero();
+        assertThat(inventoryJournalRepository.count()).isZero();
+    }
+
+    @Test
+    void rolledBackReservationReturnsStock() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.reserve(Map.of(productId, 4));
+            status.setRollbackOnly();
+        });
+
+        assertThat(inventoryService.getInventory(productId).getAvailableStock()).isEqualTo(INITIAL_STOCK);
+        assertThat(inventoryJournalRepository.count()).isZero();
+    }
+
+    @Test
+    void adjustmentsCannotMakeStockNegative() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> inventoryService.adjustStock(productId, 5));
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+                status -> inventoryService.adjustStock(productId, -(INITIAL_STOCK + 6))))
+                .isInstanceOf(InsufficientStockException.class);
+        transactionTemplate.executeWithoutResult(status -> inventoryService.adjustStock(productId, -3));
+
+        assertThat(inventoryService.getInventory(productId).getAvailableStock()).isEqualTo(INITIAL_STOCK + 2);
+        inventoryService.flush();
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantityStock()).isEqualTo(INITIAL_STOCK + 2);
+    }
+}
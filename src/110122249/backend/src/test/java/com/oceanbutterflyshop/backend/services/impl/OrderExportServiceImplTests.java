@@ -0,0 +1,142 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbutterflyshop.backend.config.WebConfig;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Order;
+import com.oceanbutterflyshop.backend.entities.OrderItem;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.enums.ExportFormat;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderItemRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Xuất đơn hàng: mỗi mục đơn hàng một dòng, lọc theo ngày/trạng thái, ô CSV được thoát đúng.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:order-export;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({OrderExportServiceImpl.class, WebConfig.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExportServiceImplTests {
+
+    @Autowired
+    private OrderExportServiceImpl orderExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @BeforeEach
+    void setUp() {
+        Brand brand = testData.saveBrand("TH1", "Brand");
+        Product product = testData.saveProduct("SP1", "Serum, 30ml \"mini\"", BigDecimal.valueOf(150000), 10, brand);
+        User user = testData.saveUser("KH1", "buyer", null);
+
+        Order delivered = saveOrder("DH1", LocalDate.of(2026, 3, 5), OrderStatus.DELIVERED, user);
+        saveItem(delivered, product, 2);
+        saveItem(delivered, product, 1);
+        saveOrder("DH2", LocalDate.of(2026, 3, 20), OrderStatus.NEW, user);
+        saveOrder("DH3", LocalDate.of(2026, 4, 1), OrderStatus.DELIVERED, user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void exportsOneCsvRowPerItemWithinRange() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        orderExportService.exportOrders(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), null,
+                ExportFormat.CSV, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("order_id,order_code,order_date");
+        assertThat(lines.get(1)).contains(",DH1,2026-03-05,DELIVERED,")
+                .contains(",SP1,\"Serum, 30ml \"\"mini\"\"\",2,");
+        // Đơn không có mục vẫn có một dòng, các cột mục để trống
+        assertThat(lines.get(3)).contains(",DH2,").endsWith(",,,,,");
+    }
+
+    @Test
+    void exportsNdjsonFilteredByStatus() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        orderExportService.exportOrders(null, null, OrderStatus.DELIVERED, ExportFormat.NDJSON, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("order_code").asText()).isEqualTo("DH1");
+        assertThat(first.get("item_quantity").asInt()).isEqualTo(2);
+        assertThat(first.get("order_date").asText()).isEqualTo("2026-03-05");
+        assertThat(objectMapper.readTree(lines.get(2)).get("product_code").isNull()).isTrue();
+    }
+
+    private Order saveOrder(String orderCode, LocalDate orderDate, OrderStatus status, User user) {
+        Order order = new Order();
+        order.setOrderCode(orderCode);
+        order.setOrderDate(orderDate);
+        order.setOrderStatus(status);
+        order.setOrderAmount(BigDecimal.valueOf(450000));
+        order.setShippingAddress("Trà Vinh");
+        order.setShippingPhone("0900000000");
+        order.setUser(user);
+        return orderRepository.save(order);
+    }
+
+    private void saveItem(Order order, Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setItemQuantity(quantity);
+        item.setItemPrice(BigDecimal.valueOf(150000));
+        item.setUnitPrice(150000.0);
+        orderItemRepository.save(item);
+    }
+}
@@ -0,0 +1,180 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.request.OrderItemRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderIntakeResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderIntakeStatsResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.ProductSales;
+import com.oceanbutterflyshop.backend.exceptions.AccessDeniedException;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderItemRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderViewRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Đặt hàng bất đồng bộ: các đơn được xử lý theo lô, lô có đơn thiếu hàng được xử lý lại từng đơn
+ * nên chỉ các đơn vượt tồn kho bị từ chối. Worker được khởi động bởi ApplicationReadyEvent của context test.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:order-intake;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+    "order-intake.enabled=true",
+    "order-intake.workers=2",
+    "order-intake.batch-size=8"
+})
+@Import({OrderIntakeServiceImpl.class, OrderServiceTestConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIntakeServiceImplTests {
+
+    private static final int INITIAL_STOCK = 15;
+    private static final int ORDERS = 20;
+
+    @Autowired
+    private OrderIntakeServiceImpl orderIntakeService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private Integer productId;
+
+    @BeforeEach
+    void setUp() {
+        Brand brand = testData.saveBrand("TH1", "Brand");
+        productId = testData.saveProduct("SP1", "Flash sale", BigDecimal.valueOf(150000), INITIAL_STOCK, brand)
+                .getProductId();
+        productSalesRepository.save(new ProductSales(productId, 0L, null));
+
+        for (String account : List.of("buyer", "other")) {
+            testData.saveUser("KH" + account, account, null);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAll();
+        orderViewRepository.deleteAll();
+        orderRepository.deleteAll();
+        productSalesRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void queuedOrdersNeverOversell() throws Exception {
+        List<OrderIntakeResponse> accepted = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            accepted.add(orderIntakeService.submit(singleUnitOrder(), "buyer"));
+        }
+        List<OrderIntakeResponse> results = new ArrayList<>();
+        for (OrderIntakeResponse intake : accepted) {
+            assertThat(intake.getStatus()).isEqualTo("QUEUED");
+            CompletableFuture<OrderIntakeResponse> result = orderIntakeService.awaitResult(intake.getTrackingId(), "buyer");
+            results.add(result.get(30, TimeUnit.SECONDS));
+        }
+
+        assertThat(results).filteredOn(result -> "COMPLETED".equals(result.getStatus())).hasSize(INITIAL_STOCK);
+        assertThat(results).filteredOn(result -> "FAILED".equals(result.getStatus()))
+                .hasSize(ORDERS - INITIAL_STOCK)
+                .allMatch(result -> result.getErrorMessage().startsWith("Insufficient stock"));
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantityStock()).isZero();
+        assertThat(orderRepository.count()).isEqualTo(INITIAL_STOCK);
+        assertThat(productSalesRepository.findById(productId).orElseThrow().getSoldQuantity())
+                .isEqualTo(INITIAL_STOCK);
+
+        OrderIntakeStatsResponse stats = orderIntakeService.getStats();
+        assertThat(stats.getAccepted()).isEqualTo(ORDERS);
+        assertThat(stats.getCompleted()).isEqualTo(INITIAL_STOCK);
+        assertThat(stats.getQueueDepth()).isZero();
+
+        // Chỉ người gửi được xem kết quả
+        assertThatThrownBy(() -> orderIntakeService.getStatus(accepted.get(0).getTrackingId(), "other"))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void batchDecrementsStockOnceOrRollsBackEntirely() {
+        List<OrderRequest> fitting = new ArrayList<>();
+        for (int i = 0; i < INITIAL_STOCK; i++) {
+            fitting.add(singleUnitOrder());
+        }
+        List<OrderRequest> overflowing = new ArrayList<>(fitting);
+        overflowing.add(singleUnitOrder());
+
+        assertThatThrownBy(() -> orderService.createOrders(overflowing, Collections.nCopies(overflowing.size(), "buyer")))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantityStock()).isEqualTo(INITIAL_STOCK);
+        assertThat(orderRepository.count()).isZero();
+
+        List<OrderResponse> created = orderService.createOrders(fitting, Collections.nCopies(fitting.size(), "buyer"));
+        assertThat(created).hasSize(INITIAL_STOCK).allMatch(order -> order.getOrderItems().size() == 1);
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantityStock()).isZero();
+        assertThat(productSalesRepository.findById(productId).orElseThrow().getSoldQuantity())
+                .isEqualTo(INITIAL_STOCK);
+    }
+
+    private OrderRequest singleUnitOrder() {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setItemQuantity(1);
+        item.setItemPrice(BigDecimal.valueOf(150000));
+        item.setUnitPrice(150000.0);
+
+        OrderRequest request = new OrderRequest();
+        request.setOrderStatus("NEW");
+        request.setOrderAmount(BigDecimal.valueOf(150000));
+        request.setShippingAddress("Trà Vinh");
+        request.setShippingPhone("0900000000");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
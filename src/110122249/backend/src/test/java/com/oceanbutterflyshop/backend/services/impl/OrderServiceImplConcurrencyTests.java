@@ -0,0 +1,152 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.request.OrderItemRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.ProductSales;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderItemRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderViewRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Nhiều khách hàng cùng mua những đơn vị cuối cùng của một sản phẩm:
+ * không được bán vượt tồn kho và không được mất cập nhật.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:order-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(OrderServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceImplConcurrencyTests {
+
+    private static final int INITIAL_STOCK = 5;
+    private static final int BUYERS = 20;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private Integer productId;
+
+    @BeforeEach
+    void setUp() {
+        Brand brand = testData.saveBrand("TH1", "Brand");
+        productId = testData.saveProduct("SP1", "Last units", BigDecimal.valueOf(150000), INITIAL_STOCK, brand)
+                .getProductId();
+        productSalesRepository.save(new ProductSales(productId, 0L, null));
+
+        for (int i = 0; i < BUYERS; i++) {
+            testData.saveUser("KH" + i, "buyer" + i, null);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAll();
+        orderViewRepository.deleteAll();
+        orderRepository.deleteAll();
+        productSalesRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws InterruptedException {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        for (int i = 0; i < BUYERS; i++) {
+            String username = "buyer" + i;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    orderService.createOrder(singleUnitOrder(), username);
+                    succeeded.incrementAndGet();
+                } catch (BadRequestException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(rejected.get()).isEqualTo(BUYERS - INITIAL_STOCK);
+        assertThat(productRepository.findById(productId).orElseThrow().getQuantityStock()).isZero();
+        assertThat(orderRepository.count()).isEqualTo(INITIAL_STOCK);
+        assertThat(orderItemRepository.count()).isEqualTo(INITIAL_STOCK);
+        assertThat(productSalesRepository.findById(productId).orElseThrow().getSoldQuantity())
+                .isEqualTo(INITIAL_STOCK);
+    }
+
+    private OrderRequest singleUnitOrder() {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setItemQuantity(1);
+        item.setItemPrice(BigDecimal.valueOf(150000));
+        item.setUnitPrice(150000.0);
+
+        OrderRequest request = new OrderRequest();
+        request.setOrderStatus("NEW");
+        request.setOrderAmount(BigDecimal.valueOf(150000));
+        request.setShippingAddress("Trà Vinh");
+        request.setShippingPhone("0900000000");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
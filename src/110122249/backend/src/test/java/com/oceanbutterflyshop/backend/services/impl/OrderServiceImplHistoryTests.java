@@ -0,0 +1,154 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.response.OrderSummaryResponse;
+import com.oceanbutterflyshop.backend.entities.Order;
+import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.exceptions.AccessDeniedException;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderViewRepository;
+import com.oceanbutterflyshop.backend.repositories.RoleRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
+
+/**
+ * Lịch sử đơn hàng phân trang: chế độ con trỏ đi qua mọi đơn đúng một lần theo (ngày, ID) giảm dần,
+ * khớp với chế độ OFFSET; khách hàng không xem được lịch sử của người khác, admin/staff xem được.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:order-history;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(OrderServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceImplHistoryTests {
+
+    private static final int ORDERS = 25;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private User buyer;
+    private List<Integer> expectedIds;
+
+    @BeforeEach
+    void setUp() {
+        buyer = testData.saveUser("KH1", "buyer", null);
+        testData.saveUser("KH2", "other", null);
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setOrderCode("DH" + i);
+            // Nhiều đơn cùng ngày để kiểm tra phần so sánh theo ID
+            order.setOrderDate(LocalDate.of(2026, 1, 1).plusDays(i / 3));
+            order.setOrderStatus(i % 2 == 0 ? OrderStatus.NEW : OrderStatus.PROCESSING);
+            order.setOrderAmount(BigDecimal.valueOf(150000));
+            order.setShippingAddress("Trà Vinh");
+            order.setShippingPhone("0900000000");
+            order.setUser(buyer);
+            orders.add(orderRepository.save(order));
+        }
+        expectedIds = orders.stream()
+                .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getOrderId).reversed())
+                .map(Order::getOrderId)
+                .toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderViewRepository.deleteAll();
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void cursorPagesMatchOffsetPages() {
+        List<Integer> scrolled = new ArrayList<>();
+        String cursor = "";
+        do {
+            Window<OrderSummaryResponse> window = orderService.getOrderHistoryByCursor(buyer.getUserId(), cursor, 10, "buyer");
+            window.forEach(summary -> scrolled.add(summary.getOrderId()));
+            cursor = CursorUtils.encode(window);
+        } while (cursor != null);
+        assertThat(scrolled).isEqualTo(expectedIds);
+
+        Page<OrderSummaryResponse> lastPage = orderService.getOrderHistory(buyer.getUserId(), 2, 10, "buyer");
+        assertThat(lastPage.getTotalElements()).isEqualTo(ORDERS);
+        assertThat(lastPage.getContent()).extracting(OrderSummaryResponse::getOrderId)
+                .isEqualTo(expectedIds.subList(20, ORDERS));
+        assertThat(lastPage.getContent().get(0).getCustomerName()).isEqualTo("buyer");
+    }
+
+    @Test
+    void statusQueueAndOwnershipCheck() {
+        Window<OrderSummaryResponse> window = orderService.getOrderSummariesByStatusByCursor("new", "", 100);
+        assertThat(window.getContent()).hasSize(13).allMatch(summary -> "NEW".equals(summary.getOrderStatus()));
+        assertThat(window.hasNext()).isFalse();
+
+        assertThatThrownBy(() -> orderService.getOrderHistory(buyer.getUserId(), 0, 10, "other"))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void rejectsOutOfRangePageSizeInEveryMode() {
+        for (int size : new int[] {0, -1, CursorUtils.MAX_PAGE_SIZE + 1}) {
+            assertThatThrownBy(() -> orderService.getOrderHistory(buyer.getUserId(), 0, size, "buyer"))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> orderService.getOrderHistoryByCursor(buyer.getUserId(), "", size, "buyer"))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> orderService.getAllOrdersByCursor("", size, Sort.by("orderId")))
+                    .isInstanceOf(BadRequestException.class);
+        }
+        assertThat(orderService.getAllOrdersByCursor("", CursorUtils.MAX_PAGE_SIZE, Sort.by("orderId")).getContent())
+                .hasSize(ORDERS);
+    }
+
+    @Test
+    void adminAndStaffCanViewOtherUsersHistory() {
+        testData.saveUser("QT1", "admin", testData.saveRole("ADM"));
+        testData.saveUser("NV1", "staff", testData.saveRole("STF"));
+
+        assertThat(orderService.getOrderHistory(buyer.getUserId(), 0, 10, "admin").getTotalElements())
+                .isEqualTo(ORDERS);
+        assertThat(orderService.getOrderHistoryByCursor(buyer.getUserId(), "", 10, "staff").getContent())
+                .extracting(OrderSummaryResponse::getOrderId)
+                .isEqualTo(expectedIds.subList(0, 10));
+    }
+}
@@ -0,0 +1,108 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.request.OrderStatusBatchRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderStatusBatchResponse;
+import com.oceanbutterflyshop.backend.dtos.response.OrderStatusChangeResponse;
+import com.oceanbutterflyshop.backend.entities.Order;
+import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderViewRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Chuyển trạng thái hàng loạt: đơn hợp lệ được cập nhật bằng UPDATE theo tập hợp,
+ * đơn không hợp lệ được báo riêng trong kết quả.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:order-status-batch;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(OrderServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceImplStatusBatchTests {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = testData.saveUser("KH1", "buyer", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderViewRepository.deleteAll();
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void movesValidOrdersAndReportsTheRest() {
+        Order processing = saveOrder("DH1", OrderStatus.PROCESSING);
+        Order shipping = saveOrder("DH2", OrderStatus.SHIPPING);
+        Order delivered = saveOrder("DH3", OrderStatus.DELIVERED);
+        Order cancelled = saveOrder("DH4", OrderStatus.CANCELLED);
+
+        OrderStatusBatchRequest request = new OrderStatusBatchRequest();
+        request.setOrderIds(List.of(processing.getOrderId(), cancelled.getOrderId(), processing.getOrderId(), -1));
+        request.setOrderCodes(List.of("DH2", "DH3", "DH404"));
+        request.setStatus("DELIVERED");
+
+        OrderStatusBatchResponse response = orderService.updateOrderStatuses(request);
+
+        assertThat(response.getUpdated()).isEqualTo(2);
+        assertThat(response.getUnchanged()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(OrderStatusChangeResponse::getOutcome)
+                .containsExactly("UPDATED", "REJECTED", "NOT_FOUND", "UPDATED", "UNCHANGED", "NOT_FOUND");
+
+        Order reloaded = orderRepository.findById(processing.getOrderId()).orElseThrow();
+        assertThat(reloaded.getOrderStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(reloaded.getPaymentDate()).isEqualTo(LocalDate.now());
+        assertThat(orderRepository.findById(shipping.getOrderId()).orElseThrow().getOrderStatus())
+                .isEqualTo(OrderStatus.DELIVERED);
+        assertThat(orderRepository.findById(cancelled.getOrderId()).orElseThrow().getOrderStatus())
+                .isEqualTo(OrderStatus.CANCELLED);
+        assertThat(orderRepository.findById(delivered.getOrderId()).orElseThrow().getPaymentDate()).isNull();
+    }
+
+    private Order saveOrder(String orderCode, OrderStatus status) {
+        Order order = new Order();
+        order.setOrderCode(orderCode);
+        order.setOrderDate(LocalDate.now());
+        order.setOrderStatus(status);
+        order.setOrderAmount(BigDecimal.valueOf(150000));
+        order.setShippingAddress("Trà Vinh");
+        order.setShippingPhone("0900000000");
+        order.setUser(user);
+        return orderRepository.save(order);
+    }
+}
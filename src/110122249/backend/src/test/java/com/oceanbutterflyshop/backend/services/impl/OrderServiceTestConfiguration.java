@@ -0,0 +1,19 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+import com.oceanbutterflyshop.backend.config.WebConfig;
+import com.oceanbutterflyshop.backend.mappers.OrderMapper;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Các bean cần cho {@link OrderServiceImpl} trong test {@code @DataJpaTest}: dịch vụ được gọi khi tạo/đổi
+ * trạng thái/xóa đơn hàng (cấp mã, tồn kho, xếp hạng, mô hình đọc, doanh số theo ngày) và dữ liệu mẫu.
+ */
+@TestConfiguration
+@Import({OrderServiceImpl.class, OrderMapper.class, CodeAllocatorServiceImpl.class, ProductRankingServiceImpl.class,
+        InventoryServiceImpl.class, OrderViewServiceImpl.class, CartPricingServiceImpl.class,
+        DailySalesRollupServiceImpl.class, WebConfig.class, TestDataFactory.class})
+class OrderServiceTestConfiguration {
+}
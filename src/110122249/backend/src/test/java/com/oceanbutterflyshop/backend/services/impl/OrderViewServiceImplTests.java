@@ -0,0 +1,200 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.request.OrderItemRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderRequest;
+import com.oceanbutterflyshop.backend.dtos.request.OrderStatusBatchRequest;
+import com.oceanbutterflyshop.backend.dtos.response.OrderResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Order;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.entities.Role;
+import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.exceptions.AccessDeniedException;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderItemRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderViewRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.repositories.RoleRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Mô hình đọc của đơn hàng: giữ snapshot sản phẩm tại thời điểm mua, theo kịp thay đổi trạng thái/thanh toán
+ * (từng đơn và hàng loạt), và được tạo bù cho đơn hàng cũ.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:order-views;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(OrderServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderViewServiceImplTests {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderViewServiceImpl orderViewService;
+
+    @Autowired
+    private OrderViewRepository orderViewRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        Role customer = testData.saveRole("CUS");
+        testData.saveUser("KH1", "buyer", customer);
+        testData.saveUser("KH2", "other", customer);
+
+        Brand brand = testData.saveBrand("TH1", "Ocean");
+        product = testData.saveProduct("SP1", "Serum", BigDecimal.valueOf(150000), 10, brand);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAll();
+        orderViewRepository.deleteAll();
+        orderRepository.deleteAll();
+        productSalesRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void keepsProductSnapshotAndFollowsStatusChanges() {
+        OrderResponse created = orderService.createOrder(orderOf(2), "buyer");
+        assertThat(orderViewRepository.count()).isEqualTo(1);
+
+        // Sản phẩm bị đổi tên sau khi mua: đơn hàng vẫn hiển thị tên lúc mua
+        product.setProductName("Serum v2");
+        productRepository.save(product);
+
+        orderService.updateOrderStatus(created.getOrderId(), "PROCESSING");
+        OrderResponse view = orderService.getOrderByCode(created.getOrderCode(), "buyer");
+        assertThat(view.getOrderStatus()).isEqualTo("PROCESSING");
+        assertThat(view.getOrderItems()).singleElement().satisfies(item -> {
+            assertThat(item.getProductName()).isEqualTo("Serum");
+            assertThat(item.getProductCode()).isEqualTo("SP1");
+            assertThat(item.getBrandName()).isEqualTo("Ocean");
+            assertThat(item.getItemQuantity()).isEqualTo(2);
+        });
+
+        OrderStatusBatchRequest batch = new OrderStatusBatchRequest();
+        batch.setOrderIds(List.of(created.getOrderId()));
+        batch.setStatus("DELIVERED");
+        orderService.updateOrderStatuses(batch);
+
+        OrderResponse delivered = orderService.getOrderById(created.getOrderId(), "buyer");
+        assertThat(delivered.getOrderStatus()).isEqualTo("DELIVERED");
+        assertThat(delivered.getPaymentDate()).isEqualTo(LocalDate.now());
+        assertThat(orderService.getOrdersByUserId(created.getUserId()))
+                .singleElement()
+                .satisfies(order -> assertThat(order.getOrderStatus()).isEqualTo("DELIVERED"));
+
+        assertThatThrownBy(() -> orderService.getOrderById(created.getOrderId(), "other"))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void showsCurrentCustomerContactInsteadOfStoredOne() {
+        OrderResponse created = orderService.createOrder(orderOf(1), "buyer");
+        assertThat(created.getUserName()).isEqualTo("buyer");
+
+        // Khách hàng đổi tên/số điện thoại sau khi mua: tài liệu JSON không bị ghi lại
+        User buyer = userRepository.findByUserAccount("buyer").orElseThrow();
+        buyer.setUserName("Nguyễn Văn A");
+        buyer.setUserPhone("0911111111");
+        userRepository.save(buyer);
+
+        assertThat(orderViewService.findById(created.getOrderId())).hasValueSatisfying(view -> {
+            assertThat(view.getUserName()).isEqualTo("Nguyễn Văn A");
+            assertThat(view.getUserPhone()).isEqualTo("0911111111");
+        });
+        assertThat(orderService.getOrderByCode(created.getOrderCode(), "buyer").getUserName())
+                .isEqualTo("Nguyễn Văn A");
+        assertThat(orderService.getOrdersByUserId(buyer.getUserId()))
+                .singleElement()
+                .satisfies(order -> assertThat(order.getUserPhone()).isEqualTo("0911111111"));
+    }
+
+    @Test
+    void backfillCreatesViewsForExistingOrders() {
+        User buyer = userRepository.findByUserAccount("buyer").orElseThrow();
+        Order order = new Order();
+        order.setOrderCode("DH00000001");
+        order.setOrderDate(LocalDate.now());
+        order.setOrderStatus(OrderStatus.NEW);
+        order.setOrderAmount(BigDecimal.valueOf(150000));
+        order.setShippingAddress("Trà Vinh");
+        order.setShippingPhone("0900000000");
+        order.setUser(buyer);
+        Integer orderId = orderRepository.save(order).getOrderId();
+
+        // Chưa có mô hình đọc: vẫn đọc được từ entity
+        assertThat(orderService.getOrderById(orderId, "buyer").getOrderCode()).isEqualTo("DH00000001");
+
+        assertThat(orderViewService.backfill()).isEqualTo(1);
+        assertThat(orderViewService.backfill()).isZero();
+        assertThat(orderViewService.findById(orderId))
+                .hasValueSatisfying(view -> assertThat(view.getUserId()).isEqualTo(buyer.getUserId()));
+    }
+
+    private OrderRequest orderOf(int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(product.getProductId());
+        item.setItemQuantity(quantity);
+        item.setItemPrice(BigDecimal.valueOf(150000));
+        item.setUnitPrice(150000.0);
+
+        OrderRequest request = new OrderRequest();
+        request.setOrderStatus("NEW");
+        request.setOrderAmount(BigDecimal.valueOf(150000L * quantity));
+        request.setShippingAddress("Trà Vinh");
+        request.setShippingPhone("0900000000");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
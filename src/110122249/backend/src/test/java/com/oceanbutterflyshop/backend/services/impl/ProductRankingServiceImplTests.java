@@ -0,0 +1,130 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.entities.ProductSales;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Bộ đếm bán chạy: upsert cho sản phẩm mới, bộ đếm tạo sau commit được ghi thật,
+ * top-K dừng ở sản phẩm chưa bán được, thay đổi trong lúc nạp lại không bị ghi đè bởi dữ liệu cũ.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:product-ranking;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({ProductRankingServiceImpl.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRankingServiceImplTests {
+
+    private static final int SALES = 4;
+
+    @Autowired
+    private ProductRankingServiceImpl productRankingService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @AfterEach
+    void tearDown() {
+        productSalesRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void upsertsCounterOfNewProduct() {
+        Integer productId = testData.saveProduct("SP1", null).getProductId();
+
+        // Chưa có bộ đếm: câu upsert tạo mới (không nhận giá trị âm), các lần sau cộng dồn
+        productRankingService.adjustSoldQuantities(Map.of(productId, -1));
+        assertThat(productSalesRepository.findById(productId))
+                .get().extracting(ProductSales::getSoldQuantity).isEqualTo(0L);
+        for (int i = 0; i < SALES; i++) {
+            productRankingService.adjustSoldQuantities(Map.of(productId, 2));
+        }
+        productRankingService.adjustSoldQuantities(Map.of(productId, -3));
+        assertThat(productSalesRepository.findById(productId))
+                .get().extracting(ProductSales::getSoldQuantity).isEqualTo(2L * SALES - 3);
+    }
+
+    @Test
+    void persistsCounterCreatedAfterCommit() {
+        Integer productId = testData.saveProduct("SP1", null).getProductId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> eventPublisher.publishEvent(ProductChangedEvent.of(productId)));
+
+        assertThat(productSalesRepository.findById(productId))
+                .get().extracting(ProductSales::getSoldQuantity).isEqualTo(0L);
+        assertThat(productRankingService.getSoldQuantities(List.of(productId))).containsEntry(productId, 0L);
+    }
+
+    @Test
+    void topProductsStopAtFirstUnsoldProduct() {
+        Integer bestSeller = testData.saveProduct("SP1", null).getProductId();
+        Integer runnerUp = testData.saveProduct("SP2", null).getProductId();
+        Integer unsold = testData.saveProduct("SP3", null).getProductId();
+        productSalesRepository.save(new ProductSales(bestSeller, 5L, null));
+        productSalesRepository.save(new ProductSales(runnerUp, 2L, null));
+        productSalesRepository.save(new ProductSales(unsold, 0L, null));
+        productRankingService.rebuild();
+
+        assertThat(productRankingService.getTopProductIds(10)).containsExactly(bestSeller, runnerUp);
+        assertThat(productRankingService.getTopProductIds(1)).containsExactly(bestSeller);
+    }
+
+    @Test
+    void replaysCountersChangedDuringRebuild() {
+        Integer productId = testData.saveProduct("SP1", null).getProductId();
+        productSalesRepository.save(new ProductSales(productId, 1L, null));
+
+        // Đơn hàng commit (và sự kiện được xử lý) ngay sau khi lần nạp lại đã đọc bộ đếm cũ
+        ProductSalesRepository salesDuringRebuild = mock(ProductSalesRepository.class,
+                AdditionalAnswers.delegatesTo(productSalesRepository));
+        ProductRankingServiceImpl service = new ProductRankingServiceImpl(salesDuringRebuild, productRepository,
+                transactionManager);
+        doAnswer(invocation -> {
+            List<ProductSales> stale = productSalesRepository.findAll();
+            TransactionTemplate orderTransaction = new TransactionTemplate(transactionManager);
+            orderTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            orderTransaction.executeWithoutResult(status -> productSalesRepository.upsertSoldQuantity(productId, 4));
+            service.onProductChanged(ProductChangedEvent.stockChanged(productId));
+            return stale;
+        }).when(salesDuringRebuild).findAll();
+
+        service.rebuild();
+
+        assertThat(service.getSoldQuantities(List.of(productId))).containsEntry(productId, 5L);
+        assertThat(service.getTopProductIds(1)).containsExactly(productId);
+    }
+}
@@ -0,0 +1,149 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+
+/**
+ * Chỉ mục tìm kiếm: bỏ dấu ở cả tài liệu lẫn từ khóa, xếp hạng theo trường/khớp chính xác,
+ * mọi từ khóa phải khớp và chỉ mục theo kịp thay đổi sản phẩm (kể cả thay đổi commit trong lúc xây dựng lại).
+ */
+class ProductSearchServiceImplTests {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private final ProductSearchServiceImpl productSearchService =
+            new ProductSearchServiceImpl(productRepository, mock(PlatformTransactionManager.class));
+
+    private final Brand ocean = brand(1, "Ocean");
+    private final Brand herbal = brand(2, "Đậu Đỏ Herbal");
+
+    @Test
+    void foldsVietnameseDiacriticsInDocumentsAndQueries() {
+        index(1, "Sữa Rửa Mặt Đậu Đỏ", "Làm sạch sâu", ocean, "120000");
+        index(2, "Son môi lì", "Màu đỏ cam", ocean, "250000");
+
+        assertThat(search("sua rua mat")).containsExactly(1);
+        assertThat(search("SỮA RỬA")).containsExactly(1);
+        // "đ" không phải dấu kết hợp nhưng vẫn được quy về "d"
+        assertThat(search("dau do")).containsExactly(1);
+        assertThat(search("son moi")).containsExactly(2);
+        assertThat(search("sôn mỏi")).containsExactly(2);
+        // Mọi từ khóa phải khớp
+        assertThat(search("son rua")).isEmpty();
+    }
+
+    @Test
+    void ranksByFieldWeightAndExactMatch() {
+        index(1, "Kem dưỡng ẩm", "Chiết xuất trà xanh", ocean, "300000");
+        index(2, "Trà xanh toner", "Cân bằng da", ocean, "150000");
+        index(3, "Serum phục hồi", "Không mùi", herbal, "450000");
+        index(4, "Mặt nạ ngủ", "Chiết xuất từ đậu đỏ", ocean, "90000");
+        index(5, "Mặt nạ đất sét", "Làm sạch", ocean, "95000");
+
+        // Tên (3.0) > mô tả (1.0)
+        assertThat(search("tra xanh")).containsExactly(2, 1);
+        // Tên thương hiệu (2.0) > mô tả (1.0)
+        assertThat(search("dau do")).containsExactly(3, 4);
+        // Từ cuối khớp theo tiền tố, khớp chính xác xếp trước
+        index(6, "Kem dưỡng da", "Dịu nhẹ", ocean, "200000");
+        index(7, "Kem dưỡng daily", "Dịu nhẹ", ocean, "210000");
+        assertThat(search("kem duong da")).containsExactly(6, 7);
+
+        // Sắp xếp theo giá thay cho điểm liên quan, bộ lọc áp dụng trên dữ liệu trong chỉ mục
+        assertThat(productSearchService.search("mat na", null, null, null, null, null,
+                Sort.by(Sort.Direction.DESC, "productPrice"))).containsExactly(5, 4);
+        assertThat(productSearchService.search("mat na", null, new BigDecimal("92000"), null, null, null,
+                Sort.unsorted())).containsExactly(4);
+    }
+
+    @Test
+    void followsProductUpdatesAndRemovals() {
+        index(1, "Sữa tắm hương hoa", "", ocean, "80000");
+        assertThat(search("hoa")).containsExactly(1);
+
+        index(1, "Sữa tắm bạc hà", "", ocean, "80000");
+        assertThat(search("hoa")).isEmpty();
+        assertThat(search("bac ha")).containsExactly(1);
+
+        productSearchService.removeProduct(1);
+        assertThat(search("sua tam")).isEmpty();
+    }
+
+    @Test
+    void skipsChangesOutsideIndexedFields() {
+        index(1, "Sữa tắm hương hoa", "", ocean, "80000");
+
+        productSearchService.onProductChanged(ProductChangedEvent.stockChanged(1));
+        productSearchService.onProductChanged(ProductChangedEvent.imagesChanged(Set.of(1)));
+        verify(productRepository, never()).findAllWithBrandByIdIn(any());
+
+        when(productRepository.findAllWithBrandByIdIn(Set.of(1)))
+                .thenReturn(List.of(product(1, "Sữa tắm bạc hà", "", ocean, "80000")));
+        productSearchService.onProductChanged(ProductChangedEvent.of(1));
+        assertThat(search("bac ha")).containsExactly(1);
+    }
+
+    @Test
+    void replaysChangesCommittedDuringRebuild() {
+        Product stale = product(1, "Serum phục hồi", "", ocean, "300000");
+        Product renamed = product(1, "Tinh chất phục hồi", "", ocean, "300000");
+        when(productRepository.findAllWithBrandByIdIn(Set.of(1))).thenReturn(List.of(renamed));
+        // Sản phẩm được đổi tên (và sự kiện được xử lý) sau khi lần rebuild đã đọc dữ liệu cũ
+        when(productRepository.findAllWithBrand()).thenAnswer(invocation -> {
+            productSearchService.onProductChanged(ProductChangedEvent.of(1));
+            return List.of(stale);
+        });
+
+        productSearchService.rebuildIndex();
+
+        assertThat(search("tinh chat")).containsExactly(1);
+        assertThat(search("serum")).isEmpty();
+    }
+
+    private List<Integer> search(String keyword) {
+        return productSearchService.search(keyword, null, null, null, null, null, Sort.unsorted());
+    }
+
+    private void index(int productId, String name, String description, Brand brand, String price) {
+        productSearchService.indexProduct(product(productId, name, description, brand, price));
+    }
+
+    private static Product product(int productId, String name, String description, Brand brand, String price) {
+        Product product = new Product();
+        product.setProductId(productId);
+        product.setProductCode("SP" + productId);
+        product.setProductName(name);
+        product.setProductDescription(description);
+        product.setProductPrice(new BigDecimal(price));
+        product.setProductStatus(ProductStatus.SELLING);
+        product.setProductCategory(ProductCategory.SKINCARE);
+        product.setBrand(brand);
+        return product;
+    }
+
+    private static Brand brand(int brandId, String name) {
+        Brand brand = new Brand();
+        brand.setBrandId(brandId);
+        brand.setBrandName(name);
+        return brand;
+    }
+}
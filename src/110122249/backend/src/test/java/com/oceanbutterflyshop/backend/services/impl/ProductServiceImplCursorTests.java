@@ -0,0 +1,141 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
+
+/**
+ * Phân trang bằng con trỏ cho sản phẩm: tên và giá trùng nhau được phân định bằng ID,
+ * đi hết các trang theo cả hai chiều không bị trùng hay sót; con trỏ bị sửa trả về 400.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:product-cursor;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(ProductServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceImplCursorTests {
+
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @BeforeEach
+    void setUp() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        // 23 sản phẩm, chỉ 3 tên và 5 mức giá khác nhau: ranh giới trang rơi vào giữa nhóm trùng khóa
+        String[] names = {"Kem", "Serum", "Toner"};
+        for (int i = 0; i < 23; i++) {
+            testData.saveProduct("SP" + i, names[i % names.length],
+                    BigDecimal.valueOf(100000L * (1 + i % 5)), TestDataFactory.DEFAULT_STOCK, ocean);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void walksEveryPageOverDuplicateSortKeysInBothDirections() {
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            assertThat(walk(Sort.by(direction, "productPrice")))
+                    .containsExactlyElementsOf(expectedIds(Product::getProductPrice, direction));
+            assertThat(walk(Sort.by(direction, "productName")))
+                    .containsExactlyElementsOf(expectedIds(Product::getProductName, direction));
+        }
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        Sort byPrice = Sort.by("productPrice");
+        Window<ProductResponse> firstPage = page(null, byPrice);
+        String cursor = CursorUtils.encode(firstPage);
+        assertThat(cursor).isNotNull();
+
+        List<String> tampered = List.of(
+                "!!!not-base64!!!",
+                encode("productPrice"),
+                encode("unknownField=1&productId=1"),
+                encode("productPrice=abc&productId=1"),
+                encode("productPrice=100000&productId=x"),
+                cursor.substring(0, cursor.length() - 1) + "*");
+        for (String value : tampered) {
+            assertThatThrownBy(() -> page(value, byPrice))
+                    .as(value)
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("Invalid cursor");
+        }
+
+        // Con trỏ tạo theo giá không dùng được khi sắp xếp theo tên
+        assertThatThrownBy(() -> page(cursor, Sort.by("productName")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor does not match the requested sort order");
+    }
+
+    private List<Integer> walk(Sort sort) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            Window<ProductResponse> window = page(cursor, sort);
+            assertThat(window.size()).isLessThanOrEqualTo(PAGE_SIZE);
+            window.forEach(product -> ids.add(product.getProductId()));
+            cursor = CursorUtils.encode(window);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Window<ProductResponse> page(String cursor, Sort sort) {
+        return productService.getAllProductsByCursor(cursor, PAGE_SIZE, sort, null, null, null, null, null);
+    }
+
+    private <T extends Comparable<T>> List<Integer> expectedIds(Function<Product, T> key, Sort.Direction direction) {
+        Comparator<Product> byKey = Comparator.comparing(key);
+        if (direction.isDescending()) {
+            byKey = byKey.reversed();
+        }
+        return productRepository.findAll().stream()
+                .sorted(byKey.thenComparing(Product::getProductId))
+                .map(Product::getProductId)
+                .toList();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,158 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductFacetsResponse;
+import com.oceanbutterflyshop.backend.dtos.response.ProductFacetsResponse.FacetCount;
+import com.oceanbutterflyshop.backend.dtos.response.ProductFacetsResponse.PriceRangeCount;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.enums.PriceRange;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Facet sản phẩm: một truy vấn GROUP BY (kể cả CASE ánh xạ giá sang khoảng giá, cận dưới bao gồm),
+ * cộng dồn đúng theo thương hiệu/loại/trạng thái; có từ khóa thì gom nhóm theo từng lô ID khớp.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:product-facets;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import(ProductServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceImplFacetsTests {
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private ProductSearchServiceImpl productSearchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void countsEveryFacetFromGroupedRows() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        Brand kem = testData.saveBrand("TH2", "Kem");
+        // Giá đúng bằng cận dưới thuộc khoảng phía trên
+        saveProduct("SP1", "99999.99", ocean, ProductCategory.SKINCARE, ProductStatus.SELLING);
+        saveProduct("SP2", "100000", ocean, ProductCategory.SKINCARE, ProductStatus.SELLING);
+        saveProduct("SP3", "299999.99", ocean, ProductCategory.MAKEUP, ProductStatus.DISCONTINUED);
+        saveProduct("SP4", "300000", kem, ProductCategory.MAKEUP, ProductStatus.SELLING);
+        saveProduct("SP5", "1000000", kem, ProductCategory.SKINCARE, ProductStatus.SELLING);
+        // Sản phẩm không có thương hiệu vẫn được đếm ở các facet khác
+        saveProduct("SP6", "1000000", null, ProductCategory.SKINCARE, ProductStatus.OUT_OF_STOCK);
+
+        ProductFacetsResponse facets = productService.getProductFacets(null, null, null, null, null, null);
+
+        assertThat(facets.getBrands())
+                .extracting(FacetCount::getValue, FacetCount::getLabel, FacetCount::getCount)
+                .containsExactly(
+                        tuple(String.valueOf(ocean.getBrandId()), "Ocean", 3L),
+                        tuple(String.valueOf(kem.getBrandId()), "Kem", 2L));
+        assertThat(counts(facets.getCategories())).containsOnly(
+                Map.entry("SKINCARE", 4L), Map.entry("MAKEUP", 2L));
+        assertThat(facets.getStatuses())
+                .extracting(FacetCount::getValue, FacetCount::getLabel, FacetCount::getCount)
+                .containsExactlyInAnyOrder(
+                        tuple("SELLING", "Đang bán", 4L),
+                        tuple("OUT_OF_STOCK", "Hết hàng", 1L),
+                        tuple("DISCONTINUED", "Ngừng kinh doanh", 1L));
+        assertThat(facets.getPriceRanges())
+                .extracting(PriceRangeCount::getValue, PriceRangeCount::getCount)
+                .containsExactly(
+                        tuple("UNDER_100K", 1L),
+                        tuple("FROM_100K_TO_300K", 2L),
+                        tuple("FROM_300K_TO_500K", 1L),
+                        tuple("FROM_500K_TO_1M", 0L),
+                        tuple("OVER_1M", 2L));
+
+        // Bộ lọc hiện tại thu hẹp mọi facet
+        ProductFacetsResponse filtered = productService.getProductFacets(null, null, null, ocean.getBrandId(),
+                ProductStatus.SELLING, null);
+        assertThat(filtered.getBrands()).extracting(FacetCount::getCount).containsExactly(2L);
+        assertThat(counts(filtered.getCategories())).containsOnly(Map.entry("SKINCARE", 2L));
+        assertThat(filtered.getPriceRanges()).extracting(PriceRangeCount::getCount)
+                .containsExactly(1L, 1L, 0L, 0L, 0L);
+    }
+
+    @Test
+    void keywordMatchingMoreThanOneIdBatchCountsEveryProduct() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        Brand kem = testData.saveBrand("TH2", "Kem");
+        PriceRange[] ranges = PriceRange.values();
+        String[] prices = {"50000", "150000", "350000", "750000", "1500000"};
+        int matching = 1_234;
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < matching; i++) {
+            Product serum = TestDataFactory.newProduct("SR" + i, "Serum " + i, new BigDecimal(prices[i % prices.length]),
+                    TestDataFactory.DEFAULT_STOCK, i % 3 == 0 ? kem : ocean);
+            serum.setProductCategory(i % 2 == 0 ? ProductCategory.SKINCARE : ProductCategory.MAKEUP);
+            products.add(serum);
+        }
+        // Không khớp từ khóa: không được đếm
+        for (int i = 0; i < 50; i++) {
+            products.add(TestDataFactory.newProduct("TN" + i, "Toner " + i, TestDataFactory.DEFAULT_PRICE,
+                    TestDataFactory.DEFAULT_STOCK, ocean));
+        }
+        productRepository.saveAll(products);
+        productSearchService.rebuildIndex();
+
+        ProductFacetsResponse facets = productService.getProductFacets("serum", null, null, null, null, null);
+
+        long kemCount = (matching + 2) / 3;
+        assertThat(facets.getBrands())
+                .extracting(FacetCount::getLabel, FacetCount::getCount)
+                .containsExactly(tuple("Ocean", matching - kemCount), tuple("Kem", kemCount));
+        assertThat(counts(facets.getCategories())).containsOnly(
+                Map.entry("SKINCARE", (long) (matching + 1) / 2), Map.entry("MAKEUP", (long) matching / 2));
+        assertThat(counts(facets.getStatuses())).containsOnly(Map.entry("SELLING", (long) matching));
+        for (int r = 0; r < ranges.length; r++) {
+            long expected = (matching - r + prices.length - 1) / prices.length;
+            assertThat(facets.getPriceRanges().get(r).getValue()).isEqualTo(ranges[r].name());
+            assertThat(facets.getPriceRanges().get(r).getCount()).isEqualTo(expected);
+        }
+    }
+
+    private void saveProduct(String code, String price, Brand brand, ProductCategory category, ProductStatus status) {
+        Product product = TestDataFactory.newProduct(code, code, new BigDecimal(price), TestDataFactory.DEFAULT_STOCK,
+                brand);
+        product.setProductCategory(category);
+        product.setProductStatus(status);
+        productRepository.save(product);
+    }
+
+    private static Map<String, Long> counts(List<FacetCount> facet) {
+        return facet.stream().collect(Collectors.toMap(FacetCount::getValue, FacetCount::getCount));
+    }
+}
@@ -0,0 +1,21 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+import com.oceanbutterflyshop.backend.config.CacheConfig;
+import com.oceanbutterflyshop.backend.config.WebConfig;
+import com.oceanbutterflyshop.backend.mappers.ProductListAssembler;
+import com.oceanbutterflyshop.backend.mappers.ProductMapper;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Các bean cần cho {@link ProductServiceImpl} trong test {@code @DataJpaTest}: tải danh sách theo lô,
+ * chỉ mục tìm kiếm, xếp hạng, đồng bộ thay đổi, tồn kho, cấp mã, cache chi tiết và dữ liệu mẫu.
+ */
+@TestConfiguration
+@Import({ProductServiceImpl.class, ProductMapper.class, ProductListAssembler.class, CodeAllocatorServiceImpl.class,
+        ProductSearchServiceImpl.class, ProductRankingServiceImpl.class, ProductSyncServiceImpl.class,
+        InventoryServiceImpl.class, CacheConfig.class, WebConfig.class, TestDataFactory.class})
+class ProductServiceTestConfiguration {
+}
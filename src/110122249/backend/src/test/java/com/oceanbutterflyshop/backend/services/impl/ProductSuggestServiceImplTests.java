@@ -0,0 +1,167 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.oceanbutterflyshop.backend.dtos.response.ProductSuggestionResponse;
+import com.oceanbutterflyshop.backend.dtos.response.ProductSuggestionResponse.SuggestionType;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.entities.ProductSales;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+import com.oceanbutterflyshop.backend.events.ProductChangedEvent;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductSalesRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Gợi ý tự động hoàn thành: tra cứu theo tiền tố của từng từ/mã, top-N theo độ phổ biến
+ * sau cập nhật, thay đổi commit trong lúc xây dựng lại không bị mất.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:product-suggest;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({ProductSuggestServiceImpl.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSuggestServiceImplTests {
+
+    @Autowired
+    private ProductSuggestServiceImpl productSuggestService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private ProductSalesRepository productSalesRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @AfterEach
+    void tearDown() {
+        productSalesRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void matchesPrefixOfEveryWordAndProductCode() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean Butterfly");
+        Product cleanser = saveProduct("SRM01", "Sữa Rửa Mặt Đậu Đỏ", ocean, 3);
+        saveProduct("SRM02", "Sữa rửa mặt cũ", ocean, ProductStatus.DISCONTINUED, 9);
+        productSuggestService.rebuild();
+
+        assertThat(productSuggestService.suggest("rửa m", 10))
+                .extracting(ProductSuggestionResponse::getId).containsExactly(cleanser.getProductId());
+        assertThat(productSuggestService.suggest("DAU DO", 10))
+                .extracting(ProductSuggestionResponse::getId).containsExactly(cleanser.getProductId());
+        assertThat(productSuggestService.suggest("srm", 10))
+                .extracting(ProductSuggestionResponse::getProductCode).containsExactly("SRM01");
+        assertThat(productSuggestService.suggest("butter", 10))
+                .extracting(ProductSuggestionResponse::getType, ProductSuggestionResponse::getId)
+                .containsExactly(tuple(SuggestionType.BRAND, ocean.getBrandId()));
+        assertThat(productSuggestService.suggest("mat na", 10)).isEmpty();
+        assertThat(productSuggestService.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void topSuggestionsFollowSalesAndProductUpdates() {
+        Brand ocean = testData.saveBrand("TH1", "Kem Ocean");
+        Product day = saveProduct("SP1", "Kem dưỡng ngày", ocean, 5);
+        Product night = saveProduct("SP2", "Kem dưỡng đêm", ocean, 3);
+        Product hand = saveProduct("SP3", "Kem tay", ocean, 1);
+        productSuggestService.rebuild();
+
+        // Thương hiệu lấy tổng số lượng đã bán của các sản phẩm thuộc nó
+        assertThat(productSuggestService.suggest("kem", 2))
+                .extracting(ProductSuggestionResponse::getType, ProductSuggestionResponse::getPopularity)
+                .containsExactly(tuple(SuggestionType.BRAND, 9L), tuple(SuggestionType.PRODUCT, 5L));
+
+        productSalesRepository.save(new ProductSales(hand.getProductId(), 20L, null));
+        productSuggestService.onProductChanged(ProductChangedEvent.of(hand.getProductId()));
+        assertThat(productSuggestService.suggest("kem", 2))
+                .extracting(ProductSuggestionResponse::getId, ProductSuggestionResponse::getPopularity)
+                .containsExactly(tuple(ocean.getBrandId(), 28L), tuple(hand.getProductId(), 20L));
+        assertThat(productSuggestService.suggest("kem duong", 10))
+                .extracting(ProductSuggestionResponse::getId)
+                .containsExactly(day.getProductId(), night.getProductId());
+
+        // Đổi tên: khóa cũ bị gỡ khỏi trie
+        night.setProductName("Sữa dưỡng đêm");
+        productRepository.save(night);
+        productSuggestService.onProductChanged(ProductChangedEvent.of(night.getProductId()));
+        assertThat(productSuggestService.suggest("kem duong", 10))
+                .extracting(ProductSuggestionResponse::getId).containsExactly(day.getProductId());
+        assertThat(productSuggestService.suggest("sua", 10))
+                .extracting(ProductSuggestionResponse::getId).containsExactly(night.getProductId());
+
+        // Xóa: sản phẩm biến mất khỏi gợi ý và độ phổ biến của thương hiệu giảm tương ứng
+        productSalesRepository.deleteById(hand.getProductId());
+        productRepository.delete(hand);
+        productSuggestService.onProductChanged(ProductChangedEvent.of(hand.getProductId()));
+        assertThat(productSuggestService.suggest("kem", 10))
+                .extracting(ProductSuggestionResponse::getId, ProductSuggestionResponse::getPopularity)
+                .containsExactly(tuple(ocean.getBrandId(), 8L), tuple(day.getProductId(), 5L));
+    }
+
+    @Test
+    void replaysChangesCommittedDuringRebuild() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        Product serum = saveProduct("SP1", "Serum phục hồi", ocean, 0);
+
+        // Thương hiệu được đọc sau sản phẩm: đổi tên sản phẩm đúng lúc dữ liệu sản phẩm của lần rebuild đã cũ
+        BrandRepository brandRepositoryDuringRebuild = mock(BrandRepository.class,
+                AdditionalAnswers.delegatesTo(brandRepository));
+        ProductSuggestServiceImpl service = new ProductSuggestServiceImpl(productRepository,
+                brandRepositoryDuringRebuild, productSalesRepository, transactionManager);
+        doAnswer(invocation -> {
+            TransactionTemplate concurrentTransaction = new TransactionTemplate(transactionManager);
+            concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            concurrentTransaction.executeWithoutResult(status -> {
+                Product renamed = productRepository.findById(serum.getProductId()).orElseThrow();
+                renamed.setProductName("Tinh chất phục hồi");
+                productRepository.save(renamed);
+            });
+            service.onProductChanged(ProductChangedEvent.of(serum.getProductId()));
+            return brandRepository.findAll();
+        }).when(brandRepositoryDuringRebuild).findAll();
+
+        service.rebuild();
+
+        assertThat(service.suggest("tinh chat", 10))
+                .extracting(ProductSuggestionResponse::getId).containsExactly(serum.getProductId());
+        assertThat(service.suggest("serum", 10)).isEmpty();
+    }
+
+    private Product saveProduct(String code, String name, Brand brand, long soldQuantity) {
+        return saveProduct(code, name, brand, ProductStatus.SELLING, soldQuantity);
+    }
+
+    private Product saveProduct(String code, String name, Brand brand, ProductStatus status, long soldQuantity) {
+        Product product = TestDataFactory.newProduct(code, name, TestDataFactory.DEFAULT_PRICE,
+                TestDataFactory.DEFAULT_STOCK, brand);
+        product.setProductStatus(status);
+        Product saved = productRepository.save(product);
+        productSalesRepository.save(new ProductSales(saved.getProductId(), soldQuantity, null));
+        return saved;
+    }
+}
@@ -0,0 +1,213 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbutterflyshop.backend.dtos.response.ProductTombstoneResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.entities.ProductTombstone;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductTombstoneRepository;
+import com.oceanbutterflyshop.backend.services.ProductSyncService.ChangeSet;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Đồng bộ thay đổi catalog: mốc trả về dùng lại được cho lần sau, mốc quá hạn lưu giữ tombstone
+ * buộc đồng bộ lại toàn bộ, sản phẩm bị xóa xuất hiện trong "deleted", đổi thương hiệu kéo theo sản phẩm.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-sync;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "sync.tombstone-retention-days=7"
+})
+@Import(ProductServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSyncServiceImplTests {
+
+    @Autowired
+    private ProductSyncServiceImpl productSyncService;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductTombstoneRepository productTombstoneRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @AfterEach
+    void tearDown() {
+        productTombstoneRepository.deleteAll();
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+    }
+
+    @Test
+    void nextTokenReturnsOnlyLaterChanges() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        Product serum = testData.saveProduct("SP1", ocean);
+        Product toner = testData.saveProduct("SP2", ocean);
+
+        ChangeSet first = productSyncService.getChanges(null);
+        assertThat(first.fullResync()).isTrue();
+        assertThat(first.changedProductIds()).containsExactly(serum.getProductId(), toner.getProductId());
+
+        // Dữ liệu trước mốc (vượt quá khoảng lùi OVERLAP) không được trả lại
+        ageEverything(LocalDateTime.now().minusHours(1));
+        ChangeSet second = productSyncService.getChanges(first.nextToken());
+        assertThat(second.fullResync()).isFalse();
+        assertThat(second.changedProductIds()).isEmpty();
+        assertThat(second.deleted()).isEmpty();
+
+        toner.setProductName("Toner mới");
+        productRepository.save(toner);
+        assertThat(productSyncService.getChanges(second.nextToken()).changedProductIds())
+                .containsExactly(toner.getProductId());
+
+        assertThatThrownBy(() -> productSyncService.getChanges("not-a-token"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> productSyncService.getChanges(token("v0:" + LocalDateTime.now())))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void tokenOlderThanTombstoneRetentionForcesFullResync() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        Product serum = testData.saveProduct("SP1", ocean);
+        Product toner = testData.saveProduct("SP2", ocean);
+        ageEverything(LocalDateTime.now().minusDays(10));
+
+        ChangeSet recent = productSyncService.getChanges(token(LocalDateTime.now().minusDays(6)));
+        assertThat(recent.fullResync()).isFalse();
+        assertThat(recent.changedProductIds()).isEmpty();
+
+        ChangeSet expired = productSyncService.getChanges(token(LocalDateTime.now().minusDays(8)));
+        assertThat(expired.fullResync()).isTrue();
+        assertThat(expired.changedProductIds()).containsExactly(serum.getProductId(), toner.getProductId());
+        assertThat(expired.deleted()).isEmpty();
+    }
+
+    @Test
+    void deletedProductsAreReportedAsTombstones() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        Product serum = testData.saveProduct("SP1", ocean);
+        Product toner = testData.saveProduct("SP2", ocean);
+        productTombstoneRepository.save(new ProductTombstone(null, 999, "SP999", LocalDateTime.now().minusDays(2)));
+        ageEverything(LocalDateTime.now().minusHours(1));
+        String token = token(LocalDateTime.now().minusMinutes(30));
+
+        productService.deleteProduct(serum.getProductId());
+
+        ChangeSet changes = productSyncService.getChanges(token);
+        assertThat(changes.changedProductIds()).isEmpty();
+        assertThat(changes.deleted())
+                .extracting(ProductTombstoneResponse::getProductId, ProductTombstoneResponse::getProductCode)
+                .containsExactly(tuple(serum.getProductId(), "SP1"));
+
+        // Đồng bộ toàn bộ không kèm tombstone: client thay thế bản sao cục bộ
+        ChangeSet full = productSyncService.getChanges(null);
+        assertThat(full.changedProductIds()).containsExactly(toner.getProductId());
+        assertThat(full.deleted()).isEmpty();
+    }
+
+    @Test
+    void brandChangeMarksItsProductsAsChanged() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        Brand kem = testData.saveBrand("TH2", "Kem");
+        Product serum = testData.saveProduct("SP1", ocean);
+        Product toner = testData.saveProduct("SP2", ocean);
+        testData.saveProduct("SP3", kem);
+        ageEverything(LocalDateTime.now().minusHours(1));
+        String token = token(LocalDateTime.now().minusMinutes(30));
+
+        ocean.setBrandName("Ocean Butterfly");
+        brandRepository.save(ocean);
+
+        assertThat(productSyncService.getChanges(token).changedProductIds())
+                .containsExactly(serum.getProductId(), toner.getProductId());
+    }
+
+    @Test
+    void writesChangeSetInBatchesWithApiResponseEnvelope() throws IOException {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        List<Product> products = new ArrayList<>();
+        // Nhiều hơn một lô (BATCH_SIZE = 200)
+        for (int i = 0; i < 230; i++) {
+            products.add(TestDataFactory.newProduct("SP" + i, "Serum " + i, TestDataFactory.DEFAULT_PRICE,
+                    TestDataFactory.DEFAULT_STOCK, ocean));
+        }
+        List<Integer> ids = productRepository.saveAll(products).stream().map(Product::getProductId).sorted().toList();
+        ProductTombstoneResponse tombstone = ProductTombstoneResponse.builder()
+                .productId(999)
+                .productCode("SP999")
+                .deletedAt(LocalDateTime.now())
+                .build();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        productSyncService.writeChanges(new ChangeSet("next", false, ids, List.of(tombstone)), output);
+
+        JsonNode body = objectMapper.readTree(output.toByteArray());
+        assertThat(body.get("status").asInt()).isEqualTo(200);
+        JsonNode data = body.get("data");
+        assertThat(data.get("nextToken").asText()).isEqualTo("next");
+        assertThat(data.get("fullResync").asBoolean()).isFalse();
+        assertThat(data.get("deleted")).hasSize(1);
+        assertThat(data.get("deleted").get(0).get("productCode").asText()).isEqualTo("SP999");
+
+        List<Integer> upserted = new ArrayList<>();
+        data.get("upserted").forEach(product -> upserted.add(product.get("productId").asInt()));
+        assertThat(upserted).containsExactlyElementsOf(ids);
+        assertThat(data.get("upserted").get(0).get("brandName").asText()).isEqualTo("Ocean");
+    }
+
+    /**
+     * Lùi updatedAt của sản phẩm và thương hiệu về quá khứ (@UpdateTimestamp luôn gán thời điểm hiện tại)
+     */
+    private void ageEverything(LocalDateTime time) {
+        jdbcTemplate.update("UPDATE products SET updated_at = ?", time);
+        jdbcTemplate.update("UPDATE brands SET updated_at = ?", time);
+    }
+
+    private static String token(LocalDateTime time) {
+        return token("v1:" + time);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,183 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.config.CacheConfig;
+import com.oceanbutterflyshop.backend.dtos.response.SalesSeriesResponse;
+import com.oceanbutterflyshop.backend.dtos.response.SalesTimeSeriesResponse;
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.DailySalesRollup;
+import com.oceanbutterflyshop.backend.entities.Order;
+import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.enums.OrderStatus;
+import com.oceanbutterflyshop.backend.enums.PaymentMethod;
+import com.oceanbutterflyshop.backend.enums.SalesGroupBy;
+import com.oceanbutterflyshop.backend.enums.TimeBucket;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.DailySalesRollupRepository;
+import com.oceanbutterflyshop.backend.repositories.OrderRepository;
+import com.oceanbutterflyshop.backend.repositories.RoleRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+
+/**
+ * Doanh số theo thời gian: gộp theo ngày/tuần/tháng, điền 0 cho khoảng trống và cache theo tham số.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sales-timeseries;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "dashboard.timeseries.max-buckets=60"
+})
+@Import({SalesTimeSeriesServiceImpl.class, CacheConfig.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesTimeSeriesServiceImplTests {
+
+    // Thứ Hai 2/3 đến Chủ nhật 22/3: ba tuần trọn vẹn
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 2);
+    private static final LocalDate TO = LocalDate.of(2026, 3, 22);
+
+    @Autowired
+    private SalesTimeSeriesServiceImpl salesTimeSeriesService;
+
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @AfterEach
+    void tearDown() {
+        dailySalesRollupRepository.deleteAll();
+        orderRepository.deleteAll();
+        brandRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void bucketsRollupRowsAndFillsGapsWithZero() {
+        Brand ocean = testData.saveBrand("TH1", "Ocean");
+        saveOrderTotal(LocalDate.of(2026, 3, 3), OrderStatus.DELIVERED, 2, "200000");
+        saveOrderTotal(LocalDate.of(2026, 3, 8), OrderStatus.DELIVERED, 1, "50000");
+        saveOrderTotal(LocalDate.of(2026, 3, 18), OrderStatus.CANCELLED, 1, "70000");
+        saveItem(LocalDate.of(2026, 3, 3), OrderStatus.DELIVERED, 1, ocean.getBrandId(), "SKINCARE", "200000");
+        saveItem(LocalDate.of(2026, 3, 8), OrderStatus.DELIVERED, 2, DailySalesRollup.NO_BRAND_ID, "MAKEUP", "50000");
+        saveItem(LocalDate.of(2026, 3, 18), OrderStatus.CANCELLED, 1, ocean.getBrandId(), "SKINCARE", "70000");
+
+        SalesTimeSeriesResponse byStatus = salesTimeSeriesService.getTimeSeries(FROM, TO, TimeBucket.WEEK,
+                SalesGroupBy.STATUS);
+        assertThat(byStatus.getBucketStarts()).containsExactly(FROM, FROM.plusWeeks(1), FROM.plusWeeks(2));
+        Map<String, SalesSeriesResponse> statuses = byKey(byStatus);
+        assertThat(statuses).containsOnlyKeys("NEW", "PROCESSING", "SHIPPING", "DELIVERED", "CANCELLED");
+        assertThat(statuses.get("DELIVERED").getOrders()).containsExactly(3L, 0L, 0L);
+        assertThat(statuses.get("DELIVERED").getLabel()).isEqualTo("Đã giao");
+        assertThat(statuses.get("CANCELLED").getOrders()).containsExactly(0L, 0L, 1L);
+        assertThat(statuses.get("NEW").getRevenue()).allMatch(amount -> amount.signum() == 0);
+
+        // Tháng chứa from: ngày đầu khoảng là ngày 1, đơn đã hủy không được tính
+        SalesTimeSeriesResponse total = salesTimeSeriesService.getTimeSeries(FROM, TO, TimeBucket.MONTH,
+                SalesGroupBy.NONE);
+        assertThat(total.getBucketStarts()).containsExactly(LocalDate.of(2026, 3, 1));
+        assertThat(total.getSeries().get(0).getOrders()).containsExactly(3L);
+        assertThat(total.getSeries().get(0).getRevenue().get(0)).isEqualByComparingTo("250000");
+
+        Map<String, SalesSeriesResponse> brands = byKey(salesTimeSeriesService.getTimeSeries(FROM, TO,
+                TimeBucket.WEEK, SalesGroupBy.BRAND));
+        assertThat(brands.get(String.valueOf(ocean.getBrandId())).getLabel()).isEqualTo("Ocean");
+        assertThat(brands.get(String.valueOf(ocean.getBrandId())).getOrders()).containsExactly(1L, 0L, 0L);
+        assertThat(brands.get("0").getRevenue().get(0)).isEqualByComparingTo("50000");
+
+        Map<String, SalesSeriesResponse> categories = byKey(salesTimeSeriesService.getTimeSeries(FROM, TO,
+                TimeBucket.DAY, SalesGroupBy.CATEGORY));
+        assertThat(categories).containsOnlyKeys("MAKEUP", "SKINCARE", "HAIRCARE");
+        assertThat(categories.get("SKINCARE").getOrders()).hasSize(21).containsOnly(0L, 1L);
+    }
+
+    @Test
+    void groupsOrdersByPaymentMethodAndCachesPerRange() {
+        User buyer = testData.saveUser("KH1", "buyer", testData.saveRole("CUS"));
+        saveOrder("DH00000001", LocalDate.of(2026, 3, 3), PaymentMethod.CASH, OrderStatus.DELIVERED, "100000", buyer);
+        saveOrder("DH00000002", LocalDate.of(2026, 3, 10), PaymentMethod.CARD, OrderStatus.NEW, "40000", buyer);
+        saveOrder("DH00000003", LocalDate.of(2026, 3, 11), null, OrderStatus.NEW, "30000", buyer);
+        saveOrder("DH00000004", LocalDate.of(2026, 3, 11), PaymentMethod.CARD, OrderStatus.CANCELLED, "90000", buyer);
+
+        SalesTimeSeriesResponse byPayment = salesTimeSeriesService.getTimeSeries(FROM, TO, TimeBucket.WEEK,
+                SalesGroupBy.PAYMENT_METHOD);
+        Map<String, SalesSeriesResponse> methods = byKey(byPayment);
+        assertThat(methods).containsOnlyKeys("CASH", "BANK_TRANSFER", "CARD", "NONE");
+        assertThat(methods.get("CASH").getOrders()).containsExactly(1L, 0L, 0L);
+        assertThat(methods.get("CARD").getOrders()).containsExactly(0L, 1L, 0L);
+        assertThat(methods.get("CARD").getRevenue().get(1)).isEqualByComparingTo("40000");
+        assertThat(methods.get("NONE").getOrders()).containsExactly(0L, 1L, 0L);
+
+        // Cùng tham số: dùng lại kết quả trong TTL; tham số khác được tính riêng
+        saveOrder("DH00000005", LocalDate.of(2026, 3, 12), PaymentMethod.CASH, OrderStatus.NEW, "10000", buyer);
+        assertThat(salesTimeSeriesService.getTimeSeries(FROM, TO, TimeBucket.WEEK, SalesGroupBy.PAYMENT_METHOD))
+                .isSameAs(byPayment);
+        assertThat(byKey(salesTimeSeriesService.getTimeSeries(FROM, TO.minusDays(1), TimeBucket.WEEK,
+                SalesGroupBy.PAYMENT_METHOD)).get("CASH").getOrders()).containsExactly(1L, 1L, 0L);
+
+        assertThatThrownBy(() -> salesTimeSeriesService.getTimeSeries(TO, FROM, TimeBucket.DAY, SalesGroupBy.NONE))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> salesTimeSeriesService.getTimeSeries(FROM, FROM.plusDays(60), TimeBucket.DAY,
+                SalesGroupBy.NONE))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static Map<String, SalesSeriesResponse> byKey(SalesTimeSeriesResponse timeSeries) {
+        return timeSeries.getSeries().stream()
+                .collect(Collectors.toMap(SalesSeriesResponse::getKey, series -> series));
+    }
+
+    private void saveOrderTotal(LocalDate date, OrderStatus status, long orderCount, String amount) {
+        dailySalesRollupRepository.save(new DailySalesRollup(null, date, status,
+                DailySalesRollup.ORDER_TOTAL_PRODUCT_ID, DailySalesRollup.ORDER_TOTAL_BRAND_ID,
+                DailySalesRollup.ORDER_TOTAL_CATEGORY, orderCount, 0L, new BigDecimal(amount), null));
+    }
+
+    private void saveItem(LocalDate date, OrderStatus status, int productId, int brandId, String category,
+                          String amount) {
+        dailySalesRollupRepository.save(new DailySalesRollup(null, date, status, productId, brandId, category,
+                1L, 1L, new BigDecimal(amount), null));
+    }
+
+    private void saveOrder(String code, LocalDate orderDate, PaymentMethod paymentMethod, OrderStatus status,
+                           String amount, User buyer) {
+        Order order = new Order();
+        order.setOrderCode(code);
+        order.setOrderDate(orderDate);
+        order.setPaymentMethod(paymentMethod);
+        order.setOrderStatus(status);
+        order.setOrderAmount(new BigDecimal(amount));
+        order.setShippingAddress("Trà Vinh");
+        order.setShippingPhone("0900000000");
+        order.setUser(buyer);
+        orderRepository.save(order);
+    }
+}
@@ -0,0 +1,132 @@
+package com.oceanbutterflyshop.backend.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.oceanbutterflyshop.backend.dtos.response.UserResponse;
+import com.oceanbutterflyshop.backend.entities.Role;
+import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.exceptions.BadRequestException;
+import com.oceanbutterflyshop.backend.mappers.UserMapper;
+import com.oceanbutterflyshop.backend.repositories.RoleRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+import com.oceanbutterflyshop.backend.support.TestDataFactory;
+import com.oceanbutterflyshop.backend.utils.CursorUtils;
+
+/**
+ * Phân trang bằng con trỏ cho người dùng: tên trùng nhau được phân định bằng ID,
+ * đi hết các trang theo cả hai chiều (kể cả khi lọc theo vai trò) không bị trùng hay sót.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:user-cursor;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000")
+@Import({UserServiceImpl.class, UserMapper.class, CodeAllocatorServiceImpl.class, TestDataFactory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserServiceImplCursorTests {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestDataFactory testData;
+
+    @BeforeEach
+    void setUp() {
+        Role customer = testData.saveRole("CUS");
+        Role staff = testData.saveRole("STF");
+        // 17 người dùng chỉ có 3 tên hiển thị khác nhau
+        String[] names = {"An", "Binh", "Chi"};
+        for (int i = 0; i < 17; i++) {
+            User user = testData.saveUser("KH" + i, "user" + i, i % 4 == 0 ? staff : customer);
+            user.setUserName(names[i % names.length]);
+            userRepository.save(user);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void walksEveryPageOverDuplicateNamesInBothDirections() {
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            Sort sort = Sort.by(direction, "userName");
+            assertThat(walk(null, sort)).containsExactlyElementsOf(expectedIds(user -> true, direction));
+            assertThat(walk("CUS", sort)).containsExactlyElementsOf(
+                    expectedIds(user -> "CUS".equals(user.getRole().getRoleName()), direction));
+        }
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        String cursor = CursorUtils.encode(page(null, Sort.by("userName")));
+        assertThat(cursor).isNotNull();
+
+        for (String value : List.of("%%%", encode("unknownField=x&userId=1"), encode("userName=An&userId=one"))) {
+            assertThatThrownBy(() -> page(value, Sort.by("userName")))
+                    .as(value)
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("Invalid cursor");
+        }
+        assertThatThrownBy(() -> page(cursor, Sort.by("userAccount")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Cursor does not match the requested sort order");
+    }
+
+    private List<Integer> walk(String roleName, Sort sort) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            Window<UserResponse> window = userService.getAllUsersByCursor(null, roleName, cursor, PAGE_SIZE, sort);
+            window.forEach(user -> ids.add(user.getUserId()));
+            cursor = CursorUtils.encode(window);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Window<UserResponse> page(String cursor, Sort sort) {
+        return userService.getAllUsersByCursor(null, null, cursor, PAGE_SIZE, sort);
+    }
+
+    private List<Integer> expectedIds(Predicate<User> filter, Sort.Direction direction) {
+        Comparator<User> byName = Comparator.comparing(User::getUserName);
+        if (direction.isDescending()) {
+            byName = byName.reversed();
+        }
+        return userRepository.findAll().stream()
+                .filter(filter)
+                .sorted(byName.thenComparing(User::getUserId))
+                .map(User::getUserId)
+                .toList();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
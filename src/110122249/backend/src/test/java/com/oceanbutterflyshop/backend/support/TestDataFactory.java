@@ -0,0 +1,93 @@
+package com.oceanbutterflyshop.backend.support;
+
+import java.math.BigDecimal;
+
+import org.springframework.boot.test.context.TestComponent;
+
+import com.oceanbutterflyshop.backend.entities.Brand;
+import com.oceanbutterflyshop.backend.entities.Product;
+import com.oceanbutterflyshop.backend.entities.Role;
+import com.oceanbutterflyshop.backend.entities.User;
+import com.oceanbutterflyshop.backend.enums.ProductCategory;
+import com.oceanbutterflyshop.backend.enums.ProductStatus;
+import com.oceanbutterflyshop.backend.repositories.BrandRepository;
+import com.oceanbutterflyshop.backend.repositories.ProductRepository;
+import com.oceanbutterflyshop.backend.repositories.RoleRepository;
+import com.oceanbutterflyshop.backend.repositories.UserRepository;
+
+/**
+ * Tạo dữ liệu mẫu (vai trò, người dùng, thương hiệu, sản phẩm) cho các test dùng DB thật.
+ * Thêm vào {@code @Import} của test; giá trị không được truyền vào là giá trị hợp lệ mặc định.
+ */
+@TestComponent
+public class TestDataFactory {
+
+    public static final BigDecimal DEFAULT_PRICE = BigDecimal.valueOf(100000);
+    public static final int DEFAULT_STOCK = 10;
+
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final BrandRepository brandRepository;
+    private final ProductRepository productRepository;
+
+    public TestDataFactory(RoleRepository roleRepository, UserRepository userRepository,
+                           BrandRepository brandRepository, ProductRepository productRepository) {
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.brandRepository = brandRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Vai trò có tên trùng mã (ADM/STF/CUS)
+     */
+    public Role saveRole(String roleCode) {
+        Role role = new Role();
+        role.setRoleCode(roleCode);
+        role.setRoleName(roleCode);
+        return roleRepository.save(role);
+    }
+
+    /**
+     * Người dùng có tên hiển thị trùng tài khoản; role có thể null
+     */
+    public User saveUser(String userCode, String account, Role role) {
+        User user = new User();
+        user.setUserCode(userCode);
+        user.setUserName(account);
+        user.setUserAccount(account);
+        user.setUserPassword("secret");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    public Brand saveBrand(String code, String name) {
+        Brand brand = new Brand();
+        brand.setBrandCode(code);
+        brand.setBrandName(name);
+        return brandRepository.save(brand);
+    }
+
+    public Product saveProduct(String code, String name, BigDecimal price, int stock, Brand brand) {
+        return productRepository.save(newProduct(code, name, price, stock, brand));
+    }
+
+    public Product saveProduct(String code, Brand brand) {
+        return saveProduct(code, code, DEFAULT_PRICE, DEFAULT_STOCK, brand);
+    }
+
+    /**
+     * Sản phẩm đang bán thuộc nhóm SKINCARE, chưa lưu: dùng khi test cần đổi thêm trạng thái/nhóm trước khi lưu
+     */
+    public static Product newProduct(String code, String name, BigDecimal price, int stock, Brand brand) {
+        Product product = new Product();
+        product.setProductCode(code);
+        product.setProductName(name);
+        product.setProductPrice(price);
+        product.setQuantityStock(stock);
+        product.setProductStatus(ProductStatus.SELLING);
+        product.setProductCategory(ProductCategory.SKINCARE);
+        product.setBrand(brand);
+        return product;
+    }
+}
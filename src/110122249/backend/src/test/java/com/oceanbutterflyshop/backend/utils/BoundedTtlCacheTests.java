@@ -0,0 +1,85 @@
+package com.oceanbutterflyshop.backend.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cache giới hạn: phần tử hết hạn bị coi như không tồn tại, vượt dung lượng thì loại phần tử LRU,
+ * giá trị tải về trong lúc có lệnh vô hiệu hóa không được lưu.
+ */
+class BoundedTtlCacheTests {
+
+    private static final Duration LONG_TTL = Duration.ofHours(1);
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        // TTL bằng 0: phần tử hết hạn ngay sau khi được lưu
+        BoundedTtlCache<Integer, String> expiring = new BoundedTtlCache<>("expiring", 100, Duration.ZERO, v -> 1);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(expiring.getOrLoad(1, key -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(expiring.get(1)).isNull();
+        assertThat(expiring.getOrLoad(1, key -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+        assertThat(expiring.stats().expirations()).isEqualTo(1);
+
+        BoundedTtlCache<Integer, String> live = new BoundedTtlCache<>("live", 100, LONG_TTL, v -> 1);
+        live.getOrLoad(1, key -> "v" + loads.incrementAndGet());
+        assertThat(live.getOrLoad(1, key -> "v" + loads.incrementAndGet())).isEqualTo("v3");
+        assertThat(live.stats().hits()).isEqualTo(1);
+        assertThat(live.stats().expirations()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesByWeight() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("weighted", 10, LONG_TTL, String::length);
+
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        // Truy cập "a" để "b" trở thành phần tử ít được dùng gần đây nhất
+        assertThat(cache.get("a")).isEqualTo("aaaa");
+        cache.put("c", "cccc");
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("aaaa");
+        assertThat(cache.get("c")).isEqualTo("cccc");
+        assertThat(cache.stats().weight()).isEqualTo(8);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+
+        // Thay thế giá trị tính lại trọng số, phần tử lớn hơn toàn bộ cache không được lưu
+        cache.put("a", "aa");
+        assertThat(cache.stats().weight()).isEqualTo(6);
+        cache.put("big", "x".repeat(11));
+        assertThat(cache.get("big")).isNull();
+        assertThat(cache.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidationDuringLoadDiscardsLoadedValue() {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>("epoch", 100, LONG_TTL, v -> 1);
+
+        // Dữ liệu bị sửa (và cache bị vô hiệu hóa) trong lúc đang đọc giá trị cũ từ DB
+        String stale = cache.getOrLoad(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+        assertThat(stale).isEqualTo("stale");
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.getOrLoad(1, key -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.get(1)).isEqualTo("fresh");
+
+        cache.put(2, "even");
+        cache.put(3, "odd");
+        cache.invalidateIf("even"::equals);
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isEqualTo("odd");
+
+        cache.invalidateAll();
+        assertThat(cache.stats().size()).isZero();
+        assertThat(cache.stats().weight()).isZero();
+        assertThat(cache.stats().invalidations()).isEqualTo(3);
+    }
+}